@@ -293,6 +293,12 @@ CREATE TABLE IF NOT EXISTS order_status_history (
     changed_at TIMESTAMP NOT NULL DEFAULT NOW()
 );
 
+-- Id sequences of the order write path (pooled, INCREMENT BY = allocationSize of the entities)
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_status_history_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS stock_reservations_seq INCREMENT BY 50;
+
 -- Table: payments
 CREATE TABLE IF NOT EXISTS payments (
     id BIGSERIAL PRIMARY KEY,
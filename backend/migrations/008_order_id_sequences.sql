@@ -0,0 +1,29 @@
+-- Migration Script: Sequences for order ids
+-- Date: 2026-10-17
+-- Description: orders, order_items, order_status_history and stock_reservations switch from IDENTITY
+--              (BIGSERIAL) to pooled sequences (allocationSize = 50) so Hibernate can batch their INSERTs.
+--              Must run BEFORE starting the new backend on an existing database: otherwise Hibernate
+--              (ddl-auto=update) creates the sequences starting at 1 and inserts collide with existing ids.
+
+-- Create sequences (same increment as @SequenceGenerator allocationSize)
+CREATE SEQUENCE IF NOT EXISTS orders_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_status_history_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS stock_reservations_seq INCREMENT BY 50;
+
+-- Move sequences past the ids already in use
+-- Pooled optimizer: nextval() = v hands out ids (v - 49) .. v, so v must be >= MAX(id) + 50
+SELECT setval('orders_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM orders));
+SELECT setval('order_items_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_items));
+SELECT setval('order_status_history_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM order_status_history));
+
+-- stock_reservations only exists if a backend with stock reservations has already started
+DO $$
+BEGIN
+    IF to_regclass('stock_reservations') IS NOT NULL THEN
+        PERFORM setval('stock_reservations_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM stock_reservations));
+    END IF;
+END $$;
+
+-- Verify changes
+SELECT 'Migration completed successfully. Order id sequences created.' AS status;
@@ -1,79 +1,188 @@
 package com.utephonehub.backend.config;
 
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import org.springframework.cache.CacheManager;
+import com.utephonehub.backend.config.cache.CacheInvalidationPublisher;
+import com.utephonehub.backend.config.cache.CacheMetrics;
+import com.utephonehub.backend.config.cache.CacheRefresher;
+import com.utephonehub.backend.config.cache.CacheSerializers;
+import com.utephonehub.backend.config.cache.MeasuringRedisSerializer;
+import com.utephonehub.backend.config.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Redis Cache Configuration
  * 
  * Cache TTL Strategy:
- * - Featured/BestSelling products: 15 minutes (homepage sections)
- * - New Arrivals: 10 minutes (changes more frequently)
- * - Products On Sale: 5 minutes (flash sale needs fresh data)
- * - Chatbot recommendations: 30 minutes (less critical)
+ * Product caches are evicted on change by ProductCacheInvalidator (product, template, stock,
+ * review, sold count, promotion events), so their TTL is only a safety net:
+ * - Homepage sections (featured/best selling/new arrivals) and chatbot recommendations: 6 hours
+ * - Products On Sale: 2 hours (promotion activation/expiry also publishes events)
+ * - Product facets and chatbot filter/category/related lists: 1 hour
+ *
+ * Two-level: mỗi cache Redis (L2) có near-cache Caffeine (L1) trên heap của từng node,
+ * TTL của L1 suy ra từ bảng TTL trên (xem {@link TwoLevelCacheManager#localTtl(String)}),
+ * invalidation giữa các node qua Redis pub/sub
+ *
+ * Values are written with the codec selected by cache.codec (Smile + Deflate by default,
+ * see {@link CacheSerializers}); entries written as JSON are still readable
+ *
+ * Stampede protection (methods annotated @Cacheable(sync = true)):
+ * - miss: single-flight per key on each node
+ * - entries older than ttl * cache.refresh-ahead-ratio are refreshed in the background while the
+ *   current value keeps being served; a Redis lock lets only one node refresh a given key
  */
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(30);
+
+    @Value("${cache.codec:smile}")
+    private String cacheCodec;
+
+    @Value("${cache.compression-threshold:2048}")
+    private int compressionThreshold;
+
+    @Value("${cache.refresh-ahead-ratio:0.8}")
+    private double refreshAheadRatio;
+
+    @Value("${cache.refresh-lock-ttl:30s}")
+    private Duration refreshLockTtl;
+
+    @Value("${cache.local.enabled:true}")
+    private boolean localCacheEnabled;
+
+    @Value("${cache.local.maximum-weight:10000}")
+    private long localCacheMaximumWeight;
+
+    @Value("${cache.local.ttl-ratio:0.5}")
+    private double localCacheTtlRatio;
+
+    @Value("${cache.local.max-ttl:5m}")
+    private Duration localCacheMaxTtl;
+
+    @Value("${cache.local.invalidation-channel:cache:invalidation}")
+    private String invalidationChannel;
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
-        // Configure ObjectMapper for Redis serialization
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
-        objectMapper.activateDefaultTyping(
-                BasicPolymorphicTypeValidator.builder()
-                        .allowIfBaseType(Object.class)
-                        .build(),
-                ObjectMapper.DefaultTyping.NON_FINAL,
-                JsonTypeInfo.As.PROPERTY
-        );
-
-        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             PlatformTransactionManager transactionManager,
+                                             @Qualifier("cacheRefreshExecutor") ThreadPoolTaskExecutor cacheRefreshExecutor,
+                                             MeterRegistry meterRegistry) {
+        RedisSerializer<Object> serializer = CacheSerializers.forCodec(cacheCodec, compressionThreshold);
 
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(30)) // Default TTL: 30 minutes
+                .entryTtl(DEFAULT_TTL) // Default TTL: 30 minutes
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer))
                 .disableCachingNullValues();
 
-        // Custom TTL for specific caches
+        Map<String, Duration> cacheTtls = cacheTtls();
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        // Mỗi cache có serializer riêng để đo kích thước value (cache.entry.size)
+        cacheTtls.forEach((name, ttl) -> cacheConfigurations.put(name, defaultConfig
+                .entryTtl(ttl)
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(
+                        new MeasuringRedisSerializer(serializer, CacheMetrics.entrySize(meterRegistry, name))))));
+
+        // Transaction-aware ở tầng ngoài cùng (bọc cả L1 và L2)
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(defaultConfig)
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .build();
+        redisCacheManager.afterPropertiesSet();
+
+        String nodeId = UUID.randomUUID().toString();
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        CacheInvalidationPublisher publisher = new CacheInvalidationPublisher(
+                stringRedisTemplate, invalidationChannel, nodeId);
+
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        CacheRefresher refresher = new CacheRefresher(
+                cacheRefreshExecutor, readOnlyTransaction, stringRedisTemplate, nodeId, refreshLockTtl);
+
+        return new TwoLevelCacheManager(redisCacheManager, publisher, refresher, cacheTtls, DEFAULT_TTL,
+                new TwoLevelCacheManager.LocalCacheSettings(localCacheEnabled, localCacheMaximumWeight,
+                        localCacheTtlRatio, localCacheMaxTtl, refreshAheadRatio, true),
+                meterRegistry);
+    }
+
+    /**
+     * Background refresh-ahead của cache (pool nhỏ, đầy thì bỏ qua và tiếp tục trả giá trị cũ)
+     */
+    @Bean(name = "cacheRefreshExecutor")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(20);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Subscribe kênh invalidation để xóa L1 khi node khác put/evict
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(invalidationChannel));
+        return container;
+    }
+
+    /**
+     * Custom TTL for specific caches (L2), L1 TTL is derived from these
+     */
+    private Map<String, Duration> cacheTtls() {
+        Map<String, Duration> ttls = new LinkedHashMap<>();
         
         // ProductView caches (Homepage sections)
-        cacheConfigurations.put("newArrivals", defaultConfig.entryTtl(Duration.ofMinutes(10)));
-        cacheConfigurations.put("featuredProducts", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        cacheConfigurations.put("bestSellingProducts", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-        cacheConfigurations.put("productsOnSale", defaultConfig.entryTtl(Duration.ofMinutes(5)));
+        ttls.put("newArrivals", Duration.ofHours(6));
+        ttls.put("featuredProducts", Duration.ofHours(6));
+        ttls.put("bestSellingProducts", Duration.ofHours(6));
+        ttls.put("productsOnSale", Duration.ofHours(2));
+        
+        // Filter sidebar facet counts (per filter signature)
+        ttls.put("productFacets", Duration.ofHours(1));
         
         // Chatbot caches
-        cacheConfigurations.put("chatbotFeaturedProducts", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigurations.put("chatbotBestSellingProducts", defaultConfig.entryTtl(Duration.ofMinutes(30)));
-        cacheConfigurations.put("chatbotNewArrivals", defaultConfig.entryTtl(Duration.ofMinutes(30)));
+        ttls.put("chatbotFeaturedProducts", Duration.ofHours(6));
+        ttls.put("chatbotBestSellingProducts", Duration.ofHours(6));
+        ttls.put("chatbotNewArrivals", Duration.ofHours(6));
+        // Chatbot filter/category/related lists (per query)
+        ttls.put("chatbotProducts", Duration.ofHours(1));
         
         // Promotion caches
-        cacheConfigurations.put("promotions", defaultConfig.entryTtl(Duration.ofMinutes(15)));
-
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .transactionAware()
-                .build();
+        ttls.put("promotions", Duration.ofMinutes(15));
+        
+        // Cart (per user, default TTL)
+        ttls.put("cart", DEFAULT_TTL);
+        return ttls;
     }
 }
@@ -60,6 +60,12 @@ public class SecurityConfig {
                                 "/webjars/**",
                                 "/favicon.ico")
                         .permitAll()
+                        // Actuator probes (liveness/readiness cho Kubernetes, load balancer)
+                        // Chỉ health: /actuator/metrics (số liệu nội bộ của cache, JVM...) chỉ dành cho admin
+                        .requestMatchers("/actuator/health/**")
+                        .permitAll()
+                        .requestMatchers("/actuator/metrics/**")
+                        .hasRole("ADMIN")
                         // Cho phép các endpoint OAuth2 (Google) - phải đặt trước các rule khác
                         .requestMatchers(
                                 "/oauth2/authorization/**",
@@ -104,6 +110,8 @@ public class SecurityConfig {
                         // Cho phép public POST /products/filter (public search)
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/v1/products/filter")
                         .permitAll()
+                        .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/v1/products/filter/options")
+                        .permitAll()
                         // Cho phép public POST /products/compare (so sánh sản phẩm -
                         // ProductViewController, public API)
                         .requestMatchers(org.springframework.http.HttpMethod.POST, "/api/v1/products/compare")
@@ -151,7 +159,9 @@ public class SecurityConfig {
                                 "/api/v1/admin/categories/**",
                                 "/api/v1/admin/brands/**",
                                 "/api/v1/admin/products/**",
-                                "/api/v1/admin/users/**")
+                                "/api/v1/admin/users/**",
+                                "/api/v1/admin/cache/**",
+                                "/api/v1/admin/inventory/**")
                         .hasRole("ADMIN")
                         // Cho phép truy cập tự do các API Promotion (tùy theo chính sách hiện tại)
                         .requestMatchers("/api/v1/admin/promotions/**").permitAll()
@@ -0,0 +1,29 @@
+package com.utephonehub.backend.config.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Giá trị cache kèm thời điểm nên làm mới (refresh-ahead)
+ * Lưu cả ở L1 và L2 để mọi node biết entry sắp hết hạn mà không cần hỏi TTL từ Redis
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope {
+
+    private Object value;
+    private long refreshAt; // epoch millis, 0 = refresh ngay (giá trị ghi trước khi có envelope)
+
+    public boolean isRefreshDue(long now) {
+        return now >= refreshAt;
+    }
+
+    /**
+     * Values written before envelopes were introduced are refreshed on first synchronized read
+     */
+    static CacheEnvelope wrap(Object stored) {
+        return stored instanceof CacheEnvelope envelope ? envelope : new CacheEnvelope(stored, 0L);
+    }
+}
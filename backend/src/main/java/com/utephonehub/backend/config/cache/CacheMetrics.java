@@ -0,0 +1,124 @@
+package com.utephonehub.backend.config.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Micrometer meters của một cache, dùng chung cho Spring caches (two-level), Redis keys
+ * và các cache in-memory để mọi cache được báo cáo cùng một bộ tên/tag:
+ * - cache.requests{cache, result=hit_local|hit_remote|miss}
+ * - cache.loads{cache} (timer, percentiles 50/95/99)
+ * - cache.evictions{cache, cause}
+ * - cache.entries{cache, tier}
+ * - cache.entry.size{cache} (bytes sau khi serialize)
+ */
+public final class CacheMetrics {
+
+    public static final String REQUESTS = "cache.requests";
+    public static final String LOADS = "cache.loads";
+    public static final String EVICTIONS = "cache.evictions";
+    public static final String ENTRIES = "cache.entries";
+    public static final String ENTRY_SIZE = "cache.entry.size";
+
+    public static final String TAG_CACHE = "cache";
+    public static final String TAG_RESULT = "result";
+    public static final String TAG_CAUSE = "cause";
+    public static final String TAG_TIER = "tier";
+
+    public static final String HIT_LOCAL = "hit_local";
+    public static final String HIT_REMOTE = "hit_remote";
+    public static final String MISS = "miss";
+
+    private final MeterRegistry registry;
+    private final String cacheName;
+    private final Counter localHits;
+    private final Counter remoteHits;
+    private final Counter misses;
+    private final Timer loads;
+    private final Map<String, Counter> evictions = new ConcurrentHashMap<>();
+
+    private CacheMetrics(MeterRegistry registry, String cacheName) {
+        this.registry = registry;
+        this.cacheName = cacheName;
+        this.localHits = requests(HIT_LOCAL);
+        this.remoteHits = requests(HIT_REMOTE);
+        this.misses = requests(MISS);
+        this.loads = Timer.builder(LOADS)
+                .description("Time spent computing a missing cache value")
+                .tag(TAG_CACHE, cacheName)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+
+    /**
+     * Meters are idempotent in the registry: registering the same cache twice shares the counters
+     */
+    public static CacheMetrics register(MeterRegistry registry, String cacheName) {
+        return new CacheMetrics(registry, cacheName);
+    }
+
+    public static DistributionSummary entrySize(MeterRegistry registry, String cacheName) {
+        return DistributionSummary.builder(ENTRY_SIZE)
+                .description("Serialized size of cache values")
+                .baseUnit("bytes")
+                .tag(TAG_CACHE, cacheName)
+                .register(registry);
+    }
+
+    public void localHit() {
+        localHits.increment();
+    }
+
+    public void remoteHit() {
+        remoteHits.increment();
+    }
+
+    public void miss() {
+        misses.increment();
+    }
+
+    public void recordLoad(long startNanos) {
+        loads.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void eviction(String cause) {
+        evictions.computeIfAbsent(cause, c -> Counter.builder(EVICTIONS)
+                        .tag(TAG_CACHE, cacheName)
+                        .tag(TAG_CAUSE, c)
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * Evictions counted by the cache itself (e.g. Caffeine size/expiry evictions)
+     */
+    public <T> void evictionsFrom(T source, ToDoubleFunction<T> count, String cause) {
+        FunctionCounter.builder(EVICTIONS, source, count)
+                .tag(TAG_CACHE, cacheName)
+                .tag(TAG_CAUSE, cause)
+                .register(registry);
+    }
+
+    public <T> void entries(T source, ToDoubleFunction<T> size, String tier) {
+        Gauge.builder(ENTRIES, source, size)
+                .tag(TAG_CACHE, cacheName)
+                .tag(TAG_TIER, tier)
+                .register(registry);
+    }
+
+    private Counter requests(String result) {
+        return Counter.builder(REQUESTS)
+                .tag(TAG_CACHE, cacheName)
+                .tag(TAG_RESULT, result)
+                .register(registry);
+    }
+}
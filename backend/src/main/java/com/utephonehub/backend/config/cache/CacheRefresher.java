@@ -0,0 +1,92 @@
+package com.utephonehub.backend.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Chạy refresh-ahead của cache ở background
+ *
+ * - Khóa Redis (SET NX PX) theo từng entry: chỉ một node trong cluster làm mới một key
+ * - Loader chạy trong transaction read-only (như lời gọi @Cacheable ban đầu)
+ * - Pool đầy hoặc key đang được node khác làm mới -> bỏ qua, vẫn trả giá trị cũ
+ */
+@Slf4j
+public class CacheRefresher {
+
+    private static final String LOCK_PREFIX = "cache:refresh:";
+
+    /**
+     * Xóa khóa chỉ khi vẫn do node này giữ (khóa hết hạn có thể đã thuộc về node khác)
+     */
+    private static final RedisScript<Long> UNLOCK = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final Executor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId;
+    private final Duration lockTtl;
+
+    public CacheRefresher(Executor executor, TransactionTemplate transactionTemplate,
+                          StringRedisTemplate redisTemplate, String nodeId, Duration lockTtl) {
+        this.executor = executor;
+        this.transactionTemplate = transactionTemplate;
+        this.redisTemplate = redisTemplate;
+        this.nodeId = nodeId;
+        this.lockTtl = lockTtl;
+    }
+
+    /**
+     * @param entryKey cacheName::key
+     * @return false if the refresh was not started (locked elsewhere or executor saturated)
+     */
+    public boolean submit(String entryKey, Runnable task) {
+        String lockKey = LOCK_PREFIX + entryKey;
+        if (!tryLock(lockKey)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> task.run());
+                } finally {
+                    unlock(lockKey);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            unlock(lockKey);
+            log.debug("Cache refresh executor saturated, skipping {}", entryKey);
+            return false;
+        }
+    }
+
+    private boolean tryLock(String lockKey) {
+        try {
+            return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, nodeId, lockTtl));
+        } catch (Exception e) {
+            // Redis không khả dụng: vẫn làm mới, chỉ còn single-flight trong node
+            log.debug("Cannot acquire cache refresh lock {}: {}", lockKey, e.getMessage());
+            return true;
+        }
+    }
+
+    private void unlock(String lockKey) {
+        try {
+            redisTemplate.execute(UNLOCK, List.of(lockKey), nodeId);
+        } catch (Exception e) {
+            log.debug("Cannot release cache refresh lock {}: {}", lockKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.utephonehub.backend.config.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Locale;
+
+/**
+ * Value serializers for the Redis cache, selected by cache.codec
+ * - json: GenericJackson2JsonRedisSerializer (định dạng cũ)
+ * - smile: {@link CompactRedisSerializer} (mặc định)
+ * Both use the same polymorphic typing so any cached DTO round-trips without registration.
+ */
+public final class CacheSerializers {
+
+    public static final String JSON = "json";
+    public static final String SMILE = "smile";
+
+    private CacheSerializers() {
+    }
+
+    public static RedisSerializer<Object> forCodec(String codec, int compressionThreshold) {
+        String name = codec == null ? SMILE : codec.trim().toLowerCase(Locale.ROOT);
+        switch (name) {
+            case JSON:
+                return json();
+            case SMILE:
+                return smile(compressionThreshold);
+            default:
+                throw new IllegalArgumentException("Unknown cache codec: " + codec);
+        }
+    }
+
+    public static RedisSerializer<Object> json() {
+        return new GenericJackson2JsonRedisSerializer(typedMapper(new JsonFactory()));
+    }
+
+    public static RedisSerializer<Object> smile(int compressionThreshold) {
+        SmileFactory smileFactory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new CompactRedisSerializer(typedMapper(smileFactory), json(), compressionThreshold);
+    }
+
+    /**
+     * ObjectMapper for cached values: Java time support + type info for polymorphic reads
+     */
+    private static ObjectMapper typedMapper(JsonFactory factory) {
+        ObjectMapper objectMapper = new ObjectMapper(factory);
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfBaseType(Object.class)
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY
+        );
+        return objectMapper;
+    }
+}
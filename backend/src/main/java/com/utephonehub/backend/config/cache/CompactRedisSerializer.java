@@ -0,0 +1,131 @@
+package com.utephonehub.backend.config.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary serializer cho cache values: Smile (JSON nhị phân) + nén Deflate khi payload lớn
+ *
+ * - Smile dùng back-reference cho tên field và chuỗi lặp lại, nên "@class" của default typing
+ *   và tên field của List<ProductCardResponse> chỉ được ghi một lần
+ * - Payload >= compressionThreshold được nén (chỉ giữ bản nén nếu thật sự nhỏ hơn)
+ * - Byte đầu là marker định dạng; dữ liệu cũ (JSON, bắt đầu bằng '{' '[' '"') được đọc bằng
+ *   serializer JSON cũ, nên đổi codec không cần flush Redis
+ *
+ * Layout: [0x01][smile] hoặc [0x02][độ dài gốc int32][deflate(smile)]
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte PLAIN = 0x01;
+    private static final byte DEFLATED = 0x02;
+    private static final int DEFLATED_HEADER = 1 + Integer.BYTES;
+
+    private final ObjectMapper smileMapper;
+    private final RedisSerializer<Object> legacySerializer;
+    private final int compressionThreshold;
+
+    /**
+     * @param smileMapper ObjectMapper backed by a SmileFactory (same typing as the JSON mapper)
+     * @param legacySerializer Reads values written before the switch
+     * @param compressionThreshold Minimum payload size to compress, 0 disables compression
+     */
+    public CompactRedisSerializer(ObjectMapper smileMapper, RedisSerializer<Object> legacySerializer,
+                                  int compressionThreshold) {
+        this.smileMapper = smileMapper;
+        this.legacySerializer = legacySerializer;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] smile;
+        try {
+            smile = smileMapper.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new SerializationException("Could not write Smile: " + e.getMessage(), e);
+        }
+        if (compressionThreshold > 0 && smile.length >= compressionThreshold) {
+            byte[] compressed = deflate(smile);
+            if (compressed.length + DEFLATED_HEADER < smile.length + 1) {
+                return ByteBuffer.allocate(DEFLATED_HEADER + compressed.length)
+                        .put(DEFLATED)
+                        .putInt(smile.length)
+                        .put(compressed)
+                        .array();
+            }
+        }
+        byte[] result = new byte[smile.length + 1];
+        result[0] = PLAIN;
+        System.arraycopy(smile, 0, result, 1, smile.length);
+        return result;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        try {
+            switch (bytes[0]) {
+                case PLAIN:
+                    return smileMapper.readValue(bytes, 1, bytes.length - 1, Object.class);
+                case DEFLATED:
+                    int length = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+                    byte[] smile = inflate(bytes, DEFLATED_HEADER, length);
+                    return smileMapper.readValue(smile, Object.class);
+                default:
+                    return legacySerializer.deserialize(bytes);
+            }
+        } catch (SerializationException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SerializationException("Could not read cached value: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int written = deflater.deflate(buffer);
+                out.write(buffer, 0, written);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int originalLength) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            byte[] result = new byte[originalLength];
+            int read = 0;
+            while (read < originalLength && !inflater.finished()) {
+                int n = inflater.inflate(result, read, originalLength - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated cache payload");
+                }
+                read += n;
+            }
+            return result;
+        } finally {
+            inflater.end();
+        }
+    }
+}
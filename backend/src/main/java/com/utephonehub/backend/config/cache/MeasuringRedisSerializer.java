@@ -0,0 +1,33 @@
+package com.utephonehub.backend.config.cache;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * Records the serialized size of every value written to one cache (cache.entry.size)
+ */
+public class MeasuringRedisSerializer implements RedisSerializer<Object> {
+
+    private final RedisSerializer<Object> delegate;
+    private final DistributionSummary entrySize;
+
+    public MeasuringRedisSerializer(RedisSerializer<Object> delegate, DistributionSummary entrySize) {
+        this.delegate = delegate;
+        this.entrySize = entrySize;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        byte[] bytes = delegate.serialize(value);
+        if (bytes != null && bytes.length > 0) {
+            entrySize.record(bytes.length);
+        }
+        return bytes;
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        return delegate.deserialize(bytes);
+    }
+}
@@ -0,0 +1,306 @@
+package com.utephonehub.backend.config.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Cache hai tầng: L1 Caffeine (heap, từng node) đứng trước L2 Redis (dùng chung)
+ *
+ * - Đọc: L1 -> L2 -> loader; giá trị lấy từ L2 được nạp lại vào L1
+ * - Ghi/xóa: ghi L2 trước, cập nhật L1, rồi phát thông báo để các node khác xóa L1 của họ
+ * - @Cacheable(sync = true):
+ *   + miss: single-flight - chỉ một thread mỗi key chạy loader, các thread khác chờ cùng kết quả
+ *   + entry đã qua refreshAt: trả giá trị hiện tại ngay, làm mới ở background (stale-while-revalidate)
+ * Giá trị được lưu trong {@link CacheEnvelope} (kèm refreshAt) ở cả hai tầng.
+ * Khóa L1 là dạng chuỗi của cache key (giống khóa Redis), để thông báo invalidation từ node khác
+ * khớp được bất kể kiểu key gốc (Long userId, Integer limit...)
+ */
+@Slf4j
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<String, CacheEnvelope> localCache;
+    private final Cache remoteCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheRefresher refresher;
+    private final Duration refreshAfter;
+    private final CacheMetrics metrics;
+
+    // Load đang chạy theo key; evict/clear đánh dấu load của đúng key đó là stale,
+    // kết quả của nó không được ghi đè lên dữ liệu mới (load của key khác không bị ảnh hưởng)
+    private final ConcurrentMap<String, Load> inFlight = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Load> refreshing = new ConcurrentHashMap<>();
+
+    /**
+     * @param refreshAfter Age after which a synchronized read triggers a background refresh (null = never)
+     */
+    public TwoLevelCache(String name,
+                         com.github.benmanes.caffeine.cache.Cache<String, CacheEnvelope> localCache,
+                         Cache remoteCache,
+                         CacheInvalidationPublisher invalidationPublisher,
+                         CacheRefresher refresher,
+                         Duration refreshAfter,
+                         CacheMetrics metrics) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refresher = refresher;
+        this.refreshAfter = refreshAfter;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        CacheEnvelope envelope = lookup(key, localKey(key));
+        return envelope != null ? new SimpleValueWrapper(envelope.getValue()) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        CacheEnvelope envelope = lookup(key, localKey);
+        if (envelope != null) {
+            if (envelope.isRefreshDue(System.currentTimeMillis())) {
+                refreshAsync(key, localKey, valueLoader);
+            }
+            return (T) envelope.getValue();
+        }
+        return (T) loadSingleFlight(key, localKey, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String localKey = localKey(key);
+        if (value != null) {
+            CacheEnvelope envelope = newEnvelope(value);
+            remoteCache.put(key, envelope);
+            localCache.put(localKey, envelope);
+        } else {
+            remoteCache.put(key, null);
+            localCache.invalidate(localKey);
+        }
+        invalidationPublisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        markStale(localKey);
+        metrics.eviction("explicit");
+        remoteCache.evict(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.publishEvict(name, localKey);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        String localKey = localKey(key);
+        markStale(localKey);
+        metrics.eviction("explicit");
+        boolean evicted = remoteCache.evictIfPresent(key);
+        localCache.invalidate(localKey);
+        invalidationPublisher.publishEvict(name, localKey);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        markAllStale();
+        metrics.eviction("clear");
+        remoteCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    @Override
+    public boolean invalidate() {
+        markAllStale();
+        metrics.eviction("clear");
+        boolean invalidated = remoteCache.invalidate();
+        localCache.invalidateAll();
+        invalidationPublisher.publishClear(name);
+        return invalidated;
+    }
+
+    /**
+     * Xóa L1 khi nhận thông báo từ node khác (không chạm vào L2, không phát lại)
+     */
+    void evictLocal(String localKey) {
+        markStale(localKey);
+        metrics.eviction("remote");
+        localCache.invalidate(localKey);
+    }
+
+    void clearLocal() {
+        markAllStale();
+        metrics.eviction("remote");
+        localCache.invalidateAll();
+    }
+
+    com.github.benmanes.caffeine.cache.Cache<String, CacheEnvelope> getLocalCache() {
+        return localCache;
+    }
+
+    private CacheEnvelope lookup(Object key, String localKey) {
+        CacheEnvelope local = localCache.getIfPresent(localKey);
+        if (local != null) {
+            metrics.localHit();
+            return local;
+        }
+        ValueWrapper remote = remoteCache.get(key);
+        if (remote == null || remote.get() == null) {
+            metrics.miss();
+            return null;
+        }
+        metrics.remoteHit();
+        CacheEnvelope envelope = CacheEnvelope.wrap(remote.get());
+        localCache.put(localKey, envelope);
+        return envelope;
+    }
+
+    /**
+     * One loader per key on this node, concurrent callers wait for its result
+     */
+    private Object loadSingleFlight(Object key, String localKey, Callable<?> valueLoader) {
+        Load load = new Load();
+        Load existing = inFlight.putIfAbsent(localKey, load);
+        if (existing != null) {
+            try {
+                return existing.future.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            long start = System.nanoTime();
+            Object value = valueLoader.call();
+            metrics.recordLoad(start);
+            if (value != null) {
+                store(key, localKey, value, load, false);
+            }
+            load.future.complete(value);
+            return value;
+        } catch (Exception e) {
+            load.future.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(localKey, load);
+        }
+    }
+
+    /**
+     * Stale-while-revalidate: at most one refresh per key per node, and one per cluster via the refresh lock
+     */
+    private void refreshAsync(Object key, String localKey, Callable<?> valueLoader) {
+        Load refresh = new Load();
+        if (refreshing.putIfAbsent(localKey, refresh) != null) {
+            return;
+        }
+        boolean submitted = refresher.submit(name + "::" + localKey, () -> {
+            try {
+                long start = System.nanoTime();
+                Object value = valueLoader.call();
+                metrics.recordLoad(start);
+                if (value != null) {
+                    store(key, localKey, value, refresh, true);
+                }
+            } catch (Exception e) {
+                log.warn("Background refresh of {}::{} failed: {}", name, localKey, e.getMessage());
+            } finally {
+                refreshing.remove(localKey, refresh);
+            }
+        });
+        if (!submitted) {
+            refreshing.remove(localKey, refresh);
+        }
+    }
+
+    /**
+     * Write a loaded value unless the entry was evicted while loading
+     * @param publish Tell other nodes to drop their (older) L1 copy
+     */
+    private void store(Object key, String localKey, Object value, Load load, boolean publish) {
+        if (load.stale) {
+            return;
+        }
+        CacheEnvelope envelope = newEnvelope(value);
+        remoteCache.put(key, envelope);
+        localCache.put(localKey, envelope);
+        if (load.stale) {
+            // Evict xảy ra giữa lúc kiểm tra và lúc ghi: bỏ giá trị vừa ghi
+            remoteCache.evict(key);
+            localCache.invalidate(localKey);
+            return;
+        }
+        if (publish) {
+            invalidationPublisher.publishEvict(name, localKey);
+        }
+    }
+
+    private void markStale(String localKey) {
+        Load load = inFlight.get(localKey);
+        if (load != null) {
+            load.stale = true;
+        }
+        Load refresh = refreshing.get(localKey);
+        if (refresh != null) {
+            refresh.stale = true;
+        }
+    }
+
+    private void markAllStale() {
+        inFlight.values().forEach(load -> load.stale = true);
+        refreshing.values().forEach(refresh -> refresh.stale = true);
+    }
+
+    private CacheEnvelope newEnvelope(Object value) {
+        long refreshAt = refreshAfter != null
+                ? System.currentTimeMillis() + refreshAfter.toMillis()
+                : Long.MAX_VALUE;
+        return new CacheEnvelope(value, refreshAt);
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    /**
+     * One load or background refresh of a key; stale once the key is evicted while it runs
+     */
+    private static final class Load {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile boolean stale;
+    }
+}
@@ -0,0 +1,187 @@
+package com.utephonehub.backend.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * CacheManager hai tầng: mỗi cache Redis (L2) được bọc bởi một near-cache Caffeine (L1) trên heap
+ *
+ * - L1 giới hạn theo trọng số (số phần tử của collection/map được cache), không theo số entry
+ * - TTL của L1 suy ra từ TTL của L2: ttl * ttlRatio, tối đa maxLocalTtl
+ *   (L1 không bao giờ sống lâu hơn L2, và giới hạn độ trễ nếu mất thông báo pub/sub)
+ * - Put/evict/clear trên một node được phát qua Redis pub/sub để các node khác xóa L1 tương ứng
+ * - Refresh-ahead: entry được làm mới ở background sau ttl * refreshAheadRatio (với @Cacheable(sync = true))
+ * - Transaction-aware: put/evict chỉ chạy sau khi transaction commit (như RedisCacheManager trước đây)
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final CacheRefresher refresher;
+    private final Map<String, Duration> cacheTtls;
+    private final Duration defaultTtl;
+    private final LocalCacheSettings localSettings;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> cacheMap = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager,
+                                CacheInvalidationPublisher invalidationPublisher,
+                                CacheRefresher refresher,
+                                Map<String, Duration> cacheTtls,
+                                Duration defaultTtl,
+                                LocalCacheSettings localSettings,
+                                MeterRegistry meterRegistry) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.refresher = refresher;
+        this.cacheTtls = Map.copyOf(cacheTtls);
+        this.defaultTtl = defaultTtl;
+        this.localSettings = localSettings;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = cacheMap.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        return cacheMap.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        Set<String> names = new LinkedHashSet<>(cacheTtls.keySet());
+        names.addAll(remoteCacheManager.getCacheNames());
+        names.addAll(cacheMap.keySet());
+        return Collections.unmodifiableSet(names);
+    }
+
+    /**
+     * L1 caches đang hoạt động (theo tên cache)
+     */
+    public Map<String, com.github.benmanes.caffeine.cache.Cache<String, CacheEnvelope>> getLocalCaches() {
+        Map<String, com.github.benmanes.caffeine.cache.Cache<String, CacheEnvelope>> result = new ConcurrentHashMap<>();
+        twoLevelCaches.forEach((name, cache) -> result.put(name, cache.getLocalCache()));
+        return result;
+    }
+
+    /**
+     * TTL của L2 (Redis) cho một cache
+     */
+    public Duration remoteTtl(String name) {
+        return cacheTtls.getOrDefault(name, defaultTtl);
+    }
+
+    /**
+     * TTL của L1 cho một cache
+     */
+    public Duration localTtl(String name) {
+        Duration remoteTtl = remoteTtl(name);
+        Duration derived = Duration.ofMillis((long) (remoteTtl.toMillis() * localSettings.ttlRatio()));
+        return derived.compareTo(localSettings.maxTtl()) > 0 ? localSettings.maxTtl() : derived;
+    }
+
+    /**
+     * Tuổi của entry bắt đầu được làm mới ở background (null = tắt refresh-ahead)
+     */
+    public Duration refreshAfter(String name) {
+        double ratio = localSettings.refreshAheadRatio();
+        if (ratio <= 0 || ratio >= 1) {
+            return null;
+        }
+        return Duration.ofMillis((long) (remoteTtl(name).toMillis() * ratio));
+    }
+
+    /**
+     * Nhận thông báo invalidation từ node khác
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        String[] parts = body.split(CacheInvalidationPublisher.SEPARATOR, 3);
+        if (parts.length < 2 || invalidationPublisher.getNodeId().equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = twoLevelCaches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (parts.length == 3) {
+            cache.evictLocal(parts[2]);
+        } else {
+            cache.clearLocal();
+        }
+    }
+
+    private Cache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            return null;
+        }
+        // L1 tắt: trọng số tối đa 0 (mọi entry bị loại ngay), vẫn giữ single-flight và refresh-ahead
+        long maximumWeight = localSettings.enabled() ? localSettings.maximumWeight() : 0;
+        Duration ttl = localTtl(name);
+        com.github.benmanes.caffeine.cache.Cache<String, CacheEnvelope> localCache = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher((String key, CacheEnvelope envelope) -> weigh(envelope.getValue()))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .<String, CacheEnvelope>build();
+        CacheMetrics metrics = CacheMetrics.register(meterRegistry, name);
+        metrics.entries(localCache, com.github.benmanes.caffeine.cache.Cache::estimatedSize, "local");
+        metrics.evictionsFrom(localCache, c -> c.stats().evictionCount(), "local");
+        TwoLevelCache cache = new TwoLevelCache(name, localCache, remote, invalidationPublisher,
+                refresher, refreshAfter(name), metrics);
+        twoLevelCaches.put(name, cache);
+        log.debug("Created two-level cache {} (L1 ttl {}, max weight {})", name, ttl, maximumWeight);
+        return localSettings.transactionAware() ? new TransactionAwareCacheDecorator(cache) : cache;
+    }
+
+    /**
+     * Trọng số ~ số phần tử (List<ProductCardResponse> 10 phần tử nặng hơn một giá trị đơn)
+     */
+    private static int weigh(Object value) {
+        long weight = 1;
+        if (value instanceof Collection<?> collection) {
+            weight += collection.size();
+        } else if (value instanceof Map<?, ?> map) {
+            weight += map.size();
+        } else if (value instanceof Object[] array) {
+            weight += array.length;
+        }
+        return (int) Math.min(weight, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Cấu hình L1
+     * @param enabled Tắt thì chỉ dùng Redis như trước
+     * @param maximumWeight Tổng trọng số tối đa của mỗi L1 cache
+     * @param ttlRatio Tỉ lệ TTL L1 / TTL L2
+     * @param maxTtl TTL tối đa của L1
+     * @param refreshAheadRatio Tỉ lệ tuổi entry / TTL L2 bắt đầu làm mới ở background (0 = tắt)
+     * @param transactionAware Trì hoãn put/evict tới sau commit
+     */
+    public record LocalCacheSettings(boolean enabled, long maximumWeight, double ttlRatio,
+                                     Duration maxTtl, double refreshAheadRatio, boolean transactionAware) {
+    }
+}
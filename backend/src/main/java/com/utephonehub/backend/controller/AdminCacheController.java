@@ -0,0 +1,45 @@
+package com.utephonehub.backend.controller;
+
+import com.utephonehub.backend.dto.ApiResponse;
+import com.utephonehub.backend.dto.response.cache.CacheStatsResponse;
+import com.utephonehub.backend.service.ICacheStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/cache")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin - Cache", description = "API thống kê hiệu quả cache cho Admin")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminCacheController {
+
+    private final ICacheStatsService cacheStatsService;
+
+    @GetMapping("/stats")
+    @Operation(
+            summary = "Lấy thống kê cache",
+            description = "Hit ratio, thời gian load (p50/p95/p99), số lần evict, số entry và kích thước serialized của từng cache trên node hiện tại"
+    )
+    public ResponseEntity<ApiResponse<List<CacheStatsResponse>>> getCacheStats() {
+        log.info("Admin fetch cache statistics");
+
+        List<CacheStatsResponse> stats = cacheStatsService.getCacheStats();
+
+        return ResponseEntity.ok(ApiResponse.success(
+                "Lấy thống kê cache thành công",
+                stats
+        ));
+    }
+}
@@ -0,0 +1,75 @@
+package com.utephonehub.backend.controller;
+
+import com.utephonehub.backend.dto.ApiResponse;
+import com.utephonehub.backend.dto.response.inventory.HotStockResponse;
+import com.utephonehub.backend.service.IInventoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin/inventory")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Admin - Inventory", description = "API quản lý tồn kho SKU flash sale (Redis) cho Admin")
+@SecurityRequirement(name = "bearerAuth")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminInventoryController {
+
+    private final IInventoryService inventoryService;
+
+    @GetMapping("/hot")
+    @Operation(
+            summary = "Danh sách SKU tồn kho hot",
+            description = "Các phiên bản sản phẩm đang được trừ kho trên Redis, kèm số lượng còn bán và phần chưa ghi về database"
+    )
+    public ResponseEntity<ApiResponse<List<HotStockResponse>>> getHotStock() {
+        log.info("Admin fetch hot stock");
+
+        return ResponseEntity.ok(ApiResponse.success(
+                "Lấy danh sách tồn kho hot thành công",
+                inventoryService.getHotStock()
+        ));
+    }
+
+    @PostMapping("/hot/{templateId}")
+    @Operation(
+            summary = "Bật tồn kho hot cho một SKU",
+            description = "Chuyển tồn kho của phiên bản sản phẩm sang Redis trước đợt flash sale"
+    )
+    public ResponseEntity<ApiResponse<HotStockResponse>> enableHotStock(
+            @Parameter(description = "ID phiên bản sản phẩm (template)") @PathVariable Long templateId) {
+        log.info("Admin enable hot stock for template {}", templateId);
+
+        return ResponseEntity.ok(ApiResponse.success(
+                "Bật tồn kho hot thành công",
+                inventoryService.enableHotStock(templateId)
+        ));
+    }
+
+    @DeleteMapping("/hot/{templateId}")
+    @Operation(
+            summary = "Tắt tồn kho hot cho một SKU",
+            description = "Ghi số lượng còn lại về database và trả SKU về cách trừ kho thông thường"
+    )
+    public ResponseEntity<ApiResponse<Void>> disableHotStock(
+            @Parameter(description = "ID phiên bản sản phẩm (template)") @PathVariable Long templateId) {
+        log.info("Admin disable hot stock for template {}", templateId);
+
+        inventoryService.disableHotStock(templateId);
+        return ResponseEntity.ok(ApiResponse.success("Tắt tồn kho hot thành công", null));
+    }
+}
@@ -3,6 +3,7 @@ package com.utephonehub.backend.controller;
 import com.utephonehub.backend.dto.ApiResponse;
 import com.utephonehub.backend.dto.response.brand.BrandResponse;
 import com.utephonehub.backend.service.IBrandService;
+import com.utephonehub.backend.util.CatalogHttpCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +14,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -24,6 +26,7 @@ import java.util.List;
 public class BrandController {
 
     private final IBrandService brandService;
+    private final CatalogHttpCache catalogHttpCache;
 
     @GetMapping
     @Operation(
@@ -38,13 +41,12 @@ public class BrandController {
                     content = @Content(schema = @Schema(implementation = ApiResponse.class))
             )
     })
-    public ResponseEntity<ApiResponse<List<BrandResponse>>> getAllBrands() {
+    public ResponseEntity<ApiResponse<List<BrandResponse>>> getAllBrands(ServletWebRequest webRequest) {
         log.info("Get all brands request");
-        List<BrandResponse> brands = brandService.getAllBrands();
-
-        return ResponseEntity.ok(
-                ApiResponse.success("Lấy danh sách thương hiệu thành công", brands)
-        );
+        return catalogHttpCache.brands(webRequest, () -> {
+            List<BrandResponse> brands = brandService.getAllBrands();
+            return ApiResponse.success("Lấy danh sách thương hiệu thành công", brands);
+        });
     }
 
     @GetMapping("/{id}")
@@ -66,14 +68,14 @@ public class BrandController {
     })
     public ResponseEntity<ApiResponse<BrandResponse>> getBrandById(
             @Parameter(description = "ID của thương hiệu", required = true)
-            @PathVariable Long id
+            @PathVariable Long id,
+            ServletWebRequest webRequest
     ) {
         log.info("Get brand by id request: {}", id);
-        BrandResponse brand = brandService.getBrandById(id);
-
-        return ResponseEntity.ok(
-                ApiResponse.success("Lấy thông tin thương hiệu thành công", brand)
-        );
+        return catalogHttpCache.brands(webRequest, () -> {
+            BrandResponse brand = brandService.getBrandById(id);
+            return ApiResponse.success("Lấy thông tin thương hiệu thành công", brand);
+        });
     }
 }
 
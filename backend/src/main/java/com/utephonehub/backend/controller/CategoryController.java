@@ -5,6 +5,7 @@ import com.utephonehub.backend.dto.request.category.CreateCategoryRequest;
 import com.utephonehub.backend.dto.request.category.UpdateCategoryRequest;
 import com.utephonehub.backend.dto.response.category.CategoryResponse;
 import com.utephonehub.backend.service.ICategoryService;
+import com.utephonehub.backend.util.CatalogHttpCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -28,6 +30,7 @@ import java.util.List;
 public class CategoryController {
 
     private final ICategoryService categoryService;
+    private final CatalogHttpCache catalogHttpCache;
 
     @GetMapping
     @Operation(
@@ -50,18 +53,19 @@ public class CategoryController {
     })
     public ResponseEntity<ApiResponse<List<CategoryResponse>>> getCategories(
             @Parameter(description = "ID của danh mục cha (null để lấy danh mục gốc)", required = false)
-            @RequestParam(required = false) Long parentId
+            @RequestParam(required = false) Long parentId,
+            ServletWebRequest webRequest
     ) {
         log.info("Get categories request with parentId: {}", parentId);
-        List<CategoryResponse> categories = categoryService.getCategoriesByParentId(parentId);
+        return catalogHttpCache.categories(webRequest, () -> {
+            List<CategoryResponse> categories = categoryService.getCategoriesByParentId(parentId);
 
-        String message = parentId == null
-                ? "Lấy danh sách danh mục gốc thành công"
-                : "Lấy danh sách danh mục con thành công";
+            String message = parentId == null
+                    ? "Lấy danh sách danh mục gốc thành công"
+                    : "Lấy danh sách danh mục con thành công";
 
-        return ResponseEntity.ok(
-                ApiResponse.success(message, categories)
-        );
+            return ApiResponse.success(message, categories);
+        });
     }
 }
 
@@ -1,15 +1,18 @@
 package com.utephonehub.backend.controller;
 
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.utephonehub.backend.dto.ApiResponse;
 import com.utephonehub.backend.dto.response.location.ProvinceResponse;
 import com.utephonehub.backend.dto.response.location.WardResponse;
 import com.utephonehub.backend.service.ILocationService;
+import com.utephonehub.backend.util.CatalogHttpCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.util.List;
 
@@ -18,6 +21,7 @@ import java.util.List;
  * Quản lý địa chỉ hành chính Việt Nam (Tỉnh/Thành phố, Phường/Xã)
  * 
  * API này cung cấp dữ liệu địa chỉ từ database local, không phụ thuộc external API
+ * Dữ liệu được giữ trong memory (nạp lúc khởi động), danh sách lớn trả JSON dựng sẵn
  * Được sử dụng cho form nhập địa chỉ của người dùng (đặt hàng, profile, etc.)
  */
 @RestController
@@ -27,6 +31,9 @@ import java.util.List;
 public class LocationController {
 
     private final ILocationService locationService;
+    private final CatalogHttpCache catalogHttpCache;
+
+    private static final int MAX_SEARCH_LIMIT = 50;
 
     /**
      * GET /api/v1/locations/provinces
@@ -40,9 +47,34 @@ public class LocationController {
             summary = "Lấy danh sách tỉnh/thành phố",
             description = "Trả về danh sách tất cả tỉnh/thành phố Việt Nam, sắp xếp theo tên"
     )
-    public ResponseEntity<ApiResponse<List<ProvinceResponse>>> getAllProvinces() {
-        List<ProvinceResponse> provinces = locationService.getAllProvinces();
-        return ResponseEntity.ok(ApiResponse.success("Lấy danh sách tỉnh/thành phố thành công", provinces));
+    public ResponseEntity<ApiResponse<RawValue>> getAllProvinces(ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            RawValue provinces = new RawValue(locationService.getAllProvincesJson());
+            return ApiResponse.success("Lấy danh sách tỉnh/thành phố thành công", provinces);
+        });
+    }
+
+    /**
+     * GET /api/v1/locations/provinces/search?keyword=ho chi
+     * Tìm tỉnh/thành phố theo tiền tố tên, không phân biệt dấu
+     * 
+     * Use case: Ô gõ tìm (autocomplete) trong form địa chỉ
+     */
+    @GetMapping("/provinces/search")
+    @Operation(
+            summary = "Tìm tỉnh/thành phố theo tên",
+            description = "Tìm theo tiền tố của bất kỳ từ nào trong tên, không phân biệt dấu (VD: \"ho chi\", \"da n\")"
+    )
+    public ResponseEntity<ApiResponse<List<ProvinceResponse>>> searchProvinces(
+            @Parameter(description = "Từ khóa (tiền tố tên)")
+            @RequestParam String keyword,
+            @Parameter(description = "Số kết quả tối đa")
+            @RequestParam(required = false, defaultValue = "10") Integer limit,
+            ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            List<ProvinceResponse> provinces = locationService.searchProvinces(keyword, Math.min(limit, MAX_SEARCH_LIMIT));
+            return ApiResponse.success("Tìm tỉnh/thành phố thành công", provinces);
+        });
     }
 
     /**
@@ -59,9 +91,12 @@ public class LocationController {
     )
     public ResponseEntity<ApiResponse<ProvinceResponse>> getProvinceByCode(
             @Parameter(description = "Mã tỉnh/thành phố (VD: 01, 79, 48)")
-            @PathVariable String provinceCode) {
-        ProvinceResponse province = locationService.getProvinceByCode(provinceCode);
-        return ResponseEntity.ok(ApiResponse.success("Lấy chi tiết tỉnh/thành phố thành công", province));
+            @PathVariable String provinceCode,
+            ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            ProvinceResponse province = locationService.getProvinceByCode(provinceCode);
+            return ApiResponse.success("Lấy chi tiết tỉnh/thành phố thành công", province);
+        });
     }
 
     /**
@@ -77,9 +112,11 @@ public class LocationController {
             summary = "Lấy danh sách tất cả phường/xã",
             description = "Trả về danh sách tất cả phường/xã Việt Nam, sắp xếp theo tên"
     )
-    public ResponseEntity<ApiResponse<List<WardResponse>>> getAllWards() {
-        List<WardResponse> wards = locationService.getAllWards();
-        return ResponseEntity.ok(ApiResponse.success("Lấy danh sách phường/xã thành công", wards));
+    public ResponseEntity<ApiResponse<RawValue>> getAllWards(ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            RawValue wards = new RawValue(locationService.getAllWardsJson());
+            return ApiResponse.success("Lấy danh sách phường/xã thành công", wards);
+        });
     }
 
     /**
@@ -95,11 +132,40 @@ public class LocationController {
             summary = "Lấy danh sách phường/xã theo tỉnh",
             description = "Trả về danh sách tất cả phường/xã thuộc một tỉnh/thành phố, sắp xếp theo tên"
     )
-    public ResponseEntity<ApiResponse<List<WardResponse>>> getWardsByProvinceCode(
+    public ResponseEntity<ApiResponse<RawValue>> getWardsByProvinceCode(
             @Parameter(description = "Mã tỉnh/thành phố (VD: 01, 79, 48)")
-            @PathVariable String provinceCode) {
-        List<WardResponse> wards = locationService.getWardsByProvinceCode(provinceCode);
-        return ResponseEntity.ok(ApiResponse.success("Lấy danh sách phường/xã theo tỉnh thành công", wards));
+            @PathVariable String provinceCode,
+            ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            RawValue wards = new RawValue(locationService.getWardsByProvinceCodeJson(provinceCode));
+            return ApiResponse.success("Lấy danh sách phường/xã theo tỉnh thành công", wards);
+        });
+    }
+
+    /**
+     * GET /api/v1/locations/wards/search?keyword=hoan kiem&provinceCode=01
+     * Tìm phường/xã theo tiền tố tên, không phân biệt dấu
+     * 
+     * @param provinceCode Giới hạn trong một tỉnh (không truyền = cả nước)
+     * Use case: Ô gõ tìm phường/xã sau khi user chọn tỉnh
+     */
+    @GetMapping("/wards/search")
+    @Operation(
+            summary = "Tìm phường/xã theo tên",
+            description = "Tìm theo tiền tố của bất kỳ từ nào trong tên, không phân biệt dấu, có thể giới hạn theo tỉnh"
+    )
+    public ResponseEntity<ApiResponse<List<WardResponse>>> searchWards(
+            @Parameter(description = "Từ khóa (tiền tố tên)")
+            @RequestParam String keyword,
+            @Parameter(description = "Mã tỉnh/thành phố (tùy chọn)")
+            @RequestParam(required = false) String provinceCode,
+            @Parameter(description = "Số kết quả tối đa")
+            @RequestParam(required = false, defaultValue = "20") Integer limit,
+            ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            List<WardResponse> wards = locationService.searchWards(keyword, provinceCode, Math.min(limit, MAX_SEARCH_LIMIT));
+            return ApiResponse.success("Tìm phường/xã thành công", wards);
+        });
     }
 
     /**
@@ -116,9 +182,12 @@ public class LocationController {
     )
     public ResponseEntity<ApiResponse<WardResponse>> getWardByCode(
             @Parameter(description = "Mã phường/xã (VD: 00070, 00073)")
-            @PathVariable String wardCode) {
-        WardResponse ward = locationService.getWardByCode(wardCode);
-        return ResponseEntity.ok(ApiResponse.success("Lấy chi tiết phường/xã thành công", ward));
+            @PathVariable String wardCode,
+            ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            WardResponse ward = locationService.getWardByCode(wardCode);
+            return ApiResponse.success("Lấy chi tiết phường/xã thành công", ward);
+        });
     }
 
     /**
@@ -136,9 +205,12 @@ public class LocationController {
     )
     public ResponseEntity<ApiResponse<Boolean>> validateProvinceCode(
             @Parameter(description = "Mã tỉnh/thành phố cần kiểm tra")
-            @PathVariable String provinceCode) {
-        boolean isValid = locationService.isValidProvinceCode(provinceCode);
-        return ResponseEntity.ok(ApiResponse.success("Kiểm tra mã tỉnh thành công", isValid));
+            @PathVariable String provinceCode,
+            ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            boolean isValid = locationService.isValidProvinceCode(provinceCode);
+            return ApiResponse.success("Kiểm tra mã tỉnh thành công", isValid);
+        });
     }
 
     /**
@@ -152,8 +224,11 @@ public class LocationController {
     )
     public ResponseEntity<ApiResponse<Boolean>> validateWardCode(
             @Parameter(description = "Mã phường/xã cần kiểm tra")
-            @PathVariable String wardCode) {
-        boolean isValid = locationService.isValidWardCode(wardCode);
-        return ResponseEntity.ok(ApiResponse.success("Kiểm tra mã phường/xã thành công", isValid));
+            @PathVariable String wardCode,
+            ServletWebRequest webRequest) {
+        return catalogHttpCache.locations(webRequest, () -> {
+            boolean isValid = locationService.isValidWardCode(wardCode);
+            return ApiResponse.success("Kiểm tra mã phường/xã thành công", isValid);
+        });
     }
 }
@@ -4,7 +4,9 @@ import com.utephonehub.backend.dto.ApiResponse;
 import com.utephonehub.backend.dto.request.productview.ProductFilterRequest;
 import com.utephonehub.backend.dto.request.productview.ProductSearchFilterRequest;
 import com.utephonehub.backend.dto.response.productview.*;
+import com.utephonehub.backend.service.IProductFacetService;
 import com.utephonehub.backend.service.IProductViewService;
+import com.utephonehub.backend.util.CatalogHttpCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,7 +18,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -35,6 +39,9 @@ import java.util.List;
  * - Batch load ratings, reviews, sold counts trong 1 query
  * Không yêu cầu authentication (public access)
  * 
+ * HTTP caching (GET): ETag theo phiên bản dữ liệu + Cache-Control,
+ * request có If-None-Match khớp nhận 304 mà không build DTO (xem {@link CatalogHttpCache})
+ * 
  * @author UTE Phone Hub Team
  * @version 1.0
  */
@@ -45,6 +52,8 @@ import java.util.List;
 @Tag(name = "ProductView API", description = "API dùng để hiển thị sản phẩm client và tương tác - Tham quan, tìm kiếm, lọc, sắp xếp, so sánh sản phẩm")
 public class ProductViewController {
         private final IProductViewService productViewService;
+        private final IProductFacetService facetService;
+        private final CatalogHttpCache catalogHttpCache;
 
 /**
  * GET /api/v1/products/search
@@ -52,7 +61,7 @@ public class ProductViewController {
  * 
  * Features:
  * - keyword: Tìm trong tên sản phẩm
- * - Chỉ hỗ trợ keyword search, không hỗ trợ filter
+ * - Bộ lọc tùy chọn: categoryIds, brandIds, minPrice, maxPrice, ramOptions, storageOptions, osOptions
  * 
  * Sort options:
  * - name: Sắp xếp theo tên
@@ -88,25 +97,41 @@ public class ProductViewController {
 })
 public ResponseEntity<ApiResponse<Page<ProductCardResponse>>> searchProducts(
         @Parameter(description = "Từ khóa tìm kiếm") @RequestParam(required = false) String keyword,
+        @Parameter(description = "Danh sách ID danh mục") @RequestParam(required = false) List<Long> categoryIds,
+        @Parameter(description = "Danh sách ID thương hiệu") @RequestParam(required = false) List<Long> brandIds,
+        @Parameter(description = "Giá tối thiểu") @RequestParam(required = false) BigDecimal minPrice,
+        @Parameter(description = "Giá tối đa") @RequestParam(required = false) BigDecimal maxPrice,
+        @Parameter(description = "Danh sách RAM") @RequestParam(required = false) List<String> ramOptions,
+        @Parameter(description = "Danh sách bộ nhớ trong") @RequestParam(required = false) List<String> storageOptions,
+        @Parameter(description = "Danh sách hệ điều hành") @RequestParam(required = false) List<String> osOptions,
         @Parameter(description = "Sắp xếp theo (name, price, rating, created_date)") @RequestParam(required = false, defaultValue = "created_date") String sortBy,
         @Parameter(description = "Hướng sắp xếp (asc, desc)") @RequestParam(required = false, defaultValue = "desc") String sortDirection,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Searching products with keyword: {}", keyword);
         
-        ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                .keyword(keyword)
-                .sortBy(sortBy)
-                .sortDirection(sortDirection)
-                .page(page)
-                .size(size)
-                .build();
-        
-        Page<ProductCardResponse> result = productViewService.searchAndFilterProducts(request);
-        
-        return ResponseEntity.ok(ApiResponse.success("Tìm kiếm sản phẩm thành công", result));
+        return catalogHttpCache.catalog(webRequest, () -> {
+            ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                    .keyword(keyword)
+                    .categoryIds(categoryIds)
+                    .brandIds(brandIds)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .ramOptions(ramOptions)
+                    .storageOptions(storageOptions)
+                    .osOptions(osOptions)
+                    .sortBy(sortBy)
+                    .sortDirection(sortDirection)
+                    .page(page)
+                    .size(size)
+                    .build();
 
+            Page<ProductCardResponse> result = productViewService.searchAndFilterProducts(request);
+
+            return ApiResponse.success("Tìm kiếm sản phẩm thành công", result);
+        });
 }
 
 /**
@@ -152,6 +177,41 @@ public ResponseEntity<ApiResponse<Page<ProductCardResponse>>> filterProducts(
         return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm thành công", result));
 }
 
+/**
+ * POST /api/v1/products/filter/options
+ * Đếm số sản phẩm cho từng lựa chọn của sidebar lọc trong 1 request
+ * 
+ * Features:
+ * - Brand, khoảng giá, RAM, storage, màn hình, OS, pin, đánh giá
+ * - Phạm vi theo bộ lọc hiện tại; mỗi nhóm đếm với các bộ lọc của nhóm khác
+ *   (chọn "8GB" vẫn thấy số lượng của các lựa chọn RAM khác)
+ * - Cache theo chữ ký bộ lọc
+ * 
+ * Use case: "RAM 8GB (42)" trên Product Listing Page thay cho nhiều request /filter/ram, /filter/storage...
+ */
+@PostMapping("/filter/options")
+@Operation(
+        summary = "Đếm số sản phẩm theo lựa chọn lọc",
+        description = "Trả về các lựa chọn lọc (brand, giá, RAM, storage, màn hình, OS, pin, đánh giá) kèm số sản phẩm, theo bộ lọc hiện tại"
+)
+@ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+                responseCode = "200",
+                description = "Lấy bộ lọc thành công",
+                content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+})
+public ResponseEntity<ApiResponse<CategoryProductsResponse.FilterOptions>> getFilterOptions(
+        @Parameter(description = "Bộ lọc hiện tại", required = true)
+        @RequestBody ProductFilterRequest request
+) {
+        log.info("Getting filter options for: {}", request.facetSignature());
+        
+        CategoryProductsResponse.FilterOptions result = facetService.getFilterOptions(request);
+        
+        return ResponseEntity.ok(ApiResponse.success("Lấy bộ lọc thành công", result));
+}
+
 /**
  * GET /api/v1/products/{id}
  * Lấy chi tiết sản phẩm theo ID
@@ -183,13 +243,16 @@ public ResponseEntity<ApiResponse<Page<ProductCardResponse>>> filterProducts(
         )
 })
 public ResponseEntity<ApiResponse<ProductDetailViewResponse>> getProductDetail(
-        @Parameter(description = "ID sản phẩm", required = true) @PathVariable Long id
+        @Parameter(description = "ID sản phẩm", required = true) @PathVariable Long id,
+        ServletWebRequest webRequest
 ) {
         log.info("Getting product detail for ID: {}", id);
         
-        ProductDetailViewResponse result = productViewService.getProductDetailById(id);
-        
-        return ResponseEntity.ok(ApiResponse.success("Lấy chi tiết sản phẩm thành công", result));
+        return catalogHttpCache.product(webRequest, id, () -> {
+            ProductDetailViewResponse result = productViewService.getProductDetailById(id);
+
+            return ApiResponse.success("Lấy chi tiết sản phẩm thành công", result);
+        });
 }
 
     // ========== CATEGORY & RELATED ENDPOINTS ==========
@@ -227,20 +290,23 @@ public ResponseEntity<ApiResponse<CategoryProductsResponse>> getProductsByCatego
         @Parameter(description = "Sắp xếp theo") @RequestParam(required = false, defaultValue = "created_date") String sortBy,
         @Parameter(description = "Hướng sắp xếp") @RequestParam(required = false, defaultValue = "desc") String sortDirection,
         @Parameter(description = "Số trang") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Getting products for category ID: {}", categoryId);
         
-        ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                .sortBy(sortBy)
-                .sortDirection(sortDirection)
-                .page(page)
-                .size(size)
-                .build();
-        
-        CategoryProductsResponse result = productViewService.getProductsByCategory(categoryId, request);
-        
-        return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm theo danh mục thành công", result));
+        return catalogHttpCache.catalog(webRequest, () -> {
+            ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                    .sortBy(sortBy)
+                    .sortDirection(sortDirection)
+                    .page(page)
+                    .size(size)
+                    .build();
+
+            CategoryProductsResponse result = productViewService.getProductsByCategory(categoryId, request);
+
+            return ApiResponse.success("Lấy sản phẩm theo danh mục thành công", result);
+        });
 }
 
     // ========== COMPARISON & RECOMMENDATIONS ==========
@@ -324,21 +390,24 @@ public ResponseEntity<ApiResponse<?>> getRelatedProducts(
         @Parameter(description = "ID sản phẩm", required = true) @PathVariable Long id,
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Getting related products for ID: {} with limit: {}, page: {}, size: {}", id, limit, page, size);
         
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.getRelatedProducts(id, limit);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm liên quan thành công", result));
-        } else {
-                ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                        .page(page)
-                        .size(size)
-                        .build();
-                Page<ProductCardResponse> result = productViewService.getRelatedProductsPaginated(id, request);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm liên quan thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.getRelatedProducts(id, limit);
+                    return ApiResponse.success("Lấy sản phẩm liên quan thành công", result);
+            } else {
+                    ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                            .page(page)
+                            .size(size)
+                            .build();
+                    Page<ProductCardResponse> result = productViewService.getRelatedProductsPaginated(id, request);
+                    return ApiResponse.success("Lấy sản phẩm liên quan thành công", result);
+            }
+        });
 }
 
 /**
@@ -370,21 +439,24 @@ public ResponseEntity<ApiResponse<?>> getRelatedProducts(
 public ResponseEntity<ApiResponse<?>> getBestSellingProducts(
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Getting best selling products with limit: {}, page: {}, size: {}", limit, page, size);
         
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.getBestSellingProducts(limit);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm bán chạy thành công", result));
-        } else {
-                ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                        .page(page)
-                        .size(size)
-                        .build();
-                Page<ProductCardResponse> result = productViewService.getBestSellingProductsPaginated(request);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm bán chạy thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.getBestSellingProducts(limit);
+                    return ApiResponse.success("Lấy sản phẩm bán chạy thành công", result);
+            } else {
+                    ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                            .page(page)
+                            .size(size)
+                            .build();
+                    Page<ProductCardResponse> result = productViewService.getBestSellingProductsPaginated(request);
+                    return ApiResponse.success("Lấy sản phẩm bán chạy thành công", result);
+            }
+        });
 }
 
 /**
@@ -416,21 +488,24 @@ public ResponseEntity<ApiResponse<?>> getBestSellingProducts(
 public ResponseEntity<ApiResponse<?>> getNewArrivals(
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Getting new arrivals with limit: {}, page: {}, size: {}", limit, page, size);
         
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.getNewArrivals(limit);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm mới nhất thành công", result));
-        } else {
-                ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                        .page(page)
-                        .size(size)
-                        .build();
-                Page<ProductCardResponse> result = productViewService.getNewArrivalsPaginated(request);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm mới nhất thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.getNewArrivals(limit);
+                    return ApiResponse.success("Lấy sản phẩm mới nhất thành công", result);
+            } else {
+                    ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                            .page(page)
+                            .size(size)
+                            .build();
+                    Page<ProductCardResponse> result = productViewService.getNewArrivalsPaginated(request);
+                    return ApiResponse.success("Lấy sản phẩm mới nhất thành công", result);
+            }
+        });
 }
 
 /**
@@ -463,21 +538,24 @@ public ResponseEntity<ApiResponse<?>> getNewArrivals(
 public ResponseEntity<ApiResponse<?>> getFeaturedProducts(
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Getting featured products with limit: {}, page: {}, size: {}", limit, page, size);
         
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.getFeaturedProducts(limit);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm nổi bật thành công", result));
-        } else {
-                ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                        .page(page)
-                        .size(size)
-                        .build();
-                Page<ProductCardResponse> result = productViewService.getFeaturedProductsPaginated(request);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm nổi bật thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.getFeaturedProducts(limit);
+                    return ApiResponse.success("Lấy sản phẩm nổi bật thành công", result);
+            } else {
+                    ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                            .page(page)
+                            .size(size)
+                            .build();
+                    Page<ProductCardResponse> result = productViewService.getFeaturedProductsPaginated(request);
+                    return ApiResponse.success("Lấy sản phẩm nổi bật thành công", result);
+            }
+        });
 }
 
 /**
@@ -510,21 +588,24 @@ public ResponseEntity<ApiResponse<?>> getFeaturedProducts(
 public ResponseEntity<ApiResponse<?>> getProductsOnSale(
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Getting products on sale with limit: {}, page: {}, size: {}", limit, page, size);
         
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.getProductsOnSale(limit);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm giảm giá thành công", result));
-        } else {
-                ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                        .page(page)
-                        .size(size)
-                        .build();
-                Page<ProductCardResponse> result = productViewService.getProductsOnSalePaginated(request);
-                return ResponseEntity.ok(ApiResponse.success("Lấy sản phẩm giảm giá thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.getProductsOnSale(limit);
+                    return ApiResponse.success("Lấy sản phẩm giảm giá thành công", result);
+            } else {
+                    ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                            .page(page)
+                            .size(size)
+                            .build();
+                    Page<ProductCardResponse> result = productViewService.getProductsOnSalePaginated(request);
+                    return ApiResponse.success("Lấy sản phẩm giảm giá thành công", result);
+            }
+        });
 }
 
 /**
@@ -540,24 +621,27 @@ public ResponseEntity<ApiResponse<?>> filterByRam(
         @Parameter(description = "Danh sách RAM cần lọc") @RequestParam List<String> ramOptions,
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Filtering products by RAM: {} - limit: {}, page: {}, size: {}", ramOptions, limit, page, size);
         
-        ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                .page(page)
-                .size(size)
-                .build();
-        
-        if (limit != null && limit > 0) {
-                // Query với limit (lấy N sản phẩm đầu tiên)
-                List<ProductCardResponse> result = productViewService.filterByRamWithLimit(ramOptions, request, limit);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo RAM thành công", result));
-        } else {
-                // Query với pagination
-                Page<ProductCardResponse> result = productViewService.filterByRam(ramOptions, request);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo RAM thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                    .page(page)
+                    .size(size)
+                    .build();
+
+            if (limit != null && limit > 0) {
+                    // Query với limit (lấy N sản phẩm đầu tiên)
+                    List<ProductCardResponse> result = productViewService.filterByRamWithLimit(ramOptions, request, limit);
+                    return ApiResponse.success("Lọc sản phẩm theo RAM thành công", result);
+            } else {
+                    // Query với pagination
+                    Page<ProductCardResponse> result = productViewService.filterByRam(ramOptions, request);
+                    return ApiResponse.success("Lọc sản phẩm theo RAM thành công", result);
+            }
+        });
 }
 
 /**
@@ -573,22 +657,25 @@ public ResponseEntity<ApiResponse<?>> filterByStorage(
         @Parameter(description = "Danh sách dung lượng lưu trữ cần lọc") @RequestParam List<String> storageOptions,
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Filtering products by Storage: {} - limit: {}, page: {}, size: {}", storageOptions, limit, page, size);
         
-        ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                .page(page)
-                .size(size)
-                .build();
-        
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.filterByStorageWithLimit(storageOptions, request, limit);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo lưu trữ thành công", result));
-        } else {
-                Page<ProductCardResponse> result = productViewService.filterByStorage(storageOptions, request);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo lưu trữ thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                    .page(page)
+                    .size(size)
+                    .build();
+
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.filterByStorageWithLimit(storageOptions, request, limit);
+                    return ApiResponse.success("Lọc sản phẩm theo lưu trữ thành công", result);
+            } else {
+                    Page<ProductCardResponse> result = productViewService.filterByStorage(storageOptions, request);
+                    return ApiResponse.success("Lọc sản phẩm theo lưu trữ thành công", result);
+            }
+        });
 }
 
 /**
@@ -605,22 +692,25 @@ public ResponseEntity<ApiResponse<?>> filterByBattery(
         @Parameter(description = "Dung lượng pin tối đa") @RequestParam(required = false) Integer maxBattery,
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Filtering products by Battery: {} - {} - limit: {}", minBattery, maxBattery, limit);
         
-        ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                .page(page)
-                .size(size)
-                .build();
-        
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.filterByBatteryWithLimit(minBattery, maxBattery, request, limit);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo pin thành công", result));
-        } else {
-                Page<ProductCardResponse> result = productViewService.filterByBattery(minBattery, maxBattery, request);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo pin thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                    .page(page)
+                    .size(size)
+                    .build();
+
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.filterByBatteryWithLimit(minBattery, maxBattery, request, limit);
+                    return ApiResponse.success("Lọc sản phẩm theo pin thành công", result);
+            } else {
+                    Page<ProductCardResponse> result = productViewService.filterByBattery(minBattery, maxBattery, request);
+                    return ApiResponse.success("Lọc sản phẩm theo pin thành công", result);
+            }
+        });
 }
 
 /**
@@ -636,22 +726,25 @@ public ResponseEntity<ApiResponse<?>> filterByScreenSize(
         @Parameter(description = "Danh sách kích thước màn hình cần lọc") @RequestParam List<String> screenSizeOptions,
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Filtering products by Screen Size: {} - limit: {}", screenSizeOptions, limit);
         
-        ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                .page(page)
-                .size(size)
-                .build();
-        
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.filterByScreenSizeWithLimit(screenSizeOptions, request, limit);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo màn hình thành công", result));
-        } else {
-                Page<ProductCardResponse> result = productViewService.filterByScreenSize(screenSizeOptions, request);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo màn hình thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                    .page(page)
+                    .size(size)
+                    .build();
+
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.filterByScreenSizeWithLimit(screenSizeOptions, request, limit);
+                    return ApiResponse.success("Lọc sản phẩm theo màn hình thành công", result);
+            } else {
+                    Page<ProductCardResponse> result = productViewService.filterByScreenSize(screenSizeOptions, request);
+                    return ApiResponse.success("Lọc sản phẩm theo màn hình thành công", result);
+            }
+        });
 }
 
 /**
@@ -667,22 +760,25 @@ public ResponseEntity<ApiResponse<?>> filterByOS(
         @Parameter(description = "Danh sách hệ điều hành cần lọc") @RequestParam List<String> osOptions,
         @Parameter(description = "Số lượng giới hạn sản phẩm (không pagination)") @RequestParam(required = false) Integer limit,
         @Parameter(description = "Số trang (bắt đầu từ 0)") @RequestParam(required = false, defaultValue = "0") Integer page,
-        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size
+        @Parameter(description = "Số sản phẩm mỗi trang") @RequestParam(required = false, defaultValue = "20") Integer size,
+        ServletWebRequest webRequest
 ) {
         log.info("Filtering products by OS: {} - limit: {}", osOptions, limit);
         
-        ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
-                .page(page)
-                .size(size)
-                .build();
-        
-        if (limit != null && limit > 0) {
-                List<ProductCardResponse> result = productViewService.filterByOSWithLimit(osOptions, request, limit);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo hệ điều hành thành công", result));
-        } else {
-                Page<ProductCardResponse> result = productViewService.filterByOS(osOptions, request);
-                return ResponseEntity.ok(ApiResponse.success("Lọc sản phẩm theo hệ điều hành thành công", result));
-        }
+        return catalogHttpCache.catalog(webRequest, () -> {
+            ProductSearchFilterRequest request = ProductSearchFilterRequest.builder()
+                    .page(page)
+                    .size(size)
+                    .build();
+
+            if (limit != null && limit > 0) {
+                    List<ProductCardResponse> result = productViewService.filterByOSWithLimit(osOptions, request, limit);
+                    return ApiResponse.success("Lọc sản phẩm theo hệ điều hành thành công", result);
+            } else {
+                    Page<ProductCardResponse> result = productViewService.filterByOS(osOptions, request);
+                    return ApiResponse.success("Lọc sản phẩm theo hệ điều hành thành công", result);
+            }
+        });
 }
 
 }
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Request DTO cho lọc sản phẩm đa tiêu chí
@@ -66,6 +67,9 @@ public class ProductFilterRequest {
     @Schema(description = "Chỉ hiển thị sản phẩm có khuyến mãi", example = "true")  
     private Boolean hasDiscountOnly;
     
+    @Schema(description = "Số lượng đã bán tối thiểu", example = "100")
+    private Integer minSoldCount;
+    
     // Sorting và Pagination
     @Schema(description = "Sắp xếp theo (name, price, rating, created_date)", example = "price")
     private String sortBy;
@@ -73,6 +77,9 @@ public class ProductFilterRequest {
     @Schema(description = "Hướng sắp xếp (asc, desc)", example = "asc")
     private String sortDirection;
     
+    @Schema(description = "Cursor keyset (nextCursor của trang trước) - chỉ dùng khi sort theo price, rating, soldCount, discount; bỏ qua page khi có cursor")
+    private String cursor;
+    
     @Schema(description = "Số trang (bắt đầu từ 0)", example = "0")
     @Builder.Default
     private Integer page = 0;
@@ -80,4 +87,21 @@ public class ProductFilterRequest {
     @Schema(description = "Số sản phẩm mỗi trang", example = "20")
     @Builder.Default
     private Integer size = 20;
+    
+    /**
+     * Khóa cache ổn định của bộ lọc (bỏ qua sort, phân trang; danh sách được sắp xếp)
+     */
+    public String facetSignature() {
+        return "c=" + sorted(categoryIds) + "|b=" + sorted(brandIds)
+                + "|p=" + minPrice + "-" + maxPrice
+                + "|ram=" + sorted(ramOptions) + "|st=" + sorted(storageOptions)
+                + "|bat=" + minBattery + "-" + maxBattery
+                + "|scr=" + sorted(screenSizeOptions) + "|os=" + sorted(osOptions)
+                + "|r=" + minRating + "-" + maxRating
+                + "|stock=" + inStockOnly + "|disc=" + hasDiscountOnly + "|sold=" + minSoldCount;
+    }
+    
+    private static <T extends Comparable<T>> List<T> sorted(List<T> values) {
+        return values == null ? List.of() : values.stream().filter(Objects::nonNull).sorted().toList();
+    }
 }
\ No newline at end of file
@@ -6,9 +6,12 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 /**
  * Request DTO cho tìm kiếm sản phẩm theo từ khóa
- * Chỉ hỗ trợ search keyword, không có filter
+ * Kèm các bộ lọc facet tùy chọn (danh mục, thương hiệu, giá, RAM, bộ nhớ, OS) như ProductFilterRequest
  */
 @Data
 @Builder
@@ -20,6 +23,27 @@ public class ProductSearchFilterRequest {
     @Schema(description = "Từ khóa tìm kiếm (tên sản phẩm)", example = "iPhone 15")
     private String keyword;
     
+    @Schema(description = "Danh sách ID danh mục", example = "[1, 2]")
+    private List<Long> categoryIds;
+    
+    @Schema(description = "Danh sách ID thương hiệu", example = "[1, 2]")
+    private List<Long> brandIds;
+    
+    @Schema(description = "Giá tối thiểu", example = "5000000")
+    private BigDecimal minPrice;
+    
+    @Schema(description = "Giá tối đa", example = "30000000")
+    private BigDecimal maxPrice;
+    
+    @Schema(description = "Danh sách RAM", example = "[\"8GB\", \"12GB\"]")
+    private List<String> ramOptions;
+    
+    @Schema(description = "Danh sách bộ nhớ trong", example = "[\"128GB\", \"256GB\"]")
+    private List<String> storageOptions;
+    
+    @Schema(description = "Danh sách hệ điều hành", example = "[\"iOS\", \"Android\"]")
+    private List<String> osOptions;
+    
     @Schema(description = "Sắp xếp theo (name, price, rating, created_date)", example = "price")
     private String sortBy;
     
@@ -0,0 +1,71 @@
+package com.utephonehub.backend.dto.response.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Response DTO for per-cache statistics
+ * Counters are cumulative since this node started
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+
+    /**
+     * Cache name (Spring cache name, "guestCart", "chatbotProducts", "geminiEmbeddings")
+     */
+    private String cacheName;
+
+    /**
+     * TWO_LEVEL (Caffeine + Redis), REDIS (raw keys), IN_MEMORY
+     */
+    private String type;
+
+    private long localHits;
+    private long remoteHits;
+    private long misses;
+
+    /**
+     * (localHits + remoteHits) / requests, null when there were no requests
+     */
+    private Double hitRatio;
+
+    /**
+     * Loader executions and their latency (ms)
+     */
+    private long loadCount;
+    private Double loadP50Ms;
+    private Double loadP95Ms;
+    private Double loadP99Ms;
+    private Double loadMaxMs;
+
+    /**
+     * Evictions by cause (explicit, clear, remote, local, expired)
+     */
+    private Map<String, Long> evictions;
+
+    /**
+     * Entries in the heap tier of this node
+     */
+    private Long localEntries;
+
+    /**
+     * Keys in Redis (counted with SCAN, capped)
+     */
+    private Long remoteEntries;
+
+    /**
+     * Serialized value size in bytes
+     */
+    private Double avgEntryBytes;
+    private Double maxEntryBytes;
+
+    private Long ttlSeconds;
+    private Long localTtlSeconds;
+}
@@ -0,0 +1,35 @@
+package com.utephonehub.backend.dto.response.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response DTO for a flash-sale SKU whose stock is served from Redis
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotStockResponse {
+
+    private Long templateId;
+    private Long productId;
+    private String sku;
+
+    /**
+     * Quantity still for sale (Redis counter, source of truth while hot)
+     */
+    private Long availableStock;
+
+    /**
+     * Net change not yet written to product_templates (negative = sold)
+     */
+    private Long pendingDelta;
+
+    /**
+     * product_templates.stock_quantity (lags behind by pendingDelta)
+     */
+    private Integer databaseStock;
+}
@@ -51,6 +51,7 @@ public class CategoryProductsResponse {
     public static class FilterOptions {
         private List<BrandOption> availableBrands;
         private PriceRange priceRange;
+        private List<PriceBucketOption> priceBuckets;
         private List<RatingOption> ratingOptions;
         private List<StorageOption> storageOptions;
         private List<RamOption> ramOptions;
@@ -77,6 +78,17 @@ public class CategoryProductsResponse {
             private java.math.BigDecimal max;
         }
         
+        @Data
+        @Builder
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class PriceBucketOption {
+            private java.math.BigDecimal min;
+            private java.math.BigDecimal max; // null = không giới hạn
+            private String displayValue;
+            private Integer count;
+        }
+        
         @Data
         @Builder
         @NoArgsConstructor
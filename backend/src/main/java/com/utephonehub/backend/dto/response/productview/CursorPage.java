@@ -0,0 +1,45 @@
+package com.utephonehub.backend.dto.response.productview;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+/**
+ * Page kèm cursor keyset cho trang kế tiếp
+ * Serialize giống Page thông thường, thêm field nextCursor (null nếu là trang cuối)
+ * Trang lấy theo cursor không đếm tổng: totalElements/totalPages = -1, hasNext/last suy từ nextCursor
+ */
+public class CursorPage<T> extends PageImpl<T> {
+
+    private final String nextCursor;
+    private final boolean totalKnown;
+
+    /**
+     * @param total Total matching rows, negative if not counted
+     */
+    public CursorPage(List<T> content, Pageable pageable, long total, String nextCursor) {
+        super(content, pageable, Math.max(total, 0));
+        this.nextCursor = nextCursor;
+        this.totalKnown = total >= 0;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    @Override
+    public long getTotalElements() {
+        return totalKnown ? super.getTotalElements() : -1;
+    }
+
+    @Override
+    public int getTotalPages() {
+        return totalKnown ? super.getTotalPages() : -1;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return totalKnown ? super.hasNext() : nextCursor != null;
+    }
+}
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    // Job hủy đơn chờ thanh toán quá hạn: status + payment_method, cũ nhất trước
+    @Index(name = "idx_orders_status_payment_created", columnList = "status, payment_method, created_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,7 +24,8 @@ import java.util.List;
 public class Order {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id")
+    @SequenceGenerator(name = "orders_id", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true, nullable = false, length = 20)
@@ -16,8 +16,11 @@ import java.time.LocalDateTime;
 @Builder
 public class OrderItem {
 
+    // Sequence với pooled allocation: id có sẵn trong memory, INSERT được gom batch (IDENTITY thì không)
+    // DB có sẵn: chạy migrations/008_order_id_sequences.sql trước khi khởi động
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_items_id")
+    @SequenceGenerator(name = "order_items_id", sequenceName = "order_items_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -17,7 +17,8 @@ import java.time.LocalDateTime;
 public class OrderStatusHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_status_history_id")
+    @SequenceGenerator(name = "order_status_history_id", sequenceName = "order_status_history_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
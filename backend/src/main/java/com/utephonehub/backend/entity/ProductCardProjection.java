@@ -0,0 +1,132 @@
+package com.utephonehub.backend.entity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.UpdateTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * ProductCardProjection Entity - Precomputed read model for product listing cards
+ * One row per visible product (status = true, isDeleted = false)
+ *
+ * Scalar columns are denormalized for DB-side filtering/sorting; cardJson holds the
+ * fully assembled ProductCardResponse (without discount, which is applied at read time).
+ * Rows are maintained by ProductCardProjectionServiceImpl from ProductChangedEvent.
+ */
+@Entity
+@Table(name = "product_card_projections", indexes = {
+    @Index(name = "idx_card_projection_category", columnList = "category_id"),
+    @Index(name = "idx_card_projection_brand", columnList = "brand_id"),
+    @Index(name = "idx_card_projection_display_price", columnList = "display_price"),
+    @Index(name = "idx_card_projection_rating", columnList = "rating_average"),
+    @Index(name = "idx_card_projection_sold_count", columnList = "sold_count"),
+    @Index(name = "idx_card_projection_created_at", columnList = "product_created_at"),
+    // Category listing: filter by category, sort by newest / price
+    @Index(name = "idx_card_projection_category_created", columnList = "category_id, product_created_at"),
+    @Index(name = "idx_card_projection_category_price", columnList = "category_id, display_price")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductCardProjection {
+
+    /**
+     * Same id as products.id (not generated)
+     */
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false, length = 255)
+    private String name;
+
+    @Column(length = 255)
+    private String thumbnailUrl;
+
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Column(name = "brand_id")
+    private Long brandId;
+
+    /**
+     * Price of the display template (lowest active price), 0 if none
+     */
+    @Builder.Default
+    @Column(name = "display_price", nullable = false, precision = 15, scale = 2)
+    private BigDecimal displayPrice = BigDecimal.ZERO;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer totalStock = 0;
+
+    @Builder.Default
+    @Column(name = "rating_average", nullable = false)
+    private Double ratingAverage = 0.0;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer ratingCount = 0;
+
+    @Builder.Default
+    @Column(name = "sold_count", nullable = false)
+    private Integer soldCount = 0;
+
+    @Column(name = "product_created_at")
+    private LocalDateTime productCreatedAt;
+
+    /**
+     * Facet columns - RAM/storage of active templates as ",8GB,12GB," (delimiters on both ends
+     * so a single value matches with LIKE '%,8GB,%'), specs copied from metadata
+     */
+    @Column(name = "ram_values", length = 255)
+    private String ramValues;
+
+    @Column(name = "storage_values", length = 255)
+    private String storageValues;
+
+    @Column(name = "screen_size")
+    private Double screenSize;
+
+    @Column(name = "operating_system", length = 100)
+    private String operatingSystem;
+
+    @Column(name = "battery_capacity")
+    private Integer batteryCapacity;
+
+    /**
+     * Folded search text (name, brand, category, description) - no diacritics, lower case
+     * Indexed with a pg_trgm GIN index created by ProductSearchEngine
+     */
+    @Column(name = "search_text", columnDefinition = "TEXT")
+    private String searchText;
+
+    /**
+     * Serialized ProductCardResponse (base card, no discount)
+     */
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String cardJson;
+
+    @UpdateTimestamp
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
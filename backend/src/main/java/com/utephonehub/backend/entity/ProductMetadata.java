@@ -21,7 +21,10 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "product_metadata", indexes = {
-    @Index(name = "idx_product_metadata_product_id", columnList = "product_id")
+    @Index(name = "idx_product_metadata_product_id", columnList = "product_id"),
+    // Composite indexes for correlated EXISTS filters (index-only lookup per product)
+    @Index(name = "idx_product_metadata_product_battery", columnList = "product_id, battery_capacity"),
+    @Index(name = "idx_product_metadata_product_screen", columnList = "product_id, screen_size")
 })
 @Getter
 @Setter
@@ -21,7 +21,11 @@ import java.time.LocalDateTime;
 @Table(name = "product_templates", indexes = {
     @Index(name = "idx_product_template_sku", columnList = "sku"),
     @Index(name = "idx_product_template_product_id", columnList = "product_id"),
-    @Index(name = "idx_product_template_stock_status", columnList = "stock_status")
+    @Index(name = "idx_product_template_stock_status", columnList = "stock_status"),
+    // Composite indexes for correlated EXISTS filters (product_id = ? AND status AND ram/storage/price)
+    @Index(name = "idx_product_template_product_ram", columnList = "product_id, status, ram"),
+    @Index(name = "idx_product_template_product_storage", columnList = "product_id, status, storage"),
+    @Index(name = "idx_product_template_product_price", columnList = "product_id, status, price")
 })
 @Getter
 @Setter
@@ -0,0 +1,13 @@
+package com.utephonehub.backend.enums;
+
+/**
+ * Stock reservation status enumeration
+ * RESERVED: stock held for a pending (online payment) order, released when it expires
+ * COMMITTED: stock taken by a confirmed order
+ * RELEASED: stock returned to the template (cancelled, payment failed or expired)
+ */
+public enum ReservationStatus {
+    RESERVED,
+    COMMITTED,
+    RELEASED
+}
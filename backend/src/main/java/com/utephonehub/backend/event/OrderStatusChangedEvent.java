@@ -0,0 +1,48 @@
+package com.utephonehub.backend.event;
+
+import com.utephonehub.backend.entity.Order;
+import com.utephonehub.backend.entity.OrderItem;
+import com.utephonehub.backend.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderStatusChangedEvent {
+
+    private Long orderId;
+    private String orderCode;
+    private OrderStatus oldStatus;
+    private OrderStatus newStatus;
+    private Map<Long, Integer> productQuantities; // productId -> ordered quantity
+    private LocalDateTime timestamp;
+
+    /**
+     * Build event from an order whose status has just been changed
+     * Must be called inside the transaction (reads order items)
+     */
+    public static OrderStatusChangedEvent of(Order order, OrderStatus oldStatus) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        if (order.getItems() != null) {
+            for (OrderItem item : order.getItems()) {
+                quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return OrderStatusChangedEvent.builder()
+                .orderId(order.getId())
+                .orderCode(order.getOrderCode())
+                .oldStatus(oldStatus)
+                .newStatus(order.getStatus())
+                .productQuantities(quantities)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.utephonehub.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductChangedEvent {
+
+    private List<Long> productIds;
+    private String eventType; // CREATED, UPDATED, DELETED, RESTORED, TEMPLATE_CHANGED, STOCK_CHANGED, REVIEW_CHANGED
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,19 @@
+package com.utephonehub.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PromotionChangedEvent {
+
+    private String promotionId;
+    private String eventType; // CREATED, UPDATED, DISABLED, ACTIVATED, EXPIRED
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,37 @@
+package com.utephonehub.backend.listener;
+
+import com.utephonehub.backend.event.PromotionChangedEvent;
+import com.utephonehub.backend.service.impl.productview.ProductCacheInvalidator;
+import com.utephonehub.backend.service.impl.productview.ProductCacheInvalidator.Change;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Event listener translating promotion change events into cache invalidation.
+ * Runs after commit, off the request thread (outside the transaction, so the
+ * transaction-aware caches evict immediately).
+ * Product and sold count changes are invalidated by whoever updates the card read model
+ * ({@link ProductCardProjectionListener}, SoldCountServiceImpl), once the projection is written,
+ * so a cache miss can never reload the old projection rows.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidationListener {
+
+    private final ProductCacheInvalidator cacheInvalidator;
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handlePromotionChangedEvent(PromotionChangedEvent event) {
+        try {
+            // Khuyến mãi áp dụng theo sản phẩm/danh mục/thương hiệu -> không giới hạn theo product id
+            cacheInvalidator.invalidate(Change.PROMOTION, null);
+        } catch (Exception ex) {
+            log.error("Error invalidating caches for promotion {}", event.getPromotionId(), ex);
+        }
+    }
+}
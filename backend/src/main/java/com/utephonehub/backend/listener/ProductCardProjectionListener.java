@@ -0,0 +1,73 @@
+package com.utephonehub.backend.listener;
+
+import com.utephonehub.backend.event.ProductChangedEvent;
+import com.utephonehub.backend.service.IProductCardProjectionService;
+import com.utephonehub.backend.service.impl.productview.ProductCacheInvalidator;
+import com.utephonehub.backend.service.impl.productview.ProductCacheInvalidator.Change;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Event listener keeping the product card read model in sync.
+ * Runs after commit, off the request thread, so writers never pay for the projection.
+ * Product caches are invalidated here, after the refresh, not by a separate async listener.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCardProjectionListener {
+
+    private final IProductCardProjectionService projectionService;
+    private final ProductCacheInvalidator cacheInvalidator;
+
+    /**
+     * Full rebuild before the ApplicationRunners: cache warm-up reads the fresh read model
+     * and readiness only flips to ACCEPTING_TRAFFIC once both are done
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        try {
+            projectionService.refreshAll();
+        } catch (Exception ex) {
+            log.error("Error rebuilding product card projections", ex);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleProductChangedEvent(ProductChangedEvent event) {
+        log.debug("Product changed event received: eventType={}, productIds={}",
+                event.getEventType(), event.getProductIds());
+        try {
+            projectionService.refresh(event.getProductIds());
+        } catch (Exception ex) {
+            log.error("Error refreshing product card projections for {}", event.getProductIds(), ex);
+        }
+        // Xóa cache sau khi projection đã ghi xong: cache miss không thể nạp lại dòng projection cũ
+        Change change = toChange(event.getEventType());
+        try {
+            cacheInvalidator.invalidate(change, event.getProductIds());
+        } catch (Exception ex) {
+            log.error("Error invalidating caches for {} {}", change, event.getProductIds(), ex);
+        }
+    }
+
+    private Change toChange(String eventType) {
+        if (eventType == null) {
+            return Change.PRODUCT_UPDATED;
+        }
+        return switch (eventType) {
+            case "CREATED", "RESTORED" -> Change.PRODUCT_CREATED;
+            case "DELETED" -> Change.PRODUCT_DELETED;
+            case "TEMPLATE_CHANGED" -> Change.TEMPLATE;
+            case "STOCK_CHANGED" -> Change.STOCK;
+            case "REVIEW_CHANGED" -> Change.REVIEW;
+            default -> Change.PRODUCT_UPDATED;
+        };
+    }
+}
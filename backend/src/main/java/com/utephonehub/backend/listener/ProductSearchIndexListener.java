@@ -0,0 +1,49 @@
+package com.utephonehub.backend.listener;
+
+import com.utephonehub.backend.event.ProductChangedEvent;
+import com.utephonehub.backend.service.impl.productview.ProductInvertedIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Event listener keeping the in-memory product inverted index in sync (when enabled).
+ * Runs after commit, off the request thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndexListener {
+
+    private final ProductInvertedIndex invertedIndex;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!invertedIndex.isEnabled()) {
+            return;
+        }
+        try {
+            invertedIndex.rebuild();
+        } catch (Exception ex) {
+            log.error("Error building product inverted index", ex);
+        }
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleProductChangedEvent(ProductChangedEvent event) {
+        if (!invertedIndex.isReady()) {
+            return;
+        }
+        try {
+            invertedIndex.update(event.getProductIds());
+        } catch (Exception ex) {
+            log.error("Error updating product inverted index for {}", event.getProductIds(), ex);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.utephonehub.backend.repository;
 
 import com.utephonehub.backend.entity.Brand;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -31,5 +32,10 @@ public interface BrandRepository extends JpaRepository<Brand, Long> {
      * @return true if exists, false otherwise
      */
     boolean existsByNameAndIdNot(String name, Long id);
-}
 
+    /**
+     * [max updatedAt, count] - dấu phiên bản cho ETag của API công khai
+     */
+    @Query("SELECT MAX(b.updatedAt), COUNT(b) FROM Brand b")
+    List<Object[]> findVersionStamp();
+}
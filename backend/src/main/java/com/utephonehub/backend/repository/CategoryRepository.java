@@ -2,6 +2,7 @@ package com.utephonehub.backend.repository;
 
 import com.utephonehub.backend.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -36,5 +37,10 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      * @return Number of child categories
      */
     long countByParentId(Long parentId);
-}
 
+    /**
+     * [max updatedAt, count] - dấu phiên bản cho ETag của API công khai
+     */
+    @Query("SELECT MAX(c.updatedAt), COUNT(c) FROM Category c")
+    List<Object[]> findVersionStamp();
+}
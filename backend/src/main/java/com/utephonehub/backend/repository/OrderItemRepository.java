@@ -56,6 +56,19 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
            "GROUP BY oi.product.id")
     List<Object[]> countSoldQuantityByProductIds(List<Long> productIds);
     
+    /**
+     * Tổng số lượng đã bán của TẤT CẢ sản phẩm (chỉ đơn hàng DELIVERED)
+     * Chỉ dùng để nạp/đồng bộ lại bộ đếm sold count ở background, không gọi trên request path
+     * 
+     * @return List<[productId, soldCount]>
+     */
+    @Query("SELECT oi.product.id as productId, COALESCE(SUM(oi.quantity), 0) as soldCount " +
+           "FROM OrderItem oi " +
+           "JOIN oi.order o " +
+           "WHERE o.status = 'DELIVERED' " +
+           "GROUP BY oi.product.id")
+    List<Object[]> sumDeliveredQuantityGroupByProduct();
+    
     // Tìm tất cả items của 1 order
     List<OrderItem> findByOrderId(Long orderId);
 }
@@ -8,9 +8,11 @@ import com.utephonehub.backend.enums.PaymentMethod;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
 import java.math.BigDecimal;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -27,6 +29,11 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 	// Tìm theo orderCode
 	Optional<Order> findByOrderCode(String orderCode);
 
+	// Tìm theo orderCode và khóa dòng (SELECT ... FOR UPDATE) - callback thanh toán không chạy song song với job hết hạn
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT o FROM Order o WHERE o.orderCode = :orderCode")
+	Optional<Order> findByOrderCodeForUpdate(@Param("orderCode") String orderCode);
+
 	/**
 	 * Calculate total revenue from completed orders
 	 * 
@@ -71,8 +78,27 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
 	// Tìm đơn hàng theo status và thời gian (cho Cron Job)
 	List<Order> findByStatusAndCreatedAtBefore(OrderStatus status, LocalDateTime time);
 
-	// Kiểm tra orderCode đã tồn tại
-	boolean existsByOrderCode(String orderCode);
+	/**
+	 * Lock a batch of orders in a status created before the cutoff, oldest first
+	 * SKIP LOCKED: rows locked by another node (or a payment callback) are skipped instead of waited for
+	 */
+	@Query(value = "SELECT o.id FROM orders o WHERE o.status = :status AND o.payment_method = :paymentMethod "
+			+ "AND o.created_at < :cutoff ORDER BY o.created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+	List<Long> lockIdsByStatusCreatedBefore(@Param("status") String status,
+			@Param("paymentMethod") String paymentMethod, @Param("cutoff") LocalDateTime cutoff,
+			@Param("limit") int limit);
+
+	// Thời điểm tạo của đơn cũ nhất theo status và phương thức thanh toán (null nếu không có)
+	@Query("SELECT MIN(o.createdAt) FROM Order o WHERE o.status = :status AND o.paymentMethod = :paymentMethod")
+	LocalDateTime findOldestCreatedAt(@Param("status") OrderStatus status,
+			@Param("paymentMethod") PaymentMethod paymentMethod);
+
+	// Fetch nhiều đơn kèm items
+	@Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+	List<Order> findAllByIdInWithItems(@Param("ids") List<Long> ids);
+
+	// Kiểm tra user có đơn hàng ở status cho trước
+	boolean existsByUserIdAndStatus(Long userId, OrderStatus status);
 
 	// Query fetch cả items (tránh N+1 query)
 	@Query("SELECT o FROM Order o LEFT JOIN FETCH o.items WHERE o.id = :id")
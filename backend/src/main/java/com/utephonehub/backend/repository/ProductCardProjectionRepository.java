@@ -0,0 +1,46 @@
+package com.utephonehub.backend.repository;
+
+import com.utephonehub.backend.entity.ProductCardProjection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductCardProjectionRepository extends JpaRepository<ProductCardProjection, Long>,
+        JpaSpecificationExecutor<ProductCardProjection> {
+
+    /**
+     * Xóa các projection của sản phẩm đã ẩn/xóa mềm (dùng khi rebuild toàn bộ)
+     */
+    @Modifying
+    @Query("DELETE FROM ProductCardProjection c WHERE c.productId NOT IN " +
+           "(SELECT p.id FROM Product p WHERE p.status = true AND p.isDeleted = false)")
+    int deleteHidden();
+
+    /**
+     * Ghi giá trị sold count tuyệt đối (đếm từ DB) - cập nhật tại chỗ, không rebuild card
+     * Bỏ qua dòng đã đúng giá trị để không sinh write thừa
+     */
+    @Modifying
+    @Query("UPDATE ProductCardProjection c SET c.soldCount = :soldCount " +
+           "WHERE c.productId = :productId AND c.soldCount <> :soldCount")
+    int updateSoldCount(@Param("productId") Long productId, @Param("soldCount") int soldCount);
+
+    /**
+     * (productId, soldCount) của mọi projection - dùng để đối chiếu khi resync
+     */
+    @Query("SELECT c.productId, c.soldCount FROM ProductCardProjection c")
+    List<Object[]> findAllSoldCounts();
+
+    /**
+     * Xóa projection theo danh sách product IDs
+     */
+    @Modifying
+    @Query("DELETE FROM ProductCardProjection c WHERE c.productId IN :productIds")
+    int deleteByProductIds(@Param("productIds") List<Long> productIds);
+}
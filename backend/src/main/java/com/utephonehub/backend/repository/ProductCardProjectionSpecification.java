@@ -0,0 +1,211 @@
+package com.utephonehub.backend.repository;
+
+import com.utephonehub.backend.dto.request.productview.ProductFilterRequest;
+import com.utephonehub.backend.entity.ProductCardProjection;
+import com.utephonehub.backend.entity.ProductMetadata;
+import com.utephonehub.backend.entity.ProductTemplate;
+import com.utephonehub.backend.util.VietnameseTextNormalizer;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Specifications lọc product card projection hoàn toàn trong SQL
+ * Spec filters (RAM, storage, pin, màn hình, OS) dùng EXISTS subquery trên template/metadata,
+ * tương quan theo product_id và được phục vụ bởi composite index (product_id, cột lọc)
+ * Chỉ tính các template đang active (status = true), giống giá hiển thị và facet count
+ */
+public class ProductCardProjectionSpecification {
+
+    public static Specification<ProductCardProjection> filter(ProductFilterRequest request) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (request.getCategoryIds() != null && !request.getCategoryIds().isEmpty()) {
+                predicates.add(root.get("categoryId").in(request.getCategoryIds()));
+            }
+
+            if (request.getBrandIds() != null && !request.getBrandIds().isEmpty()) {
+                predicates.add(root.get("brandId").in(request.getBrandIds()));
+            }
+
+            // Khoảng giá: khoảng [min, max] giá các template active giao với khoảng lọc
+            // (cùng predicate với facet count trong ProductFacetServiceImpl; sản phẩm không có giá không khớp)
+            if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+                predicates.add(criteriaBuilder.isNotNull(root.get("minPrice")));
+                if (request.getMinPrice() != null) {
+                    predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("maxPrice"), request.getMinPrice()));
+                }
+                if (request.getMaxPrice() != null) {
+                    predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("minPrice"), request.getMaxPrice()));
+                }
+            }
+
+            if (request.getRamOptions() != null && !request.getRamOptions().isEmpty()) {
+                predicates.add(existsTemplate(root, query, criteriaBuilder,
+                        (template, cb) -> cb.and(cb.isTrue(template.get("status")),
+                                template.get("ram").in(request.getRamOptions()))));
+            }
+
+            if (request.getStorageOptions() != null && !request.getStorageOptions().isEmpty()) {
+                predicates.add(existsTemplate(root, query, criteriaBuilder,
+                        (template, cb) -> cb.and(cb.isTrue(template.get("status")),
+                                template.get("storage").in(request.getStorageOptions()))));
+            }
+
+            if (request.getMinBattery() != null || request.getMaxBattery() != null) {
+                predicates.add(existsMetadata(root, query, criteriaBuilder, (metadata, cb) -> {
+                    Expression<Integer> battery = metadata.get("batteryCapacity");
+                    List<Predicate> conditions = new ArrayList<>();
+                    if (request.getMinBattery() != null) {
+                        conditions.add(cb.greaterThanOrEqualTo(battery, request.getMinBattery()));
+                    }
+                    if (request.getMaxBattery() != null) {
+                        conditions.add(cb.lessThanOrEqualTo(battery, request.getMaxBattery()));
+                    }
+                    return cb.and(conditions.toArray(new Predicate[0]));
+                }));
+            }
+
+            if (request.getScreenSizeOptions() != null && !request.getScreenSizeOptions().isEmpty()) {
+                List<Double> sizes = parseSizes(request.getScreenSizeOptions());
+                predicates.add(sizes.isEmpty()
+                        ? criteriaBuilder.disjunction()
+                        : existsMetadata(root, query, criteriaBuilder,
+                                (metadata, cb) -> metadata.get("screenSize").in(sizes)));
+            }
+
+            // OS: "iOS" khớp "iOS 17", "Android" khớp "Android 14" (prefix hoặc từ đứng sau khoảng trắng)
+            if (request.getOsOptions() != null && !request.getOsOptions().isEmpty()) {
+                predicates.add(existsMetadata(root, query, criteriaBuilder, (metadata, cb) -> {
+                    Expression<String> os = cb.lower(metadata.get("operatingSystem"));
+                    List<Predicate> options = new ArrayList<>();
+                    for (String option : request.getOsOptions()) {
+                        if (option == null || option.isBlank()) continue;
+                        String lower = option.trim().toLowerCase(Locale.ROOT);
+                        options.add(cb.like(os, lower + "%"));
+                        options.add(cb.like(os, "%" + lower + " %"));
+                    }
+                    return options.isEmpty() ? cb.disjunction() : cb.or(options.toArray(new Predicate[0]));
+                }));
+            }
+
+            if (request.getMinRating() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("ratingAverage"), request.getMinRating()));
+            }
+
+            if (request.getMaxRating() != null) {
+                predicates.add(criteriaBuilder.lessThan(root.get("ratingAverage"), request.getMaxRating()));
+            }
+
+            if (Boolean.TRUE.equals(request.getInStockOnly())) {
+                predicates.add(criteriaBuilder.greaterThan(root.get("totalStock"), 0));
+            }
+
+            if (request.getMinSoldCount() != null && request.getMinSoldCount() > 0) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("soldCount"), request.getMinSoldCount()));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Sản phẩm có DISCOUNT promotion đang hiệu lực qua target PRODUCT / CATEGORY / BRAND
+     */
+    public static Specification<ProductCardProjection> hasDiscount(Collection<Long> productIds,
+                                                                   Collection<Long> categoryIds,
+                                                                   Collection<Long> brandIds) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!productIds.isEmpty()) {
+                predicates.add(root.get("productId").in(productIds));
+            }
+            if (!categoryIds.isEmpty()) {
+                predicates.add(root.get("categoryId").in(categoryIds));
+            }
+            if (!brandIds.isEmpty()) {
+                predicates.add(root.get("brandId").in(brandIds));
+            }
+            return predicates.isEmpty()
+                    ? criteriaBuilder.disjunction()
+                    : criteriaBuilder.or(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Sản phẩm liên quan: cùng danh mục, khác sản phẩm gốc, có giá và giá hiển thị chênh lệch không quá maxDifference
+     */
+    public static Specification<ProductCardProjection> related(Long productId, Long categoryId,
+                                                               BigDecimal price, BigDecimal maxDifference) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<BigDecimal> displayPrice = root.get("displayPrice");
+            return criteriaBuilder.and(
+                    criteriaBuilder.equal(root.get("categoryId"), categoryId),
+                    criteriaBuilder.notEqual(root.get("productId"), productId),
+                    criteriaBuilder.greaterThan(displayPrice, BigDecimal.ZERO),
+                    criteriaBuilder.between(displayPrice, price.subtract(maxDifference), price.add(maxDifference)));
+        };
+    }
+
+    /**
+     * Mọi token của từ khóa (đã bỏ dấu) xuất hiện theo thứ tự trong search_text, cùng pattern với ProductSearchEngine
+     */
+    public static Specification<ProductCardProjection> searchText(String keyword) {
+        return (root, query, criteriaBuilder) -> {
+            String folded = VietnameseTextNormalizer.fold(keyword);
+            if (folded == null) {
+                return criteriaBuilder.conjunction();
+            }
+            String escaped = folded.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            return criteriaBuilder.like(root.get("searchText"), "%" + escaped.replaceAll("\\s+", "%") + "%", '\\');
+        };
+    }
+
+    private static Predicate existsTemplate(Root<ProductCardProjection> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                            BiFunction<Root<ProductTemplate>, CriteriaBuilder, Predicate> condition) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<ProductTemplate> template = subquery.from(ProductTemplate.class);
+        subquery.select(template.get("id"))
+                .where(cb.equal(template.get("product").get("id"), root.get("productId")),
+                        condition.apply(template, cb));
+        return cb.exists(subquery);
+    }
+
+    private static Predicate existsMetadata(Root<ProductCardProjection> root, CriteriaQuery<?> query, CriteriaBuilder cb,
+                                            BiFunction<Root<ProductMetadata>, CriteriaBuilder, Predicate> condition) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<ProductMetadata> metadata = subquery.from(ProductMetadata.class);
+        subquery.select(metadata.get("id"))
+                .where(cb.equal(metadata.get("product").get("id"), root.get("productId")),
+                        condition.apply(metadata, cb));
+        return cb.exists(subquery);
+    }
+
+    private static List<Double> parseSizes(List<String> sizes) {
+        return sizes.stream()
+                .filter(Objects::nonNull)
+                .map(size -> {
+                    try {
+                        return Double.valueOf(size.trim());
+                    } catch (NumberFormatException e) {
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
@@ -153,39 +153,6 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            countQuery = "SELECT COUNT(DISTINCT p) FROM Product p WHERE p.status = true AND p.isDeleted = false")
     Page<Product> findAllForProductView(Pageable pageable);
     
-    /**
-     * Search ProductView bằng đối sánh chuỗi con cơ bản để tránh lỗi HQL phức tạp
-     */
-    @Query(value = """
-               SELECT DISTINCT p FROM Product p
-               LEFT JOIN FETCH p.category c
-               LEFT JOIN FETCH p.brand b
-               WHERE p.status = true
-               AND p.isDeleted = false
-               AND (
-                      :keyword IS NULL OR :keyword = ''
-                      OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                      OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                      OR LOWER(b.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                      OR LOWER(c.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-               )
-               """,
-               countQuery = """
-               SELECT COUNT(DISTINCT p) FROM Product p
-               LEFT JOIN p.category c
-               LEFT JOIN p.brand b
-               WHERE p.status = true
-               AND p.isDeleted = false
-               AND (
-                      :keyword IS NULL OR :keyword = ''
-                      OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                      OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                      OR LOWER(b.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                      OR LOWER(c.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-               )
-               """)
-    Page<Product> searchProductsOptimized(@Param("keyword") String keyword, Pageable pageable);
-    
     /**
      * Filter by category với JOIN FETCH
      */
@@ -197,38 +164,6 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
            countQuery = "SELECT COUNT(DISTINCT p) FROM Product p WHERE p.status = true AND p.isDeleted = false AND p.category.id = :categoryId")
     Page<Product> findByCategoryIdOptimized(@Param("categoryId") Long categoryId, Pageable pageable);
     
-    /**
-     * Advanced filter với JOIN FETCH và price range
-     * Hỗ trợ lọc đa category và đa brand với logic OR
-     */
-    @Query(value = "SELECT DISTINCT p FROM Product p " +
-           "LEFT JOIN FETCH p.category " +
-           "LEFT JOIN FETCH p.brand " +
-           "LEFT JOIN p.templates t " +
-           "WHERE p.isDeleted = false " +
-           "AND p.status = true " +
-           "AND (:categoryIds IS NULL OR p.category.id IN :categoryIds) " +
-           "AND (:brandIds IS NULL OR p.brand.id IN :brandIds) " +
-           "AND ((:minPrice IS NULL AND :maxPrice IS NULL) " +
-           "OR (t.status = true " +
-           "AND (:minPrice IS NULL OR t.price >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR t.price <= :maxPrice)))",
-           countQuery = "SELECT COUNT(DISTINCT p) FROM Product p " +
-                       "LEFT JOIN p.templates t " +
-                       "WHERE p.isDeleted = false AND p.status = true " +
-                       "AND (:categoryIds IS NULL OR p.category.id IN :categoryIds) " +
-                       "AND (:brandIds IS NULL OR p.brand.id IN :brandIds) " +
-                       "AND ((:minPrice IS NULL AND :maxPrice IS NULL) " +
-                       "OR (t.status = true " +
-                       "AND (:minPrice IS NULL OR t.price >= :minPrice) " +
-                       "AND (:maxPrice IS NULL OR t.price <= :maxPrice)))")
-    Page<Product> filterProductsOptimized(
-            @Param("categoryIds") List<Long> categoryIds,
-            @Param("brandIds") List<Long> brandIds,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice,
-            Pageable pageable);
-
     // ==================== OPTIMIZED QUERIES FOR HOMEPAGE SECTIONS ====================
     
     /**
@@ -282,27 +217,47 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      */
     @Query("SELECT COUNT(p) FROM Product p WHERE p.status = true AND p.isDeleted = false")
     long countActiveProducts();
-    
+
     /**
-     * Lấy TẤT CẢ sản phẩm matching filters (không pagination)
-     * Dùng cho sorting theo computed fields (price, rating, soldCount)
-     * Cần sort trong service layer sau khi tính toán
+     * Load đầy đủ entity graph cho card (category, brand, templates, metadata) trong 1 query
+     * Dùng cho product card projection - không lọc status để phát hiện sản phẩm bị ẩn/xóa
      */
     @Query("SELECT DISTINCT p FROM Product p " +
            "LEFT JOIN FETCH p.category " +
            "LEFT JOIN FETCH p.brand " +
-           "LEFT JOIN p.templates t " +
-           "WHERE p.isDeleted = false AND p.status = true " +
-           "AND (:categoryIds IS NULL OR p.category.id IN :categoryIds) " +
-           "AND (:brandIds IS NULL OR p.brand.id IN :brandIds) " +
-           "AND ((:minPrice IS NULL AND :maxPrice IS NULL) " +
-           "OR (t.status = true " +
-           "AND (:minPrice IS NULL OR t.price >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR t.price <= :maxPrice)))")
-    List<Product> filterProductsAll(
-            @Param("categoryIds") List<Long> categoryIds,
-            @Param("brandIds") List<Long> brandIds,
-            @Param("minPrice") BigDecimal minPrice,
-            @Param("maxPrice") BigDecimal maxPrice);
-}
+           "LEFT JOIN FETCH p.templates " +
+           "LEFT JOIN FETCH p.metadata " +
+           "WHERE p.id IN :ids")
+    List<Product> findCardGraphByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Lấy IDs tất cả sản phẩm đang hiển thị
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.status = true AND p.isDeleted = false ORDER BY p.id")
+    List<Long> findVisibleProductIds();
 
+    /**
+     * Dấu phiên bản của toàn bộ catalog (ETag cho các endpoint danh sách):
+     * [max updatedAt, count] của product, template, metadata, review và đơn DELIVERED (sold count)
+     */
+    @Query("SELECT MAX(p.updatedAt), COUNT(p), " +
+           "(SELECT MAX(t.updatedAt) FROM ProductTemplate t), (SELECT COUNT(t) FROM ProductTemplate t), " +
+           "(SELECT MAX(m.updatedAt) FROM ProductMetadata m), " +
+           "(SELECT MAX(r.updatedAt) FROM Review r), (SELECT COUNT(r) FROM Review r), " +
+           "(SELECT MAX(o.updatedAt) FROM Order o WHERE o.status = 'DELIVERED'), " +
+           "(SELECT COUNT(o) FROM Order o WHERE o.status = 'DELIVERED') " +
+           "FROM Product p")
+    List<Object[]> findCatalogVersionStamp();
+
+    /**
+     * Dấu phiên bản của một sản phẩm (ETag cho trang chi tiết), rỗng nếu không tồn tại
+     */
+    @Query("SELECT p.updatedAt, " +
+           "(SELECT MAX(t.updatedAt) FROM ProductTemplate t WHERE t.product = p), " +
+           "(SELECT COUNT(t) FROM ProductTemplate t WHERE t.product = p), " +
+           "(SELECT MAX(m.updatedAt) FROM ProductMetadata m WHERE m.product = p), " +
+           "(SELECT MAX(r.updatedAt) FROM Review r WHERE r.product = p), " +
+           "(SELECT COUNT(r) FROM Review r WHERE r.product = p) " +
+           "FROM Product p WHERE p.id = :id")
+    List<Object[]> findVersionStampById(@Param("id") Long id);
+}
@@ -1,12 +1,15 @@
 package com.utephonehub.backend.repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -74,4 +77,50 @@ public interface ProductTemplateRepository extends JpaRepository<ProductTemplate
      * Using Spring Data naming convention instead of LIMIT for portability
      */
     Optional<ProductTemplate> findFirstByProductIdAndStatusTrueOrderByPriceAsc(Long productId);
+
+    /**
+     * Active templates with stock of the given products: [templateId, productId, stockQuantity]
+     * Ordered by id so concurrent checkouts lock template rows in the same order (no deadlock)
+     */
+    @Query("SELECT pt.id, pt.product.id, pt.stockQuantity FROM ProductTemplate pt " +
+           "WHERE pt.product.id IN :productIds AND pt.status = true AND pt.stockQuantity > 0 ORDER BY pt.id")
+    List<Object[]> findAvailableStock(@Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Current stock of an active template, read from the database (not the persistence context)
+     */
+    @Query("SELECT pt.stockQuantity FROM ProductTemplate pt WHERE pt.id = :id AND pt.status = true")
+    Optional<Integer> findAvailableStockById(@Param("id") Long id);
+
+    /**
+     * Atomic conditional decrement: 1 row if the template had enough stock, 0 otherwise
+     * stockStatus is derived here because bulk updates skip {@link ProductTemplate#updateStockStatus()}
+     * (same thresholds; all SET expressions read the old stockQuantity)
+     */
+    @Modifying
+    @Query("UPDATE ProductTemplate pt SET " +
+           "pt.stockStatus = CASE WHEN pt.stockQuantity - :quantity <= 0 THEN com.utephonehub.backend.enums.StockStatus.OUT_OF_STOCK " +
+           "WHEN pt.stockQuantity - :quantity <= 10 THEN com.utephonehub.backend.enums.StockStatus.LOW_STOCK " +
+           "ELSE com.utephonehub.backend.enums.StockStatus.IN_STOCK END, " +
+           "pt.stockQuantity = pt.stockQuantity - :quantity, pt.updatedAt = :now " +
+           "WHERE pt.id = :id AND pt.status = true AND pt.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    /**
+     * Return stock to a template (also when it has been deactivated in the meantime)
+     */
+    @Modifying
+    @Query("UPDATE ProductTemplate pt SET " +
+           "pt.stockStatus = CASE WHEN pt.stockQuantity + :quantity <= 0 THEN com.utephonehub.backend.enums.StockStatus.OUT_OF_STOCK " +
+           "WHEN pt.stockQuantity + :quantity <= 10 THEN com.utephonehub.backend.enums.StockStatus.LOW_STOCK " +
+           "ELSE com.utephonehub.backend.enums.StockStatus.IN_STOCK END, " +
+           "pt.stockQuantity = pt.stockQuantity + :quantity, pt.updatedAt = :now " +
+           "WHERE pt.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
+
+    /**
+     * Product ids of the given templates (for cache invalidation events)
+     */
+    @Query("SELECT DISTINCT pt.product.id FROM ProductTemplate pt WHERE pt.id IN :ids")
+    List<Long> findProductIdsByIds(@Param("ids") Collection<Long> ids);
 }
@@ -2,7 +2,11 @@ package com.utephonehub.backend.repository;
 
 import com.utephonehub.backend.entity.Promotion;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,4 +18,32 @@ public interface PromotionRepository extends JpaRepository<Promotion, String> {
     Optional<Promotion> findByTemplateCode(String code);
 
     List<Promotion> findByEffectiveDateBeforeAndExpirationDateAfter(LocalDateTime now1, LocalDateTime now2);
-}
\ No newline at end of file
+
+    /**
+     * Tìm tất cả khuyến mãi ACTIVE chưa hết hạn (kể cả chưa đến ngày hiệu lực), kèm targets
+     * Dùng để build ActivePromotionSnapshot trong 1 query
+     */
+    @Query("SELECT DISTINCT p FROM Promotion p " +
+           "LEFT JOIN FETCH p.targets " +
+           "WHERE p.status = 'ACTIVE' " +
+           "AND p.expirationDate > :now")
+    List<Promotion> findActiveNotExpiredWithTargets(@Param("now") LocalDateTime now);
+
+    /**
+     * Lấy các mốc thời gian (effectiveDate, expirationDate) của khuyến mãi ACTIVE chưa hết hạn
+     * Projection nhẹ cho PromotionStatusScheduler: [id, effectiveDate, expirationDate]
+     */
+    @Query("SELECT p.id, p.effectiveDate, p.expirationDate FROM Promotion p " +
+           "WHERE p.status = 'ACTIVE' AND p.expirationDate > :now")
+    List<Object[]> findUpcomingTransitions(@Param("now") LocalDateTime now);
+
+    /**
+     * Chuyển các khuyến mãi ACTIVE đã hết hạn sang INACTIVE (set-based, không load entity)
+     * @return Số khuyến mãi bị chuyển trạng thái
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Promotion p SET p.status = 'INACTIVE' " +
+           "WHERE p.status = 'ACTIVE' AND p.expirationDate <= :now")
+    int deactivateExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,39 @@
+package com.utephonehub.backend.repository;
+
+import com.utephonehub.backend.entity.StockReservation;
+import com.utephonehub.backend.enums.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    /**
+     * Reservations of an order, row-locked (SELECT ... FOR UPDATE) in id order
+     * Commit, cancel and the expiry job lock the same rows first, so only one of them wins
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM StockReservation r WHERE r.order.id = :orderId AND r.status IN :statuses ORDER BY r.id")
+    List<StockReservation> lockByOrderIdAndStatusIn(@Param("orderId") Long orderId,
+                                                    @Param("statuses") Collection<ReservationStatus> statuses);
+
+    boolean existsByOrderIdAndStatus(Long orderId, ReservationStatus status);
+
+    /**
+     * Orders holding reservations past their expiry time, oldest first
+     */
+    @Query("SELECT r.order.id FROM StockReservation r WHERE r.status = :status AND r.expiresAt < :now " +
+           "GROUP BY r.order.id ORDER BY MIN(r.expiresAt)")
+    List<Long> findOrderIdsExpiredBefore(@Param("status") ReservationStatus status,
+                                         @Param("now") LocalDateTime now,
+                                         Pageable pageable);
+}
@@ -0,0 +1,20 @@
+package com.utephonehub.backend.service;
+
+import com.utephonehub.backend.dto.response.cache.CacheStatsResponse;
+
+import java.util.List;
+
+/**
+ * Interface for cache effectiveness statistics (admin)
+ */
+public interface ICacheStatsService {
+
+    /**
+     * Statistics of every known cache on this node
+     * - Spring caches (two-level Caffeine + Redis)
+     * - Guest cart Redis keys
+     * - In-memory chatbot caches
+     * @return One entry per cache, sorted by name
+     */
+    List<CacheStatsResponse> getCacheStats();
+}
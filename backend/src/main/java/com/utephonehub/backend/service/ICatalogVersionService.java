@@ -0,0 +1,38 @@
+package com.utephonehub.backend.service;
+
+/**
+ * Interface for catalog version stamps used by HTTP conditional GET (ETag)
+ * A stamp is computed from entity timestamps and counts, so the request can be answered
+ * with 304 Not Modified before any response DTO is built
+ * No Last-Modified: promotions, sold counts and deletions change the data without moving any updatedAt,
+ * so a date alone cannot validate a cached response
+ */
+public interface ICatalogVersionService {
+
+    /**
+     * @param etag Strong ETag value (without quotes), identical on every node for the same data
+     */
+    record Version(String etag) {
+    }
+
+    /**
+     * Product lists (search, filters, category pages, homepage sections, related products)
+     * Covers products, templates, reviews, sold counts, categories, brands and active promotions
+     */
+    Version getCatalogVersion();
+
+    /**
+     * Product detail page
+     * @return null when the product does not exist (the request is handled normally -> 404)
+     */
+    Version getProductVersion(Long productId);
+
+    Version getCategoryVersion();
+
+    Version getBrandVersion();
+
+    /**
+     * Provinces/wards (static reference data)
+     */
+    Version getLocationVersion();
+}
@@ -3,6 +3,7 @@ package com.utephonehub.backend.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.utephonehub.backend.config.GeminiConfig;
+import com.utephonehub.backend.service.impl.chatbot.EmbeddingStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,7 +13,7 @@ import java.util.*;
 
 /**
  * Service để tạo embedding sử dụng Gemini Embedding Model
- * Tối ưu chi phí: Cache embedding, batch processing
+ * Tối ưu chi phí: Cache embedding (heap + Redis), batch processing
  * Support fallback API keys để tránh rate limit
  */
 @Service
@@ -24,21 +25,20 @@ public class IGeminiEmbeddingService {
     private final GeminiConfig geminiConfig;
     private final IGeminiFallbackService fallbackService;
     private final ObjectMapper objectMapper;
-    
-    // Cache embedding để tối ưu chi phí
-    private final Map<String, List<Double>> embeddingCache = new HashMap<>();
+    private final EmbeddingStore embeddingStore;
     
     /**
      * Lấy embedding cho một text (với fallback API keys)
+     * Cache theo hash nội dung, lưu cả trong Redis nên không gọi lại Gemini sau khi restart
      * @param text Văn bản cần tạo embedding
-     * @return Vector embedding (1536 dimensions)
+     * @return Vector embedding, mảng rỗng nếu không tạo được
      */
-    public List<Double> getEmbedding(String text) {
-        if (embeddingCache.containsKey(text)) {
-            log.debug("✅ Sử dụng embedding từ cache cho text: {}", text.substring(0, Math.min(50, text.length())));
-            return embeddingCache.get(text);
-        }
-        
+    public float[] getEmbedding(String text) {
+        float[] embedding = embeddingStore.getOrLoad(text, () -> requestEmbedding(text));
+        return embedding != null ? embedding : new float[0];
+    }
+    
+    private float[] requestEmbedding(String text) {
         try {
             Map<String, Object> requestBody = Map.of(
                 "requests", List.of(
@@ -56,17 +56,16 @@ public class IGeminiEmbeddingService {
             JsonNode responseNode = objectMapper.readTree(responseJson);
             JsonNode embeddingValues = responseNode.path("embeddings").get(0).path("values");
             
-            List<Double> embedding = new ArrayList<>();
-            embeddingValues.forEach(node -> embedding.add(node.asDouble()));
-            
-            // Lưu vào cache
-            embeddingCache.put(text, embedding);
+            float[] embedding = new float[embeddingValues.size()];
+            for (int i = 0; i < embedding.length; i++) {
+                embedding[i] = (float) embeddingValues.get(i).asDouble();
+            }
             log.debug("💾 Embedding cached cho text: {}", text.substring(0, Math.min(50, text.length())));
             
             return embedding;
         } catch (Exception e) {
             log.error("❌ Lỗi tạo embedding: {}", e.getMessage());
-            return Collections.emptyList();
+            return null;
         }
     }
     
@@ -76,8 +75,8 @@ public class IGeminiEmbeddingService {
      * @param vec2 Vector 2
      * @return Độ tương tự (0-1)
      */
-    public Double cosineSimilarity(List<Double> vec1, List<Double> vec2) {
-        if (vec1.isEmpty() || vec2.isEmpty() || vec1.size() != vec2.size()) {
+    public double cosineSimilarity(float[] vec1, float[] vec2) {
+        if (vec1.length == 0 || vec2.length == 0 || vec1.length != vec2.length) {
             return 0.0;
         }
         
@@ -85,10 +84,12 @@ public class IGeminiEmbeddingService {
         double norm1 = 0.0;
         double norm2 = 0.0;
         
-        for (int i = 0; i < vec1.size(); i++) {
-            dotProduct += vec1.get(i) * vec2.get(i);
-            norm1 += vec1.get(i) * vec1.get(i);
-            norm2 += vec2.get(i) * vec2.get(i);
+        for (int i = 0; i < vec1.length; i++) {
+            double a = vec1[i];
+            double b = vec2[i];
+            dotProduct += a * b;
+            norm1 += a * a;
+            norm2 += b * b;
         }
         
         if (norm1 == 0 || norm2 == 0) {
@@ -99,17 +100,18 @@ public class IGeminiEmbeddingService {
     }
     
     /**
-     * Xóa cache (có thể gọi periodic để tiết kiệm memory)
+     * Xóa cache trong memory (có thể gọi periodic để tiết kiệm memory)
+     * Bản lưu trong Redis vẫn còn, lần gọi sau nạp lại mà không tốn request Gemini
      */
     public void clearCache() {
-        embeddingCache.clear();
+        embeddingStore.clearLocal();
         log.info("🧹 Embedding cache đã được xóa");
     }
     
     /**
-     * Lấy số lượng embedding đã cache
+     * Lấy số lượng embedding đã cache trong memory
      */
-    public int getCacheSize() {
-        return embeddingCache.size();
+    public long getCacheSize() {
+        return embeddingStore.localSize();
     }
 }
@@ -0,0 +1,62 @@
+package com.utephonehub.backend.service;
+
+import com.utephonehub.backend.dto.response.inventory.HotStockResponse;
+import com.utephonehub.backend.entity.Order;
+import com.utephonehub.backend.entity.OrderItem;
+
+import java.util.List;
+
+/**
+ * Interface for order-driven stock changes on ProductTemplate
+ * Every change is a conditional UPDATE of one template row (never a read-modify-write of the Product aggregate),
+ * recorded as a StockReservation so it can be released later
+ */
+public interface IInventoryService {
+
+    /**
+     * Take stock for an order that is confirmed immediately (COD / bank transfer)
+     * @throws com.utephonehub.backend.exception.BadRequestException if a product does not have enough stock
+     */
+    void deductStock(Order order, List<OrderItem> items);
+
+    /**
+     * Hold stock for an order waiting for online payment (VNPay)
+     * The hold is released automatically if the payment does not arrive before the reservation TTL
+     * @throws com.utephonehub.backend.exception.BadRequestException if a product does not have enough stock
+     */
+    void reserveStock(Order order, List<OrderItem> items);
+
+    /**
+     * Payment succeeded: keep the held stock for good
+     * If the hold has already expired, the stock is taken again when still available
+     * @return false if the stock is no longer available (order should be cancelled and refunded)
+     */
+    boolean commitReservation(Order order);
+
+    /**
+     * Return every unit held or taken by the order (idempotent)
+     */
+    void releaseStock(Long orderId);
+
+    /**
+     * Release holds past their expiry time
+     * @return Number of orders whose holds were released
+     */
+    int releaseExpiredReservations();
+
+    /**
+     * Flash-sale SKUs whose stock is currently served from Redis
+     */
+    List<HotStockResponse> getHotStock();
+
+    /**
+     * Serve a template's stock from Redis, starting from its current database stock
+     * Nên bật trước khi mở bán và không sửa tồn kho của SKU đó trong lúc đang hot
+     */
+    HotStockResponse enableHotStock(Long templateId);
+
+    /**
+     * Stop serving a template from Redis and write its remaining changes to the database
+     */
+    void disableHotStock(Long templateId);
+}
@@ -1,5 +1,6 @@
 package com.utephonehub.backend.service;
 
+import com.fasterxml.jackson.core.SerializableString;
 import com.utephonehub.backend.dto.response.location.ProvinceResponse;
 import com.utephonehub.backend.dto.response.location.WardResponse;
 
@@ -56,4 +57,35 @@ public interface ILocationService {
      * @return boolean
      */
     boolean isValidWardCode(String wardCode);
+
+    /**
+     * JSON dựng sẵn của getAllProvinces() (ghi thẳng vào response, không serialize lại)
+     */
+    SerializableString getAllProvincesJson();
+
+    /**
+     * JSON dựng sẵn của getAllWards()
+     */
+    SerializableString getAllWardsJson();
+
+    /**
+     * JSON dựng sẵn của getWardsByProvinceCode()
+     * @param provinceCode Mã tỉnh/thành phố
+     */
+    SerializableString getWardsByProvinceCodeJson(String provinceCode);
+
+    /**
+     * Tìm tỉnh/thành phố theo tiền tố tên (không dấu, khớp đầu mỗi từ)
+     * @param keyword VD: "ho chi", "ha n"
+     * @param limit Số kết quả tối đa
+     */
+    List<ProvinceResponse> searchProvinces(String keyword, int limit);
+
+    /**
+     * Tìm phường/xã theo tiền tố tên (không dấu, khớp đầu mỗi từ)
+     * @param keyword VD: "hoan kiem", "ben ng"
+     * @param provinceCode Giới hạn trong một tỉnh (null = cả nước)
+     * @param limit Số kết quả tối đa
+     */
+    List<WardResponse> searchWards(String keyword, String provinceCode, int limit);
 }
@@ -0,0 +1,37 @@
+package com.utephonehub.backend.service;
+
+import com.utephonehub.backend.dto.response.productview.ProductCardResponse;
+import com.utephonehub.backend.entity.ProductCardProjection;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface for the product card read model (product_card_projections)
+ * Precomputed cards for listing endpoints, maintained incrementally from ProductChangedEvent
+ */
+public interface IProductCardProjectionService {
+
+    /**
+     * Get precomputed base cards (no discount applied) by product IDs
+     * Products without a projection row are simply absent from the result
+     */
+    Map<Long, ProductCardResponse> getCards(Collection<Long> productIds);
+
+    /**
+     * Read base cards from already loaded projection rows, keeping their order
+     */
+    List<ProductCardResponse> toCards(List<ProductCardProjection> projections);
+
+    /**
+     * Recompute projection rows of the given products
+     * Hidden/deleted products have their rows removed
+     */
+    void refresh(List<Long> productIds);
+
+    /**
+     * Rebuild the whole read model (startup, recovery)
+     */
+    void refreshAll();
+}
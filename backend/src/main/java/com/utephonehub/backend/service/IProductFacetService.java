@@ -0,0 +1,20 @@
+package com.utephonehub.backend.service;
+
+import com.utephonehub.backend.dto.request.productview.ProductFilterRequest;
+import com.utephonehub.backend.dto.response.productview.CategoryProductsResponse;
+
+/**
+ * Interface for filter sidebar facet counts
+ * All facets (brand, price, RAM, storage, screen, OS, battery, rating) are computed together
+ */
+public interface IProductFacetService {
+
+    /**
+     * Count products per filter option, scoped to the current filter
+     * Each facet is counted with every other active filter applied, but not its own,
+     * so selecting "8GB" still shows the counts of the other RAM options
+     * @param request Current filter (sort and pagination are ignored)
+     * @return Filter options with product counts
+     */
+    CategoryProductsResponse.FilterOptions getFilterOptions(ProductFilterRequest request);
+}
@@ -4,9 +4,12 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.utephonehub.backend.dto.response.ChatbotAssistantUserResponse;
 import com.utephonehub.backend.dto.response.productview.ProductCardResponse;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
@@ -21,6 +24,8 @@ import java.util.stream.Collectors;
  * OPTIMIZATION v2.0:
  * - Gọi trực tiếp IProductViewService thay vì HTTP API (giảm overhead)
  * - Sử dụng @Cacheable với Redis (thay vì in-memory cache)
+ * - Kết quả lọc/danh mục/liên quan nằm trong cache "chatbotProducts" (Caffeine + Redis, TTL 1 giờ,
+ *   refresh-ahead, metrics) dùng chung hạ tầng cache với các cache khác
  * - Lazy conversion từ ProductCardResponse -> RecommendedProductDTO
  */
 @Service
@@ -32,13 +37,19 @@ public class IProductRecommendationService {
     private final IGeminiEmbeddingService embeddingService;
     private final ObjectMapper objectMapper;
     private final IProductViewService productViewService;
+    private final CacheManager cacheManager;
     
     @Value("${api.product.base-url:http://localhost:8081/api/v1/products}")
     private String productApiBaseUrl;
     
-    // Fallback in-memory cache (khi Redis không available)
-    private final Map<String, CachedProducts> productCache = new HashMap<>();
-    private static final long CACHE_EXPIRY_MS = 3600000; // 1 giờ
+    static final String PRODUCT_CACHE = "chatbotProducts";
+    
+    private Cache productCache;
+    
+    @PostConstruct
+    void initProductCache() {
+        productCache = cacheManager.getCache(PRODUCT_CACHE);
+    }
     
     /**
      * Lấy sản phẩm nổi bật (GỌI TRỰC TIẾP SERVICE - không qua HTTP)
@@ -324,13 +335,13 @@ public class IProductRecommendationService {
         log.info("🧠 Lọc sản phẩm dùng embedding similarity, threshold={}", threshold);
         
         try {
-            List<Double> queryEmbedding = embeddingService.getEmbedding(userQuery);
+            float[] queryEmbedding = embeddingService.getEmbedding(userQuery);
             
             List<ChatbotAssistantUserResponse.RecommendedProductDTO> filtered = new ArrayList<>();
             
             for (ChatbotAssistantUserResponse.RecommendedProductDTO product : products) {
                 String productText = product.getName() + " " + product.getDescription();
-                List<Double> productEmbedding = embeddingService.getEmbedding(productText);
+                float[] productEmbedding = embeddingService.getEmbedding(productText);
                 
                 double similarity = embeddingService.cosineSimilarity(queryEmbedding, productEmbedding);
                 
@@ -436,21 +447,24 @@ public class IProductRecommendationService {
     
     /**
      * Helper: Lấy từ cache hoặc gọi API
+     * Một request gọi API cho mỗi key (các request đồng thời chờ cùng kết quả);
+     * kết quả rỗng (thường do lỗi API) không được cache
      */
     private List<ChatbotAssistantUserResponse.RecommendedProductDTO> getProductsFromCache(
             String key, java.util.function.Supplier<List<ChatbotAssistantUserResponse.RecommendedProductDTO>> fetcher) {
         
-        if (productCache.containsKey(key)) {
-            CachedProducts cached = productCache.get(key);
-            if (!cached.isExpired()) {
-                log.debug("💾 Sử dụng cache cho key: {}", key);
-                return cached.products;
-            }
+        List<ChatbotAssistantUserResponse.RecommendedProductDTO> products;
+        try {
+            products = productCache.get(key, () -> {
+                List<ChatbotAssistantUserResponse.RecommendedProductDTO> fetched = fetcher.get();
+                return fetched == null || fetched.isEmpty() ? null : fetched;
+            });
+        } catch (RuntimeException e) {
+            // Redis không available: gọi API trực tiếp
+            log.warn("⚠️ Không dùng được cache {} cho key {}: {}", PRODUCT_CACHE, key, e.getMessage());
+            products = fetcher.get();
         }
-        
-        List<ChatbotAssistantUserResponse.RecommendedProductDTO> products = fetcher.get();
-        productCache.put(key, new CachedProducts(products));
-        return products;
+        return products != null ? products : Collections.emptyList();
     }
     
     /**
@@ -460,21 +474,4 @@ public class IProductRecommendationService {
         productCache.clear();
         log.info("🧹 Product cache đã được xóa");
     }
-    
-    /**
-     * Class helper để cache sản phẩm
-     */
-    private static class CachedProducts {
-        private final List<ChatbotAssistantUserResponse.RecommendedProductDTO> products;
-        private final long timestamp;
-        
-        CachedProducts(List<ChatbotAssistantUserResponse.RecommendedProductDTO> products) {
-            this.products = products;
-            this.timestamp = System.currentTimeMillis();
-        }
-        
-        boolean isExpired() {
-            return System.currentTimeMillis() - timestamp > CACHE_EXPIRY_MS;
-        }
-    }
 }
@@ -0,0 +1,34 @@
+package com.utephonehub.backend.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interface for product sold counts (quantity in DELIVERED orders)
+ * Served from in-memory counters - no aggregation over order_items on the request path
+ */
+public interface ISoldCountService {
+
+    /**
+     * Sold count of one product (0 if never sold)
+     */
+    int getSoldCount(Long productId);
+
+    /**
+     * Batched multi-get for a page of products
+     * @return productId -> sold count (every requested id is present)
+     */
+    Map<Long, Integer> getSoldCounts(Collection<Long> productIds);
+
+    /**
+     * Top-K best sellers, sold count DESC (ties: newer product first)
+     * Only products with sold count > 0; may include hidden products, callers filter visibility
+     */
+    List<Long> getTopSellingProductIds(int limit);
+
+    /**
+     * Reload all counters from the database
+     */
+    void reload();
+}
@@ -6,12 +6,14 @@ import com.utephonehub.backend.dto.response.order.AdminOrderDetailResponse;
 import com.utephonehub.backend.dto.response.order.AdminOrderListResponse;
 import com.utephonehub.backend.entity.Order;
 import com.utephonehub.backend.enums.OrderStatus;
+import com.utephonehub.backend.event.OrderStatusChangedEvent;
 import com.utephonehub.backend.exception.BadRequestException;
 import com.utephonehub.backend.exception.ResourceNotFoundException;
 import com.utephonehub.backend.repository.OrderRepository;
 import com.utephonehub.backend.service.IAdminOrderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -31,6 +33,7 @@ import java.util.stream.Collectors;
 public class AdminOrderServiceImpl implements IAdminOrderService {
 
 	private final OrderRepository orderRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	@Override
 	@Transactional(readOnly = true)
@@ -136,6 +139,7 @@ public class AdminOrderServiceImpl implements IAdminOrderService {
 		Order updatedOrder = orderRepository.save(order);
 
 		log.info("Successfully updated order {} from {} to {}", orderId, oldStatus, newStatus);
+		eventPublisher.publishEvent(OrderStatusChangedEvent.of(updatedOrder, oldStatus));
 
 		// TODO: Save status history with admin note (can be enhanced later)
 
@@ -231,8 +235,10 @@ public class AdminOrderServiceImpl implements IAdminOrderService {
 
 		List<Order> orders = orderRepository.findAllById(orderIds);
 
+		Map<Order, OrderStatus> changed = new LinkedHashMap<>();
 		for (Order order : orders) {
 			if (isValidStatusTransition(order.getStatus(), newStatus)) {
+				changed.put(order, order.getStatus());
 				order.setStatus(newStatus);
 				order.setUpdatedAt(LocalDateTime.now());
 			} else {
@@ -243,6 +249,7 @@ public class AdminOrderServiceImpl implements IAdminOrderService {
 
 		orderRepository.saveAll(orders);
 		log.info("Completed bulk update for {} orders", orders.size());
+		changed.forEach((order, oldStatus) -> eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, oldStatus)));
 	}
 
 	@Override
@@ -0,0 +1,199 @@
+package com.utephonehub.backend.service.impl;
+
+import com.utephonehub.backend.config.cache.CacheMetrics;
+import com.utephonehub.backend.config.cache.TwoLevelCacheManager;
+import com.utephonehub.backend.dto.response.cache.CacheStatsResponse;
+import com.utephonehub.backend.service.ICacheStatsService;
+import com.utephonehub.backend.service.impl.chatbot.EmbeddingStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache statistics built from the Micrometer meters in {@link CacheMetrics}
+ * plus on-demand Redis key counts (SCAN, capped - chỉ chạy khi admin gọi)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheStatsServiceImpl implements ICacheStatsService {
+
+    private static final int MAX_SCANNED_KEYS = 100_000;
+    private static final int SCAN_COUNT = 500;
+    private static final int SIZE_SAMPLE = 200;
+
+    private final MeterRegistry meterRegistry;
+    private final TwoLevelCacheManager cacheManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Override
+    public List<CacheStatsResponse> getCacheStats() {
+        Set<String> springCaches = new TreeSet<>(cacheManager.getCacheNames());
+        Set<String> names = new TreeSet<>(springCaches);
+        meterRegistry.find(CacheMetrics.REQUESTS).meters()
+                .forEach(meter -> names.add(meter.getId().getTag(CacheMetrics.TAG_CACHE)));
+
+        List<CacheStatsResponse> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            CacheStatsResponse stats = fromMeters(name);
+            if (springCaches.contains(name)) {
+                stats.setType("TWO_LEVEL");
+                stats.setRemoteEntries(countKeys(name + "::*"));
+                stats.setTtlSeconds(cacheManager.remoteTtl(name).toSeconds());
+                stats.setLocalTtlSeconds(cacheManager.localTtl(name).toSeconds());
+            } else if (EmbeddingStore.METRICS_NAME.equals(name)) {
+                stats.setType("TWO_LEVEL");
+                stats.setRemoteEntries(countKeys(EmbeddingStore.KEY_PREFIX + "*"));
+            } else if (GuestCartServiceImpl.METRICS_NAME.equals(name)) {
+                stats.setType("REDIS");
+                fillGuestCartKeys(stats);
+            } else {
+                stats.setType("IN_MEMORY");
+            }
+            result.add(stats);
+        }
+        return result;
+    }
+
+    private CacheStatsResponse fromMeters(String name) {
+        long localHits = requests(name, CacheMetrics.HIT_LOCAL);
+        long remoteHits = requests(name, CacheMetrics.HIT_REMOTE);
+        long misses = requests(name, CacheMetrics.MISS);
+        long total = localHits + remoteHits + misses;
+
+        CacheStatsResponse.CacheStatsResponseBuilder builder = CacheStatsResponse.builder()
+                .cacheName(name)
+                .localHits(localHits)
+                .remoteHits(remoteHits)
+                .misses(misses)
+                .hitRatio(total > 0 ? (double) (localHits + remoteHits) / total : null)
+                .evictions(evictions(name));
+
+        Timer loads = meterRegistry.find(CacheMetrics.LOADS).tag(CacheMetrics.TAG_CACHE, name).timer();
+        if (loads != null) {
+            HistogramSnapshot snapshot = loads.takeSnapshot();
+            builder.loadCount(snapshot.count())
+                    .loadMaxMs(snapshot.max(TimeUnit.MILLISECONDS));
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                double millis = percentile.value(TimeUnit.MILLISECONDS);
+                if (percentile.percentile() == 0.5) {
+                    builder.loadP50Ms(millis);
+                } else if (percentile.percentile() == 0.95) {
+                    builder.loadP95Ms(millis);
+                } else if (percentile.percentile() == 0.99) {
+                    builder.loadP99Ms(millis);
+                }
+            }
+        }
+
+        Gauge entries = meterRegistry.find(CacheMetrics.ENTRIES)
+                .tag(CacheMetrics.TAG_CACHE, name)
+                .tag(CacheMetrics.TAG_TIER, "local")
+                .gauge();
+        if (entries != null) {
+            builder.localEntries((long) entries.value());
+        }
+
+        DistributionSummary entrySize = meterRegistry.find(CacheMetrics.ENTRY_SIZE)
+                .tag(CacheMetrics.TAG_CACHE, name)
+                .summary();
+        if (entrySize != null && entrySize.count() > 0) {
+            builder.avgEntryBytes(entrySize.mean()).maxEntryBytes(entrySize.max());
+        }
+        return builder.build();
+    }
+
+    private long requests(String name, String result) {
+        Counter counter = meterRegistry.find(CacheMetrics.REQUESTS)
+                .tag(CacheMetrics.TAG_CACHE, name)
+                .tag(CacheMetrics.TAG_RESULT, result)
+                .counter();
+        return counter != null ? (long) counter.count() : 0L;
+    }
+
+    /**
+     * Counters and function counters (Caffeine) share the cache.evictions name
+     */
+    private Map<String, Long> evictions(String name) {
+        Map<String, Long> byCause = new TreeMap<>();
+        for (Meter meter : meterRegistry.find(CacheMetrics.EVICTIONS).tag(CacheMetrics.TAG_CACHE, name).meters()) {
+            double count = 0;
+            for (Measurement measurement : meter.measure()) {
+                count += measurement.getValue();
+            }
+            byCause.merge(meter.getId().getTag(CacheMetrics.TAG_CAUSE), (long) count, Long::sum);
+        }
+        return byCause;
+    }
+
+    private void fillGuestCartKeys(CacheStatsResponse stats) {
+        List<String> keys = scanKeys(GuestCartServiceImpl.KEY_PREFIX + "*");
+        stats.setRemoteEntries((long) keys.size());
+        stats.setTtlSeconds(GuestCartServiceImpl.TTL.toSeconds());
+
+        // Kích thước value: STRLEN trên một mẫu key, một lần pipeline
+        List<String> sample = keys.subList(0, Math.min(SIZE_SAMPLE, keys.size()));
+        if (sample.isEmpty()) {
+            return;
+        }
+        List<Object> lengths = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (String key : sample) {
+                strLen(connection, key);
+            }
+            return null;
+        });
+        long total = 0;
+        long max = 0;
+        for (Object length : lengths) {
+            long bytes = length instanceof Number number ? number.longValue() : 0L;
+            total += bytes;
+            max = Math.max(max, bytes);
+        }
+        stats.setAvgEntryBytes((double) total / sample.size());
+        stats.setMaxEntryBytes((double) max);
+    }
+
+    private static void strLen(RedisConnection connection, String key) {
+        connection.stringCommands().strLen(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long countKeys(String pattern) {
+        return (long) scanKeys(pattern).size();
+    }
+
+    private List<String> scanKeys(String pattern) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext() && keys.size() < MAX_SCANNED_KEYS) {
+                keys.add(cursor.next());
+            }
+        } catch (Exception e) {
+            log.warn("Cannot scan Redis keys {}: {}", pattern, e.getMessage());
+        }
+        return keys;
+    }
+}
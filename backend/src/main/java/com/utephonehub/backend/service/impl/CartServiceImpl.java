@@ -342,8 +342,8 @@ public class CartServiceImpl implements ICartService {
         log.info("Clearing cart for user: {}", userId);
 
         // EF3 – Check for pending orders before clearing
-        boolean hasPendingOrder = orderRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
-            .anyMatch(order -> order.getStatus() == com.utephonehub.backend.enums.OrderStatus.PENDING);
+        boolean hasPendingOrder = orderRepository.existsByUserIdAndStatus(
+            userId, com.utephonehub.backend.enums.OrderStatus.PENDING);
 
         if (hasPendingOrder) {
             log.warn("User {} attempted to clear cart while having pending orders", userId);
@@ -0,0 +1,179 @@
+package com.utephonehub.backend.service.impl;
+
+import com.utephonehub.backend.event.OrderStatusChangedEvent;
+import com.utephonehub.backend.event.ProductChangedEvent;
+import com.utephonehub.backend.event.PromotionChangedEvent;
+import com.utephonehub.backend.repository.BrandRepository;
+import com.utephonehub.backend.repository.CategoryRepository;
+import com.utephonehub.backend.repository.ProductRepository;
+import com.utephonehub.backend.service.ICatalogVersionService;
+import com.utephonehub.backend.service.ISoldCountService;
+import com.utephonehub.backend.service.impl.location.LocationIndex;
+import com.utephonehub.backend.service.impl.promotion.PromotionSnapshotManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Catalog version stamps for conditional GET
+ *
+ * - Stamp = SHA-256 của các mốc updatedAt + số lượng (count bắt được cả xóa cứng)
+ * - Stamp của danh sách/danh mục/brand/location được giữ trong memory tối đa cache.http.version-ttl
+ *   (một aggregate query mỗi chu kỳ thay vì mỗi request); sự kiện sản phẩm/khuyến mãi/đơn hàng trên node này
+ *   xóa ngay, thay đổi từ node khác được thấy sau tối đa version-ttl
+ * - Stamp của trang chi tiết được tính mỗi request (một query theo khóa chính)
+ */
+@Service
+@Slf4j
+public class CatalogVersionServiceImpl implements ICatalogVersionService {
+
+    private static final String CATALOG = "catalog";
+    private static final String CATEGORIES = "categories";
+    private static final String BRANDS = "brands";
+    private static final String LOCATIONS = "locations";
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final BrandRepository brandRepository;
+    private final LocationIndex locationIndex;
+    private final PromotionSnapshotManager promotionSnapshotManager;
+    private final ISoldCountService soldCountService;
+    private final long versionTtlMillis;
+
+    private final Map<String, Entry> stamps = new ConcurrentHashMap<>();
+
+    public CatalogVersionServiceImpl(ProductRepository productRepository,
+                                     CategoryRepository categoryRepository,
+                                     BrandRepository brandRepository,
+                                     LocationIndex locationIndex,
+                                     PromotionSnapshotManager promotionSnapshotManager,
+                                     ISoldCountService soldCountService,
+                                     @Value("${cache.http.version-ttl:10s}") Duration versionTtl) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.brandRepository = brandRepository;
+        this.locationIndex = locationIndex;
+        this.promotionSnapshotManager = promotionSnapshotManager;
+        this.soldCountService = soldCountService;
+        this.versionTtlMillis = versionTtl.toMillis();
+    }
+
+    @Override
+    public Version getCatalogVersion() {
+        // Khuyến mãi có hiệu lực/hết hạn theo thời gian mà không có thay đổi dữ liệu -> không cache phần này
+        long promotionHash = promotionSnapshotManager.current().getContentHash();
+        Version data = cached(CATALOG, () -> {
+            Object[] products = single(productRepository.findCatalogVersionStamp());
+            Object[] categories = single(categoryRepository.findVersionStamp());
+            Object[] brands = single(brandRepository.findVersionStamp());
+            return stamp(concat(products, categories, brands));
+        });
+        return new Version(hash(CATALOG, data.etag(), promotionHash));
+    }
+
+    @Override
+    public Version getProductVersion(Long productId) {
+        List<Object[]> rows = productRepository.findVersionStampById(productId);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        Version data = stamp(rows.get(0));
+        return new Version(hash("product", productId, data.etag(), soldCountService.getSoldCount(productId),
+                promotionSnapshotManager.current().getContentHash()));
+    }
+
+    @Override
+    public Version getCategoryVersion() {
+        return cached(CATEGORIES, () -> stamp(single(categoryRepository.findVersionStamp())));
+    }
+
+    @Override
+    public Version getBrandVersion() {
+        return cached(BRANDS, () -> stamp(single(brandRepository.findVersionStamp())));
+    }
+
+    @Override
+    public Version getLocationVersion() {
+        // Hash nội dung của index trong memory, không query
+        return new Version(hash(LOCATIONS, locationIndex.getVersion()));
+    }
+
+    /**
+     * Dữ liệu catalog đã commit thay đổi - tính lại stamp ở request kế tiếp
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        stamps.remove(CATALOG);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionChanged(PromotionChangedEvent event) {
+        stamps.remove(CATALOG);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        stamps.remove(CATALOG);
+    }
+
+    private Version cached(String name, Supplier<Version> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = stamps.get(name);
+        if (entry != null && now - entry.computedAt < versionTtlMillis) {
+            return entry.version;
+        }
+        Version version = loader.get();
+        stamps.put(name, new Entry(version, now));
+        return version;
+    }
+
+    private static Version stamp(Object[] parts) {
+        return new Version(hash(parts));
+    }
+
+    private static Object[] single(List<Object[]> rows) {
+        return rows.isEmpty() ? new Object[0] : rows.get(0);
+    }
+
+    private static Object[] concat(Object[]... arrays) {
+        int length = 0;
+        for (Object[] array : arrays) {
+            length += array.length;
+        }
+        Object[] result = new Object[length];
+        int offset = 0;
+        for (Object[] array : arrays) {
+            System.arraycopy(array, 0, result, offset, array.length);
+            offset += array.length;
+        }
+        return result;
+    }
+
+    private static String hash(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '|');
+            }
+            // 128 bit là đủ cho ETag
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Entry(Version version, long computedAt) {
+    }
+}
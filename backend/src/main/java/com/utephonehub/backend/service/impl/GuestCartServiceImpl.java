@@ -1,10 +1,13 @@
 package com.utephonehub.backend.service.impl;
 
+import com.utephonehub.backend.config.cache.CacheMetrics;
 import com.utephonehub.backend.dto.request.cart.MergeGuestCartRequest;
 import com.utephonehub.backend.dto.request.guestcart.GuestCartItemRequest;
 import com.utephonehub.backend.dto.request.guestcart.GuestCartUpdateRequest;
 import com.utephonehub.backend.exception.BadRequestException;
 import com.utephonehub.backend.service.IGuestCartService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -24,12 +27,21 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class GuestCartServiceImpl implements IGuestCartService {
 
-    private static final String KEY_PREFIX = "guest-cart:";
+    static final String KEY_PREFIX = "guest-cart:";
+    static final String METRICS_NAME = "guestCart";
     private static final String RATE_LIMIT_PREFIX = "rl:guest-cart:create:";
-    private static final Duration TTL = Duration.ofHours(24);
+    static final Duration TTL = Duration.ofHours(24);
     private static final Duration RATE_LIMIT_WINDOW = Duration.ofMinutes(1);
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private CacheMetrics metrics;
+
+    @PostConstruct
+    void initMetrics() {
+        metrics = CacheMetrics.register(meterRegistry, METRICS_NAME);
+    }
 
     @Override
     public boolean allowCreateGuestCart(String ipAddress, int limitPerMinute) {
@@ -107,8 +119,10 @@ public class GuestCartServiceImpl implements IGuestCartService {
 
         Object raw = redisTemplate.opsForValue().get(key(guestCartId));
         if (!(raw instanceof GuestCartRedisModel model)) {
+            metrics.miss();
             return Collections.emptyList();
         }
+        metrics.remoteHit();
 
         List<GuestCartRedisItem> items = model.getItems();
         if (items == null || items.isEmpty()) {
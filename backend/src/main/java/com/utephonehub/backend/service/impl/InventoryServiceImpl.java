@@ -0,0 +1,425 @@
+package com.utephonehub.backend.service.impl;
+
+import com.utephonehub.backend.dto.response.inventory.HotStockResponse;
+import com.utephonehub.backend.entity.Order;
+import com.utephonehub.backend.entity.OrderItem;
+import com.utephonehub.backend.entity.ProductTemplate;
+import com.utephonehub.backend.entity.StockReservation;
+import com.utephonehub.backend.enums.OrderStatus;
+import com.utephonehub.backend.enums.ReservationStatus;
+import com.utephonehub.backend.event.OrderStatusChangedEvent;
+import com.utephonehub.backend.event.ProductChangedEvent;
+import com.utephonehub.backend.exception.BadRequestException;
+import com.utephonehub.backend.exception.ConflictException;
+import com.utephonehub.backend.exception.ResourceNotFoundException;
+import com.utephonehub.backend.repository.ProductTemplateRepository;
+import com.utephonehub.backend.repository.StockReservationRepository;
+import com.utephonehub.backend.service.IInventoryService;
+import com.utephonehub.backend.service.impl.inventory.HotStockStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Implementation of order-driven stock changes
+ *
+ * - Trừ kho: UPDATE ... SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?
+ *   theo từng template (0 dòng = hết hàng, không bao giờ âm), cả đơn trong một JDBC batch theo thứ tự id
+ * - Một sản phẩm được lấy lần lượt từ các template còn hàng (như trước đây)
+ * - Đơn VNPay: giữ chỗ RESERVED có hạn, thanh toán thành công -> COMMITTED, hết hạn -> trả lại kho
+ * - Đơn bị hủy (khách, admin, thanh toán lỗi): trả lại kho trong cùng transaction với việc đổi trạng thái
+ * - SKU flash sale (chế độ hot, tùy chọn): trừ trên bộ đếm Redis thay vì dòng DB, xem {@link HotStockStore}
+ */
+@Service
+@Slf4j
+public class InventoryServiceImpl implements IInventoryService {
+
+    private static final int EXPIRY_BATCH_SIZE = 100;
+
+    /**
+     * Same statement as {@link ProductTemplateRepository#decrementStock}, in SQL so a whole order
+     * goes to the database as one JDBC batch
+     */
+    private static final String DECREMENT_SQL = "UPDATE product_templates SET " +
+            "stock_status = CASE WHEN stock_quantity - ? <= 0 THEN 'OUT_OF_STOCK' " +
+            "WHEN stock_quantity - ? <= 10 THEN 'LOW_STOCK' ELSE 'IN_STOCK' END, " +
+            "stock_quantity = stock_quantity - ?, updated_at = ? " +
+            "WHERE id = ? AND status = true AND stock_quantity >= ?";
+
+    private final ProductTemplateRepository productTemplateRepository;
+    private final StockReservationRepository reservationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final HotStockStore hotStockStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration reservationTtl;
+
+    public InventoryServiceImpl(ProductTemplateRepository productTemplateRepository,
+                                StockReservationRepository reservationRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                TransactionTemplate transactionTemplate,
+                                HotStockStore hotStockStore,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${inventory.reservation.ttl:20m}") Duration reservationTtl) {
+        this.productTemplateRepository = productTemplateRepository;
+        this.reservationRepository = reservationRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.hotStockStore = hotStockStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.reservationTtl = reservationTtl;
+    }
+
+    @Override
+    @Transactional
+    public void deductStock(Order order, List<OrderItem> items) {
+        Shortage shortage = allocate(order, items, ReservationStatus.COMMITTED, null);
+        if (shortage != null) {
+            throw shortage.toException();
+        }
+        log.info("Stock deducted for order {}", order.getOrderCode());
+    }
+
+    @Override
+    @Transactional
+    public void reserveStock(Order order, List<OrderItem> items) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(reservationTtl);
+        Shortage shortage = allocate(order, items, ReservationStatus.RESERVED, expiresAt);
+        if (shortage != null) {
+            throw shortage.toException();
+        }
+        log.info("Stock reserved for order {} until {}", order.getOrderCode(), expiresAt);
+    }
+
+    @Override
+    @Transactional
+    public boolean commitReservation(Order order) {
+        List<StockReservation> reserved = reservationRepository.lockByOrderIdAndStatusIn(
+                order.getId(), List.of(ReservationStatus.RESERVED));
+        if (!reserved.isEmpty()) {
+            for (StockReservation reservation : reserved) {
+                reservation.setStatus(ReservationStatus.COMMITTED);
+                reservation.setExpiresAt(null);
+            }
+            log.info("Committed {} stock reservations for order {}", reserved.size(), order.getOrderCode());
+            return true;
+        }
+        if (reservationRepository.existsByOrderIdAndStatus(order.getId(), ReservationStatus.COMMITTED)) {
+            return true;
+        }
+
+        // Giữ chỗ đã hết hạn (hoặc đơn tạo trước khi có giữ chỗ): trừ kho lại nếu vẫn còn hàng
+        Shortage shortage = allocate(order, order.getItems(), ReservationStatus.COMMITTED, null);
+        if (shortage != null) {
+            log.warn("Reservation of order {} expired and '{}' has only {} left",
+                    order.getOrderCode(), shortage.productName(), shortage.available());
+            return false;
+        }
+        log.info("Reservation of order {} had expired, stock deducted again", order.getOrderCode());
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public void releaseStock(Long orderId) {
+        int released = release(orderId, List.of(ReservationStatus.RESERVED, ReservationStatus.COMMITTED));
+        if (released > 0) {
+            log.info("Released {} stock reservations of order {}", released, orderId);
+        }
+    }
+
+    /**
+     * Order cancelled (customer, admin, payment failed, expired) - return its stock in the same transaction
+     */
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getNewStatus() == OrderStatus.CANCELLED && event.getOldStatus() != OrderStatus.CANCELLED) {
+            releaseStock(event.getOrderId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry-interval-ms:60000}",
+               initialDelayString = "${inventory.reservation.expiry-interval-ms:60000}")
+    public void expireReservations() {
+        int released = releaseExpiredReservations();
+        if (released > 0) {
+            log.info("Released expired stock reservations of {} orders", released);
+        }
+    }
+
+    /**
+     * One transaction per order: a failure does not keep the other holds locked
+     */
+    @Override
+    public int releaseExpiredReservations() {
+        List<Long> orderIds = reservationRepository.findOrderIdsExpiredBefore(
+                ReservationStatus.RESERVED, LocalDateTime.now(), PageRequest.of(0, EXPIRY_BATCH_SIZE));
+        int released = 0;
+        for (Long orderId : orderIds) {
+            try {
+                Integer count = transactionTemplate.execute(status ->
+                        release(orderId, List.of(ReservationStatus.RESERVED)));
+                if (count != null && count > 0) {
+                    released++;
+                }
+            } catch (RuntimeException e) {
+                log.error("Cannot release expired stock reservations of order {}: {}", orderId, e.getMessage());
+            }
+        }
+        return released;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<HotStockResponse> getHotStock() {
+        if (!hotStockStore.isEnabled()) {
+            return List.of();
+        }
+        Map<Long, long[]> counters = hotStockStore.snapshot();
+        Map<Long, ProductTemplate> templates = new HashMap<>();
+        productTemplateRepository.findAllById(counters.keySet()).forEach(t -> templates.put(t.getId(), t));
+
+        List<HotStockResponse> result = new ArrayList<>(counters.size());
+        counters.forEach((templateId, counter) -> {
+            ProductTemplate template = templates.get(templateId);
+            result.add(HotStockResponse.builder()
+                    .templateId(templateId)
+                    .productId(template != null ? template.getProduct().getId() : null)
+                    .sku(template != null ? template.getSku() : null)
+                    .availableStock(counter[0])
+                    .pendingDelta(counter[1])
+                    .databaseStock(template != null ? template.getStockQuantity() : null)
+                    .build());
+        });
+        return result;
+    }
+
+    @Override
+    public HotStockResponse enableHotStock(Long templateId) {
+        if (!hotStockStore.isEnabled()) {
+            throw new BadRequestException("Chế độ tồn kho hot chưa được bật (inventory.hot.enabled)");
+        }
+        if (!productTemplateRepository.existsById(templateId)) {
+            throw new ResourceNotFoundException("Không tìm thấy phiên bản sản phẩm với ID: " + templateId);
+        }
+        int stock = productTemplateRepository.findAvailableStockById(templateId)
+                .orElseThrow(() -> new BadRequestException("Phiên bản sản phẩm đang ngừng bán"));
+        if (!hotStockStore.enable(templateId, stock)) {
+            throw new ConflictException("Phiên bản sản phẩm đã ở chế độ tồn kho hot");
+        }
+        log.info("Hot stock enabled for template {} with {} units", templateId, stock);
+        return getHotStock().stream()
+                .filter(hot -> hot.getTemplateId().equals(templateId))
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    @Transactional
+    public void disableHotStock(Long templateId) {
+        Long delta = hotStockStore.isEnabled() ? hotStockStore.disable(templateId) : null;
+        if (delta == null) {
+            throw new BadRequestException("Phiên bản sản phẩm không ở chế độ tồn kho hot");
+        }
+        if (delta != 0) {
+            productTemplateRepository.incrementStock(templateId, delta.intValue(), LocalDateTime.now());
+        }
+        publishStockChanged(productTemplateRepository.findProductIdsByIds(List.of(templateId)));
+        log.info("Hot stock disabled for template {} (pending delta {})", templateId, delta);
+    }
+
+    /**
+     * Take the requested quantity of every product, template by template
+     * - Kế hoạch tách số lượng theo template dựng từ tồn kho vừa đọc (template hot lấy ngay trên Redis)
+     * - Phần trừ trong DB gửi một JDBC batch duy nhất, theo thứ tự templateId (cùng thứ tự khóa ở mọi checkout)
+     * - Template bị checkout khác trừ mất trong lúc đó (0 dòng): đọc lại và lấy bù từng template
+     * @return null on success; otherwise the first product without enough stock
+     *         (anything taken by this call has been put back)
+     */
+    private Shortage allocate(Order order, Collection<OrderItem> items, ReservationStatus status,
+                              LocalDateTime expiresAt) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, Integer> requested = new TreeMap<>();
+        Map<Long, String> names = new HashMap<>();
+        for (OrderItem item : items) {
+            Long productId = item.getProduct().getId();
+            requested.merge(productId, item.getQuantity(), Integer::sum);
+            names.putIfAbsent(productId, item.getProduct().getName());
+        }
+
+        Map<Long, List<Object[]>> templatesByProduct = new HashMap<>();
+        for (Object[] row : productTemplateRepository.findAvailableStock(requested.keySet())) {
+            templatesByProduct.computeIfAbsent((Long) row[1], id -> new ArrayList<>()).add(row);
+        }
+
+        // 1. Lập kế hoạch: chưa ghi gì vào DB
+        List<HotStockStore.Taken> takenFromRedis = new ArrayList<>();
+        Map<Long, Integer> planned = new TreeMap<>();
+        Map<Long, Long> productOfTemplate = new HashMap<>();
+        for (Map.Entry<Long, Integer> entry : requested.entrySet()) {
+            int remaining = entry.getValue();
+            for (Object[] row : templatesByProduct.getOrDefault(entry.getKey(), List.of())) {
+                if (remaining == 0) {
+                    break;
+                }
+                Long templateId = (Long) row[0];
+                productOfTemplate.put(templateId, entry.getKey());
+                HotStockStore.Taken hot = hotStockStore.take(templateId, remaining);
+                if (hot != null) {
+                    takenFromRedis.add(hot);
+                    remaining -= hot.amount();
+                    continue;
+                }
+                int amount = Math.min(((Number) row[2]).intValue(), remaining);
+                if (amount > 0) {
+                    planned.put(templateId, amount);
+                    remaining -= amount;
+                }
+            }
+            if (remaining > 0) {
+                takenFromRedis.forEach(HotStockStore.Taken::putBack);
+                return new Shortage(names.get(entry.getKey()), entry.getValue() - remaining);
+            }
+        }
+
+        // 2. Một batch UPDATE có điều kiện cho mọi template DB
+        Map<Long, Integer> takenFromDb = new TreeMap<>();
+        Map<Long, Integer> missing = new TreeMap<>();
+        if (!planned.isEmpty()) {
+            List<Object[]> args = new ArrayList<>(planned.size());
+            Timestamp updatedAt = Timestamp.valueOf(now);
+            planned.forEach((templateId, amount) ->
+                    args.add(new Object[]{amount, amount, amount, updatedAt, templateId, amount}));
+            int[] counts = jdbcTemplate.batchUpdate(DECREMENT_SQL, args);
+            int index = 0;
+            for (Map.Entry<Long, Integer> entry : planned.entrySet()) {
+                if (counts[index++] == 0) {
+                    missing.merge(productOfTemplate.get(entry.getKey()), entry.getValue(), Integer::sum);
+                } else {
+                    takenFromDb.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+
+        // 3. Lấy bù phần bị tranh mất, từng template theo thứ tự id
+        for (Map.Entry<Long, Integer> entry : missing.entrySet()) {
+            int remaining = entry.getValue();
+            for (Object[] row : templatesByProduct.get(entry.getKey())) {
+                if (remaining == 0) {
+                    break;
+                }
+                Long templateId = (Long) row[0];
+                if (takenFromRedis.stream().anyMatch(hot -> hot.templateId().equals(templateId))) {
+                    continue;
+                }
+                int available = productTemplateRepository.findAvailableStockById(templateId).orElse(0);
+                int amount = take(templateId, available, remaining, now);
+                if (amount > 0) {
+                    takenFromDb.merge(templateId, amount, Integer::sum);
+                    remaining -= amount;
+                }
+            }
+            if (remaining > 0) {
+                takenFromRedis.forEach(HotStockStore.Taken::putBack);
+                takenFromDb.forEach((templateId, amount) ->
+                        productTemplateRepository.incrementStock(templateId, amount, now));
+                int requestedQuantity = requested.get(entry.getKey());
+                return new Shortage(names.get(entry.getKey()), requestedQuantity - remaining);
+            }
+        }
+
+        List<StockReservation> taken = new ArrayList<>(takenFromDb.size() + takenFromRedis.size());
+        takenFromDb.forEach((templateId, amount) -> taken.add(reservation(order, templateId, amount, status, expiresAt)));
+        takenFromRedis.forEach(hot -> taken.add(reservation(order, hot.templateId(), hot.amount(), status, expiresAt)));
+        reservationRepository.saveAll(taken);
+        publishStockChanged(requested.keySet());
+        return null;
+    }
+
+    private StockReservation reservation(Order order, Long templateId, int quantity, ReservationStatus status,
+                                         LocalDateTime expiresAt) {
+        return StockReservation.builder()
+                .order(order)
+                .productTemplate(productTemplateRepository.getReferenceById(templateId))
+                .quantity(quantity)
+                .status(status)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    /**
+     * Conditional decrement of one template
+     * @return Quantity taken (0 if the template ran out)
+     */
+    private int take(Long templateId, int observedStock, int wanted, LocalDateTime now) {
+        int available = observedStock;
+        while (available > 0) {
+            int amount = Math.min(available, wanted);
+            if (productTemplateRepository.decrementStock(templateId, amount, now) == 1) {
+                return amount;
+            }
+            // Một checkout khác vừa trừ template này: đọc lại tồn kho thật và thử với phần còn lại
+            available = productTemplateRepository.findAvailableStockById(templateId).orElse(0);
+        }
+        return 0;
+    }
+
+    /**
+     * Lock the order's reservations, add their quantity back to the templates and mark them RELEASED
+     * Rows already committed/released by a concurrent transaction are skipped by the lock query
+     */
+    private int release(Long orderId, Collection<ReservationStatus> statuses) {
+        List<StockReservation> reservations = reservationRepository.lockByOrderIdAndStatusIn(orderId, statuses);
+        if (reservations.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> templateIds = new LinkedHashSet<>();
+        for (StockReservation reservation : reservations) {
+            Long templateId = reservation.getProductTemplate().getId();
+            if (!hotStockStore.releaseAfterCommit(templateId, reservation.getQuantity())) {
+                productTemplateRepository.incrementStock(templateId, reservation.getQuantity(), now);
+            }
+            reservation.setStatus(ReservationStatus.RELEASED);
+            templateIds.add(templateId);
+        }
+        publishStockChanged(productTemplateRepository.findProductIdsByIds(templateIds));
+        return reservations.size();
+    }
+
+    private void publishStockChanged(Collection<Long> productIds) {
+        eventPublisher.publishEvent(ProductChangedEvent.builder()
+                .productIds(new ArrayList<>(productIds))
+                .eventType("STOCK_CHANGED")
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    private record Shortage(String productName, int available) {
+
+        BadRequestException toException() {
+            return new BadRequestException(String.format(
+                    "Sản phẩm '%s' chỉ còn %d sản phẩm trong kho", productName, available));
+        }
+    }
+}
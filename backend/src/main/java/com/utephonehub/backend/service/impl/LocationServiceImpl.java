@@ -1,50 +1,40 @@
 package com.utephonehub.backend.service.impl;
 
+import com.fasterxml.jackson.core.SerializableString;
 import com.utephonehub.backend.dto.response.location.ProvinceResponse;
 import com.utephonehub.backend.dto.response.location.WardResponse;
-import com.utephonehub.backend.entity.Province;
-import com.utephonehub.backend.entity.Ward;
 import com.utephonehub.backend.exception.ResourceNotFoundException;
-import com.utephonehub.backend.repository.ProvinceRepository;
-import com.utephonehub.backend.repository.WardRepository;
 import com.utephonehub.backend.service.ILocationService;
+import com.utephonehub.backend.service.impl.location.LocationIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implementation của ILocationService
  * Service xử lý logic nghiệp vụ cho Location API
  * 
- * Dữ liệu lấy từ database local (không gọi external API)
- * Performance: Query đơn giản, có index, response time < 50ms
+ * Dữ liệu nạp một lần từ database local vào {@link LocationIndex} (không gọi external API),
+ * mọi request đọc từ memory: không query, DTO và JSON đã dựng sẵn
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional(readOnly = true) // Read-only transaction cho tất cả methods
 public class LocationServiceImpl implements ILocationService {
 
-    private final ProvinceRepository provinceRepository;
-    private final WardRepository wardRepository;
+    private final LocationIndex locationIndex;
 
     /**
      * Lấy danh sách tất cả tỉnh/thành phố
      * 
      * @return List 63 tỉnh/thành phố, sắp xếp theo tên A-Z
-     * Performance: ~20ms, có index trên name column
      */
     @Override
     public List<ProvinceResponse> getAllProvinces() {
-        log.info("Getting all provinces");
-        List<Province> provinces = provinceRepository.findAllByOrderByNameAsc();
-        return provinces.stream()
-                .map(this::mapToProvinceResponse)
-                .collect(Collectors.toList());
+        log.debug("Getting all provinces");
+        return locationIndex.getProvinces();
     }
 
     /**
@@ -56,28 +46,24 @@ public class LocationServiceImpl implements ILocationService {
      */
     @Override
     public ProvinceResponse getProvinceByCode(String provinceCode) {
-        log.info("Getting province by code: {}", provinceCode);
-        Province province = provinceRepository.findByProvinceCode(provinceCode)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Không tìm thấy tỉnh/thành phố với mã: " + provinceCode));
-        return mapToProvinceResponse(province);
+        log.debug("Getting province by code: {}", provinceCode);
+        ProvinceResponse province = locationIndex.getProvince(provinceCode);
+        if (province == null) {
+            throw new ResourceNotFoundException(
+                    "Không tìm thấy tỉnh/thành phố với mã: " + provinceCode);
+        }
+        return province;
     }
 
     /**
-     * Lấy TẤT CẢ phường/xã trong cả nước
-     * 
-     * ⚠️ WARNING: Trả về 3000+ records, response time ~500ms
-     * Nên cache kết quả hoặc pagination nếu dùng cho production
+     * Lấy TẤT CẢ phường/xã trong cả nước (3000+ records, từ memory)
      * 
      * @return List tất cả phường/xã, sắp xếp A-Z
      */
     @Override
     public List<WardResponse> getAllWards() {
-        log.info("Getting all wards");
-        List<Ward> wards = wardRepository.findAllByOrderByNameAsc();
-        return wards.stream()
-                .map(this::mapToWardResponse)
-                .collect(Collectors.toList());
+        log.debug("Getting all wards");
+        return locationIndex.getWards();
     }
 
     /**
@@ -94,19 +80,13 @@ public class LocationServiceImpl implements ILocationService {
      */
     @Override
     public List<WardResponse> getWardsByProvinceCode(String provinceCode) {
-        log.info("Getting wards by province code: {}", provinceCode);
-        
-        // Validate: Kiểm tra tỉnh có tồn tại không
-        if (!provinceRepository.existsByProvinceCode(provinceCode)) {
+        log.debug("Getting wards by province code: {}", provinceCode);
+        List<WardResponse> wards = locationIndex.getWards(provinceCode);
+        if (wards == null) {
             throw new ResourceNotFoundException(
                     "Không tìm thấy tỉnh/thành phố với mã: " + provinceCode);
         }
-        
-        // Query wards theo province_code, có index nên nhanh
-        List<Ward> wards = wardRepository.findByProvinceCodeOrderByNameAsc(provinceCode);
-        return wards.stream()
-                .map(this::mapToWardResponse)
-                .collect(Collectors.toList());
+        return wards;
     }
 
     /**
@@ -118,11 +98,13 @@ public class LocationServiceImpl implements ILocationService {
      */
     @Override
     public WardResponse getWardByCode(String wardCode) {
-        log.info("Getting ward by code: {}", wardCode);
-        Ward ward = wardRepository.findByWardCode(wardCode)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Không tìm thấy phường/xã với mã: " + wardCode));
-        return mapToWardResponse(ward);
+        log.debug("Getting ward by code: {}", wardCode);
+        WardResponse ward = locationIndex.getWard(wardCode);
+        if (ward == null) {
+            throw new ResourceNotFoundException(
+                    "Không tìm thấy phường/xã với mã: " + wardCode);
+        }
+        return ward;
     }
 
     /**
@@ -134,7 +116,7 @@ public class LocationServiceImpl implements ILocationService {
      */
     @Override
     public boolean isValidProvinceCode(String provinceCode) {
-        return provinceRepository.existsByProvinceCode(provinceCode);
+        return locationIndex.getProvince(provinceCode) != null;
     }
 
     /**
@@ -145,35 +127,40 @@ public class LocationServiceImpl implements ILocationService {
      */
     @Override
     public boolean isValidWardCode(String wardCode) {
-        return wardRepository.existsByWardCode(wardCode);
+        return locationIndex.getWard(wardCode) != null;
     }
 
-    // ==================== PRIVATE HELPER METHODS ====================
+    @Override
+    public SerializableString getAllProvincesJson() {
+        return locationIndex.getProvincesJson();
+    }
 
-    /**
-     * Map Province entity sang ProvinceResponse DTO
-     * Chuyển đổi từ entity (database layer) sang DTO (API layer)
-     */
-    private ProvinceResponse mapToProvinceResponse(Province province) {
-        return ProvinceResponse.builder()
-                .id(province.getId())
-                .provinceCode(province.getProvinceCode())
-                .name(province.getName())
-                .placeType(province.getPlaceType())
-                .country(province.getCountry())
-                .build();
+    @Override
+    public SerializableString getAllWardsJson() {
+        return locationIndex.getWardsJson();
     }
 
-    /**
-     * Map Ward entity sang WardResponse DTO
-     * Chuyển đổi từ entity (database layer) sang DTO (API layer)
-     */
-    private WardResponse mapToWardResponse(Ward ward) {
-        return WardResponse.builder()
-                .id(ward.getId())
-                .wardCode(ward.getWardCode())
-                .name(ward.getName())
-                .provinceCode(ward.getProvinceCode())
-                .build();
+    @Override
+    public SerializableString getWardsByProvinceCodeJson(String provinceCode) {
+        SerializableString json = locationIndex.getWardsJson(provinceCode);
+        if (json == null) {
+            throw new ResourceNotFoundException(
+                    "Không tìm thấy tỉnh/thành phố với mã: " + provinceCode);
+        }
+        return json;
+    }
+
+    @Override
+    public List<ProvinceResponse> searchProvinces(String keyword, int limit) {
+        return locationIndex.searchProvinces(keyword, limit);
+    }
+
+    @Override
+    public List<WardResponse> searchWards(String keyword, String provinceCode, int limit) {
+        if (provinceCode != null && locationIndex.getProvince(provinceCode) == null) {
+            throw new ResourceNotFoundException(
+                    "Không tìm thấy tỉnh/thành phố với mã: " + provinceCode);
+        }
+        return locationIndex.searchWards(keyword, provinceCode, limit);
     }
 }
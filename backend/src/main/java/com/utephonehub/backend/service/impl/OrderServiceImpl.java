@@ -17,6 +17,7 @@ import com.utephonehub.backend.entity.ProductTemplate;
 import com.utephonehub.backend.entity.Promotion;
 import com.utephonehub.backend.entity.User;
 import com.utephonehub.backend.enums.OrderStatus;
+import com.utephonehub.backend.event.OrderStatusChangedEvent;
 import com.utephonehub.backend.enums.PaymentMethod;
 import com.utephonehub.backend.enums.PaymentStatus;
 import com.utephonehub.backend.exception.BadRequestException;
@@ -32,13 +33,16 @@ import com.utephonehub.backend.repository.ProductRepository;
 import com.utephonehub.backend.repository.PromotionRepository;
 import com.utephonehub.backend.repository.UserRepository;
 import com.utephonehub.backend.service.IEmailService;
+import com.utephonehub.backend.service.IInventoryService;
 import com.utephonehub.backend.service.IOrderService;
 import com.utephonehub.backend.service.IVNPayService;
+import com.utephonehub.backend.service.impl.order.OrderCodeGenerator;
 import com.utephonehub.backend.util.SecurityUtils;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -52,9 +56,9 @@ import java.util.List;
 import java. util.stream.Collectors;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -76,6 +80,9 @@ public class OrderServiceImpl implements IOrderService {
     private final IVNPayService vnPayService;
     private final SecurityUtils securityUtils;
     private final IEmailService emailService;
+    private final IInventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderCodeGenerator orderCodeGenerator;
     
     @Override
     @Transactional(readOnly = true)
@@ -132,33 +139,21 @@ public class OrderServiceImpl implements IOrderService {
         Map<Long, Product> productMap = products.stream()
                 .collect(Collectors.toMap(Product::getId, p -> p));
         
-        // 4. Validate tồn kho và tính tổng tiền
+        // 4. Tính tổng tiền (tồn kho được kiểm tra và trừ nguyên tử ở bước 10)
+        // Templates của mọi product được nạp bằng một query (default_batch_fetch_size)
         BigDecimal totalAmount = BigDecimal.ZERO;
         List<OrderItemRequest> validatedItems = new ArrayList<>();
+        Map<Long, BigDecimal> unitPrices = new HashMap<>();
         
         for (OrderItemRequest item : request.getItems()) {
             Product product = productMap.get(item.getProductId());
             
-            // Calculate total stock from templates
-            int totalStock = product.getTemplates().stream()
-                    .filter(ProductTemplate::getStatus)
-                    .mapToInt(ProductTemplate::getStockQuantity)
-                    .sum();
-            
-            // Kiểm tra tồn kho
-            if (totalStock < item.getQuantity()) {
-                throw new BadRequestException(
-                    String.format("Sản phẩm '%s' chỉ còn %d sản phẩm trong kho", 
-                        product.getName(), totalStock)
-                );
-            }
-            
             // Get cheapest price from active templates
-            BigDecimal price = product.getTemplates().stream()
+            BigDecimal price = unitPrices.computeIfAbsent(product.getId(), id -> product.getTemplates().stream()
                     .filter(ProductTemplate::getStatus)
                     .map(ProductTemplate::getPrice)
                     .min(Comparator.naturalOrder())
-                    .orElse(BigDecimal.ZERO);
+                    .orElse(BigDecimal.ZERO));
             
             // Tính tổng tiền
             BigDecimal itemTotal = price.multiply(new BigDecimal(item.getQuantity()));
@@ -200,7 +195,7 @@ public class OrderServiceImpl implements IOrderService {
         }
         
         // 6. Tạo orderCode unique
-        String orderCode = generateUniqueOrderCode();
+        String orderCode = orderCodeGenerator.next();
         
         // 7. Xác định trạng thái đơn hàng
         OrderStatus initialStatus = request.getPaymentMethod() == PaymentMethod.VNPAY
@@ -227,59 +222,37 @@ public class OrderServiceImpl implements IOrderService {
                 .updatedAt(LocalDateTime.now())
                 .build();
         
-        // 9. Lưu Order
+        // 9. Lưu Order (id lấy từ sequence, INSERT được gom batch khi flush)
         order = orderRepository.save(order);
         log.info("Created order: {}", orderCode);
         
-        // 9. Tạo OrderItems
+        // 9. Tạo OrderItems: một saveAll, một batch INSERT
+        List<OrderItem> orderItems = new ArrayList<>(validatedItems.size());
         for (OrderItemRequest itemReq : validatedItems) {
             Product product = productMap.get(itemReq.getProductId());
             
-            // Get cheapest price from active templates
-            BigDecimal price = product.getTemplates().stream()
-                    .filter(ProductTemplate::getStatus)
-                    .map(ProductTemplate::getPrice)
-                    .min(Comparator.naturalOrder())
-                    .orElse(BigDecimal.ZERO);
-            
-            OrderItem orderItem = OrderItem.builder()
+            orderItems.add(OrderItem.builder()
                     .order(order)
                     .product(product)
                     .quantity(itemReq.getQuantity())
-                    .price(price)
+                    .price(unitPrices.get(product.getId()))
                     .createdAt(LocalDateTime.now())
-                    .build();
-            
-            orderItemRepository.save(orderItem);
+                    .build());
+        }
+        orderItems = orderItemRepository.saveAll(orderItems);
+        
+        // 10. Trừ tồn kho nguyên tử theo từng template (hết hàng -> BadRequestException, rollback cả đơn)
+        // VNPay: chỉ giữ chỗ có thời hạn, được xác nhận trong callback thanh toán
+        if (request.getPaymentMethod() == PaymentMethod.VNPAY) {
+            inventoryService.reserveStock(order, orderItems);
+        } else {
+            inventoryService.deductStock(order, orderItems);
         }
-        // 10. Tạo Payment record cho COD/Bank Transfer (VNPay sẽ tạo trong callback)
+        // Đơn mới (oldStatus = null): đơn PENDING được lên lịch hủy nếu không thanh toán
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, null));
+        
+        // 10.1. Tạo Payment record cho COD/Bank Transfer (VNPay sẽ tạo trong callback)
         if (request.getPaymentMethod() != PaymentMethod.VNPAY) {
-            // 10.1. Giảm tồn kho ngay (thanh toán trực tiếp)
-            for (OrderItemRequest itemReq : validatedItems) {
-                Product product = productMap.get(itemReq.getProductId());
-                int remainingQuantity = itemReq.getQuantity();
-                
-                // Deduct stock from available templates sequentially
-                for (ProductTemplate template : product.getTemplates()) {
-                    if (!template.getStatus() || template.getStockQuantity() <= 0 || remainingQuantity <= 0) {
-                        continue;
-                    }
-                    
-                    int deductAmount = Math.min(template.getStockQuantity(), remainingQuantity);
-                    template.setStockQuantity(template.getStockQuantity() - deductAmount);
-                    remainingQuantity -= deductAmount;
-                }
-                
-                // Validate all quantity was deducted
-                if (remainingQuantity > 0) {
-                    throw new BadRequestException(
-                        "Không đủ tồn kho để hoàn tất đơn hàng cho sản phẩm: " + product.getName()
-                    );
-                }
-                
-                productRepository.save(product);  // Cascade saves templates
-            }
-            
             // 10.2. Tạo Payment record với status SUCCESS (đã thanh toán)
             Payment payment = Payment.builder()
                     .order(order)
@@ -388,27 +361,6 @@ public class OrderServiceImpl implements IOrderService {
         return response;
     }
     
-    /**
-     * Generate unique order code
-     * Format: ORD_YYMMDDHHMMSS (20 chars max)
-     * Example: ORD_251207093853
-     */
-    private String generateUniqueOrderCode() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyMMddHHmmss"));
-        String orderCode = "ORD_" + timestamp;
-        
-        // Kiểm tra trùng lặp (rất hiếm khi xảy ra)
-        int counter = 1;
-        String uniqueCode = orderCode;
-        while (orderRepository.existsByOrderCode(uniqueCode)) {
-            uniqueCode = orderCode + counter;
-            counter++;
-        }
-        
-        return uniqueCode;
-    }
-    
-    
     //Xem đơn hàng của chính mình
     
     @Override
@@ -531,6 +483,7 @@ public class OrderServiceImpl implements IOrderService {
         
         // 5. Lưu đơn hàng
         orderRepository.save(order);
+        eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, oldStatus));
         
         // 6. Ghi log lịch sử trạng thái (nếu có bảng order_status_history)
         try {
@@ -539,16 +492,7 @@ public class OrderServiceImpl implements IOrderService {
             log.warn("Failed to save order status history for order {}:  {}", orderId, e.getMessage());
         }
         
-        // 7. Hoàn lại tồn kho nếu đã trừ (đối với đơn COD/Bank Transfer)
-        if (order.getPaymentMethod() != PaymentMethod.VNPAY) {
-            try {
-                restoreProductStock(order);
-                log.info("Product stock restored for cancelled order: {}", order.getOrderCode());
-            } catch (Exception e) {
-                log.error("Failed to restore stock for cancelled order {}: {}", orderId, e.getMessage());
-                // Không throw exception để không làm thất bại việc hủy đơn
-            }
-        }
+        // 7. Tồn kho đã giữ/trừ được IInventoryService trả lại khi nhận OrderStatusChangedEvent (CANCELLED)
         
         log.info("Order {} successfully cancelled by user {}. Status changed from {} to {}", 
                 orderId, userId, oldStatus, OrderStatus.CANCELLED);
@@ -599,31 +543,6 @@ public class OrderServiceImpl implements IOrderService {
         
         log.info("Order {} status changed to {} with note: {}", order.getOrderCode(), newStatus, note);
     }
-    
-    private void restoreProductStock(Order order) {
-        log.info("Restoring stock for cancelled order: {}", order.getOrderCode());
-        
-        
-        List<OrderItem> orderItems = order.getItems();
-        
-        if (orderItems == null || orderItems.isEmpty()) {
-            log.info("No order items found for order: {}", order.getOrderCode());
-            return;
-        }
-        
-        // Note: Stock is managed at ProductTemplate level, not Product level
-        // If stock restoration is needed, it should be done at ProductTemplate level
-        for (OrderItem item : orderItems) {
-            Product product = item.getProduct();
-            if (product != null) {
-                log.info("Order item restored for product: {} (quantity: {})", 
-                        product.getId(), item.getQuantity());
-                // TODO: Restore stock at ProductTemplate level if needed
-            } else {
-                log.warn("Product not found for order item: {}", item.getId());
-            }
-        }
-    }
 
     
     
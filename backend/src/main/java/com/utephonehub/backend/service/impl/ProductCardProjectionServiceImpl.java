@@ -0,0 +1,245 @@
+package com.utephonehub.backend.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utephonehub.backend.dto.response.productview.ProductCardResponse;
+import com.utephonehub.backend.entity.Product;
+import com.utephonehub.backend.entity.ProductCardProjection;
+import com.utephonehub.backend.entity.ProductMetadata;
+import com.utephonehub.backend.entity.ProductTemplate;
+import com.utephonehub.backend.repository.OrderItemRepository;
+import com.utephonehub.backend.repository.ProductCardProjectionRepository;
+import com.utephonehub.backend.repository.ProductRepository;
+import com.utephonehub.backend.repository.ReviewRepository;
+import com.utephonehub.backend.service.IProductCardProjectionService;
+import com.utephonehub.backend.service.impl.productview.ProductCardAssembler;
+import com.utephonehub.backend.util.VietnameseTextNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the product card read model
+ *
+ * Each row is rebuilt from the full entity graph (1 query), review stats (1 query) and
+ * sold quantities (1 query) per batch, so listing endpoints read one row per card instead of
+ * loading templates/metadata/reviews for every request.
+ * Each batch runs in its own transaction to keep the persistence context small.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCardProjectionServiceImpl implements IProductCardProjectionService {
+
+    private static final int BATCH_SIZE = 200;
+    private static final int SEARCH_DESCRIPTION_LENGTH = 1000;
+
+    private final ProductCardProjectionRepository projectionRepository;
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ProductCardAssembler cardAssembler;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public Map<Long, ProductCardResponse> getCards(Collection<Long> productIds) {
+        Map<Long, ProductCardResponse> cards = new HashMap<>();
+        if (productIds == null || productIds.isEmpty()) {
+            return cards;
+        }
+        for (ProductCardProjection projection : projectionRepository.findAllById(productIds)) {
+            ProductCardResponse card = readCard(projection);
+            if (card != null) {
+                cards.put(projection.getProductId(), card);
+            }
+        }
+        return cards;
+    }
+
+    @Override
+    public List<ProductCardResponse> toCards(List<ProductCardProjection> projections) {
+        return projections.stream()
+                .map(this::readCard)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void refresh(List<Long> productIds) {
+        if (productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = productIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> refreshBatch(batch));
+        }
+    }
+
+    @Override
+    public void refreshAll() {
+        long start = System.currentTimeMillis();
+        List<Long> visibleIds = productRepository.findVisibleProductIds();
+        refresh(visibleIds);
+        Integer removed = transactionTemplate.execute(status -> projectionRepository.deleteHidden());
+        log.info("Rebuilt product card projections: {} products, {} stale rows removed in {} ms",
+                visibleIds.size(), removed, System.currentTimeMillis() - start);
+    }
+
+    private void refreshBatch(List<Long> productIds) {
+        Map<Long, Product> products = productRepository.findCardGraphByIds(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity(), (a, b) -> a));
+        Map<Long, ProductCardProjection> existing = projectionRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(ProductCardProjection::getProductId, Function.identity()));
+
+        List<Long> visibleIds = products.values().stream()
+                .filter(this::isVisible)
+                .map(Product::getId)
+                .collect(Collectors.toList());
+        Map<Long, double[]> reviews = reviewStats(visibleIds);
+        Map<Long, Integer> sold = soldCounts(visibleIds);
+
+        List<ProductCardProjection> toSave = new ArrayList<>();
+        List<Long> toDelete = new ArrayList<>();
+        for (Long productId : productIds) {
+            Product product = products.get(productId);
+            if (product == null || !isVisible(product)) {
+                if (existing.containsKey(productId)) {
+                    toDelete.add(productId);
+                }
+                continue;
+            }
+            double[] review = reviews.getOrDefault(productId, new double[]{0.0, 0});
+            int soldCount = sold.getOrDefault(productId, 0);
+            ProductCardResponse card = cardAssembler.toBaseCard(product, review[0], (int) review[1], soldCount);
+            ProductCardProjection projection = existing.getOrDefault(productId,
+                    ProductCardProjection.builder().productId(productId).build());
+            try {
+                projection.setCardJson(objectMapper.writeValueAsString(card));
+            } catch (JsonProcessingException e) {
+                log.error("Cannot serialize card of product {}: {}", productId, e.getMessage());
+                continue;
+            }
+            ProductTemplate template = cardAssembler.displayTemplate(product);
+            projection.setName(product.getName());
+            projection.setThumbnailUrl(product.getThumbnailUrl());
+            projection.setCategoryId(card.getCategoryId());
+            projection.setBrandId(card.getBrandId());
+            projection.setDisplayPrice(template != null && template.getPrice() != null
+                    ? template.getPrice() : BigDecimal.ZERO);
+            projection.setMinPrice(card.getMinPrice());
+            projection.setMaxPrice(card.getMaxPrice());
+            projection.setTotalStock(card.getStockQuantity());
+            projection.setRatingAverage(review[0]);
+            projection.setRatingCount((int) review[1]);
+            projection.setSoldCount(soldCount);
+            projection.setProductCreatedAt(product.getCreatedAt());
+            projection.setSearchText(searchText(product));
+            projection.setRamValues(facetValues(product, ProductTemplate::getRam));
+            projection.setStorageValues(facetValues(product, ProductTemplate::getStorage));
+            ProductMetadata metadata = product.getMetadata();
+            projection.setScreenSize(metadata != null ? metadata.getScreenSize() : null);
+            projection.setOperatingSystem(metadata != null ? metadata.getOperatingSystem() : null);
+            projection.setBatteryCapacity(metadata != null ? metadata.getBatteryCapacity() : null);
+            toSave.add(projection);
+        }
+
+        projectionRepository.saveAll(toSave);
+        if (!toDelete.isEmpty()) {
+            projectionRepository.deleteByProductIds(toDelete);
+        }
+        log.debug("Refreshed {} card projections, removed {}", toSave.size(), toDelete.size());
+    }
+
+    private ProductCardResponse readCard(ProductCardProjection projection) {
+        try {
+            ProductCardResponse card = objectMapper.readValue(projection.getCardJson(), ProductCardResponse.class);
+            // sold_count is incremented in place by the sold counter, cardJson keeps the value of the last rebuild
+            card.setSoldCount(projection.getSoldCount());
+            return card;
+        } catch (JsonProcessingException e) {
+            // Caller falls back to building the card from entities
+            log.warn("Cannot read card projection of product {}: {}", projection.getProductId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Distinct values of active templates as ",v1,v2," - null if none
+     */
+    private String facetValues(Product product, Function<ProductTemplate, String> field) {
+        if (product.getTemplates() == null) {
+            return null;
+        }
+        String values = product.getTemplates().stream()
+                .filter(template -> Boolean.TRUE.equals(template.getStatus()))
+                .map(field)
+                .filter(value -> value != null && !value.isBlank())
+                .map(String::trim)
+                .distinct()
+                .collect(Collectors.joining(","));
+        return values.isEmpty() ? null : "," + values + ",";
+    }
+
+    /**
+     * Name first (prefix boost in search ranking), then brand, category and the start of the description
+     */
+    private String searchText(Product product) {
+        StringBuilder text = new StringBuilder(product.getName());
+        if (product.getBrand() != null && product.getBrand().getName() != null) {
+            text.append(' ').append(product.getBrand().getName());
+        }
+        if (product.getCategory() != null && product.getCategory().getName() != null) {
+            text.append(' ').append(product.getCategory().getName());
+        }
+        if (product.getDescription() != null) {
+            String description = product.getDescription();
+            text.append(' ').append(description.length() > SEARCH_DESCRIPTION_LENGTH
+                    ? description.substring(0, SEARCH_DESCRIPTION_LENGTH) : description);
+        }
+        return VietnameseTextNormalizer.fold(text.toString());
+    }
+
+    private boolean isVisible(Product product) {
+        return Boolean.TRUE.equals(product.getStatus()) && !Boolean.TRUE.equals(product.getIsDeleted());
+    }
+
+    /**
+     * Review stats: productId -> [average, count]
+     */
+    private Map<Long, double[]> reviewStats(List<Long> productIds) {
+        Map<Long, double[]> stats = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stats;
+        }
+        for (Object[] row : reviewRepository.getReviewStatsByProductIds(productIds)) {
+            Double avg = (Double) row[1];
+            Long count = (Long) row[2];
+            stats.put((Long) row[0], new double[]{avg != null ? avg : 0.0, count != null ? count : 0});
+        }
+        return stats;
+    }
+
+    private Map<Long, Integer> soldCounts(List<Long> productIds) {
+        Map<Long, Integer> sold = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return sold;
+        }
+        for (Object[] row : orderItemRepository.countSoldQuantityByProductIds(productIds)) {
+            sold.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return sold;
+    }
+}
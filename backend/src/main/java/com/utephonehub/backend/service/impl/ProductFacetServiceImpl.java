@@ -0,0 +1,443 @@
+package com.utephonehub.backend.service.impl;
+
+import com.utephonehub.backend.dto.request.productview.ProductFilterRequest;
+import com.utephonehub.backend.dto.response.productview.CategoryProductsResponse.FilterOptions;
+import com.utephonehub.backend.entity.Brand;
+import com.utephonehub.backend.entity.ProductCardProjection;
+import com.utephonehub.backend.repository.BrandRepository;
+import com.utephonehub.backend.service.IProductFacetService;
+import com.utephonehub.backend.service.impl.productview.ProductCardQueryEngine;
+import com.utephonehub.backend.service.impl.productview.ProductInvertedIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of filter sidebar facet counts
+ *
+ * - 1 query: product_card_projections rows of the scope (categories, stock, discount, sold count),
+ *   only facet columns selected (no cardJson)
+ * - 1 pass in memory: each row is tested against every facet filter once, then counted for each
+ *   facet whose other filters all match (disjunctive faceting)
+ * Results are cached per filter signature ({@link ProductFilterRequest#facetSignature()}).
+ * When the in-memory {@link ProductInvertedIndex} is ready, counts come from its facet bitmaps instead
+ * (no query), except for filters it cannot evaluate (discount, sold count).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class ProductFacetServiceImpl implements IProductFacetService {
+
+    // Mốc khoảng giá (VND), dung lượng pin (mAh), số sao - dùng chung với facet bitmap của index
+    private static final long[] PRICE_BUCKETS = ProductInvertedIndex.PRICE_BUCKETS;
+    private static final int[] BATTERY_BUCKETS = ProductInvertedIndex.BATTERY_BUCKETS;
+    private static final int[] RATING_STARS = ProductInvertedIndex.RATING_STARS;
+
+    private final EntityManager entityManager;
+    private final BrandRepository brandRepository;
+    private final ProductCardQueryEngine cardQueryEngine;
+    private final ProductInvertedIndex invertedIndex;
+
+    @Override
+    @Cacheable(value = "productFacets", key = "#request.facetSignature()", sync = true)
+    public FilterOptions getFilterOptions(ProductFilterRequest request) {
+        long start = System.currentTimeMillis();
+        if (invertedIndex.isReady() && ProductInvertedIndex.supportsFilter(request)) {
+            FilterOptions options = fromIndex(request);
+            log.debug("Computed filter options from the inverted index in {} ms", System.currentTimeMillis() - start);
+            return options;
+        }
+        List<Tuple> rows = loadScope(request);
+        Criteria criteria = new Criteria(request);
+
+        Map<Long, Integer> brandCounts = new HashMap<>();
+        Map<String, Integer> ramCounts = new HashMap<>();
+        Map<String, Integer> storageCounts = new HashMap<>();
+        Map<Double, Integer> screenCounts = new TreeMap<>();
+        Map<String, Integer> osCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        int[] batteryCounts = new int[BATTERY_BUCKETS.length];
+        int[] priceCounts = new int[PRICE_BUCKETS.length];
+        int[] ratingCounts = new int[RATING_STARS.length];
+        BigDecimal minPrice = null;
+        BigDecimal maxPrice = null;
+
+        for (Tuple row : rows) {
+            FacetRow facetRow = new FacetRow(row);
+            EnumMap<Facet, Boolean> matches = criteria.evaluate(facetRow);
+            if (criteria.matchesExcept(matches, Facet.BRAND) && facetRow.brandId != null) {
+                brandCounts.merge(facetRow.brandId, 1, Integer::sum);
+            }
+            if (criteria.matchesExcept(matches, Facet.RAM)) {
+                facetRow.ramValues.forEach(value -> ramCounts.merge(value, 1, Integer::sum));
+            }
+            if (criteria.matchesExcept(matches, Facet.STORAGE)) {
+                facetRow.storageValues.forEach(value -> storageCounts.merge(value, 1, Integer::sum));
+            }
+            if (criteria.matchesExcept(matches, Facet.SCREEN) && facetRow.screenSize != null) {
+                screenCounts.merge(facetRow.screenSize, 1, Integer::sum);
+            }
+            if (criteria.matchesExcept(matches, Facet.OS) && facetRow.osFamily != null) {
+                osCounts.merge(facetRow.osFamily, 1, Integer::sum);
+            }
+            if (criteria.matchesExcept(matches, Facet.BATTERY) && facetRow.batteryCapacity != null) {
+                batteryCounts[bucketIndex(facetRow.batteryCapacity)]++;
+            }
+            if (criteria.matchesExcept(matches, Facet.PRICE)) {
+                priceCounts[bucketIndex(facetRow.displayPrice)]++;
+                minPrice = minPrice == null || facetRow.displayPrice.compareTo(minPrice) < 0 ? facetRow.displayPrice : minPrice;
+                maxPrice = maxPrice == null || facetRow.displayPrice.compareTo(maxPrice) > 0 ? facetRow.displayPrice : maxPrice;
+            }
+            if (criteria.matchesExcept(matches, Facet.RATING)) {
+                for (int i = 0; i < RATING_STARS.length; i++) {
+                    if (facetRow.rating >= RATING_STARS[i]) {
+                        ratingCounts[i]++;
+                    }
+                }
+            }
+        }
+
+        FilterOptions options = buildOptions(brandCounts, ramCounts, storageCounts, screenCounts, osCounts,
+                batteryCounts, priceCounts, ratingCounts, minPrice, maxPrice);
+        log.debug("Computed filter options over {} products in {} ms", rows.size(), System.currentTimeMillis() - start);
+        return options;
+    }
+
+    /**
+     * Same options from the exact facet counts of the inverted index
+     */
+    private FilterOptions fromIndex(ProductFilterRequest request) {
+        ProductInvertedIndex.Result result = invertedIndex.search(null, request, null, true, 0, 0);
+        Map<String, Map<String, Integer>> facets = result.getFacets();
+
+        Map<Long, Integer> brandCounts = new HashMap<>();
+        facets.get(ProductInvertedIndex.FACET_BRAND).forEach((id, count) -> brandCounts.put(Long.valueOf(id), count));
+        Map<Double, Integer> screenCounts = new TreeMap<>();
+        facets.get(ProductInvertedIndex.FACET_SCREEN).forEach((size, count) -> screenCounts.put(Double.valueOf(size), count));
+        Map<String, Integer> osCounts = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        facets.get(ProductInvertedIndex.FACET_OS).forEach((os, count) -> osCounts.merge(os, count, Integer::sum));
+        int[] priceCounts = new int[PRICE_BUCKETS.length];
+        for (int i = 0; i < PRICE_BUCKETS.length; i++) {
+            priceCounts[i] = facets.get(ProductInvertedIndex.FACET_PRICE).getOrDefault(String.valueOf(PRICE_BUCKETS[i]), 0);
+        }
+        int[] batteryCounts = new int[BATTERY_BUCKETS.length];
+        for (int i = 0; i < BATTERY_BUCKETS.length; i++) {
+            batteryCounts[i] = facets.get(ProductInvertedIndex.FACET_BATTERY).getOrDefault(String.valueOf(BATTERY_BUCKETS[i]), 0);
+        }
+        int[] ratingCounts = new int[RATING_STARS.length];
+        for (int i = 0; i < RATING_STARS.length; i++) {
+            ratingCounts[i] = facets.get(ProductInvertedIndex.FACET_RATING).getOrDefault(String.valueOf(RATING_STARS[i]), 0);
+        }
+        return buildOptions(brandCounts, facets.get(ProductInvertedIndex.FACET_RAM),
+                facets.get(ProductInvertedIndex.FACET_STORAGE), screenCounts, osCounts, batteryCounts,
+                priceCounts, ratingCounts, result.getMinPrice(), result.getMaxPrice());
+    }
+
+    /**
+     * Rows matching the non-facet filters - facet filters are evaluated in memory
+     */
+    private List<Tuple> loadScope(ProductFilterRequest request) {
+        ProductFilterRequest scope = ProductFilterRequest.builder()
+                .categoryIds(request.getCategoryIds())
+                .inStockOnly(request.getInStockOnly())
+                .hasDiscountOnly(request.getHasDiscountOnly())
+                .minSoldCount(request.getMinSoldCount())
+                .build();
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ProductCardProjection> root = query.from(ProductCardProjection.class);
+        query.multiselect(
+                        root.get("brandId"), root.get("displayPrice"), root.get("minPrice"), root.get("maxPrice"),
+                        root.get("ratingAverage"), root.get("ramValues"), root.get("storageValues"),
+                        root.get("screenSize"), root.get("operatingSystem"), root.get("batteryCapacity"))
+                .where(cardQueryEngine.filterSpecification(scope).toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private FilterOptions buildOptions(Map<Long, Integer> brandCounts, Map<String, Integer> ramCounts,
+                                       Map<String, Integer> storageCounts, Map<Double, Integer> screenCounts,
+                                       Map<String, Integer> osCounts, int[] batteryCounts, int[] priceCounts,
+                                       int[] ratingCounts, BigDecimal minPrice, BigDecimal maxPrice) {
+        return FilterOptions.builder()
+                .availableBrands(brandOptions(brandCounts))
+                .priceRange(FilterOptions.PriceRange.builder().min(minPrice).max(maxPrice).build())
+                .priceBuckets(priceOptions(priceCounts))
+                .ratingOptions(ratingOptions(ratingCounts))
+                .ramOptions(sortedByCapacity(ramCounts).stream()
+                        .map(e -> FilterOptions.RamOption.builder()
+                                .value(e.getKey()).displayValue(e.getKey()).count(e.getValue()).build())
+                        .collect(Collectors.toList()))
+                .storageOptions(sortedByCapacity(storageCounts).stream()
+                        .map(e -> FilterOptions.StorageOption.builder()
+                                .value(e.getKey()).displayValue(e.getKey()).count(e.getValue()).build())
+                        .collect(Collectors.toList()))
+                .screenSizeOptions(screenCounts.entrySet().stream()
+                        .map(e -> FilterOptions.ScreenSizeOption.builder()
+                                .value(formatScreenSize(e.getKey()))
+                                .displayValue(formatScreenSize(e.getKey()) + " inch")
+                                .count(e.getValue()).build())
+                        .collect(Collectors.toList()))
+                .osOptions(osCounts.entrySet().stream()
+                        .map(e -> FilterOptions.OsOption.builder().value(e.getKey()).count(e.getValue()).build())
+                        .collect(Collectors.toList()))
+                .batteryOptions(batteryOptions(batteryCounts))
+                .build();
+    }
+
+    private List<FilterOptions.BrandOption> brandOptions(Map<Long, Integer> counts) {
+        if (counts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, String> names = brandRepository.findAllById(counts.keySet()).stream()
+                .collect(Collectors.toMap(Brand::getId, Brand::getName));
+        return counts.entrySet().stream()
+                .map(e -> FilterOptions.BrandOption.builder()
+                        .id(e.getKey()).name(names.get(e.getKey())).productCount(e.getValue()).build())
+                .sorted(Comparator.comparing(FilterOptions.BrandOption::getProductCount).reversed()
+                        .thenComparing(option -> option.getName() != null ? option.getName() : ""))
+                .collect(Collectors.toList());
+    }
+
+    private List<FilterOptions.PriceBucketOption> priceOptions(int[] counts) {
+        List<FilterOptions.PriceBucketOption> options = new ArrayList<>();
+        for (int i = 0; i < PRICE_BUCKETS.length; i++) {
+            if (counts[i] == 0) continue;
+            boolean last = i == PRICE_BUCKETS.length - 1;
+            String display = last
+                    ? "Trên " + PRICE_BUCKETS[i] / 1_000_000 + " triệu"
+                    : (i == 0 ? "Dưới " + PRICE_BUCKETS[1] / 1_000_000 + " triệu"
+                        : "Từ " + PRICE_BUCKETS[i] / 1_000_000 + " - " + PRICE_BUCKETS[i + 1] / 1_000_000 + " triệu");
+            options.add(FilterOptions.PriceBucketOption.builder()
+                    .min(BigDecimal.valueOf(PRICE_BUCKETS[i]))
+                    .max(last ? null : BigDecimal.valueOf(PRICE_BUCKETS[i + 1]))
+                    .displayValue(display)
+                    .count(counts[i])
+                    .build());
+        }
+        return options;
+    }
+
+    private List<FilterOptions.BatteryOption> batteryOptions(int[] counts) {
+        List<FilterOptions.BatteryOption> options = new ArrayList<>();
+        for (int i = 0; i < BATTERY_BUCKETS.length; i++) {
+            if (counts[i] == 0) continue;
+            boolean last = i == BATTERY_BUCKETS.length - 1;
+            String value = last ? BATTERY_BUCKETS[i] + "-" : BATTERY_BUCKETS[i] + "-" + (BATTERY_BUCKETS[i + 1] - 1);
+            String display = last
+                    ? "Từ " + BATTERY_BUCKETS[i] + " mAh"
+                    : (i == 0 ? "Dưới " + BATTERY_BUCKETS[1] + " mAh"
+                        : BATTERY_BUCKETS[i] + " - " + BATTERY_BUCKETS[i + 1] + " mAh");
+            options.add(FilterOptions.BatteryOption.builder().value(value).displayValue(display).count(counts[i]).build());
+        }
+        return options;
+    }
+
+    private List<FilterOptions.RatingOption> ratingOptions(int[] counts) {
+        List<FilterOptions.RatingOption> options = new ArrayList<>();
+        for (int i = 0; i < RATING_STARS.length; i++) {
+            options.add(FilterOptions.RatingOption.builder().stars(RATING_STARS[i]).count(counts[i]).build());
+        }
+        return options;
+    }
+
+    private static int bucketIndex(BigDecimal price) {
+        long value = price.longValue();
+        for (int i = PRICE_BUCKETS.length - 1; i > 0; i--) {
+            if (value >= PRICE_BUCKETS[i]) return i;
+        }
+        return 0;
+    }
+
+    private static int bucketIndex(int battery) {
+        for (int i = BATTERY_BUCKETS.length - 1; i > 0; i--) {
+            if (battery >= BATTERY_BUCKETS[i]) return i;
+        }
+        return 0;
+    }
+
+    /**
+     * "8GB" < "12GB" < "1TB"
+     */
+    private static List<Map.Entry<String, Integer>> sortedByCapacity(Map<String, Integer> counts) {
+        return counts.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<String, Integer> e) -> capacityInGb(e.getKey()))
+                        .thenComparing(Map.Entry::getKey))
+                .collect(Collectors.toList());
+    }
+
+    private static double capacityInGb(String value) {
+        String upper = value.toUpperCase(Locale.ROOT);
+        String digits = upper.replaceAll("[^0-9.]", "");
+        try {
+            double number = Double.parseDouble(digits);
+            return upper.contains("TB") ? number * 1024 : number;
+        } catch (NumberFormatException e) {
+            return Double.MAX_VALUE;
+        }
+    }
+
+    private static String formatScreenSize(Double size) {
+        return size % 1 == 0 ? String.valueOf(size.intValue()) : String.valueOf(size);
+    }
+
+    private enum Facet {
+        BRAND, PRICE, RAM, STORAGE, SCREEN, OS, BATTERY, RATING
+    }
+
+    /**
+     * Facet columns of one projection row
+     */
+    private static final class FacetRow {
+        private final Long brandId;
+        private final BigDecimal displayPrice;
+        private final boolean priced; // có ít nhất 1 template active có giá
+        private final BigDecimal minPrice;
+        private final BigDecimal maxPrice;
+        private final double rating;
+        private final Set<String> ramValues;
+        private final Set<String> storageValues;
+        private final Double screenSize;
+        private final String operatingSystem;
+        private final String osFamily;
+        private final Integer batteryCapacity;
+
+        private FacetRow(Tuple row) {
+            brandId = row.get(0, Long.class);
+            BigDecimal display = row.get(1, BigDecimal.class);
+            displayPrice = display != null ? display : BigDecimal.ZERO;
+            priced = row.get(2, BigDecimal.class) != null;
+            minPrice = row.get(2, BigDecimal.class) != null ? row.get(2, BigDecimal.class) : displayPrice;
+            maxPrice = row.get(3, BigDecimal.class) != null ? row.get(3, BigDecimal.class) : displayPrice;
+            Double average = row.get(4, Double.class);
+            rating = average != null ? average : 0.0;
+            ramValues = splitValues(row.get(5, String.class));
+            storageValues = splitValues(row.get(6, String.class));
+            screenSize = row.get(7, Double.class);
+            operatingSystem = row.get(8, String.class);
+            osFamily = operatingSystem != null && !operatingSystem.isBlank()
+                    ? operatingSystem.trim().split("\\s+")[0] : null;
+            batteryCapacity = row.get(9, Integer.class);
+        }
+
+        private static Set<String> splitValues(String values) {
+            Set<String> result = new HashSet<>();
+            if (values == null) return result;
+            for (String value : values.split(",")) {
+                if (!value.isEmpty()) result.add(value);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Facet filters of the request, evaluated in memory with the same semantics as
+     * ProductCardProjectionSpecification
+     */
+    private static final class Criteria {
+        private final Map<Facet, Function<FacetRow, Boolean>> filters = new EnumMap<>(Facet.class);
+
+        private Criteria(ProductFilterRequest request) {
+            if (notEmpty(request.getBrandIds())) {
+                Set<Long> brandIds = new HashSet<>(request.getBrandIds());
+                filters.put(Facet.BRAND, row -> brandIds.contains(row.brandId));
+            }
+            if (request.getMinPrice() != null || request.getMaxPrice() != null) {
+                BigDecimal min = request.getMinPrice();
+                BigDecimal max = request.getMaxPrice();
+                // Khoảng [min, max] giá các phiên bản active giao với khoảng lọc, giống ProductCardProjectionSpecification
+                filters.put(Facet.PRICE, row -> row.priced
+                        && (min == null || row.maxPrice.compareTo(min) >= 0)
+                        && (max == null || row.minPrice.compareTo(max) <= 0));
+            }
+            if (notEmpty(request.getRamOptions())) {
+                Set<String> rams = new HashSet<>(request.getRamOptions());
+                filters.put(Facet.RAM, row -> row.ramValues.stream().anyMatch(rams::contains));
+            }
+            if (notEmpty(request.getStorageOptions())) {
+                Set<String> storages = new HashSet<>(request.getStorageOptions());
+                filters.put(Facet.STORAGE, row -> row.storageValues.stream().anyMatch(storages::contains));
+            }
+            if (notEmpty(request.getScreenSizeOptions())) {
+                Set<Double> sizes = request.getScreenSizeOptions().stream()
+                        .filter(Objects::nonNull)
+                        .map(Criteria::parseDouble)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet());
+                filters.put(Facet.SCREEN, row -> row.screenSize != null && sizes.contains(row.screenSize));
+            }
+            if (notEmpty(request.getOsOptions())) {
+                List<String> options = request.getOsOptions().stream()
+                        .filter(option -> option != null && !option.isBlank())
+                        .map(option -> option.trim().toLowerCase(Locale.ROOT))
+                        .collect(Collectors.toList());
+                filters.put(Facet.OS, row -> {
+                    if (row.operatingSystem == null) return false;
+                    String os = row.operatingSystem.toLowerCase(Locale.ROOT);
+                    return options.stream().anyMatch(option -> os.startsWith(option) || os.contains(option + " "));
+                });
+            }
+            if (request.getMinBattery() != null || request.getMaxBattery() != null) {
+                Integer min = request.getMinBattery();
+                Integer max = request.getMaxBattery();
+                filters.put(Facet.BATTERY, row -> row.batteryCapacity != null
+                        && (min == null || row.batteryCapacity >= min)
+                        && (max == null || row.batteryCapacity <= max));
+            }
+            if (request.getMinRating() != null || request.getMaxRating() != null) {
+                Double min = request.getMinRating();
+                Double max = request.getMaxRating();
+                filters.put(Facet.RATING, row -> (min == null || row.rating >= min)
+                        && (max == null || row.rating < max));
+            }
+        }
+
+        EnumMap<Facet, Boolean> evaluate(FacetRow row) {
+            EnumMap<Facet, Boolean> matches = new EnumMap<>(Facet.class);
+            filters.forEach((facet, filter) -> matches.put(facet, filter.apply(row)));
+            return matches;
+        }
+
+        boolean matchesExcept(EnumMap<Facet, Boolean> matches, Facet facet) {
+            for (Map.Entry<Facet, Boolean> entry : matches.entrySet()) {
+                if (entry.getKey() != facet && !entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static boolean notEmpty(List<?> values) {
+            return values != null && !values.isEmpty();
+        }
+
+        private static Double parseDouble(String value) {
+            try {
+                return Double.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -15,6 +15,7 @@ import com.utephonehub.backend.entity.ProductImage;
 import com.utephonehub.backend.entity.ProductMetadata;
 import com.utephonehub.backend.entity.ProductTemplate;
 import com.utephonehub.backend.entity.User;
+import com.utephonehub.backend.event.ProductChangedEvent;
 import com.utephonehub.backend.exception.BadRequestException;
 import com.utephonehub.backend.exception.ResourceNotFoundException;
 import com.utephonehub.backend.mapper.ProductMapper;
@@ -31,6 +32,7 @@ import com.utephonehub.backend.service.IProductService;
 import com.utephonehub.backend.service.IPromotionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -70,6 +72,9 @@ public class ProductServiceImpl implements IProductService {
     // PromotionService for calculating product discounts
     private final IPromotionService promotionService;
 
+    // Publishes ProductChangedEvent for the product card read model
+    private final ApplicationEventPublisher eventPublisher;
+
     @Override
     public ProductDetailResponse createProduct(CreateProductRequest request, Long userId) {
         log.info("Creating product with name: {} and {} templates", request.getName(), request.getTemplates().size());
@@ -110,6 +115,7 @@ public class ProductServiceImpl implements IProductService {
         // Save product (cascade saves templates + metadata)
         Product savedProduct = productRepository.save(product);
         log.info("Created product with ID: {} and {} templates", savedProduct.getId(), savedProduct.getTemplates().size());
+        publishProductChanged(savedProduct.getId(), "CREATED");
         
         return productMapper.toDetailResponse(savedProduct);
     }
@@ -203,6 +209,7 @@ public class ProductServiceImpl implements IProductService {
         // Save updated product
         Product updatedProduct = productRepository.save(product);
         log.info("Updated product with ID: {} and {} templates", updatedProduct.getId(), updatedProduct.getTemplates().size());
+        publishProductChanged(updatedProduct.getId(), "UPDATED");
         
         return productMapper.toDetailResponse(updatedProduct);
     }
@@ -224,6 +231,7 @@ public class ProductServiceImpl implements IProductService {
         
         productRepository.save(product);
         log.info("Soft deleted product with ID: {}", id);
+        publishProductChanged(id, "DELETED");
     }
 
     /**
@@ -248,6 +256,7 @@ public class ProductServiceImpl implements IProductService {
         productRepository.save(product); // Cascade saves templates
         
         log.info("Increased stock for product ID: {} ({} templates updated)", id, product.getTemplates().size());
+        publishProductChanged(id, "STOCK_CHANGED");
     }
 
     /**
@@ -292,6 +301,7 @@ public class ProductServiceImpl implements IProductService {
         productRepository.save(product); // Cascade saves templates
         
         log.info("Decreased stock for product ID: {} ({} templates updated)", id, product.getTemplates().size());
+        publishProductChanged(id, "STOCK_CHANGED");
     }
 
     @Override
@@ -451,6 +461,7 @@ public class ProductServiceImpl implements IProductService {
         
         productRepository.save(product);
         log.info("Restored product with ID: {}", id);
+        publishProductChanged(id, "RESTORED");
     }
 
     @Override
@@ -630,6 +641,18 @@ public class ProductServiceImpl implements IProductService {
                         "Không tìm thấy người dùng với ID: " + userId));
     }
 
+    /**
+     * Notify listeners (product card read model, search index, caches) that a product changed
+     * Handled after commit by ProductCardProjectionListener and ProductCacheInvalidationListener
+     */
+    private void publishProductChanged(Long productId, String eventType) {
+        eventPublisher.publishEvent(ProductChangedEvent.builder()
+                .productIds(List.of(productId))
+                .eventType(eventType)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
     /**
      * Find active (not deleted) product by ID
      */
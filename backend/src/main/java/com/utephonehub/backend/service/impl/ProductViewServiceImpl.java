@@ -3,20 +3,30 @@ package com.utephonehub.backend.service.impl;
 import com.utephonehub.backend.dto.request.productview.ProductFilterRequest;
 import com.utephonehub.backend.dto.request.productview.ProductSearchFilterRequest;
 import com.utephonehub.backend.dto.response.productview.CategoryProductsResponse;
+import com.utephonehub.backend.dto.response.productview.CursorPage;
 import com.utephonehub.backend.dto.response.productview.ProductCardResponse;
 import com.utephonehub.backend.dto.response.productview.ProductComparisonResponse;
 import com.utephonehub.backend.dto.response.productview.ProductDetailViewResponse;
 import com.utephonehub.backend.entity.Category;
 import com.utephonehub.backend.entity.Product;
+import com.utephonehub.backend.entity.ProductCardProjection;
 import com.utephonehub.backend.entity.ProductMetadata;
 import com.utephonehub.backend.entity.ProductTemplate;
 import com.utephonehub.backend.exception.BadRequestException;
 import com.utephonehub.backend.exception.ResourceNotFoundException;
 import com.utephonehub.backend.repository.CategoryRepository;
+import com.utephonehub.backend.repository.ProductCardProjectionSpecification;
 import com.utephonehub.backend.repository.ProductRepository;
 import com.utephonehub.backend.repository.ReviewRepository;
+import com.utephonehub.backend.service.IProductCardProjectionService;
+import com.utephonehub.backend.service.IProductFacetService;
 import com.utephonehub.backend.service.IProductViewService;
-import com.utephonehub.backend.service.IPromotionService;
+import com.utephonehub.backend.service.ISoldCountService;
+import com.utephonehub.backend.service.impl.productview.ProductCardAssembler;
+import com.utephonehub.backend.service.impl.productview.ProductCardQueryEngine;
+import com.utephonehub.backend.service.impl.productview.ProductInvertedIndex;
+import com.utephonehub.backend.service.impl.productview.ProductSearchEngine;
+import com.utephonehub.backend.service.impl.promotion.PromotionSnapshotManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
@@ -25,11 +35,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.text.Normalizer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -37,7 +48,6 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -58,9 +68,14 @@ public class ProductViewServiceImpl implements IProductViewService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ReviewRepository reviewRepository;
-    private final IPromotionService promotionService;
-    private static final Pattern DIACRITICS_PATTERN = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
-    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+    private final PromotionSnapshotManager promotionSnapshotManager;
+    private final ProductCardAssembler cardAssembler;
+    private final IProductCardProjectionService cardProjectionService;
+    private final ProductCardQueryEngine cardQueryEngine;
+    private final ProductSearchEngine searchEngine;
+    private final ProductInvertedIndex invertedIndex;
+    private final ISoldCountService soldCountService;
+    private final IProductFacetService facetService;
 
     @Override
     public Page<ProductCardResponse> searchAndFilterProducts(ProductSearchFilterRequest request) {
@@ -71,10 +86,58 @@ public class ProductViewServiceImpl implements IProductViewService {
             Sort.by(Sort.Direction.DESC, "createdAt")
         );
         
-        String normalizedKeyword = normalizeKeyword(request.getKeyword());
-        Page<Product> page = normalizedKeyword != null
-            ? productRepository.searchProductsOptimized(buildFlexibleLikePattern(normalizedKeyword), pageable)
-            : productRepository.findAllForProductView(pageable);
+        boolean hasKeyword = request.getKeyword() != null && !request.getKeyword().isBlank();
+        boolean asc = "asc".equalsIgnoreCase(request.getSortDirection());
+        ProductFilterRequest filter = facetFilter(request);
+        
+        // Có từ khóa/bộ lọc + in-memory index bật: tìm, lọc, xếp hạng trên bitmap, chỉ đọc card của trang kết quả
+        // (sort theo rating/soldCount không có trong index -> search trên read model bên dưới)
+        if ((hasKeyword || filter != null) && invertedIndex.isReady()
+                && ProductInvertedIndex.supportsSort(request.getSortBy())) {
+            ProductInvertedIndex.Result found = invertedIndex.search(request.getKeyword(), filter,
+                    request.getSortBy(), asc, pageable.getPageNumber(), pageable.getPageSize());
+            Map<Long, ProductCardResponse> cards = cardProjectionService.getCards(found.getProductIds());
+            List<ProductCardResponse> content = found.getProductIds().stream()
+                    .map(cards::get)
+                    .filter(Objects::nonNull)
+                    .map(this::applyDiscount)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(content, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()), found.getTotal());
+        }
+        
+        // Có bộ lọc: lọc trong SQL trên read model, từ khóa khớp search_text (không xếp hạng relevance -> mới nhất)
+        if (filter != null) {
+            Specification<ProductCardProjection> spec = cardQueryEngine.filterSpecification(filter);
+            if (hasKeyword) {
+                spec = spec.and(ProductCardProjectionSpecification.searchText(request.getKeyword()));
+            }
+            String sortBy = request.getSortBy() != null ? request.getSortBy().toLowerCase(Locale.ROOT) : "createdAt";
+            ProductCardQueryEngine.SortKey sortKey = ProductCardQueryEngine.SortKey.from(sortBy);
+            if (sortKey != null) {
+                ProductCardQueryEngine.Result result = cardQueryEngine.query(spec, null, sortKey, asc,
+                        pageable.getPageNumber(), pageable.getPageSize());
+                return new PageImpl<>(projectionCards(result.getRows()),
+                        PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()), result.getTotal());
+            }
+            Sort.Direction direction = asc ? Sort.Direction.ASC : Sort.Direction.DESC;
+            Sort sort = "name".equals(sortBy)
+                    ? Sort.by(direction, "name", "productId")
+                    : Sort.by("relevance".equals(sortBy) ? Sort.Direction.DESC : direction, "productCreatedAt", "productId");
+            return toProjectionCardPage(cardQueryEngine.queryBySort(spec, sort,
+                    pageable.getPageNumber(), pageable.getPageSize()));
+        }
+        
+        // Có từ khóa: tìm trên search_text đã chuẩn hóa (GIN trigram index), xếp hạng theo độ liên quan
+        if (hasKeyword) {
+            Page<ProductCardProjection> found = searchEngine.search(request.getKeyword(), request.getSortBy(), asc,
+                    pageable.getPageNumber(), pageable.getPageSize());
+            List<ProductCardResponse> cards = cardProjectionService.toCards(found.getContent()).stream()
+                    .map(this::applyDiscount)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(cards, found.getPageable(), found.getTotalElements());
+        }
+        
+        Page<Product> page = productRepository.findAllForProductView(pageable);
         
         // Apply custom sorting trong service layer
         List<Product> sorted = applySorting(page.getContent(), request.getSortBy(), request.getSortDirection());
@@ -89,173 +152,17 @@ public class ProductViewServiceImpl implements IProductViewService {
         int page = request.getPage() != null && request.getPage() >= 0 ? request.getPage() : 0;
         int size = request.getSize() != null && request.getSize() > 0 ? request.getSize() : 20;
         
-        // Lấy danh sách categoryIds và brandIds, nếu rỗng thì truyền null để lọc tất cả
-        List<Long> categoryIds = (request.getCategoryIds() != null && !request.getCategoryIds().isEmpty()) 
-            ? request.getCategoryIds() : null;
-        List<Long> brandIds = (request.getBrandIds() != null && !request.getBrandIds().isEmpty()) 
-            ? request.getBrandIds() : null;
-        
-        // Kiểm tra nếu cần sort theo computed fields (price, rating, soldCount, discountPercentage)
-        // Những field này cần load tất cả data và sort trong service layer
-        boolean needsServiceLayerSort = isComputedSortField(sortBy);
-        
-        List<Product> allFiltered;
-        long totalElements;
-        
-        if (needsServiceLayerSort) {
-            // Load TẤT CẢ products matching filters, không pagination ở DB level
-            List<Product> allProducts = productRepository.filterProductsAll(
-                categoryIds, brandIds, request.getMinPrice(), request.getMaxPrice());
-            
-            // Get review stats for all products (for rating filter and sort)
-            Map<Long, ReviewSummary> reviewStats = reviewStats(allProducts);
-            
-            // Apply additional filters in service layer
-            allFiltered = allProducts.stream()
-                    .filter(p -> matchRam(p, request.getRamOptions()))
-                    .filter(p -> matchStorage(p, request.getStorageOptions()))
-                    .filter(p -> matchBattery(p.getMetadata(), request.getMinBattery(), request.getMaxBattery()))
-                    .filter(p -> matchScreenSize(p.getMetadata(), request.getScreenSizeOptions()))
-                    .filter(p -> matchOs(p.getMetadata(), request.getOsOptions()))
-                    .filter(p -> matchRating(p, request.getMinRating(), request.getMaxRating(), reviewStats))
-                    .filter(p -> matchInStock(p, request.getInStockOnly()))
-                    .filter(p -> matchHasDiscount(p, request.getHasDiscountOnly()))
-                    .collect(Collectors.toList());
-            
-            totalElements = allFiltered.size();
-            
-            // Apply sorting on ALL filtered data
-            allFiltered = applySortingWithReviewStats(allFiltered, sortBy, sortDirection, reviewStats);
-            
-            // Manual pagination after sorting
-            int fromIndex = page * size;
-            int toIndex = Math.min(fromIndex + size, allFiltered.size());
-            
-            if (fromIndex >= allFiltered.size()) {
-                allFiltered = Collections.emptyList();
-            } else {
-                allFiltered = allFiltered.subList(fromIndex, toIndex);
-            }
-        } else {
-            // Sort fields that DB can handle (createdAt, name) - use DB pagination
-            Sort.Direction direction = "asc".equalsIgnoreCase(sortDirection) ? Sort.Direction.ASC : Sort.Direction.DESC;
-            String dbSortField = "name".equals(sortBy) ? "name" : "createdAt";
-            Pageable pageable = PageRequest.of(page, size, Sort.by(direction, dbSortField));
-            
-            Page<Product> basePage = productRepository.filterProductsOptimized(
-                categoryIds, brandIds, request.getMinPrice(), request.getMaxPrice(), pageable);
-            
-            // Get review stats for minRating filter
-            Map<Long, ReviewSummary> reviewStats = reviewStats(basePage.getContent());
-            
-            allFiltered = basePage.getContent().stream()
-                    .filter(p -> matchRam(p, request.getRamOptions()))
-                    .filter(p -> matchStorage(p, request.getStorageOptions()))
-                    .filter(p -> matchBattery(p.getMetadata(), request.getMinBattery(), request.getMaxBattery()))
-                    .filter(p -> matchScreenSize(p.getMetadata(), request.getScreenSizeOptions()))
-                    .filter(p -> matchOs(p.getMetadata(), request.getOsOptions()))
-                    .filter(p -> matchRating(p, request.getMinRating(), request.getMaxRating(), reviewStats))
-                    .filter(p -> matchInStock(p, request.getInStockOnly()))
-                    .filter(p -> matchHasDiscount(p, request.getHasDiscountOnly()))
-                    .collect(Collectors.toList());
-            
-            totalElements = basePage.getTotalElements();
+        // Sort theo computed fields (price, rating, soldCount, discountPercentage):
+        // lọc + sort + phân trang keyset hoàn toàn trong SQL trên product card read model
+        ProductCardQueryEngine.SortKey sortKey = ProductCardQueryEngine.SortKey.from(sortBy);
+        if (sortKey != null) {
+            return queryCards(request, sortKey, "asc".equalsIgnoreCase(sortDirection), page, size);
         }
         
-        // Convert to DTO
-        List<ProductCardResponse> cards = toCards(allFiltered);
-        Pageable resultPageable = PageRequest.of(page, size);
-        return new PageImpl<>(cards, resultPageable, totalElements);
-    }
-    
-    /**
-     * Kiểm tra xem sortBy có phải là computed field cần sort trong service layer không
-     */
-    private boolean isComputedSortField(String sortBy) {
-        if (sortBy == null) return false;
-        String normalized = sortBy.toLowerCase();
-        return normalized.equals("price") || 
-               normalized.equals("rating") || 
-               normalized.equals("soldcount") ||
-               normalized.equals("sold_count") ||
-               normalized.equals("discountpercentage") ||
-               normalized.equals("discount_percentage") ||
-               normalized.equals("discount");
-    }
-    
-    /**
-     * Apply sorting với review stats đã được tính sẵn
-     */
-    private List<Product> applySortingWithReviewStats(List<Product> products, String sortBy, 
-                                                       String sortDirection, Map<Long, ReviewSummary> reviewStats) {
-        if (products == null || products.isEmpty()) return products;
-        
-        boolean isAsc = "asc".equalsIgnoreCase(sortDirection);
-        String normalizedSortBy = sortBy.trim().toLowerCase(Locale.ROOT);
-        
-        return products.stream()
-                .sorted((p1, p2) -> {
-                    int compare = 0;
-                    
-                    switch (normalizedSortBy) {
-                        case "price":
-                            ProductTemplate t1 = displayTemplate(p1);
-                            ProductTemplate t2 = displayTemplate(p2);
-                            // Lấy giá hiển thị (discounted price nếu có, không thì giá gốc)
-                            BigDecimal price1 = getDisplayPrice(t1);
-                            BigDecimal price2 = getDisplayPrice(t2);
-                            compare = price1.compareTo(price2);
-                            break;
-                        case "rating":
-                            double rating1 = reviewStats.getOrDefault(p1.getId(), ReviewSummary.empty()).average;
-                            double rating2 = reviewStats.getOrDefault(p2.getId(), ReviewSummary.empty()).average;
-                            compare = Double.compare(rating1, rating2);
-                            break;
-                        case "soldcount":
-                        case "sold_count":
-                            int sold1 = calculateSoldCount(p1);
-                            int sold2 = calculateSoldCount(p2);
-                            compare = Integer.compare(sold1, sold2);
-                            break;
-                        case "discountpercentage":
-                        case "discount_percentage":
-                        case "discount":
-                            DiscountResult d1 = calculateDiscount(displayTemplate(p1) != null ? displayTemplate(p1).getPrice() : null);
-                            DiscountResult d2 = calculateDiscount(displayTemplate(p2) != null ? displayTemplate(p2).getPrice() : null);
-                            double percent1 = d1.discountPercentage != null ? d1.discountPercentage : 0.0;
-                            double percent2 = d2.discountPercentage != null ? d2.discountPercentage : 0.0;
-                            compare = Double.compare(percent1, percent2);
-                            break;
-                        case "name":
-                            String name1 = p1.getName() != null ? p1.getName() : "";
-                            String name2 = p2.getName() != null ? p2.getName() : "";
-                            compare = name1.compareToIgnoreCase(name2);
-                            break;
-                        case "created_date":
-                        case "createddate":
-                        case "createdat":
-                        default:
-                            compare = p1.getCreatedAt().compareTo(p2.getCreatedAt());
-                            break;
-                    }
-                    
-                    return isAsc ? compare : -compare;
-                })
-                .collect(Collectors.toList());
-    }
-    
-    /**
-     * Get display price (discounted price if available, otherwise original price)
-     */
-    private BigDecimal getDisplayPrice(ProductTemplate template) {
-        if (template == null || template.getPrice() == null) {
-            return BigDecimal.ZERO;
-        }
-        DiscountResult discount = calculateDiscount(template.getPrice());
-        if (discount.hasDiscount && discount.discountedPrice != null) {
-            return discount.discountedPrice;
-        }
-        return template.getPrice();
+        // createdAt / name: sort theo cột, mọi bộ lọc áp dụng trong SQL trước LIMIT/OFFSET
+        String property = "name".equals(sortBy) ? "name" : "productCreatedAt";
+        return toProjectionCardPage(cardQueryEngine.queryByColumn(
+                request, property, "asc".equalsIgnoreCase(sortDirection), page, size));
     }
 
     @Override
@@ -309,7 +216,9 @@ public class ProductViewServiceImpl implements IProductViewService {
                 .products(productCards)
                 .breadcrumbs(Collections.emptyList())
                 .subCategories(Collections.emptyList())
-                .filterOptions(null)
+                .filterOptions(facetService.getFilterOptions(ProductFilterRequest.builder()
+                        .categoryIds(List.of(categoryId))
+                        .build()))
                 .build();
     }
 
@@ -359,41 +268,45 @@ public class ProductViewServiceImpl implements IProductViewService {
 
     /**
      * Lấy sản phẩm bán chạy với caching
-     * Cache TTL: 15 phút (bán chạy ít thay đổi hơn new arrivals)
-     * NOTE: Sold count hiện tại = 0, fallback theo createdAt DESC (mới nhất = nổi bật)
+     * Cache bị xóa khi sold count/sản phẩm thay đổi (ProductCacheInvalidator), TTL chỉ là lưới an toàn
+     * Top-K lấy từ bộ đếm sold count in-memory (không GROUP BY order_items mỗi lần)
+     * Nếu chưa đủ sản phẩm đã bán, bổ sung bằng sản phẩm mới nhất (createdAt DESC)
      */
     @Override
-    @Cacheable(value = "bestSellingProducts", key = "#limit != null ? #limit : 10", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "bestSellingProducts", key = "#limit != null ? #limit : 10", sync = true)
     public List<ProductCardResponse> getBestSellingProducts(Integer limit) {
         log.debug("🔥 getBestSellingProducts - limit: {} (CACHE MISS)", limit);
         int take = limitOrDefault(limit);
-        // Sử dụng query với LIMIT tại DB level
-        // TODO: Khi có OrderItemRepository, implement actual sold count query
-        Pageable pageable = PageRequest.of(0, take);
-        Page<Product> page = productRepository.findNewArrivalsOptimized(pageable);
-        
-        // Sort theo soldCount nếu có, fallback theo createdAt
-        List<Product> sorted = page.getContent().stream()
-                .sorted((p1, p2) -> {
-                    Integer sold1 = calculateSoldCount(p1);
-                    Integer sold2 = calculateSoldCount(p2);
-                    int soldCompare = sold2.compareTo(sold1);
-                    if (soldCompare != 0) {
-                        return soldCompare;
-                    }
-                    return p2.getCreatedAt().compareTo(p1.getCreatedAt());
-                })
+        // Lấy dư để bù các sản phẩm đã ẩn/xóa
+        List<Long> topIds = soldCountService.getTopSellingProductIds(take * 2);
+        Map<Long, Product> byId = topIds.isEmpty() ? Collections.emptyMap()
+                : productRepository.findByIdsWithDetails(topIds).stream()
+                        .collect(Collectors.toMap(Product::getId, p -> p));
+        List<Product> bestSelling = topIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
                 .limit(take)
-                .collect(Collectors.toList());
-        return toCards(sorted);
+                .collect(Collectors.toCollection(ArrayList::new));
+        
+        // Fallback: bổ sung sản phẩm mới nhất khi chưa đủ số lượng
+        if (bestSelling.size() < take) {
+            Page<Product> newest = productRepository.findNewArrivalsOptimized(PageRequest.of(0, take));
+            for (Product product : newest.getContent()) {
+                if (bestSelling.size() >= take) break;
+                if (!byId.containsKey(product.getId())) {
+                    bestSelling.add(product);
+                }
+            }
+        }
+        return toCards(bestSelling);
     }
 
     /**
      * Lấy sản phẩm mới nhất với caching và LIMIT tại DB level
-     * Cache TTL: 10 phút (homepage hiển thị, cần cập nhật thường xuyên hơn)
+     * Cache bị xóa khi có sản phẩm mới/cập nhật (ProductCacheInvalidator)
      */
     @Override
-    @Cacheable(value = "newArrivals", key = "#limit != null ? #limit : 10", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "newArrivals", key = "#limit != null ? #limit : 10", sync = true)
     public List<ProductCardResponse> getNewArrivals(Integer limit) {
         log.debug("🆕 getNewArrivals - limit: {} (CACHE MISS)", limit);
         int take = limitOrDefault(limit);
@@ -405,7 +318,7 @@ public class ProductViewServiceImpl implements IProductViewService {
 
     /**
      * Lấy sản phẩm nổi bật với caching - KHÔNG BỎ SÓT
-     * Cache TTL: 15 phút (featured products ít thay đổi)
+     * Cache bị xóa khi review/sản phẩm thay đổi (ProductCacheInvalidator)
      * 
      * LOGIC CẢI TIẾN (tránh bỏ sót):
      * 1. Query product IDs có rating >= 4.5 TỪ DB (không giới hạn)
@@ -414,7 +327,7 @@ public class ProductViewServiceImpl implements IProductViewService {
      * 4. Fallback: nếu không có sản phẩm nào đạt → lấy top rated
      */
     @Override
-    @Cacheable(value = "featuredProducts", key = "#limit != null ? #limit : 10", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "featuredProducts", key = "#limit != null ? #limit : 10", sync = true)
     public List<ProductCardResponse> getFeaturedProducts(Integer limit) {
         log.debug("⭐ getFeaturedProducts - limit: {} (CACHE MISS - DB LEVEL FILTER)", limit);
         int take = limitOrDefault(limit);
@@ -471,27 +384,27 @@ public class ProductViewServiceImpl implements IProductViewService {
 
     @Override
     public Page<ProductCardResponse> filterByRam(List<String> ramOptions, ProductSearchFilterRequest request) {
-        return filterWithPredicate(request, p -> matchRam(p, ramOptions));
+        return filterProducts(filterOf(request).ramOptions(ramOptions).build());
     }
 
     @Override
     public Page<ProductCardResponse> filterByStorage(List<String> storageOptions, ProductSearchFilterRequest request) {
-        return filterWithPredicate(request, p -> matchStorage(p, storageOptions));
+        return filterProducts(filterOf(request).storageOptions(storageOptions).build());
     }
 
     @Override
     public Page<ProductCardResponse> filterByBattery(Integer minBattery, Integer maxBattery, ProductSearchFilterRequest request) {
-        return filterWithPredicate(request, p -> matchBattery(p.getMetadata(), minBattery, maxBattery));
+        return filterProducts(filterOf(request).minBattery(minBattery).maxBattery(maxBattery).build());
     }
 
     @Override
     public Page<ProductCardResponse> filterByScreenSize(List<String> screenSizeOptions, ProductSearchFilterRequest request) {
-        return filterWithPredicate(request, p -> matchScreenSize(p.getMetadata(), screenSizeOptions));
+        return filterProducts(filterOf(request).screenSizeOptions(screenSizeOptions).build());
     }
 
     @Override
     public Page<ProductCardResponse> filterByOS(List<String> osOptions, ProductSearchFilterRequest request) {
-        return filterWithPredicate(request, p -> matchOs(p.getMetadata(), osOptions));
+        return filterProducts(filterOf(request).osOptions(osOptions).build());
     }
 
     @Override
@@ -538,9 +451,9 @@ public class ProductViewServiceImpl implements IProductViewService {
 
     @Override
     public Page<ProductCardResponse> filterBySoldCount(Integer minSoldCount, ProductSearchFilterRequest request) {
-        Pageable pageable = buildPageable(request.getPage(), request.getSize(), request.getSortBy(), request.getSortDirection());
-        Page<Product> page = productRepository.findByStatusTrueAndIsDeletedFalse(pageable);
-        return toCardPage(page);
+        ProductFilterRequest filter = new ProductFilterRequest();
+        filter.setMinSoldCount(minSoldCount);
+        return queryCards(filter, ProductCardQueryEngine.SortKey.SOLD_COUNT, false, request.getPage(), request.getSize());
     }
 
     @Override
@@ -556,122 +469,60 @@ public class ProductViewServiceImpl implements IProductViewService {
 
     @Override
     public Page<ProductCardResponse> getFeaturedProductsPaginated(ProductSearchFilterRequest request) {
-        Pageable pageable = buildPageable(request.getPage(), request.getSize(), request.getSortBy(), request.getSortDirection());
-        Page<Product> page = productRepository.findByStatusTrueAndIsDeletedFalse(pageable);
-        
-        List<Product> allProducts = page.getContent();
-        Map<Long, ReviewSummary> reviewStats = reviewStats(allProducts);
+        int page = request.getPage() != null && request.getPage() >= 0 ? request.getPage() : 0;
+        int size = request.getSize() != null && request.getSize() > 0 ? request.getSize() : 20;
+        // Sắp xếp theo rating desc, rồi theo sold count desc
+        Sort sort = Sort.by(Sort.Direction.DESC, "ratingAverage", "soldCount", "productId");
         
-        // Thử filter theo tiêu chí đầy đủ trước
-        List<Product> strictFeatured = allProducts.stream()
-                .filter(p -> {
-                    ReviewSummary stats = reviewStats.get(p.getId());
-                    int soldCount = calculateSoldCount(p);
-                    double rating = stats != null ? stats.average : 0.0;
-                    
-                    // Tiêu chí nổi bật theo controller: rating >= 4.5, đã bán >= 100
-                    return rating >= 4.5 && soldCount >= 100;
-                })
-                .collect(Collectors.toList());
+        // Tiêu chí nổi bật theo controller: rating >= 4.5, đã bán >= 100 (lọc trong SQL, total từ repository)
+        Page<ProductCardProjection> rows = cardQueryEngine.queryBySort(cardQueryEngine.filterSpecification(
+                ProductFilterRequest.builder().minRating(4.5).minSoldCount(100).build()), sort, page, size);
         
         // Nếu không có sản phẩm nào đạt tiêu chí nghiêm ngặt, fallback chỉ filter theo rating >= 4.5
-        List<Product> featured = strictFeatured.isEmpty() ? 
-                allProducts.stream()
-                    .filter(p -> {
-                        ReviewSummary stats = reviewStats.get(p.getId());
-                        double rating = stats != null ? stats.average : 0.0;
-                        return rating >= 4.5; // Chỉ cần rating >= 4.5
-                    })
-                    .collect(Collectors.toList())
-                : strictFeatured;
+        if (rows.getTotalElements() == 0) {
+            rows = cardQueryEngine.queryBySort(cardQueryEngine.filterSpecification(
+                    ProductFilterRequest.builder().minRating(4.5).build()), sort, page, size);
+        }
         
         // Nếu vẫn không có, lấy tất cả products
-        if (featured.isEmpty()) {
-            featured = allProducts.stream().collect(Collectors.toList());
+        if (rows.getTotalElements() == 0) {
+            rows = cardQueryEngine.queryBySort(cardQueryEngine.filterSpecification(new ProductFilterRequest()),
+                    sort, page, size);
         }
-        
-        List<Product> sorted = featured.stream()
-                .sorted((p1, p2) -> {
-                    ReviewSummary stats1 = reviewStats.get(p1.getId());
-                    ReviewSummary stats2 = reviewStats.get(p2.getId());
-                    double rating1 = stats1 != null ? stats1.average : 0.0;
-                    double rating2 = stats2 != null ? stats2.average : 0.0;
-                    
-                    // Sắp xếp theo rating desc, rồi theo sold count desc
-                    int ratingCompare = Double.compare(rating2, rating1);
-                    if (ratingCompare != 0) return ratingCompare;
-                    
-                    return Integer.compare(calculateSoldCount(p2), calculateSoldCount(p1));
-                })
-                .collect(Collectors.toList());
-        
-        return createPageFromList(sorted, pageable, sorted.size());
+        return toProjectionCardPage(rows);
     }
 
     @Override
     public Page<ProductCardResponse> getNewArrivalsPaginated(ProductSearchFilterRequest request) {
-        Pageable pageable = buildPageable(request.getPage(), request.getSize(), request.getSortBy(), request.getSortDirection());
-        Page<Product> page = productRepository.findByStatusTrueAndIsDeletedFalse(pageable);
-        
+        int page = request.getPage() != null && request.getPage() >= 0 ? request.getPage() : 0;
+        int size = request.getSize() != null && request.getSize() > 0 ? request.getSize() : 20;
         // Sắp xếp theo created_date DESC (mới nhất trước) như comment trong controller
-        List<Product> sorted = page.getContent().stream()
-                .sorted(Comparator.comparing(Product::getCreatedAt).reversed())
-                .collect(Collectors.toList());
-        
-        return createPageFromList(sorted, pageable, page.getTotalElements());
+        return toProjectionCardPage(cardQueryEngine.queryByColumn(new ProductFilterRequest(), "productCreatedAt",
+                false, page, size));
     }
 
     @Override
     public Page<ProductCardResponse> getBestSellingProductsPaginated(ProductSearchFilterRequest request) {
-        Pageable pageable = buildPageable(request.getPage(), request.getSize(), request.getSortBy(), request.getSortDirection());
-        Page<Product> page = productRepository.findByStatusTrueAndIsDeletedFalse(pageable);
-        
-        // Sắp xếp theo số lượng đã bán (sold count) từ cao xuống thấp
-        List<Product> sorted = page.getContent().stream()
-                .sorted((p1, p2) -> {
-                    Integer sold1 = calculateSoldCount(p1);
-                    Integer sold2 = calculateSoldCount(p2);
-                    
-                    // Nếu sold count khác nhau, sắp xếp theo sold count DESC
-                    int soldCompare = sold2.compareTo(sold1);
-                    if (soldCompare != 0) {
-                        return soldCompare;
-                    }
-                    
-                    // Nếu sold count giống nhau (đều = 0), fallback sắp xếp theo createdAt DESC (mới nhất)
-                    return p2.getCreatedAt().compareTo(p1.getCreatedAt());
-                })
-                .collect(Collectors.toList());
-        
-        return createPageFromList(sorted, pageable, page.getTotalElements());
+        // Sắp xếp theo số lượng đã bán (sold_count) từ cao xuống thấp, trong SQL trên read model
+        return queryCards(new ProductFilterRequest(), ProductCardQueryEngine.SortKey.SOLD_COUNT, false,
+                request.getPage(), request.getSize());
     }
 
     @Override
     public Page<ProductCardResponse> getProductsOnSalePaginated(ProductSearchFilterRequest request) {
-        Pageable pageable = buildPageable(request.getPage(), request.getSize(), request.getSortBy(), request.getSortDirection());
-        Page<Product> page = productRepository.findByStatusTrueAndIsDeletedFalse(pageable);
-        List<Product> discounted = page.getContent().stream()
-                .filter(p -> {
-                    ProductTemplate t = displayTemplate(p);
-                    return calculateDiscount(t != null ? t.getPrice() : null).hasDiscount;
-                })
-                .sorted((p1, p2) -> {
-                    // Sắp xếp theo số tiền giảm DESC (giảm nhiều nhất trước)
-                    ProductTemplate t1 = displayTemplate(p1);
-                    ProductTemplate t2 = displayTemplate(p2);
-                    DiscountResult discount1 = calculateDiscount(t1 != null ? t1.getPrice() : null);
-                    DiscountResult discount2 = calculateDiscount(t2 != null ? t2.getPrice() : null);
-                    
-                    // So sánh discount amount DESC
-                    return discount2.discountAmount.compareTo(discount1.discountAmount);
-                })
-                .collect(Collectors.toList());
-        return createPageFromList(discounted, pageable, discounted.size());
+        int page = request.getPage() != null && request.getPage() >= 0 ? request.getPage() : 0;
+        int size = request.getSize() != null && request.getSize() > 0 ? request.getSize() : 20;
+        // Chỉ sản phẩm đang được giảm giá, sắp xếp theo % giảm DESC (giảm nhiều nhất trước), lọc trong SQL
+        ProductCardQueryEngine.Result result = cardQueryEngine.query(cardQueryEngine.orderDiscountSpecification(),
+                null, ProductCardQueryEngine.SortKey.DISCOUNT, false, page, size);
+        return new CursorPage<>(projectionCards(result.getRows()), PageRequest.of(page, size),
+                result.getTotal(), result.getNextCursor());
     }
 
     @Override
     public Page<ProductCardResponse> getRelatedProductsPaginated(Long productId, ProductSearchFilterRequest request) {
-        Pageable pageable = buildPageable(request.getPage(), request.getSize(), request.getSortBy(), request.getSortDirection());
+        int page = request.getPage() != null && request.getPage() >= 0 ? request.getPage() : 0;
+        int size = request.getSize() != null && request.getSize() > 0 ? request.getSize() : 20;
         Product product = productRepository.findByIdAndIsDeletedFalse(productId)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found"));
         
@@ -679,80 +530,31 @@ public class ProductViewServiceImpl implements IProductViewService {
         ProductTemplate originalTemplate = displayTemplate(product);
         BigDecimal originalPrice = originalTemplate != null ? originalTemplate.getPrice() : BigDecimal.ZERO;
         
-        // Lấy tất cả sản phẩm cùng danh mục
-        List<Product> categoryProducts = productRepository.findByCategoryIdAndIsDeletedFalse(product.getCategory().getId());
-        
-        // Lọc theo logic related: loại bỏ chính sản phẩm + chênh lệch giá ≤ 6 triệu
-        List<Product> relatedProducts = categoryProducts.stream()
-                .filter(p -> !Objects.equals(p.getId(), productId)) // Loại bỏ chính sản phẩm đó
-                .filter(p -> {
-                    ProductTemplate template = displayTemplate(p);
-                    if (template == null || template.getPrice() == null) return false;
-                    
-                    // Chênh lệch giá không quá 6 triệu VNĐ (6,000,000)
-                    BigDecimal priceDiff = template.getPrice().subtract(originalPrice).abs();
-                    return priceDiff.compareTo(new BigDecimal("6000000")) <= 0;
-                })
-                .sorted(Comparator.comparing(Product::getCreatedAt).reversed()) // Mới nhất trước
-                .collect(Collectors.toList());
-        
-        // Apply pagination manually
-        int start = pageable.getPageNumber() * pageable.getPageSize();
-        int end = Math.min(start + pageable.getPageSize(), relatedProducts.size());
-        
-        List<Product> pagedProducts = start < relatedProducts.size() 
-                ? relatedProducts.subList(start, end) 
-                : Collections.emptyList();
-        
-        return createPageFromList(pagedProducts, pageable, relatedProducts.size());
+        // Cùng danh mục, loại bỏ chính sản phẩm, chênh lệch giá ≤ 6 triệu VNĐ - lọc + phân trang trong SQL
+        Page<ProductCardProjection> rows = cardQueryEngine.queryBySort(
+                ProductCardProjectionSpecification.related(productId, product.getCategory().getId(),
+                        originalPrice, new BigDecimal("6000000")),
+                Sort.by(Sort.Direction.DESC, "productCreatedAt", "productId"), page, size); // Mới nhất trước
+        return toProjectionCardPage(rows);
     }
 
     /**
-     * Lấy sản phẩm đang giảm giá với caching - KHÔNG BỎ SÓT
-     * Cache TTL: 5 phút (flash sale cần cập nhật nhanh hơn)
+     * Lấy sản phẩm đang giảm giá với caching
+     * Cache bị xóa khi giá/khuyến mãi thay đổi, kể cả lúc khuyến mãi bắt đầu/hết hạn (ProductCacheInvalidator)
      * 
-     * LOGIC CẢI TIẾN:
-     * - Lấy TẤT CẢ sản phẩm active (vì discount có thể áp dụng cho bất kỳ SP nào)
-     * - Filter những sản phẩm có discount
-     * - Sort theo discount amount DESC
-     * - Cache kết quả để tránh query lại
-     * 
-     * NOTE: Có thể chậm nếu có nhiều sản phẩm, nhưng ĐẢM BẢO KHÔNG BỎ SÓT
-     * Trade-off được chấp nhận vì có cache 5 phút
+     * - Lọc "có giảm giá" và sort theo % giảm giá DESC trong SQL trên product card read model,
+     *   cùng công thức với calculateDiscount (promotion snapshot hiện tại)
+     * - Chỉ đọc đúng limit dòng, không quét toàn bộ catalog
      */
     @Override
-    @Cacheable(value = "productsOnSale", key = "#limit != null ? #limit : 10", unless = "#result == null || #result.isEmpty()")
+    @Cacheable(value = "productsOnSale", key = "#limit != null ? #limit : 10", sync = true)
     public List<ProductCardResponse> getProductsOnSale(Integer limit) {
-        log.debug("🏷️ getProductsOnSale - limit: {} (CACHE MISS - FULL SCAN)", limit);
+        log.debug("🏷️ getProductsOnSale - limit: {} (CACHE MISS)", limit);
         int take = limitOrDefault(limit);
-        
-        // Lấy TẤT CẢ sản phẩm active để đảm bảo không bỏ sót
-        // Được cache 5 phút nên overhead là chấp nhận được
-        List<Product> allProducts = productRepository.findByStatusTrueAndIsDeletedFalse();
-        
-        List<Product> discounted = allProducts.stream()
-                .filter(p -> {
-                    ProductTemplate t = displayTemplate(p);
-                    return calculateDiscount(t != null ? t.getPrice() : null).hasDiscount;
-                })
-                .sorted((p1, p2) -> {
-                    ProductTemplate t1 = displayTemplate(p1);
-                    ProductTemplate t2 = displayTemplate(p2);
-                    DiscountResult discount1 = calculateDiscount(t1 != null ? t1.getPrice() : null);
-                    DiscountResult discount2 = calculateDiscount(t2 != null ? t2.getPrice() : null);
-                    // Sort theo % giảm giá DESC, sau đó số tiền giảm DESC
-                    int percentCompare = Double.compare(
-                            discount2.discountPercentage != null ? discount2.discountPercentage : 0.0,
-                            discount1.discountPercentage != null ? discount1.discountPercentage : 0.0
-                    );
-                    if (percentCompare != 0) return percentCompare;
-                    return discount2.discountAmount.compareTo(discount1.discountAmount);
-                })
-                .limit(take)
-                .collect(Collectors.toList());
-        
-        log.debug("✅ Tìm thấy {} sản phẩm đang giảm giá (từ {} sản phẩm)", discounted.size(), allProducts.size());
-        return toCards(discounted);
+        ProductCardQueryEngine.Result result = cardQueryEngine.query(cardQueryEngine.orderDiscountSpecification(),
+                null, ProductCardQueryEngine.SortKey.DISCOUNT, false, 0, take);
+        log.debug("✅ Tìm thấy {} sản phẩm đang giảm giá", result.getRows().size());
+        return projectionCards(result.getRows());
     }
 
     private Pageable buildPageable(Integer page, Integer size, String sortBy, String sortDirection) {
@@ -787,33 +589,15 @@ public class ProductViewServiceImpl implements IProductViewService {
         }
     }
 
-    private Page<ProductCardResponse> filterWithPredicate(ProductSearchFilterRequest request, java.util.function.Predicate<Product> predicate) {
-        Pageable pageable = buildPageable(request.getPage(), request.getSize(), request.getSortBy(), request.getSortDirection());
-        
-        // Lấy tất cả sản phẩm active để filter (không phân trang trước)
-        List<Product> allProducts = productRepository.findByStatusTrueAndIsDeletedFalse();
-        List<Product> filtered = allProducts.stream().filter(predicate).collect(Collectors.toList());
-        
-        // Apply sorting theo request
-        String sortField = resolveSortField(request.getSortBy());
-        boolean isAsc = "asc".equalsIgnoreCase(request.getSortDirection());
-        
-        filtered = filtered.stream()
-                .sorted((p1, p2) -> {
-                    int compare = compareByField(p1, p2, sortField);
-                    return isAsc ? compare : -compare;
-                })
-                .collect(Collectors.toList());
-        
-        // Manual pagination
-        int start = pageable.getPageNumber() * pageable.getPageSize();
-        int end = Math.min(start + pageable.getPageSize(), filtered.size());
-        
-        List<Product> pagedProducts = start < filtered.size() 
-                ? filtered.subList(start, end) 
-                : Collections.emptyList();
-        
-        return createPageFromList(pagedProducts, pageable, filtered.size());
+    /**
+     * Filter request mang theo sort/phân trang của request tìm kiếm
+     */
+    private ProductFilterRequest.ProductFilterRequestBuilder filterOf(ProductSearchFilterRequest request) {
+        return ProductFilterRequest.builder()
+                .sortBy(request.getSortBy())
+                .sortDirection(request.getSortDirection())
+                .page(request.getPage())
+                .size(request.getSize());
     }
 
     private Page<ProductCardResponse> createPageFromList(List<Product> products, Pageable pageable, long total) {
@@ -821,63 +605,72 @@ public class ProductViewServiceImpl implements IProductViewService {
         return new PageImpl<>(content, pageable, total);
     }
 
+    /**
+     * Lọc + sort + phân trang trên product card read model
+     */
+    /**
+     * Facet filters of a search request, null if none is set
+     */
+    private ProductFilterRequest facetFilter(ProductSearchFilterRequest request) {
+        ProductFilterRequest filter = ProductFilterRequest.builder()
+                .categoryIds(request.getCategoryIds())
+                .brandIds(request.getBrandIds())
+                .minPrice(request.getMinPrice())
+                .maxPrice(request.getMaxPrice())
+                .ramOptions(request.getRamOptions())
+                .storageOptions(request.getStorageOptions())
+                .osOptions(request.getOsOptions())
+                .build();
+        boolean empty = isEmpty(filter.getCategoryIds()) && isEmpty(filter.getBrandIds())
+                && filter.getMinPrice() == null && filter.getMaxPrice() == null
+                && isEmpty(filter.getRamOptions()) && isEmpty(filter.getStorageOptions())
+                && isEmpty(filter.getOsOptions());
+        return empty ? null : filter;
+    }
+
+    private static boolean isEmpty(List<?> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private Page<ProductCardResponse> queryCards(ProductFilterRequest filter, ProductCardQueryEngine.SortKey sortKey,
+                                                 boolean asc, Integer page, Integer size) {
+        int p = page != null && page >= 0 ? page : 0;
+        int s = size != null && size > 0 ? size : 20;
+        ProductCardQueryEngine.Result result = cardQueryEngine.query(filter, sortKey, asc, p, s);
+        return new CursorPage<>(projectionCards(result.getRows()), PageRequest.of(p, s),
+                result.getTotal(), result.getNextCursor());
+    }
+
+    private Page<ProductCardResponse> toProjectionCardPage(Page<ProductCardProjection> rows) {
+        return new PageImpl<>(projectionCards(rows.getContent()), rows.getPageable(), rows.getTotalElements());
+    }
+
+    /**
+     * Card từ read model, áp giảm giá tại thời điểm đọc
+     */
+    private List<ProductCardResponse> projectionCards(List<ProductCardProjection> rows) {
+        return cardProjectionService.toCards(rows).stream()
+                .map(this::applyDiscount)
+                .collect(Collectors.toList());
+    }
+
     private ProductCardResponse toCard(Product product, ReviewSummary reviewSummary) {
-        ProductTemplate template = displayTemplate(product);
-        BigDecimal originalPrice = template != null ? template.getPrice() : null;
-        DiscountResult discount = calculateDiscount(originalPrice);
-        ProductMetadata metadata = product.getMetadata();
         ReviewSummary stats = reviewSummary != null ? reviewSummary : ReviewSummary.empty();
-        
-        // Tính toán price range từ tất cả template
-        PriceRange priceInfo = calculatePriceRange(product);
-        
-        return ProductCardResponse.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .thumbnailUrl(product.getThumbnailUrl())
-                .brandName(product.getBrand() != null ? product.getBrand().getName() : null)
-                .brandId(product.getBrand() != null ? product.getBrand().getId() : null)
-                .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
-                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
-                .originalPrice(originalPrice)  // Giá thấp nhất
-                .minPrice(priceInfo.min)  // Giá thấp nhất từ tất cả template
-                .maxPrice(priceInfo.max)  // Giá cao nhất từ tất cả template
-                .priceRange(priceInfo.displayText)  // Range text: "10tr - 15tr" or "10tr"
-                .discountedPrice(discount.discountedPrice)
-                .hasDiscount(discount.hasDiscount)
-                .discountPercentage(discount.discountPercentage)
-                .savingAmount(discount.discountAmount)
-                .averageRating(stats.average)
-                .totalReviews(stats.count)
-                .ratingDisplay(ratingDisplay(stats))
-                .inStock(hasStock(product))
-                .stockQuantity(totalStock(product))
-                .stockStatus(stockStatus(totalStock(product)))
-                .ram(template != null ? template.getRam() : null)
-                .storage(template != null ? template.getStorage() : null)
-                .color(template != null ? template.getColor() : null)
-                .screenSize(metadata != null && metadata.getScreenSize() != null ? metadata.getScreenSize() + "\"" : null)
-                .operatingSystem(metadata != null ? metadata.getOperatingSystem() : null)
-                .processor(metadata != null ? metadata.getCpuChipset() : null)
-                .screenResolution(metadata != null ? metadata.getScreenResolution() : null)
-                .screenTechnology(metadata != null ? metadata.getScreenTechnology() : null)
-                .refreshRate(metadata != null ? metadata.getRefreshRate() : null)
-                .gpu(metadata != null ? metadata.getGpu() : null)
-                .cameraDetails(metadata != null ? metadata.getCameraDetails() : null)
-                .frontCameraMegapixels(metadata != null ? metadata.getFrontCameraMegapixels() : null)
-                .batteryCapacity(metadata != null ? metadata.getBatteryCapacity() : null)
-                .chargingPower(metadata != null ? metadata.getChargingPower() : null)
-                .chargingType(metadata != null ? metadata.getChargingType() : null)
-                .weight(metadata != null ? metadata.getWeight() : null)
-                .dimensions(metadata != null ? metadata.getDimensions() : null)
-                .material(metadata != null ? metadata.getMaterial() : null)
-                .wirelessConnectivity(metadata != null ? metadata.getWirelessConnectivity() : null)
-                .simType(metadata != null ? metadata.getSimType() : null)
-                .waterResistance(metadata != null ? metadata.getWaterResistance() : null)
-                .audioFeatures(metadata != null ? metadata.getAudioFeatures() : null)
-                .securityFeatures(metadata != null ? metadata.getSecurityFeatures() : null)
-                .additionalSpecs(metadata != null ? metadata.getAdditionalSpecs() : null)
-                .build();
+        ProductCardResponse card = cardAssembler.toBaseCard(product, stats.average, stats.count, calculateSoldCount(product));
+        return applyDiscount(card);
+    }
+
+    /**
+     * Áp giảm giá lên card tại thời điểm đọc (snapshot promotion in-memory)
+     * Discount phụ thuộc thời gian nên không được lưu trong projection
+     */
+    private ProductCardResponse applyDiscount(ProductCardResponse card) {
+        DiscountResult discount = calculateDiscount(card.getOriginalPrice());
+        card.setDiscountedPrice(discount.discountedPrice);
+        card.setHasDiscount(discount.hasDiscount);
+        card.setDiscountPercentage(discount.discountPercentage);
+        card.setSavingAmount(discount.discountAmount);
+        return card;
     }
 
         private ProductComparisonResponse.ComparisonProduct toComparisonProduct(Product product, ReviewSummary reviewSummary) {
@@ -916,155 +709,27 @@ public class ProductViewServiceImpl implements IProductViewService {
         }
 
     private ProductTemplate displayTemplate(Product product) {
-        List<ProductTemplate> templates = product.getTemplates();
-        if (templates == null || templates.isEmpty()) {
-            return null;
-        }
-        return templates.stream()
-                .filter(ProductTemplate::getStatus)
-                .filter(t -> t.getPrice() != null)
-                .min(Comparator.comparing(ProductTemplate::getPrice))
-                .orElse(templates.get(0));
-    }
-
-    private ProductTemplate firstTemplate(Product product) {
-        List<ProductTemplate> templates = product.getTemplates();
-        if (templates == null || templates.isEmpty()) {
-            return null;
-        }
-        return templates.get(0);
-    }
-
-    private boolean matchRam(Product product, List<String> rams) {
-        if (rams == null || rams.isEmpty()) return true;
-        ProductTemplate t = firstTemplate(product);
-        return t != null && rams.contains(t.getRam());
-    }
-
-    private boolean matchStorage(Product product, List<String> storages) {
-        if (storages == null || storages.isEmpty()) return true;
-        ProductTemplate t = firstTemplate(product);
-        return t != null && storages.contains(t.getStorage());
-    }
-
-    private boolean matchBattery(ProductMetadata metadata, Integer min, Integer max) {
-        if (metadata == null || metadata.getBatteryCapacity() == null) return min == null && max == null;
-        Integer val = metadata.getBatteryCapacity();
-        boolean okMin = min == null || val >= min;
-        boolean okMax = max == null || val <= max;
-        return okMin && okMax;
-    }
-
-    private boolean matchScreenSize(ProductMetadata metadata, List<String> sizes) {
-        if (sizes == null || sizes.isEmpty()) return true;
-        if (metadata == null || metadata.getScreenSize() == null) return false;
-        String size = metadata.getScreenSize().toString();
-        return sizes.contains(size);
-    }
-
-    private boolean matchOs(ProductMetadata metadata, List<String> osOptions) {
-        if (osOptions == null || osOptions.isEmpty()) return true;
-        if (metadata == null || metadata.getOperatingSystem() == null) return false;
-        String osValue = metadata.getOperatingSystem().toLowerCase();
-        // Use contains matching to handle version suffixes: "iOS" matches "iOS 17", "Android" matches "Android 14", etc.
-        // Also handle special cases: "iOS" should NOT match "iPadOS", etc.
-        return osOptions.stream().anyMatch(option -> {
-            String optionLower = option.toLowerCase();
-            // Check if osValue starts with option (e.g., "android 14" starts with "android")
-            // Or osValue equals option exactly
-            // Or osValue contains option with space/number after (e.g., "harmonyos 4.0" contains "harmonyos")
-            return osValue.startsWith(optionLower) || 
-                   osValue.equals(optionLower) ||
-                   osValue.contains(optionLower + " ") ||
-                   osValue.matches(optionLower + "\\s*\\d.*");
-        });
-    }
-
-    /**
-     * Filter by rating range
-     * @param product Product to check
-     * @param minRating Minimum required rating (1.0-5.0)
-     * @param maxRating Maximum required rating (1.0-5.0)
-     * @param reviewStats Map of product ratings
-     * @return true if product rating is within range or both min/max are null
-     */
-    private boolean matchRating(Product product, Double minRating, Double maxRating, Map<Long, ReviewSummary> reviewStats) {
-        if (minRating == null && maxRating == null) return true;
-        ReviewSummary stats = reviewStats.get(product.getId());
-        double avgRating = stats != null ? stats.average : 0.0;
-        
-        boolean meetsMin = minRating == null || avgRating >= minRating;
-        boolean meetsMax = maxRating == null || avgRating < maxRating;
-        return meetsMin && meetsMax;
-    }
-
-    /**
-     * Filter by stock availability
-     * @param product Product to check
-     * @param inStockOnly If true, only return products with stock > 0
-     * @return true if inStockOnly is false/null or product has stock
-     */
-    private boolean matchInStock(Product product, Boolean inStockOnly) {
-        if (inStockOnly == null || !inStockOnly) return true;
-        return hasStock(product);
-    }
-
-    /**
-     * Filter by discount availability
-     * @param product Product to check
-     * @param hasDiscountOnly If true, only return products with active DISCOUNT promotions
-     * @return true if hasDiscountOnly is false/null or product has discount
-     */
-    private boolean matchHasDiscount(Product product, Boolean hasDiscountOnly) {
-        if (hasDiscountOnly == null || !hasDiscountOnly) return true;
-        
-        // Use getBestDiscountForProduct to correctly check DISCOUNT type promotions
-        Long categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
-        Long brandId = product.getBrand() != null ? product.getBrand().getId() : null;
-        Double discountPercent = promotionService.getBestDiscountForProduct(product.getId(), categoryId, brandId);
-        
-        return discountPercent != null && discountPercent > 0;
+        return cardAssembler.displayTemplate(product);
     }
 
     private int totalStock(Product product) {
-        if (product.getTemplates() == null) return 0;
-        return product.getTemplates().stream()
-                .filter(ProductTemplate::getStatus)
-                .map(ProductTemplate::getStockQuantity)
-                .filter(Objects::nonNull)
-                .mapToInt(Integer::intValue)
-                .sum();
+        return cardAssembler.totalStock(product);
     }
 
     private boolean hasStock(Product product) {
         return totalStock(product) > 0;
     }
 
-    private String stockStatus(int qty) {
-        if (qty > 10) return "In Stock";
-        if (qty > 0) return "Low Stock";
-        return "Out of Stock";
-    }
-
     private DiscountResult calculateDiscount(BigDecimal price) {
         if (price == null || price.compareTo(BigDecimal.ZERO) <= 0) {
             return DiscountResult.noDiscount(price);
         }
-        try {
-            double best = 0;
-            for (var promo : promotionService.checkAndGetAvailablePromotions(price.doubleValue())) {
-                Double discount = promotionService.calculateDiscount(promo.getId(), price.doubleValue());
-                if (discount != null && discount > best) {
-                    best = discount;
-                }
-            }
-            if (best > 0) {
-                BigDecimal discounted = price.subtract(BigDecimal.valueOf(best));
-                double percent = (best / price.doubleValue()) * 100;
-                return DiscountResult.of(discounted, BigDecimal.valueOf(best), percent);
-            }
-        } catch (Exception ex) {
-            log.warn("Cannot calculate discount: {}", ex.getMessage());
+        // Pure in-memory evaluation against the active promotion snapshot
+        double best = promotionSnapshotManager.current().bestOrderDiscount(price.doubleValue());
+        if (best > 0) {
+            BigDecimal discounted = price.subtract(BigDecimal.valueOf(best));
+            double percent = (best / price.doubleValue()) * 100;
+            return DiscountResult.of(discounted, BigDecimal.valueOf(best), percent);
         }
         return DiscountResult.noDiscount(price);
     }
@@ -1074,17 +739,10 @@ public class ProductViewServiceImpl implements IProductViewService {
     }
 
     /**
-     * Tính số lượng đã bán của sản phẩm từ order_items
-     * TODO: Implement query to order_items table
-     * Hiện tại trả về 0 vì chưa có OrderItemRepository
+     * Số lượng đã bán của sản phẩm (đơn DELIVERED), đọc từ bộ đếm in-memory
      */
     private int calculateSoldCount(Product product) {
-        // TODO: Implement actual query to order_items
-        // Example: return orderItemRepository.sumQuantityByProductId(product.getId());
-        
-        // TEMPORARY: Return 0 until OrderItemRepository is implemented
-        // Do NOT use fake data for best-selling logic
-        return 0;
+        return soldCountService.getSoldCount(product.getId());
     }
 
     private Page<ProductCardResponse> toCardPage(Page<Product> page) {
@@ -1092,10 +750,27 @@ public class ProductViewServiceImpl implements IProductViewService {
         return new PageImpl<>(content, page.getPageable(), page.getTotalElements());
     }
 
+    /**
+     * Build cards from the precomputed read model (product_card_projections)
+     * Products without a projection yet (just created, projection lagging) are built from entities
+     */
     private List<ProductCardResponse> toCards(List<Product> products) {
-        Map<Long, ReviewSummary> stats = reviewStats(products);
+        if (products == null || products.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ProductCardResponse> projected = cardProjectionService.getCards(products.stream()
+                .map(Product::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
+        List<Product> missing = products.stream()
+                .filter(p -> !projected.containsKey(p.getId()))
+                .collect(Collectors.toList());
+        Map<Long, ReviewSummary> stats = reviewStats(missing);
         return products.stream()
-                .map(p -> toCard(p, stats.get(p.getId())))
+                .map(p -> {
+                    ProductCardResponse card = projected.get(p.getId());
+                    return card != null ? applyDiscount(card) : toCard(p, stats.get(p.getId()));
+                })
                 .collect(Collectors.toList());
     }
 
@@ -1121,12 +796,6 @@ public class ProductViewServiceImpl implements IProductViewService {
         return stats;
     }
 
-    private String ratingDisplay(ReviewSummary stats) {
-        double avg = stats != null ? stats.average : 0.0;
-        int count = stats != null ? stats.count : 0;
-        return String.format(Locale.US, "%.1f (%d reviews)", avg, count);
-    }
-
     private String preferText(String primary, String fallback) {
         if (primary != null && !primary.isBlank()) {
             return primary;
@@ -1245,36 +914,6 @@ public class ProductViewServiceImpl implements IProductViewService {
         return val != null ? val.toString() : null;
     }
 
-    private String normalizeKeyword(String keyword) {
-        if (keyword == null) {
-            return null;
-        }
-        String trimmed = keyword.trim();
-        if (trimmed.isEmpty()) {
-            return null;
-        }
-        // Normalize Vietnamese characters
-        String normalized = Normalizer.normalize(trimmed, Normalizer.Form.NFD);
-        normalized = DIACRITICS_PATTERN.matcher(normalized).replaceAll("");
-        // Handle Vietnamese đ/Đ specifically
-        normalized = normalized.replace('đ', 'd').replace('Đ', 'D');
-        // Convert to lowercase for case-insensitive search
-        normalized = normalized.toLowerCase(Locale.ROOT);
-        // Handle common Vietnamese search patterns
-        normalized = normalized.replace("ư", "u").replace("Ư", "U")
-                              .replace("ơ", "o").replace("Ơ", "O")
-                              .replace("ă", "a").replace("Ă", "A");
-        return normalized;
-    }
-
-    private String buildFlexibleLikePattern(String normalizedKeyword) {
-        if (normalizedKeyword == null || normalizedKeyword.isEmpty()) {
-            return null;
-        }
-        String collapsed = WHITESPACE_PATTERN.matcher(normalizedKeyword).replaceAll("%");
-        return "%" + collapsed + "%";
-    }
-
     private static final class DiscountResult {
         private final BigDecimal discountedPrice;
         private final BigDecimal discountAmount;
@@ -1297,67 +936,6 @@ public class ProductViewServiceImpl implements IProductViewService {
         }
     }
 
-    /**
-     * Tính toán price range từ tất cả template của sản phẩm
-     */
-    private PriceRange calculatePriceRange(Product product) {
-        List<ProductTemplate> templates = product.getTemplates();
-        if (templates == null || templates.isEmpty()) {
-            return new PriceRange(null, null, "Liên hệ");
-        }
-        
-        List<BigDecimal> prices = templates.stream()
-                .filter(t -> Boolean.TRUE.equals(t.getStatus()))
-                .map(ProductTemplate::getPrice)
-                .filter(Objects::nonNull)
-                .sorted()
-                .collect(Collectors.toList());
-        
-        if (prices.isEmpty()) {
-            return new PriceRange(null, null, "Liên hệ");
-        }
-        
-        BigDecimal min = prices.get(0);
-        BigDecimal max = prices.get(prices.size() - 1);
-        
-        String displayText;
-        if (min.equals(max)) {
-            // Chỉ có 1 giá
-            displayText = formatPrice(min);
-        } else {
-            // Có range giá
-            displayText = formatPrice(min) + " - " + formatPrice(max);
-        }
-        
-        return new PriceRange(min, max, displayText);
-    }
-    
-    /**
-     * Format giá thành text hiển thị: 10.000.000 -> "10tr"
-     */
-    private String formatPrice(BigDecimal price) {
-        if (price == null) return "0đ";
-        
-        double value = price.doubleValue();
-        if (value >= 1_000_000) {
-            double millions = value / 1_000_000;
-            if (millions == (int) millions) {
-                return String.format("%.0ftr", millions);
-            } else {
-                return String.format("%.1ftr", millions);
-            }
-        } else if (value >= 1_000) {
-            double thousands = value / 1_000;
-            if (thousands == (int) thousands) {
-                return String.format("%.0fk", thousands);
-            } else {
-                return String.format("%.1fk", thousands);
-            }
-        } else {
-            return String.format("%.0fđ", value);
-        }
-    }
-
     /**
      * Apply sorting cho list products trong service layer
      * Xử lý price và rating sorting mà database không thể làm được
@@ -1410,32 +988,6 @@ public class ProductViewServiceImpl implements IProductViewService {
                 .collect(Collectors.toList());
     }
 
-    /**
-     * So sánh 2 product theo field để sorting
-     */
-    private int compareByField(Product p1, Product p2, String sortField) {
-        if (p1 == null && p2 == null) return 0;
-        if (p1 == null) return 1;
-        if (p2 == null) return -1;
-        
-        switch (sortField) {
-            case "createdAt":
-                return p1.getCreatedAt().compareTo(p2.getCreatedAt());
-            case "name":
-                String name1 = p1.getName() != null ? p1.getName() : "";
-                String name2 = p2.getName() != null ? p2.getName() : "";
-                return name1.compareTo(name2);
-            case "price":
-                ProductTemplate t1 = displayTemplate(p1);
-                ProductTemplate t2 = displayTemplate(p2);
-                BigDecimal price1 = t1 != null ? t1.getPrice() : BigDecimal.ZERO;
-                BigDecimal price2 = t2 != null ? t2.getPrice() : BigDecimal.ZERO;
-                return price1.compareTo(price2);
-            default:
-                return p1.getCreatedAt().compareTo(p2.getCreatedAt());
-        }
-    }
-
     private static final class ReviewSummary {
         private final double average;
         private final int count;
@@ -1449,16 +1001,4 @@ public class ProductViewServiceImpl implements IProductViewService {
             return new ReviewSummary(0.0, 0);
         }
     }
-    
-    private static final class PriceRange {
-        private final BigDecimal min;
-        private final BigDecimal max;
-        private final String displayText;
-        
-        private PriceRange(BigDecimal min, BigDecimal max, String displayText) {
-            this.min = min;
-            this.max = max;
-            this.displayText = displayText;
-        }
-    }
 }
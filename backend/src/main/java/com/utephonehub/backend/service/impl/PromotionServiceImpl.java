@@ -3,10 +3,10 @@ package com.utephonehub.backend.service.impl;
 import com.utephonehub.backend.dto.request.PromotionRequest;
 import com.utephonehub.backend.dto.response.PromotionResponse;
 import com.utephonehub.backend.entity.Promotion;
-import com.utephonehub.backend.entity.PromotionTarget;
 import com.utephonehub.backend.entity.PromotionTemplate;
 import com.utephonehub.backend.enums.EPromotionStatus;
 import com.utephonehub.backend.enums.EPromotionTemplateType;
+import com.utephonehub.backend.event.PromotionChangedEvent;
 import com.utephonehub.backend.exception.promotion.PromotionNotFoundException;
 import com.utephonehub.backend.mapper.PromotionMapper;
 import com.utephonehub.backend.repository.PromotionRepository;
@@ -14,6 +14,7 @@ import com.utephonehub.backend.repository.PromotionTemplateRepository;
 import com.utephonehub.backend.service.IPromotionService;
 import com.utephonehub.backend.service.impl.promotion.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -45,6 +46,8 @@ public class PromotionServiceImpl implements IPromotionService {
     private final PromotionDiscountCalculator discountCalculator;
     private final PromotionMapper promotionMapper;
     private final PromotionTargetManager targetManager;
+    private final PromotionTargetIndex targetIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     // --- 1. CREATE PROMOTION ---
     @Override
@@ -56,6 +59,7 @@ public class PromotionServiceImpl implements IPromotionService {
         Promotion savedPromotion = promotionRepository.save(promotion);
         
         targetManager.saveTargets(savedPromotion, request.getTargets());
+        publishChange(savedPromotion.getId(), "CREATED");
 
         return promotionMapper.toResponse(savedPromotion);
     }
@@ -71,6 +75,7 @@ public class PromotionServiceImpl implements IPromotionService {
         targetManager.replaceTargets(promotion, request.getTargets());
 
         Promotion updatedPromotion = promotionRepository.save(promotion);
+        publishChange(updatedPromotion.getId(), "UPDATED");
         return promotionMapper.toResponse(updatedPromotion);
     }
 
@@ -81,6 +86,8 @@ public class PromotionServiceImpl implements IPromotionService {
         Promotion promotion = findPromotionOrThrow(id);
         promotion.setStatus(EPromotionStatus.INACTIVE);
         promotionRepository.save(promotion);
+        targetManager.syncIndex(promotion);
+        publishChange(promotion.getId(), "DISABLED");
     }
 
     // --- 4. GET DETAILS ---
@@ -92,20 +99,17 @@ public class PromotionServiceImpl implements IPromotionService {
 
     // --- 5. GET ALL PROMOTIONS ---
     @Override
+    @Transactional(readOnly = true)
     public List<PromotionResponse> getAllPromotions() {
-        // Auto-update expired promotions status
-        updateExpiredPromotionsStatus();
-        
+        // Expired status is maintained by PromotionStatusScheduler - read path has no side effects
         List<Promotion> promotions = promotionRepository.findAll();
         return promotionMapper.toResponseList(promotions);
     }
 
     // --- PUBLIC: GET ALL ACTIVE ---
     @Override
+    @Transactional(readOnly = true)
     public List<PromotionResponse> getAllActivePromotions() {
-        // Auto-update expired promotions status
-        updateExpiredPromotionsStatus();
-        
         LocalDateTime now = LocalDateTime.now();
         List<Promotion> promotions = promotionRepository.findByEffectiveDateBeforeAndExpirationDateAfter(now, now);
         
@@ -119,10 +123,8 @@ public class PromotionServiceImpl implements IPromotionService {
 
     // --- 6. CHECK AVAILABLE ---
     @Override
+    @Transactional(readOnly = true)
     public List<PromotionResponse> checkAndGetAvailablePromotions(Double orderTotal) {
-        // Auto-update expired promotions status
-        updateExpiredPromotionsStatus();
-        
         LocalDateTime now = LocalDateTime.now();
         List<Promotion> promotions = promotionRepository.findByEffectiveDateBeforeAndExpirationDateAfter(now, now);
 
@@ -220,34 +222,22 @@ public class PromotionServiceImpl implements IPromotionService {
     }
 
     /**
-     * Auto-update expired promotions status
-     * Changes status from ACTIVE to INACTIVE for expired promotions
-     * Does NOT change the promotion title - only updates status
-     * Follows Single Responsibility - focused on status management
+     * Publish promotion change so that snapshot/scheduler refresh after commit
+     * Follows Low Coupling - service does not know who reacts to the change
      */
-    @Transactional
-    private void updateExpiredPromotionsStatus() {
-        LocalDateTime now = LocalDateTime.now();
-        
-        // Find all ACTIVE promotions that have expired
-        List<Promotion> expiredPromotions = promotionRepository.findAll().stream()
-                .filter(p -> p.getStatus() == EPromotionStatus.ACTIVE)
-                .filter(p -> now.isAfter(p.getExpirationDate()))
-                .collect(Collectors.toList());
-        
-        // Update status to INACTIVE (keep original title)
-        if (!expiredPromotions.isEmpty()) {
-            expiredPromotions.forEach(promotion -> {
-                promotion.setStatus(EPromotionStatus.INACTIVE);
-            });
-            promotionRepository.saveAll(expiredPromotions);
-        }
+    private void publishChange(String promotionId, String eventType) {
+        eventPublisher.publishEvent(PromotionChangedEvent.builder()
+                .promotionId(promotionId)
+                .eventType(eventType)
+                .timestamp(LocalDateTime.now())
+                .build());
     }
 
     /**
      * Get the best active DISCOUNT promotion for a product
      * Automatically applies to products based on PRODUCT/CATEGORY/BRAND targets
      * Returns highest discount percentage among applicable promotions
+     * Constant-time lookup in PromotionTargetIndex (no promotion scan)
      * 
      * @param productId Product ID
      * @param categoryId Category ID of the product
@@ -256,57 +246,6 @@ public class PromotionServiceImpl implements IPromotionService {
      */
     @Override
     public Double getBestDiscountForProduct(Long productId, Long categoryId, Long brandId) {
-        LocalDateTime now = LocalDateTime.now();
-        
-        // Get all active DISCOUNT promotions
-        List<Promotion> activeDiscounts = promotionRepository.findAll().stream()
-                .filter(p -> p.getStatus() == EPromotionStatus.ACTIVE)
-                .filter(p -> p.getTemplate().getType() == EPromotionTemplateType.DISCOUNT)
-                .filter(p -> now.isAfter(p.getEffectiveDate()) && now.isBefore(p.getExpirationDate()))
-                .collect(Collectors.toList());
-        
-        // Find applicable promotions and collect their discount percentages
-        Double maxDiscount = activeDiscounts.stream()
-                .filter(promotion -> isPromotionApplicableToProduct(promotion, productId, categoryId, brandId))
-                .map(Promotion::getPercentDiscount)
-                .filter(discount -> discount != null && discount > 0)
-                .max(Double::compare)
-                .orElse(null);
-        
-        return maxDiscount;
-    }
-
-    /**
-     * Check if a promotion is applicable to a specific product
-     * Checks if promotion targets include the product's ID, category, or brand
-     */
-    private boolean isPromotionApplicableToProduct(Promotion promotion, Long productId, Long categoryId, Long brandId) {
-        if (promotion.getTargets() == null || promotion.getTargets().isEmpty()) {
-            return false;
-        }
-        
-        for (PromotionTarget target : promotion.getTargets()) {
-            Long targetId = target.getApplicableObjectId();
-            
-            switch (target.getType()) {
-                case PRODUCT:
-                    if (productId != null && productId.equals(targetId)) {
-                        return true;
-                    }
-                    break;
-                case CATEGORY:
-                    if (categoryId != null && categoryId.equals(targetId)) {
-                        return true;
-                    }
-                    break;
-                case BRAND:
-                    if (brandId != null && brandId.equals(targetId)) {
-                        return true;
-                    }
-                    break;
-            }
-        }
-        
-        return false;
+        return targetIndex.bestDiscountPercent(productId, categoryId, brandId);
     }
-}
\ No newline at end of file
+}
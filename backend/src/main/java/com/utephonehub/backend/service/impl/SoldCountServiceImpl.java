@@ -0,0 +1,206 @@
+package com.utephonehub.backend.service.impl;
+
+import com.utephonehub.backend.enums.OrderStatus;
+import com.utephonehub.backend.event.OrderStatusChangedEvent;
+import com.utephonehub.backend.repository.OrderItemRepository;
+import com.utephonehub.backend.repository.ProductCardProjectionRepository;
+import com.utephonehub.backend.service.ISoldCountService;
+import com.utephonehub.backend.service.impl.productview.ProductCacheInvalidator;
+import com.utephonehub.backend.service.impl.productview.ProductCacheInvalidator.Change;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Implementation of product sold counts
+ *
+ * - Counter store: productId -> sold quantity, loaded once from order_items (background)
+ * - Ranking: sorted set (sold DESC, productId DESC) answering top-K without GROUP BY
+ * - Updates from {@link OrderStatusChangedEvent} (order enters or leaves DELIVERED): the affected
+ *   products are re-counted from order_items after commit, counter and projection sold_count get the
+ *   absolute value. No deltas: an event that overlaps a reload or a projection refresh cannot be
+ *   lost or counted twice, whichever write runs last stores the committed count.
+ * A periodic resync rebuilds counters from the database (changes from other nodes) and writes
+ * every sold_count that differs into the product card projection.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SoldCountServiceImpl implements ISoldCountService {
+
+    private static final Comparator<RankEntry> RANK_ORDER = Comparator
+            .comparingInt((RankEntry e) -> e.soldCount).reversed()
+            .thenComparing(e -> e.productId, Comparator.reverseOrder());
+
+    private final OrderItemRepository orderItemRepository;
+    private final ProductCardProjectionRepository projectionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCacheInvalidator cacheInvalidator;
+
+    private volatile State state = new State();
+
+    /**
+     * Load counts before the cache warm-up runner builds the best-selling section
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${product.sold-count.resync-interval-ms:600000}",
+               initialDelayString = "${product.sold-count.resync-interval-ms:600000}")
+    public void resync() {
+        reload();
+        Map<Long, Integer> counts = state.counts;
+        try {
+            Integer corrected = transactionTemplate.execute(status -> {
+                int updated = 0;
+                for (Object[] row : projectionRepository.findAllSoldCounts()) {
+                    Long productId = (Long) row[0];
+                    int expected = counts.getOrDefault(productId, 0);
+                    if (((Number) row[1]).intValue() != expected) {
+                        updated += projectionRepository.updateSoldCount(productId, expected);
+                    }
+                }
+                return updated;
+            });
+            if (corrected != null && corrected > 0) {
+                log.info("Corrected sold count of {} product card projections", corrected);
+            }
+        } catch (Exception ex) {
+            log.error("Error resyncing sold count projection", ex);
+        }
+    }
+
+    @Override
+    public int getSoldCount(Long productId) {
+        if (productId == null) {
+            return 0;
+        }
+        return state.counts.getOrDefault(productId, 0);
+    }
+
+    @Override
+    public Map<Long, Integer> getSoldCounts(Collection<Long> productIds) {
+        Map<Long, Integer> counts = state.counts;
+        Map<Long, Integer> result = new HashMap<>();
+        for (Long productId : productIds) {
+            if (productId != null) {
+                result.put(productId, counts.getOrDefault(productId, 0));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Long> getTopSellingProductIds(int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        for (RankEntry entry : state.ranking) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            ids.add(entry.productId);
+        }
+        return ids;
+    }
+
+    @Override
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        State loaded = new State();
+        for (Object[] row : orderItemRepository.sumDeliveredQuantityGroupByProduct()) {
+            Long productId = (Long) row[0];
+            int sold = ((Number) row[1]).intValue();
+            if (sold > 0) {
+                loaded.counts.put(productId, sold);
+                loaded.ranking.add(new RankEntry(productId, sold));
+            }
+        }
+        state = loaded;
+        log.info("Loaded sold counts for {} products in {} ms",
+                loaded.counts.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Order status changed - re-count the order's products after commit, off the request thread
+     */
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        boolean delivered = event.getNewStatus() == OrderStatus.DELIVERED;
+        boolean wasDelivered = event.getOldStatus() == OrderStatus.DELIVERED;
+        if (delivered == wasDelivered
+                || event.getProductQuantities() == null || event.getProductQuantities().isEmpty()) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>(event.getProductQuantities().keySet());
+        Map<Long, Integer> counts = new HashMap<>();
+        productIds.forEach(productId -> counts.put(productId, 0));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (Object[] row : orderItemRepository.countSoldQuantityByProductIds(productIds)) {
+                    counts.put((Long) row[0], ((Number) row[1]).intValue());
+                }
+                counts.forEach(projectionRepository::updateSoldCount);
+            });
+        } catch (Exception ex) {
+            log.error("Error updating sold counts for order {}", event.getOrderCode(), ex);
+            return;
+        }
+        apply(counts);
+        try {
+            // Sau khi counter và projection đã có giá trị mới
+            cacheInvalidator.invalidate(Change.SOLD, productIds);
+        } catch (Exception ex) {
+            log.error("Error invalidating caches for order {}", event.getOrderCode(), ex);
+        }
+        log.debug("Updated sold counts for order {}: {}", event.getOrderCode(), counts);
+    }
+
+    private synchronized void apply(Map<Long, Integer> counts) {
+        State current = state;
+        counts.forEach((productId, updated) -> {
+            Integer previous = current.counts.get(productId);
+            if (previous != null) {
+                current.ranking.remove(new RankEntry(productId, previous));
+            }
+            if (updated > 0) {
+                current.counts.put(productId, updated);
+                current.ranking.add(new RankEntry(productId, updated));
+            } else {
+                current.counts.remove(productId);
+            }
+        });
+    }
+
+    private static final class State {
+        private final Map<Long, Integer> counts = new ConcurrentHashMap<>();
+        private final NavigableSet<RankEntry> ranking = new ConcurrentSkipListSet<>(RANK_ORDER);
+    }
+
+    private static final class RankEntry {
+        private final Long productId;
+        private final int soldCount;
+
+        private RankEntry(Long productId, int soldCount) {
+            this.productId = productId;
+            this.soldCount = soldCount;
+        }
+    }
+}
@@ -11,19 +11,21 @@ import com.utephonehub.backend.entity.PaymentCallbackLog;
 import com.utephonehub.backend.enums.EWalletProvider;
 import com.utephonehub.backend.enums.OrderStatus;
 import com.utephonehub.backend.enums.PaymentStatus;
+import com.utephonehub.backend.event.OrderStatusChangedEvent;
 import com.utephonehub.backend.exception.BadRequestException;
 import com.utephonehub.backend.exception.ResourceNotFoundException;
 import com.utephonehub.backend.mapper.PaymentMapper;
 import com.utephonehub.backend.repository.OrderRepository;
 import com.utephonehub.backend.repository.PaymentCallbackLogRepository;
 import com.utephonehub.backend.repository.PaymentRepository;
-import com.utephonehub.backend.repository.ProductRepository;
 import com.utephonehub.backend.service.IEmailService;
+import com.utephonehub.backend.service.IInventoryService;
 import com.utephonehub.backend.service.IVNPayService;
 import com.utephonehub.backend.util.VNPayUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -45,9 +47,10 @@ public class VNPayServiceImpl implements IVNPayService {
     private final OrderRepository orderRepository;
     private final PaymentRepository paymentRepository;
     private final PaymentCallbackLogRepository callbackLogRepository;
-    private final ProductRepository productRepository;
+    private final IInventoryService inventoryService;
     private final PaymentMapper paymentMapper;
     private final IEmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
     private final ObjectMapper objectMapper = new ObjectMapper();
     
     @Override
@@ -198,8 +201,8 @@ public class VNPayServiceImpl implements IVNPayService {
         String vnpTransactionStatus = request.getParameter("vnp_TransactionStatus");
         long vnpAmount = Long.parseLong(request.getParameter("vnp_Amount")) / 100; // Convert back from VNPay format
         
-        // 6. Find order by order code
-        Order order = orderRepository.findByOrderCode(vnpTxnRef)
+        // 6. Find order by order code (khóa dòng: không xử lý song song với job hủy đơn quá hạn)
+        Order order = orderRepository.findByOrderCodeForUpdate(vnpTxnRef)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with code: " + vnpTxnRef));
         
         // 7. Create or update payment record
@@ -232,51 +235,15 @@ public class VNPayServiceImpl implements IVNPayService {
         }
         
         // 8.1. Update payment and order status based on VNPay response
+        OrderStatus oldStatus = order.getStatus();
         if ("00".equals(vnpResponseCode) && "00".equals(vnpTransactionStatus)) {
             // Payment successful
             payment.setStatus(PaymentStatus.SUCCESS);
             
-            // 8.2. Validate stock availability before confirming
-            // Stock is at ProductTemplate level, calculate total available stock per product
-            boolean allStockAvailable = true;
-            for (var orderItem : order.getItems()) {
-                var product = orderItem.getProduct();
-                int totalAvailableStock = product.getTemplates().stream()
-                        .filter(t -> t.getStatus() != null && t.getStatus())
-                        .mapToInt(t -> t.getStockQuantity() != null ? t.getStockQuantity() : 0)
-                        .sum();
-                if (totalAvailableStock < orderItem.getQuantity()) {
-                    allStockAvailable = false;
-                    break;
-                }
-            }
-            
-            if (allStockAvailable) {
+            // 8.2. Chuyển phần tồn kho đã giữ khi tạo đơn thành đã trừ (giữ chỗ hết hạn -> trừ lại nếu còn hàng)
+            if (inventoryService.commitReservation(order)) {
                 order.setStatus(OrderStatus.CONFIRMED);
-                // Reduce stock from templates sequentially (same pattern as OrderServiceImpl)
-                for (var orderItem : order.getItems()) {
-                    var product = orderItem.getProduct();
-                    int remainingQuantity = orderItem.getQuantity();
-                    
-                    // Deduct stock from available templates sequentially
-                    for (var template : product.getTemplates()) {
-                        if (template.getStatus() == null || !template.getStatus() 
-                                || template.getStockQuantity() == null || template.getStockQuantity() <= 0 
-                                || remainingQuantity <= 0) {
-                            continue;
-                        }
-                        
-                        int deductAmount = Math.min(template.getStockQuantity(), remainingQuantity);
-                        int oldStock = template.getStockQuantity();
-                        template.setStockQuantity(oldStock - deductAmount);
-                        remainingQuantity -= deductAmount;
-                        log.info("Reduced stock for product {} template {}: {} -> {}", 
-                            product.getId(), template.getSku(), oldStock, template.getStockQuantity());
-                    }
-                    
-                    productRepository.save(product); // Cascade saves templates
-                }
-                log.info("Payment successful and stock reduced for order: {}", order.getOrderCode());
+                log.info("Payment successful and stock committed for order: {}", order.getOrderCode());
                 
                 // Send payment success email (async, không block payment flow)
                 try {
@@ -299,7 +266,7 @@ public class VNPayServiceImpl implements IVNPayService {
                 log.warn("Order {} paid but out of stock. Cancelled for refund.", order.getOrderCode());
             }
         } else {
-            // Payment failed
+            // Payment failed (phần tồn kho đã giữ được trả lại khi đơn chuyển sang CANCELLED)
             payment.setStatus(PaymentStatus.FAILED);
             order.setStatus(OrderStatus.CANCELLED);
             log.warn("Payment failed for order: {} with response code: {}", order.getOrderCode(), vnpResponseCode);
@@ -307,6 +274,9 @@ public class VNPayServiceImpl implements IVNPayService {
         
         paymentRepository.save(payment);
         orderRepository.save(order);
+        if (order.getStatus() != oldStatus) {
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, oldStatus));
+        }
         
         // 9. LƯU CALLBACK LOG SAU KHI PAYMENT ĐÃ CÓ ID (Audit trail)
         try {
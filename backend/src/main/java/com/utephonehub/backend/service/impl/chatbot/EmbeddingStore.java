@@ -0,0 +1,153 @@
+package com.utephonehub.backend.service.impl.chatbot;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.utephonehub.backend.config.GeminiConfig;
+import com.utephonehub.backend.config.cache.CacheMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+
+/**
+ * Cache embedding của Gemini: Caffeine (giới hạn số vector, thread-safe) trước Redis (bền qua restart/deploy)
+ *
+ * - Key: SHA-256 của (embedding model + text), không giữ nguyên văn text trong heap hay Redis;
+ *   đổi model thì key đổi theo, không trả nhầm vector của model cũ
+ * - Value: float[] (4 bytes/chiều); trong Redis là mảng float little-endian thô
+ * - Redis lỗi/không chạy: vẫn hoạt động với tầng heap
+ */
+@Component
+@Slf4j
+public class EmbeddingStore {
+
+    public static final String METRICS_NAME = "geminiEmbeddings";
+    public static final String KEY_PREFIX = "embedding:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String embeddingModel;
+    private final Duration persistTtl;
+    private final Cache<String, float[]> localCache;
+    private final CacheMetrics metrics;
+    private final DistributionSummary entrySize;
+
+    public EmbeddingStore(StringRedisTemplate redisTemplate,
+                          GeminiConfig geminiConfig,
+                          MeterRegistry meterRegistry,
+                          @Value("${cache.embedding.max-entries:10000}") long maxEntries,
+                          @Value("${cache.embedding.persist-ttl:30d}") Duration persistTtl) {
+        this.redisTemplate = redisTemplate;
+        this.embeddingModel = geminiConfig.getEmbeddingModel();
+        this.persistTtl = persistTtl;
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        this.metrics = CacheMetrics.register(meterRegistry, METRICS_NAME);
+        this.metrics.entries(localCache, Cache::estimatedSize, "local");
+        this.metrics.evictionsFrom(localCache, c -> c.stats().evictionCount(), "local");
+        this.entrySize = CacheMetrics.entrySize(meterRegistry, METRICS_NAME);
+    }
+
+    /**
+     * Vector của text: heap -> Redis -> loader (gọi Gemini)
+     * @param loader Trả về null khi không tạo được embedding (không được cache)
+     */
+    public float[] getOrLoad(String text, Supplier<float[]> loader) {
+        String key = hash(text);
+        float[] vector = localCache.getIfPresent(key);
+        if (vector != null) {
+            metrics.localHit();
+            return vector;
+        }
+        vector = readPersisted(key);
+        if (vector != null) {
+            metrics.remoteHit();
+            localCache.put(key, vector);
+            return vector;
+        }
+
+        metrics.miss();
+        long start = System.nanoTime();
+        vector = loader.get();
+        if (vector == null || vector.length == 0) {
+            return vector;
+        }
+        metrics.recordLoad(start);
+        localCache.put(key, vector);
+        persist(key, vector);
+        return vector;
+    }
+
+    /**
+     * Chỉ xóa tầng heap; vector đã lưu trong Redis được giữ lại (đã trả phí tạo)
+     */
+    public void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    public long localSize() {
+        return localCache.estimatedSize();
+    }
+
+    private float[] readPersisted(String key) {
+        try {
+            byte[] bytes = redisTemplate.execute((RedisCallback<byte[]>) connection ->
+                    connection.stringCommands().get(redisKey(key)));
+            return bytes != null ? decode(bytes) : null;
+        } catch (Exception e) {
+            log.warn("Cannot read embedding from Redis: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void persist(String key, float[] vector) {
+        byte[] bytes = encode(vector);
+        entrySize.record(bytes.length);
+        try {
+            redisTemplate.execute((RedisCallback<Boolean>) connection ->
+                    connection.stringCommands().setEx(redisKey(key), persistTtl.toSeconds(), bytes));
+        } catch (Exception e) {
+            log.warn("Cannot persist embedding to Redis: {}", e.getMessage());
+        }
+    }
+
+    private String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(embeddingModel.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] redisKey(String key) {
+        return (KEY_PREFIX + key).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] encode(float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(vector.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asFloatBuffer().put(vector);
+        return buffer.array();
+    }
+
+    private static float[] decode(byte[] bytes) {
+        float[] vector = new float[bytes.length / Float.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(vector);
+        return vector;
+    }
+}
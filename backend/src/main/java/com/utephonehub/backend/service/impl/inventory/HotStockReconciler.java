@@ -0,0 +1,59 @@
+package com.utephonehub.backend.service.impl.inventory;
+
+import com.utephonehub.backend.repository.ProductTemplateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Write-behind for {@link HotStockStore}: applies the net stock change of every hot template
+ * to product_templates in one transaction per interval (một UPDATE mỗi SKU thay vì mỗi đơn hàng)
+ *
+ * Deltas are relative, so it does not matter which node drains them or whether a template was
+ * switched off in between. If the database write fails, the deltas are put back for the next run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotStockReconciler {
+
+    private final HotStockStore hotStockStore;
+    private final ProductTemplateRepository productTemplateRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${inventory.hot.flush-interval-ms:1000}")
+    public void flush() {
+        if (!hotStockStore.isEnabled()) {
+            return;
+        }
+        hotStockStore.refreshKnownHot();
+
+        Map<Long, Integer> deltas;
+        try {
+            deltas = hotStockStore.drainDeltas();
+        } catch (RuntimeException e) {
+            log.warn("Cannot drain hot stock deltas: {}", e.getMessage());
+            return;
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                // incrementStock với delta âm = trừ kho
+                deltas.forEach((templateId, delta) -> productTemplateRepository.incrementStock(templateId, delta, now));
+            });
+            log.debug("Flushed hot stock deltas of {} templates: {}", deltas.size(), deltas);
+        } catch (RuntimeException e) {
+            log.error("Cannot write hot stock deltas, retrying next run: {}", e.getMessage());
+            hotStockStore.restoreDeltas(deltas);
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.utephonehub.backend.service.impl.inventory;
+
+import com.utephonehub.backend.exception.ConflictException;
+import com.utephonehub.backend.repository.ProductTemplateRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Redis stock counters for flash-sale ("hot") SKUs
+ *
+ * - Template ở chế độ hot: số lượng còn bán nằm trong Redis, checkout trừ bằng một Lua script nguyên tử
+ *   thay vì UPDATE dòng product_templates (không còn tranh chấp row lock trên vài SKU bán chạy)
+ * - Mỗi lần trừ/hoàn cộng dồn delta vào một hash; {@link HotStockReconciler} ghi delta về
+ *   product_templates theo lô (write-behind). Trong lúc đó cột stock_quantity chỉ là giá trị gần đúng.
+ * - Phần đã trừ trong một transaction DB bị rollback được trả lại Redis sau khi rollback
+ * - Redis lỗi: template không hot vẫn đi đường DB; template hot bị từ chối (không bán vượt)
+ * Keys share the {hot} hash tag so the multi-key scripts also run on Redis Cluster
+ */
+@Component
+@Slf4j
+public class HotStockStore {
+
+    public static final String STOCK_KEY_PREFIX = "inventory:{hot}:stock:";
+    public static final String DELTA_KEY = "inventory:{hot}:delta";
+    public static final String TEMPLATES_KEY = "inventory:{hot}:templates";
+
+    /**
+     * Lấy tối đa ARGV[1] từ bộ đếm; -1 nếu template không ở chế độ hot
+     */
+    private static final RedisScript<Long> TAKE = RedisScript.of("""
+            local stock = redis.call('GET', KEYS[1])
+            if not stock then
+              return -1
+            end
+            local amount = math.min(tonumber(stock), tonumber(ARGV[1]))
+            if amount <= 0 then
+              return 0
+            end
+            redis.call('DECRBY', KEYS[1], amount)
+            redis.call('HINCRBY', KEYS[2], ARGV[2], -amount)
+            return amount
+            """, Long.class);
+
+    /**
+     * Trả lại ARGV[1]; 0 nếu template đã tắt hot (caller trả vào DB)
+     */
+    private static final RedisScript<Long> PUT_BACK = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+              return 0
+            end
+            redis.call('INCRBY', KEYS[1], ARGV[1])
+            redis.call('HINCRBY', KEYS[2], ARGV[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    /**
+     * Khởi tạo bộ đếm từ tồn kho DB, chỉ khi template chưa hot
+     */
+    private static final RedisScript<Long> ENABLE = RedisScript.of("""
+            if redis.call('SET', KEYS[1], ARGV[1], 'NX') then
+              redis.call('SADD', KEYS[2], ARGV[2])
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * Xóa bộ đếm, trả về delta chưa ghi của template (nil nếu template không hot)
+     */
+    private static final RedisScript<Long> DISABLE = RedisScript.of("""
+            if redis.call('DEL', KEYS[1]) == 0 then
+              return nil
+            end
+            redis.call('SREM', KEYS[2], ARGV[1])
+            local delta = redis.call('HGET', KEYS[3], ARGV[1])
+            redis.call('HDEL', KEYS[3], ARGV[1])
+            return tonumber(delta or '0')
+            """, Long.class);
+
+    /**
+     * Lấy và xóa toàn bộ delta đang chờ ghi trong một bước
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> DRAIN = RedisScript.of("""
+            local deltas = redis.call('HGETALL', KEYS[1])
+            redis.call('DEL', KEYS[1])
+            return deltas
+            """, List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ProductTemplateRepository productTemplateRepository;
+    private final TransactionTemplate requiresNew;
+    private final boolean enabled;
+
+    /**
+     * Last known hot templates: decides what to do when Redis cannot be reached
+     */
+    private volatile Set<Long> knownHot = Set.of();
+
+    public HotStockStore(StringRedisTemplate redisTemplate,
+                         ProductTemplateRepository productTemplateRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${inventory.hot.enabled:false}") boolean enabled) {
+        this.redisTemplate = redisTemplate;
+        this.productTemplateRepository = productTemplateRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Take up to {@code wanted} units of a hot template
+     * Nếu transaction hiện tại rollback, phần đã lấy được trả lại sau khi rollback
+     * @return null if the template is not hot (caller decrements the database row)
+     */
+    public Taken take(Long templateId, int wanted) {
+        if (!enabled) {
+            return null;
+        }
+        Long result;
+        try {
+            result = redisTemplate.execute(TAKE, List.of(stockKey(templateId), DELTA_KEY),
+                    String.valueOf(wanted), String.valueOf(templateId));
+        } catch (RuntimeException e) {
+            if (knownHot.contains(templateId)) {
+                log.error("Cannot take hot stock of template {}: {}", templateId, e.getMessage());
+                throw new ConflictException("Sản phẩm đang có nhiều người đặt, vui lòng thử lại sau ít phút");
+            }
+            return null;
+        }
+        if (result == null || result < 0) {
+            return null;
+        }
+        Taken taken = new Taken(templateId, result.intValue());
+        if (taken.amount > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        taken.putBack();
+                    }
+                }
+            });
+        }
+        return taken;
+    }
+
+    /**
+     * Return released stock (cancelled order, expired hold) once the current transaction commits
+     * @return false if the template is not hot - the caller updates the database row instead
+     */
+    public boolean releaseAfterCommit(Long templateId, int amount) {
+        if (!enabled) {
+            return false;
+        }
+        boolean hot;
+        try {
+            hot = Boolean.TRUE.equals(redisTemplate.hasKey(stockKey(templateId)));
+        } catch (RuntimeException e) {
+            // Trả vào DB: trong đợt sale phần này tạm không bán được, không bao giờ bán vượt
+            log.warn("Cannot check hot stock of template {}: {}", templateId, e.getMessage());
+            return false;
+        }
+        if (!hot) {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    putBack(templateId, amount);
+                }
+            });
+        } else {
+            putBack(templateId, amount);
+        }
+        return true;
+    }
+
+    /**
+     * Start serving a template from Redis
+     * @return false if it was already hot
+     */
+    public boolean enable(Long templateId, int stock) {
+        Long created = redisTemplate.execute(ENABLE, List.of(stockKey(templateId), TEMPLATES_KEY),
+                String.valueOf(stock), String.valueOf(templateId));
+        refreshKnownHot();
+        return created != null && created == 1;
+    }
+
+    /**
+     * Stop serving a template from Redis
+     * @return Unwritten delta of the template (to apply to the database), null if it was not hot
+     */
+    public Long disable(Long templateId) {
+        Long delta = redisTemplate.execute(DISABLE, List.of(stockKey(templateId), TEMPLATES_KEY, DELTA_KEY),
+                String.valueOf(templateId));
+        refreshKnownHot();
+        return delta;
+    }
+
+    /**
+     * Remove and return every pending delta: templateId -> net change since the last drain
+     * Sorted by templateId so the database rows are updated in the same order as checkouts lock them
+     */
+    public Map<Long, Integer> drainDeltas() {
+        List<?> flat = redisTemplate.execute(DRAIN, List.of(DELTA_KEY));
+        Map<Long, Integer> deltas = new TreeMap<>();
+        if (flat == null) {
+            return deltas;
+        }
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            int delta = Integer.parseInt(String.valueOf(flat.get(i + 1)));
+            if (delta != 0) {
+                deltas.put(Long.valueOf(String.valueOf(flat.get(i))), delta);
+            }
+        }
+        return deltas;
+    }
+
+    /**
+     * Put drained deltas back (the database write failed)
+     */
+    public void restoreDeltas(Map<Long, Integer> deltas) {
+        deltas.forEach((templateId, delta) ->
+                redisTemplate.opsForHash().increment(DELTA_KEY, String.valueOf(templateId), delta));
+    }
+
+    /**
+     * Hot templates: templateId -> [available in Redis, pending delta]
+     */
+    public Map<Long, long[]> snapshot() {
+        List<Long> templateIds = getHotTemplateIds().stream().sorted().toList();
+        Map<Long, long[]> result = new LinkedHashMap<>();
+        if (templateIds.isEmpty()) {
+            return result;
+        }
+        List<String> stocks = redisTemplate.opsForValue()
+                .multiGet(templateIds.stream().map(HotStockStore::stockKey).toList());
+        Map<Object, Object> deltas = redisTemplate.opsForHash().entries(DELTA_KEY);
+        for (int i = 0; i < templateIds.size(); i++) {
+            String stock = stocks != null ? stocks.get(i) : null;
+            if (stock == null) {
+                continue;
+            }
+            Object delta = deltas.get(String.valueOf(templateIds.get(i)));
+            result.put(templateIds.get(i), new long[]{
+                    Long.parseLong(stock), delta != null ? Long.parseLong(delta.toString()) : 0L});
+        }
+        return result;
+    }
+
+    public void refreshKnownHot() {
+        try {
+            knownHot = getHotTemplateIds();
+        } catch (RuntimeException e) {
+            log.warn("Cannot read hot templates: {}", e.getMessage());
+        }
+    }
+
+    private Set<Long> getHotTemplateIds() {
+        Set<String> members = redisTemplate.opsForSet().members(TEMPLATES_KEY);
+        if (members == null) {
+            return Set.of();
+        }
+        return members.stream().map(Long::valueOf).collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Template đã tắt hot trong lúc đó: delta của nó đã được ghi vào DB, nên trả thẳng vào DB
+     */
+    private void putBack(Long templateId, int amount) {
+        try {
+            Long result = redisTemplate.execute(PUT_BACK, List.of(stockKey(templateId), DELTA_KEY),
+                    String.valueOf(amount), String.valueOf(templateId));
+            if (result != null && result == 1) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.error("Cannot return {} units to hot template {}, returning them to the database: {}",
+                    amount, templateId, e.getMessage());
+        }
+        requiresNew.executeWithoutResult(status ->
+                productTemplateRepository.incrementStock(templateId, amount, LocalDateTime.now()));
+    }
+
+    private static String stockKey(Long templateId) {
+        return STOCK_KEY_PREFIX + templateId;
+    }
+
+    /**
+     * Units taken from a hot counter by one checkout
+     */
+    public final class Taken {
+        private final Long templateId;
+        private final int amount;
+        private boolean returned;
+
+        private Taken(Long templateId, int amount) {
+            this.templateId = templateId;
+            this.amount = amount;
+        }
+
+        public Long templateId() {
+            return templateId;
+        }
+
+        public int amount() {
+            return amount;
+        }
+
+        /**
+         * Return the units now (idempotent)
+         */
+        public synchronized void putBack() {
+            if (returned || amount == 0) {
+                return;
+            }
+            returned = true;
+            HotStockStore.this.putBack(templateId, amount);
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.utephonehub.backend.service.impl.location;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.utephonehub.backend.dto.response.location.ProvinceResponse;
+import com.utephonehub.backend.dto.response.location.WardResponse;
+import com.utephonehub.backend.entity.Province;
+import com.utephonehub.backend.entity.Ward;
+import com.utephonehub.backend.repository.ProvinceRepository;
+import com.utephonehub.backend.repository.WardRepository;
+import com.utephonehub.backend.util.VietnameseTextNormalizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable in-memory index of provinces and wards (dữ liệu hành chính gần như không đổi)
+ *
+ * - Nạp một lần lúc khởi động (2 query), sau đó mọi API location đọc từ memory, không chạm DB
+ * - DTO dựng sẵn + JSON dựng sẵn (UTF-8 bytes) cho các danh sách lớn: tất cả tỉnh, tất cả phường/xã,
+ *   phường/xã theo từng tỉnh
+ * - Tìm kiếm theo tiền tố trên tên đã bỏ dấu, khớp đầu mỗi từ ("hoan ki" -> "Phường Hoàn Kiếm"):
+ *   mảng key đã sắp xếp (mỗi vị trí bắt đầu từ của tên là một key) + binary search
+ * Dữ liệu thay đổi (import lại) -> gọi {@link #reload()}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LocationIndex {
+
+    private final ProvinceRepository provinceRepository;
+    private final WardRepository wardRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Build before the cache warm-up runner and before traffic is accepted
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        reload();
+    }
+
+    public synchronized void reload() {
+        long start = System.currentTimeMillis();
+        List<ProvinceResponse> provinces = provinceRepository.findAllByOrderByNameAsc().stream()
+                .map(LocationIndex::toResponse)
+                .toList();
+        List<WardResponse> wards = wardRepository.findAllByOrderByNameAsc().stream()
+                .map(LocationIndex::toResponse)
+                .toList();
+        snapshot = new Snapshot(provinces, wards, objectMapper);
+        log.info("Loaded location index: {} provinces, {} wards in {} ms",
+                provinces.size(), wards.size(), System.currentTimeMillis() - start);
+    }
+
+    public List<ProvinceResponse> getProvinces() {
+        return current().provinces;
+    }
+
+    public ProvinceResponse getProvince(String provinceCode) {
+        return current().provinceByCode.get(provinceCode);
+    }
+
+    public List<WardResponse> getWards() {
+        return current().wards;
+    }
+
+    /**
+     * @return null if the province does not exist, empty list if it has no wards
+     */
+    public List<WardResponse> getWards(String provinceCode) {
+        Snapshot current = current();
+        if (!current.provinceByCode.containsKey(provinceCode)) {
+            return null;
+        }
+        return current.wardsByProvince.getOrDefault(provinceCode, List.of());
+    }
+
+    public WardResponse getWard(String wardCode) {
+        return current().wardByCode.get(wardCode);
+    }
+
+    public SerializedString getProvincesJson() {
+        return current().provincesJson;
+    }
+
+    public SerializedString getWardsJson() {
+        return current().wardsJson;
+    }
+
+    /**
+     * @return null if the province does not exist
+     */
+    public SerializedString getWardsJson(String provinceCode) {
+        Snapshot current = current();
+        if (!current.provinceByCode.containsKey(provinceCode)) {
+            return null;
+        }
+        return current.wardsJsonByProvince.getOrDefault(provinceCode, current.emptyJson);
+    }
+
+    public List<ProvinceResponse> searchProvinces(String prefix, int limit) {
+        return current().provinceNames.search(prefix, null, limit);
+    }
+
+    /**
+     * @param provinceCode Restrict to one province (null = cả nước)
+     */
+    public List<WardResponse> searchWards(String prefix, String provinceCode, int limit) {
+        return current().wardNames.search(prefix, provinceCode, limit);
+    }
+
+    /**
+     * Content hash, identical on every node for the same data (ETag)
+     */
+    public String getVersion() {
+        return current().version;
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private static ProvinceResponse toResponse(Province province) {
+        return ProvinceResponse.builder()
+                .id(province.getId())
+                .provinceCode(province.getProvinceCode())
+                .name(province.getName())
+                .placeType(province.getPlaceType())
+                .country(province.getCountry())
+                .build();
+    }
+
+    private static WardResponse toResponse(Ward ward) {
+        return WardResponse.builder()
+                .id(ward.getId())
+                .wardCode(ward.getWardCode())
+                .name(ward.getName())
+                .provinceCode(ward.getProvinceCode())
+                .build();
+    }
+
+    private static final class Snapshot {
+        private final List<ProvinceResponse> provinces;
+        private final List<WardResponse> wards;
+        private final Map<String, ProvinceResponse> provinceByCode = new LinkedHashMap<>();
+        private final Map<String, WardResponse> wardByCode = new LinkedHashMap<>();
+        private final Map<String, List<WardResponse>> wardsByProvince;
+        private final SerializedString provincesJson;
+        private final SerializedString wardsJson;
+        private final Map<String, SerializedString> wardsJsonByProvince = new LinkedHashMap<>();
+        private final SerializedString emptyJson;
+        private final PrefixIndex<ProvinceResponse> provinceNames;
+        private final PrefixIndex<WardResponse> wardNames;
+        private final String version;
+
+        private Snapshot(List<ProvinceResponse> provinces, List<WardResponse> wards, ObjectMapper objectMapper) {
+            this.provinces = provinces;
+            this.wards = wards;
+            provinces.forEach(p -> provinceByCode.put(p.getProvinceCode(), p));
+            wards.forEach(w -> wardByCode.put(w.getWardCode(), w));
+
+            // Giữ thứ tự tên A-Z của query gốc trong từng nhóm
+            Map<String, List<WardResponse>> grouped = new LinkedHashMap<>();
+            for (WardResponse ward : wards) {
+                grouped.computeIfAbsent(ward.getProvinceCode(), code -> new ArrayList<>()).add(ward);
+            }
+            Map<String, List<WardResponse>> byProvince = new LinkedHashMap<>();
+            grouped.forEach((code, list) -> byProvince.put(code, Collections.unmodifiableList(list)));
+            this.wardsByProvince = byProvince;
+
+            this.provincesJson = json(objectMapper, provinces);
+            this.wardsJson = json(objectMapper, wards);
+            byProvince.forEach((code, list) -> wardsJsonByProvince.put(code, json(objectMapper, list)));
+            this.emptyJson = json(objectMapper, List.of());
+
+            this.provinceNames = new PrefixIndex<>(provinces, ProvinceResponse::getName, ProvinceResponse::getProvinceCode);
+            this.wardNames = new PrefixIndex<>(wards, WardResponse::getName, WardResponse::getProvinceCode);
+            this.version = hash(provincesJson, wardsJson);
+        }
+
+        /**
+         * JSON encoded once; the UTF-8 bytes are computed here so responses copy them as-is
+         */
+        private static SerializedString json(ObjectMapper objectMapper, Object value) {
+            try {
+                SerializedString json = new SerializedString(objectMapper.writeValueAsString(value));
+                json.asUnquotedUTF8();
+                return json;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Cannot serialize location data", e);
+            }
+        }
+
+        private static String hash(SerializedString... parts) {
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                for (SerializedString part : parts) {
+                    digest.update(part.asUnquotedUTF8());
+                }
+                return HexFormat.of().formatHex(digest.digest(), 0, 16);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+
+    /**
+     * Sorted word-start keys of folded names; a prefix query is a binary search + a forward scan
+     */
+    private static final class PrefixIndex<T> {
+        private final String[] keys;
+        private final int[] positions;
+        private final List<T> items;
+        private final String[] groups;
+
+        private PrefixIndex(List<T> items, Function<T, String> name, Function<T, String> group) {
+            this.items = items;
+            this.groups = new String[items.size()];
+            List<String> keyList = new ArrayList<>();
+            List<Integer> positionList = new ArrayList<>();
+            for (int i = 0; i < items.size(); i++) {
+                T item = items.get(i);
+                groups[i] = group.apply(item);
+                String folded = VietnameseTextNormalizer.fold(name.apply(item));
+                if (folded == null) {
+                    continue;
+                }
+                // Key cho mọi vị trí đầu từ: "phuong hoan kiem", "hoan kiem", "kiem"
+                int from = 0;
+                while (from >= 0) {
+                    keyList.add(folded.substring(from));
+                    positionList.add(i);
+                    int space = folded.indexOf(' ', from);
+                    from = space >= 0 ? space + 1 : -1;
+                }
+            }
+            Integer[] order = new Integer[keyList.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing(keyList::get));
+            this.keys = new String[order.length];
+            this.positions = new int[order.length];
+            for (int i = 0; i < order.length; i++) {
+                keys[i] = keyList.get(order[i]);
+                positions[i] = positionList.get(order[i]);
+            }
+        }
+
+        /**
+         * Matches in the original (name A-Z) order
+         */
+        private List<T> search(String prefix, String group, int limit) {
+            String folded = VietnameseTextNormalizer.fold(prefix);
+            if (folded == null || limit <= 0) {
+                return List.of();
+            }
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(folded) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            Set<Integer> matched = new LinkedHashSet<>();
+            for (int i = low; i < keys.length && keys[i].startsWith(folded); i++) {
+                int position = positions[i];
+                if (group == null || group.equals(groups[position])) {
+                    matched.add(position);
+                }
+            }
+            return matched.stream()
+                    .sorted()
+                    .limit(limit)
+                    .map(items::get)
+                    .toList();
+        }
+    }
+}
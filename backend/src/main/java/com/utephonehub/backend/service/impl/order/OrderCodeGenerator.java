@@ -0,0 +1,208 @@
+package com.utephonehub.backend.service.impl.order;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Order code generator, Snowflake-style: không cần kiểm tra trùng trong DB
+ *
+ * 63-bit id = 41 bit mili giây từ {@link #EPOCH} | 10 bit node id | 12 bit sequence trong cùng mili giây,
+ * mã hóa Crockford base32 (0-9, A-Z bỏ I L O U) đủ 13 ký tự: "ORD_" + 13 = 17 ký tự (cột order_code dài 20)
+ * - Cùng độ dài nên thứ tự chuỗi = thứ tự thời gian tạo; mã cũ ORD_yyMMddHHmmss vẫn hợp lệ
+ * - Node id: cấu hình order.code.node-id, hoặc thuê một slot 0-1023 trên Redis (SET NX + TTL, gia hạn định kỳ)
+ *   nên hai instance đang chạy không bao giờ dùng chung node id
+ * - Đồng hồ lùi hoặc hết 4096 mã trong một mili giây: mượn mili giây kế tiếp thay vì chờ,
+ *   mã trên một node luôn tăng dần
+ * The unique constraint on order_code stays as the last line of defence
+ */
+@Component
+@Slf4j
+public class OrderCodeGenerator {
+
+    public static final String PREFIX = "ORD_";
+    public static final String NODE_KEY_PREFIX = "order:code:node:";
+
+    // 2025-01-01T00:00:00Z, 41 bit mili giây đủ đến năm 2094
+    private static final long EPOCH = 1735689600000L;
+
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final int CODE_LENGTH = 13;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    /**
+     * Gia hạn slot nếu vẫn thuộc instance này; lấy lại nếu đã hết hạn mà còn trống; 0 nếu đã bị instance khác lấy
+     */
+    private static final RedisScript<Long> RENEW = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              redis.call('PEXPIRE', KEYS[1], ARGV[2])
+              return 1
+            end
+            if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then
+              return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE = RedisScript.of("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final int configuredNodeId;
+    private final Duration leaseTtl;
+    private final String owner = UUID.randomUUID().toString();
+
+    private volatile int nodeId = -1;
+    private volatile boolean leased;
+    // Nguồn thời gian, test thay để giả lập đồng hồ lùi
+    LongSupplier clock = System::currentTimeMillis;
+    private long lastMillis = -1;
+    private int sequence;
+
+    public OrderCodeGenerator(StringRedisTemplate redisTemplate,
+                              @Value("${order.code.node-id:-1}") int configuredNodeId,
+                              @Value("${order.code.node-lease-ttl:60s}") Duration leaseTtl) {
+        if (configuredNodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("order.code.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.redisTemplate = redisTemplate;
+        this.configuredNodeId = configuredNodeId;
+        this.leaseTtl = leaseTtl;
+    }
+
+    @PostConstruct
+    void init() {
+        if (configuredNodeId >= 0) {
+            nodeId = configuredNodeId;
+            log.info("Order code node id {} (configured)", nodeId);
+            return;
+        }
+        claimNodeId();
+    }
+
+    /**
+     * Next order code, e.g. ORD_0C4XN3J8K2001
+     */
+    public String next() {
+        return PREFIX + encode(nextId());
+    }
+
+    private synchronized long nextId() {
+        long now = Math.max(clock.getAsLong() - EPOCH, lastMillis);
+        if (now == lastMillis) {
+            if (sequence == MAX_SEQUENCE) {
+                now++;
+                sequence = 0;
+            } else {
+                sequence++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = now;
+        return (now << (NODE_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * Keep the Redis slot alive; if it was lost (Redis flushed, long pause) take another free one
+     */
+    @Scheduled(fixedDelayString = "${order.code.node-lease-renew-ms:20000}",
+               initialDelayString = "${order.code.node-lease-renew-ms:20000}")
+    public void renewLease() {
+        if (configuredNodeId >= 0) {
+            return;
+        }
+        if (!leased) {
+            claimNodeId();
+            return;
+        }
+        try {
+            Long renewed = redisTemplate.execute(RENEW, List.of(NODE_KEY_PREFIX + nodeId),
+                    owner, String.valueOf(leaseTtl.toMillis()));
+            if (renewed == null || renewed == 0) {
+                log.warn("Order code node id {} was taken by another instance, claiming a new one", nodeId);
+                leased = false;
+                claimNodeId();
+            }
+        } catch (Exception e) {
+            log.warn("Cannot renew order code node id {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void releaseLease() {
+        if (!leased) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE, List.of(NODE_KEY_PREFIX + nodeId), owner);
+        } catch (Exception e) {
+            log.debug("Cannot release order code node id {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private synchronized void claimNodeId() {
+        try {
+            int start = ThreadLocalRandom.current().nextInt(MAX_NODE_ID + 1);
+            for (int i = 0; i <= MAX_NODE_ID; i++) {
+                int candidate = (start + i) & MAX_NODE_ID;
+                Boolean claimed = redisTemplate.opsForValue()
+                        .setIfAbsent(NODE_KEY_PREFIX + candidate, owner, leaseTtl);
+                if (Boolean.TRUE.equals(claimed)) {
+                    nodeId = candidate;
+                    leased = true;
+                    log.info("Order code node id {} (leased from Redis)", nodeId);
+                    return;
+                }
+            }
+            log.error("No free order code node id in Redis ({} instances?)", MAX_NODE_ID + 1);
+        } catch (Exception e) {
+            log.warn("Cannot lease order code node id from Redis: {}", e.getMessage());
+        }
+        if (nodeId < 0) {
+            // Redis không dùng được lúc khởi động: suy ra từ host + pid, thử thuê lại ở lần gia hạn sau
+            nodeId = fallbackNodeId();
+            log.warn("Order code node id {} derived from host/pid; set order.code.node-id when running "
+                    + "several instances without Redis", nodeId);
+        }
+    }
+
+    private static int fallbackNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "localhost";
+        }
+        return (host + "/" + ManagementFactory.getRuntimeMXBean().getName()).hashCode() & MAX_NODE_ID;
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,184 @@
+package com.utephonehub.backend.service.impl.order;
+
+import com.utephonehub.backend.entity.Order;
+import com.utephonehub.backend.entity.OrderStatusHistory;
+import com.utephonehub.backend.enums.OrderStatus;
+import com.utephonehub.backend.enums.PaymentMethod;
+import com.utephonehub.backend.event.OrderStatusChangedEvent;
+import com.utephonehub.backend.repository.OrderRepository;
+import com.utephonehub.backend.repository.OrderStatusHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Background job cancelling VNPay orders that stay PENDING (unpaid) longer than the payment window
+ *
+ * Delay queue backed by the orders table: every pending order expires at createdAt + window, so the
+ * next deadline is always the one of the oldest pending order. A single wake-up is armed for it:
+ * - new PENDING order: arm only if nothing earlier is armed (no per-order timer)
+ * - wake-up: cancel every due order in batches, then re-arm for the new oldest pending order
+ * Each batch locks its rows with FOR UPDATE SKIP LOCKED, so several nodes can run the job at once and
+ * an order being paid (row locked by the VNPay callback) is left alone.
+ * Cancelling publishes {@link OrderStatusChangedEvent}: reserved stock is released in the same transaction.
+ */
+@Component
+@Slf4j
+public class PendingOrderExpiryScheduler {
+
+    private static final String CHANGED_BY = "SYSTEM";
+    // Không re-arm sát thời điểm hiện tại (đơn đang bị khóa bởi callback sẽ được thử lại sau)
+    private static final Duration MIN_DELAY = Duration.ofSeconds(5);
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusHistoryRepository statusHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskScheduler taskScheduler;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration paymentWindow;
+    private final int batchSize;
+
+    // Riêng với lock của lần quét: request thread chỉ arm, không chờ quét xong
+    private final Object armLock = new Object();
+    private ScheduledFuture<?> wakeUp;
+    private LocalDateTime armedAt;
+
+    public PendingOrderExpiryScheduler(OrderRepository orderRepository,
+                                       OrderStatusHistoryRepository statusHistoryRepository,
+                                       ApplicationEventPublisher eventPublisher,
+                                       TaskScheduler taskScheduler,
+                                       TransactionTemplate transactionTemplate,
+                                       @Value("${order.pending.payment-window:30m}") Duration paymentWindow,
+                                       @Value("${order.pending.batch-size:100}") int batchSize) {
+        this.orderRepository = orderRepository;
+        this.statusHistoryRepository = statusHistoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.taskScheduler = taskScheduler;
+        this.transactionTemplate = transactionTemplate;
+        this.paymentWindow = paymentWindow;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Cancel orders that expired while the application was down
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        reload();
+    }
+
+    /**
+     * New VNPay order committed - make sure a wake-up is armed for it
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.getOldStatus() == null && event.getNewStatus() == OrderStatus.PENDING) {
+            arm(event.getTimestamp().plus(paymentWindow));
+        }
+    }
+
+    /**
+     * Safety net: orders created on other nodes, clock drift, failed runs
+     */
+    @Scheduled(fixedDelayString = "${order.pending.resync-interval-ms:300000}",
+               initialDelayString = "${order.pending.resync-interval-ms:300000}")
+    public void resync() {
+        reload();
+    }
+
+    /**
+     * Cancel due orders, then arm the wake-up for the oldest remaining pending order
+     */
+    public synchronized void reload() {
+        expireDue();
+        try {
+            LocalDateTime oldest = orderRepository.findOldestCreatedAt(OrderStatus.PENDING, PaymentMethod.VNPAY);
+            if (oldest != null) {
+                arm(oldest.plus(paymentWindow));
+            }
+        } catch (Exception ex) {
+            log.error("Cannot find the oldest pending order: {}", ex.getMessage());
+        }
+    }
+
+    void processDue() {
+        synchronized (armLock) {
+            wakeUp = null;
+            armedAt = null;
+        }
+        reload();
+    }
+
+    private void expireDue() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(paymentWindow);
+        int total = 0;
+        try {
+            Integer cancelled;
+            do {
+                cancelled = transactionTemplate.execute(status -> expireBatch(cutoff));
+                total += cancelled != null ? cancelled : 0;
+            } while (cancelled != null && cancelled == batchSize);
+        } catch (Exception ex) {
+            log.error("Cannot cancel expired pending orders: {}", ex.getMessage());
+        }
+        if (total > 0) {
+            log.info("⏰ Cancelled {} unpaid VNPay orders older than {}", total, paymentWindow);
+        }
+    }
+
+    /**
+     * One transaction: lock up to batchSize due orders, cancel them, write their status history
+     */
+    private int expireBatch(LocalDateTime cutoff) {
+        List<Long> orderIds = orderRepository.lockIdsByStatusCreatedBefore(
+                OrderStatus.PENDING.name(), PaymentMethod.VNPAY.name(), cutoff, batchSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<OrderStatusHistory> history = new ArrayList<>(orderIds.size());
+        for (Order order : orderRepository.findAllByIdInWithItems(orderIds)) {
+            order.setStatus(OrderStatus.CANCELLED);
+            order.setUpdatedAt(now);
+            history.add(OrderStatusHistory.builder()
+                    .order(order)
+                    .status(OrderStatus.CANCELLED)
+                    .changedBy(CHANGED_BY)
+                    .build());
+            eventPublisher.publishEvent(OrderStatusChangedEvent.of(order, OrderStatus.PENDING));
+            log.info("Order {} not paid within {}, cancelled", order.getOrderCode(), paymentWindow);
+        }
+        statusHistoryRepository.saveAll(history);
+        return orderIds.size();
+    }
+
+    private void arm(LocalDateTime at) {
+        LocalDateTime earliest = LocalDateTime.now().plus(MIN_DELAY);
+        LocalDateTime next = at.isBefore(earliest) ? earliest : at;
+        synchronized (armLock) {
+            if (armedAt != null && !armedAt.isAfter(next)) {
+                return;
+            }
+            if (wakeUp != null) {
+                wakeUp.cancel(false);
+            }
+            armedAt = next;
+            wakeUp = taskScheduler.schedule(this::processDue, next.atZone(ZoneId.systemDefault()).toInstant());
+        }
+        log.debug("Next pending order expiry check at {}", next);
+    }
+}
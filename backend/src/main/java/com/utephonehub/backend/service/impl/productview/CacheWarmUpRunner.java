@@ -0,0 +1,148 @@
+package com.utephonehub.backend.service.impl.productview;
+
+import com.utephonehub.backend.dto.request.productview.ProductSearchFilterRequest;
+import com.utephonehub.backend.entity.Category;
+import com.utephonehub.backend.repository.CategoryRepository;
+import com.utephonehub.backend.service.ILocationService;
+import com.utephonehub.backend.service.IProductRecommendationService;
+import com.utephonehub.backend.service.IProductViewService;
+import com.utephonehub.backend.service.IPromotionService;
+import com.utephonehub.backend.service.impl.promotion.PromotionSnapshotManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Warm-up cache khi khởi động (kể cả sau mỗi lần deploy)
+ *
+ * ApplicationRunner chạy sau khi context sẵn sàng nhưng TRƯỚC khi readiness chuyển sang
+ * ACCEPTING_TRAFFIC, nên request đầu tiên không phải quét DB. Product card projection đã được
+ * rebuild đồng bộ ở ApplicationStartedEvent (ProductCardProjectionListener), trước mọi runner,
+ * nên danh sách sản phẩm được cache từ read model mới. Các bước chạy song song,
+ * bật/tắt từng bước qua cache.warm-up.caches, thời gian từng bước được log.
+ * Lỗi hoặc quá thời gian chỉ được log - ứng dụng vẫn khởi động (cache sẽ được nạp khi có request).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmUpRunner implements ApplicationRunner {
+
+    private final IProductViewService productViewService;
+    private final IProductRecommendationService recommendationService;
+    private final IPromotionService promotionService;
+    private final PromotionSnapshotManager promotionSnapshotManager;
+    private final ILocationService locationService;
+    private final CategoryRepository categoryRepository;
+
+    @Value("${cache.warm-up.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.warm-up.caches:newArrivals,featuredProducts,bestSellingProducts,productsOnSale,"
+            + "categoryPages,promotions,locations,chatbotFeaturedProducts,chatbotBestSellingProducts,chatbotNewArrivals}")
+    private Set<String> caches;
+
+    @Value("${cache.warm-up.homepage-limits:4,10}")
+    private List<Integer> homepageLimits;
+
+    @Value("${cache.warm-up.parallelism:4}")
+    private int parallelism;
+
+    @Value("${cache.warm-up.timeout:60s}")
+    private Duration timeout;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Runnable> steps = steps();
+        steps.keySet().retainAll(caches);
+        if (steps.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+            Thread thread = new Thread(runnable, "cache-warm-up-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            steps.forEach((name, step) -> futures.add(CompletableFuture.runAsync(() -> runStep(name, step), executor)));
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            log.info("🔥 Cache warm-up finished: {} steps in {} ms", steps.size(), elapsedMillis(start));
+        } catch (TimeoutException e) {
+            log.warn("Cache warm-up did not finish within {}, continuing startup", timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Cache warm-up failed: {}", e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Warm-up steps by cache name (insertion order = log order)
+     */
+    private Map<String, Runnable> steps() {
+        Map<String, Runnable> steps = new LinkedHashMap<>();
+        steps.put("newArrivals", () -> homepageLimits.forEach(productViewService::getNewArrivals));
+        steps.put("featuredProducts", () -> homepageLimits.forEach(productViewService::getFeaturedProducts));
+        steps.put("bestSellingProducts", () -> homepageLimits.forEach(productViewService::getBestSellingProducts));
+        steps.put("productsOnSale", () -> homepageLimits.forEach(productViewService::getProductsOnSale));
+        // Trang đầu của mỗi danh mục gốc (kèm facet count của sidebar - cache productFacets)
+        steps.put("categoryPages", () -> {
+            List<Long> rootIds = categoryRepository.findByParentIdIsNull().stream()
+                    .map(Category::getId)
+                    .collect(Collectors.toList());
+            rootIds.forEach(id -> productViewService.getProductsByCategory(id, new ProductSearchFilterRequest()));
+        });
+        steps.put("promotions", () -> {
+            promotionSnapshotManager.current();
+            promotionService.getAllActivePromotions();
+        });
+        steps.put("locations", () -> {
+            locationService.getAllProvinces();
+            locationService.getAllWards();
+        });
+        steps.put("chatbotFeaturedProducts", recommendationService::getFeaturedProducts);
+        steps.put("chatbotBestSellingProducts", recommendationService::getBestSellingProducts);
+        steps.put("chatbotNewArrivals", recommendationService::getNewArrivalsProducts);
+        return steps;
+    }
+
+    private void runStep(String name, Runnable step) {
+        long start = System.nanoTime();
+        try {
+            step.run();
+            log.info("Cache warm-up step {} took {} ms", name, elapsedMillis(start));
+        } catch (Exception e) {
+            log.warn("Cache warm-up step {} failed after {} ms: {}", name, elapsedMillis(start), e.getMessage());
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,169 @@
+package com.utephonehub.backend.service.impl.productview;
+
+import com.utephonehub.backend.dto.response.ChatbotAssistantUserResponse;
+import com.utephonehub.backend.dto.response.productview.ProductCardResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependency-aware invalidation cho các cache sản phẩm (homepage, chatbot, facet)
+ * Follows Single Responsibility Principle (SRP) - chỉ biết cache nào phụ thuộc vào thay đổi nào
+ *
+ * Mỗi cache khai báo hai loại phụ thuộc:
+ * - membership: thay đổi có thể làm đổi tập/thứ tự sản phẩm trong danh sách -> xóa cả cache
+ * - content: thay đổi chỉ làm đổi dữ liệu hiển thị của sản phẩm đã có trong danh sách
+ *   -> chỉ xóa những entry chứa sản phẩm bị ảnh hưởng
+ * Nhờ vậy TTL chỉ còn là lưới an toàn, có thể đặt theo giờ mà không trả giá/tồn kho cũ
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheInvalidator {
+
+    /**
+     * Loại thay đổi domain
+     */
+    public enum Change {
+        PRODUCT_CREATED,
+        PRODUCT_UPDATED,
+        PRODUCT_DELETED,
+        TEMPLATE,
+        STOCK,
+        REVIEW,
+        SOLD,
+        PROMOTION
+    }
+
+    private record Dependency(Set<Change> membership, Set<Change> content) {
+    }
+
+    private static final Dependency NEW_ARRIVALS = new Dependency(
+            EnumSet.of(Change.PRODUCT_CREATED, Change.PRODUCT_UPDATED, Change.PROMOTION),
+            EnumSet.of(Change.PRODUCT_DELETED, Change.TEMPLATE, Change.STOCK, Change.REVIEW, Change.SOLD));
+
+    private static final Dependency FEATURED = new Dependency(
+            EnumSet.of(Change.PRODUCT_UPDATED, Change.REVIEW, Change.PROMOTION),
+            EnumSet.of(Change.PRODUCT_DELETED, Change.TEMPLATE, Change.STOCK, Change.SOLD));
+
+    // Bán chạy được bổ sung bằng sản phẩm mới nhất khi chưa đủ -> phụ thuộc cả PRODUCT_CREATED
+    private static final Dependency BEST_SELLING = new Dependency(
+            EnumSet.of(Change.PRODUCT_CREATED, Change.PRODUCT_UPDATED, Change.SOLD, Change.PROMOTION),
+            EnumSet.of(Change.PRODUCT_DELETED, Change.TEMPLATE, Change.STOCK, Change.REVIEW));
+
+    // Giá template và khuyến mãi quyết định sản phẩm có đang giảm giá hay không
+    private static final Dependency ON_SALE = new Dependency(
+            EnumSet.of(Change.PRODUCT_CREATED, Change.PRODUCT_UPDATED, Change.TEMPLATE, Change.PROMOTION),
+            EnumSet.of(Change.PRODUCT_DELETED, Change.STOCK, Change.REVIEW, Change.SOLD));
+
+    // Facet count theo filter signature - mọi thay đổi thuộc tính/giá/tồn kho đều đổi số đếm
+    // (SOLD bỏ qua: chỉ ảnh hưởng phạm vi minSoldCount, TTL đủ)
+    private static final Dependency FACETS = new Dependency(
+            EnumSet.of(Change.PRODUCT_CREATED, Change.PRODUCT_UPDATED, Change.PRODUCT_DELETED,
+                    Change.TEMPLATE, Change.STOCK, Change.REVIEW, Change.PROMOTION),
+            EnumSet.noneOf(Change.class));
+
+    // Kết quả lọc/danh mục/liên quan của chatbot: thuộc tính, danh mục và rating quyết định tập kết quả
+    private static final Dependency CHATBOT_LISTS = new Dependency(
+            EnumSet.of(Change.PRODUCT_CREATED, Change.PRODUCT_UPDATED, Change.PRODUCT_DELETED, Change.REVIEW),
+            EnumSet.of(Change.TEMPLATE, Change.STOCK, Change.SOLD, Change.PROMOTION));
+
+    private static final Map<String, Dependency> DEPENDENCIES = Map.of(
+            "newArrivals", NEW_ARRIVALS,
+            "featuredProducts", FEATURED,
+            "bestSellingProducts", BEST_SELLING,
+            "productsOnSale", ON_SALE,
+            "chatbotNewArrivals", NEW_ARRIVALS,
+            "chatbotFeaturedProducts", FEATURED,
+            "chatbotBestSellingProducts", BEST_SELLING,
+            "chatbotProducts", CHATBOT_LISTS,
+            "productFacets", FACETS
+    );
+
+    private static final int SCAN_COUNT = 100;
+
+    private final CacheManager cacheManager;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    /**
+     * Evict cache entries affected by a change
+     * @param change Kind of change
+     * @param productIds Affected products (null/empty = unknown, e.g. promotion targets)
+     */
+    public void invalidate(Change change, Collection<Long> productIds) {
+        boolean scoped = productIds != null && !productIds.isEmpty();
+        DEPENDENCIES.forEach((cacheName, dependency) -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache == null) {
+                return;
+            }
+            if (dependency.membership().contains(change) || (!scoped && dependency.content().contains(change))) {
+                cache.clear();
+                log.debug("Cleared cache {} on {}", cacheName, change);
+            } else if (dependency.content().contains(change)) {
+                evictEntriesContaining(cache, productIds);
+            }
+        });
+    }
+
+    /**
+     * Chỉ xóa entry có chứa một trong các sản phẩm (các cache homepage có rất ít key: limit 4/8/10...)
+     */
+    private void evictEntriesContaining(Cache cache, Collection<Long> productIds) {
+        Set<Long> ids = productIds instanceof Set<Long> set ? set : Set.copyOf(productIds);
+        int evicted = 0;
+        for (String key : cachedKeys(cache.getName())) {
+            Cache.ValueWrapper wrapper = cache.get(key);
+            if (wrapper != null && containsAny(wrapper.get(), ids)) {
+                cache.evict(key);
+                evicted++;
+            }
+        }
+        if (evicted > 0) {
+            log.debug("Evicted {} entries of {} for products {}", evicted, cache.getName(), ids);
+        }
+    }
+
+    /**
+     * Keys of a cache in Redis (L2 luôn chứa mọi key của L1 vì TTL của L1 ngắn hơn)
+     */
+    private List<String> cachedKeys(String cacheName) {
+        String prefix = cacheName + "::";
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(SCAN_COUNT).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(key -> keys.add(key.substring(prefix.length())));
+        }
+        return keys;
+    }
+
+    private static boolean containsAny(Object value, Set<Long> ids) {
+        if (!(value instanceof Collection<?> items)) {
+            return false;
+        }
+        for (Object item : items) {
+            Long id = null;
+            if (item instanceof ProductCardResponse card) {
+                id = card.getId();
+            } else if (item instanceof ChatbotAssistantUserResponse.RecommendedProductDTO product) {
+                id = product.getId();
+            }
+            if (id != null && ids.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
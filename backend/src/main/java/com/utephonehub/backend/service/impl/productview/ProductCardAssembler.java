@@ -0,0 +1,209 @@
+package com.utephonehub.backend.service.impl.productview;
+
+import com.utephonehub.backend.dto.response.productview.ProductCardResponse;
+import com.utephonehub.backend.entity.Product;
+import com.utephonehub.backend.entity.ProductMetadata;
+import com.utephonehub.backend.entity.ProductTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Assembler cho ProductCardResponse
+ * Dùng chung giữa ProductViewServiceImpl (build trực tiếp từ entity) và
+ * ProductCardProjectionServiceImpl (build 1 lần rồi lưu vào read model)
+ *
+ * Card build ở đây KHÔNG chứa thông tin giảm giá - discount phụ thuộc thời gian
+ * nên được áp lên card khi đọc (xem ProductViewServiceImpl#applyDiscount)
+ */
+@Component
+public class ProductCardAssembler {
+
+    /**
+     * Build card cơ bản (giá, tồn kho, rating, thông số) từ entity graph
+     */
+    public ProductCardResponse toBaseCard(Product product, double averageRating, int reviewCount, int soldCount) {
+        ProductTemplate template = displayTemplate(product);
+        BigDecimal originalPrice = template != null ? template.getPrice() : null;
+        ProductMetadata metadata = product.getMetadata();
+
+        // Tính toán price range từ tất cả template
+        PriceRange priceInfo = calculatePriceRange(product);
+
+        ProductCardResponse card = ProductCardResponse.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .thumbnailUrl(product.getThumbnailUrl())
+                .brandName(product.getBrand() != null ? product.getBrand().getName() : null)
+                .brandId(product.getBrand() != null ? product.getBrand().getId() : null)
+                .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .originalPrice(originalPrice)  // Giá thấp nhất
+                .minPrice(priceInfo.min)  // Giá thấp nhất từ tất cả template
+                .maxPrice(priceInfo.max)  // Giá cao nhất từ tất cả template
+                .priceRange(priceInfo.displayText)  // Range text: "10tr - 15tr" or "10tr"
+                .discountedPrice(originalPrice)
+                .hasDiscount(false)
+                .discountPercentage(0.0)
+                .savingAmount(BigDecimal.ZERO)
+                .ram(template != null ? template.getRam() : null)
+                .storage(template != null ? template.getStorage() : null)
+                .color(template != null ? template.getColor() : null)
+                .screenSize(metadata != null && metadata.getScreenSize() != null ? metadata.getScreenSize() + "\"" : null)
+                .operatingSystem(metadata != null ? metadata.getOperatingSystem() : null)
+                .processor(metadata != null ? metadata.getCpuChipset() : null)
+                .screenResolution(metadata != null ? metadata.getScreenResolution() : null)
+                .screenTechnology(metadata != null ? metadata.getScreenTechnology() : null)
+                .refreshRate(metadata != null ? metadata.getRefreshRate() : null)
+                .gpu(metadata != null ? metadata.getGpu() : null)
+                .cameraDetails(metadata != null ? metadata.getCameraDetails() : null)
+                .frontCameraMegapixels(metadata != null ? metadata.getFrontCameraMegapixels() : null)
+                .batteryCapacity(metadata != null ? metadata.getBatteryCapacity() : null)
+                .chargingPower(metadata != null ? metadata.getChargingPower() : null)
+                .chargingType(metadata != null ? metadata.getChargingType() : null)
+                .weight(metadata != null ? metadata.getWeight() : null)
+                .dimensions(metadata != null ? metadata.getDimensions() : null)
+                .material(metadata != null ? metadata.getMaterial() : null)
+                .wirelessConnectivity(metadata != null ? metadata.getWirelessConnectivity() : null)
+                .simType(metadata != null ? metadata.getSimType() : null)
+                .waterResistance(metadata != null ? metadata.getWaterResistance() : null)
+                .audioFeatures(metadata != null ? metadata.getAudioFeatures() : null)
+                .securityFeatures(metadata != null ? metadata.getSecurityFeatures() : null)
+                .additionalSpecs(metadata != null ? metadata.getAdditionalSpecs() : null)
+                .build();
+        applyRating(card, averageRating, reviewCount);
+        applyStock(card, totalStock(product));
+        card.setSoldCount(soldCount);
+        return card;
+    }
+
+    /**
+     * Cập nhật các trường rating của card
+     */
+    public void applyRating(ProductCardResponse card, double averageRating, int reviewCount) {
+        card.setAverageRating(averageRating);
+        card.setTotalReviews(reviewCount);
+        card.setRatingDisplay(String.format(Locale.US, "%.1f (%d reviews)", averageRating, reviewCount));
+    }
+
+    /**
+     * Cập nhật các trường tồn kho của card
+     */
+    public void applyStock(ProductCardResponse card, int stockQuantity) {
+        card.setInStock(stockQuantity > 0);
+        card.setStockQuantity(stockQuantity);
+        card.setStockStatus(stockStatus(stockQuantity));
+    }
+
+    /**
+     * Template hiển thị trên card: template active có giá thấp nhất
+     */
+    public ProductTemplate displayTemplate(Product product) {
+        List<ProductTemplate> templates = product.getTemplates();
+        if (templates == null || templates.isEmpty()) {
+            return null;
+        }
+        return templates.stream()
+                .filter(ProductTemplate::getStatus)
+                .filter(t -> t.getPrice() != null)
+                .min(Comparator.comparing(ProductTemplate::getPrice))
+                .orElse(templates.get(0));
+    }
+
+    /**
+     * Tổng tồn kho của các template active
+     */
+    public int totalStock(Product product) {
+        if (product.getTemplates() == null) return 0;
+        return product.getTemplates().stream()
+                .filter(ProductTemplate::getStatus)
+                .map(ProductTemplate::getStockQuantity)
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
+    private String stockStatus(int qty) {
+        if (qty > 10) return "In Stock";
+        if (qty > 0) return "Low Stock";
+        return "Out of Stock";
+    }
+
+    /**
+     * Tính toán price range từ tất cả template của sản phẩm
+     */
+    private PriceRange calculatePriceRange(Product product) {
+        List<ProductTemplate> templates = product.getTemplates();
+        if (templates == null || templates.isEmpty()) {
+            return new PriceRange(null, null, "Liên hệ");
+        }
+
+        List<BigDecimal> prices = templates.stream()
+                .filter(t -> Boolean.TRUE.equals(t.getStatus()))
+                .map(ProductTemplate::getPrice)
+                .filter(Objects::nonNull)
+                .sorted()
+                .collect(Collectors.toList());
+
+        if (prices.isEmpty()) {
+            return new PriceRange(null, null, "Liên hệ");
+        }
+
+        BigDecimal min = prices.get(0);
+        BigDecimal max = prices.get(prices.size() - 1);
+
+        String displayText;
+        if (min.equals(max)) {
+            // Chỉ có 1 giá
+            displayText = formatPrice(min);
+        } else {
+            // Có range giá
+            displayText = formatPrice(min) + " - " + formatPrice(max);
+        }
+
+        return new PriceRange(min, max, displayText);
+    }
+
+    /**
+     * Format giá thành text hiển thị: 10.000.000 -> "10tr"
+     */
+    private String formatPrice(BigDecimal price) {
+        if (price == null) return "0đ";
+
+        double value = price.doubleValue();
+        if (value >= 1_000_000) {
+            double millions = value / 1_000_000;
+            if (millions == (int) millions) {
+                return String.format("%.0ftr", millions);
+            } else {
+                return String.format("%.1ftr", millions);
+            }
+        } else if (value >= 1_000) {
+            double thousands = value / 1_000;
+            if (thousands == (int) thousands) {
+                return String.format("%.0fk", thousands);
+            } else {
+                return String.format("%.1fk", thousands);
+            }
+        } else {
+            return String.format("%.0fđ", value);
+        }
+    }
+
+    private static final class PriceRange {
+        private final BigDecimal min;
+        private final BigDecimal max;
+        private final String displayText;
+
+        private PriceRange(BigDecimal min, BigDecimal max, String displayText) {
+            this.min = min;
+            this.max = max;
+            this.displayText = displayText;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.utephonehub.backend.service.impl.productview;
+
+import com.utephonehub.backend.dto.request.productview.ProductFilterRequest;
+import com.utephonehub.backend.entity.ProductCardProjection;
+import com.utephonehub.backend.enums.EPromotionTargetType;
+import com.utephonehub.backend.exception.BadRequestException;
+import com.utephonehub.backend.repository.ProductCardProjectionRepository;
+import com.utephonehub.backend.repository.ProductCardProjectionSpecification;
+import com.utephonehub.backend.service.impl.promotion.ActivePromotionSnapshot;
+import com.utephonehub.backend.service.impl.promotion.PromotionSnapshotManager;
+import com.utephonehub.backend.service.impl.promotion.PromotionTargetIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Query engine cho các sort field tính toán (price, rating, soldCount, discount)
+ * Follows Single Responsibility Principle (SRP) - chỉ build query lọc/sort/phân trang trên read model
+ *
+ * - Lọc hoàn toàn trong SQL trên product_card_projections ({@link ProductCardProjectionSpecification})
+ * - Sort key lấy từ cột precomputed (rating_average, sold_count, display_price) hoặc biểu thức SQL
+ *   dựng từ promotion snapshot hiện tại (giá sau giảm, % giảm) - cùng công thức với PromotionDiscountCalculator
+ * - Phân trang keyset (sortKey, productId) khi client gửi cursor; page/size (OFFSET) vẫn được hỗ trợ
+ *   Sort key NULL được coi là 0 ở cả ORDER BY, điều kiện seek và cursor
+ * - COUNT chỉ chạy cho trang OFFSET còn trang sau; trang cursor không có total (chỉ nextCursor)
+ * - Sort theo cột thường (name, createdAt) dùng cùng bộ lọc SQL với OFFSET
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductCardQueryEngine {
+
+    private static final long UNKNOWN_TOTAL = -1;
+    private static final BigDecimal NULL_KEY = BigDecimal.ZERO;
+
+    private final EntityManager entityManager;
+    private final ProductCardProjectionRepository projectionRepository;
+    private final PromotionSnapshotManager promotionSnapshotManager;
+    private final PromotionTargetIndex promotionTargetIndex;
+
+    /**
+     * Run a filtered, sorted page query on the card read model
+     * @param request Filter criteria (cursor optional)
+     * @param sortKey Computed sort key
+     * @param asc Sort direction
+     * @param page Page number (ignored when a cursor is given)
+     * @param size Page size
+     */
+    public Result query(ProductFilterRequest request, SortKey sortKey, boolean asc, int page, int size) {
+        return query(filterSpecification(request), request.getCursor(), sortKey, asc, page, size);
+    }
+
+    /**
+     * Same as {@link #query(ProductFilterRequest, SortKey, boolean, int, int)} for a prebuilt filter
+     * @param cursor nextCursor of the previous page, null for OFFSET pagination
+     */
+    public Result query(Specification<ProductCardProjection> filter, String cursor,
+                        SortKey sortKey, boolean asc, int page, int size) {
+        return execute(filter, Cursor.decode(cursor, sortKey, asc), sortKey, asc, page, size);
+    }
+
+    private Result execute(Specification<ProductCardProjection> filter, Cursor cursor,
+                           SortKey sortKey, boolean asc, int page, int size) {
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<ProductCardProjection> root = query.from(ProductCardProjection.class);
+        // NULL key sorts as NULL_KEY in ORDER BY and seek alike (Postgres puts NULLs last ASC / first DESC,
+        // a cursor ending on such a row would loop or skip), the cursor encodes the same value
+        Expression<Number> key = cb.coalesce(
+                sortExpression(cb, root, sortKey, promotionSnapshotManager.current()), NULL_KEY);
+        Path<Long> id = root.get("productId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(filter.toPredicate(root, query, cb));
+        if (cursor != null) {
+            predicates.add(seek(cb, key, id, cursor, asc));
+        }
+        query.multiselect(root, key)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(asc ? cb.asc(key) : cb.desc(key), asc ? cb.asc(id) : cb.desc(id));
+
+        // Fetch one extra row to know whether there is a next page
+        List<Tuple> tuples = entityManager.createQuery(query)
+                .setFirstResult(cursor != null ? 0 : page * size)
+                .setMaxResults(size + 1)
+                .getResultList();
+        boolean hasNext = tuples.size() > size;
+        if (hasNext) {
+            tuples = tuples.subList(0, size);
+        }
+
+        List<ProductCardProjection> rows = tuples.stream()
+                .map(tuple -> tuple.get(0, ProductCardProjection.class))
+                .collect(Collectors.toList());
+        String nextCursor = null;
+        if (hasNext) {
+            Tuple last = tuples.get(tuples.size() - 1);
+            nextCursor = Cursor.encode(sortKey, asc, last.get(1), last.get(0, ProductCardProjection.class).getProductId());
+        }
+        long total;
+        if (cursor != null) {
+            total = UNKNOWN_TOTAL;
+        } else if (!hasNext && (!rows.isEmpty() || page == 0)) {
+            // Trang cuối: tổng = số dòng trước trang này + số dòng của trang, không cần COUNT
+            total = (long) page * size + rows.size();
+        } else {
+            total = projectionRepository.count(filter);
+        }
+        return new Result(rows, total, nextCursor);
+    }
+
+    /**
+     * Filtered page sorted by a plain projection column (name, productCreatedAt), OFFSET pagination
+     * @param property Entity property of ProductCardProjection
+     */
+    public Page<ProductCardProjection> queryByColumn(ProductFilterRequest request, String property,
+                                                     boolean asc, int page, int size) {
+        Sort.Direction direction = asc ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return queryBySort(filterSpecification(request), Sort.by(direction, property, "productId"), page, size);
+    }
+
+    /**
+     * Filtered page sorted by plain projection columns, OFFSET pagination
+     * Total comes from the repository (COUNT skipped on a short first page)
+     */
+    public Page<ProductCardProjection> queryBySort(Specification<ProductCardProjection> filter, Sort sort,
+                                                   int page, int size) {
+        return projectionRepository.findAll(filter, PageRequest.of(page, size, sort));
+    }
+
+    /**
+     * Full filter of a request, including the "has discount" filter resolved from the promotion index
+     */
+    public Specification<ProductCardProjection> filterSpecification(ProductFilterRequest request) {
+        Specification<ProductCardProjection> filter = ProductCardProjectionSpecification.filter(request);
+        if (Boolean.TRUE.equals(request.getHasDiscountOnly())) {
+            filter = filter.and(ProductCardProjectionSpecification.hasDiscount(
+                    promotionTargetIndex.discountedObjectIds(EPromotionTargetType.PRODUCT),
+                    promotionTargetIndex.discountedObjectIds(EPromotionTargetType.CATEGORY),
+                    promotionTargetIndex.discountedObjectIds(EPromotionTargetType.BRAND)));
+        }
+        return filter;
+    }
+
+    /**
+     * Products whose display price gets an order discount right now - the SQL form of
+     * "discount > 0" in ProductViewServiceImpl#calculateDiscount (same snapshot, same formula)
+     */
+    public Specification<ProductCardProjection> orderDiscountSpecification() {
+        ActivePromotionSnapshot snapshot = promotionSnapshotManager.current();
+        return (root, query, cb) -> {
+            Expression<Double> price = cb.toDouble(root.get("displayPrice"));
+            Expression<Double> best = bestDiscountAmount(cb, price, snapshot);
+            if (best == null) {
+                return cb.disjunction();
+            }
+            return cb.and(cb.gt(price, 0.0), cb.gt(best, 0.0));
+        };
+    }
+
+    /**
+     * SQL expression of the sort key
+     */
+    private Expression<? extends Number> sortExpression(CriteriaBuilder cb, Root<ProductCardProjection> root,
+                                                        SortKey sortKey, ActivePromotionSnapshot snapshot) {
+        switch (sortKey) {
+            case RATING:
+                return root.get("ratingAverage");
+            case SOLD_COUNT:
+                return root.get("soldCount");
+            case DISCOUNT: {
+                Expression<Double> price = cb.toDouble(root.get("displayPrice"));
+                Expression<Double> best = bestDiscountAmount(cb, price, snapshot);
+                if (best == null) {
+                    return cb.literal(0.0);
+                }
+                return cb.<Number>selectCase()
+                        .when(cb.gt(price, 0.0), cb.prod(cb.quot(best, price), 100.0))
+                        .otherwise(0.0);
+            }
+            case PRICE:
+            default: {
+                Expression<Double> price = cb.toDouble(root.get("displayPrice"));
+                Expression<Double> best = bestDiscountAmount(cb, price, snapshot);
+                // No order promotion in effect -> plain indexed column
+                return best != null ? cb.diff(price, best) : root.get("displayPrice");
+            }
+        }
+    }
+
+    /**
+     * greatest(discount of each promotion) - mirrors ActivePromotionSnapshot#bestOrderDiscount
+     * @return null if no promotion is in effect
+     */
+    private Expression<Double> bestDiscountAmount(CriteriaBuilder cb, Expression<Double> price,
+                                                  ActivePromotionSnapshot snapshot) {
+        List<Expression<Double>> amounts = new ArrayList<>();
+        for (ActivePromotionSnapshot.PromotionRule rule : snapshot.getOrderPromotions()) {
+            Expression<Double> amount = discountAmount(cb, price, rule);
+            if (amount != null) {
+                amounts.add(amount);
+            }
+        }
+        if (amounts.isEmpty()) {
+            return null;
+        }
+        if (amounts.size() == 1) {
+            return amounts.get(0);
+        }
+        return cb.function("greatest", Double.class, amounts.toArray(new Expression<?>[0]));
+    }
+
+    private Expression<Double> discountAmount(CriteriaBuilder cb, Expression<Double> price,
+                                              ActivePromotionSnapshot.PromotionRule rule) {
+        Expression<Double> amount;
+        if (rule.getFixedAmount() != null && rule.getFixedAmount() > 0) {
+            amount = cb.function("least", Double.class, cb.literal(rule.getFixedAmount()), price);
+        } else if (rule.getPercentDiscount() != null && rule.getPercentDiscount() > 0) {
+            amount = cb.prod(price, Math.min(100.0, rule.getPercentDiscount()) / 100.0);
+            if (rule.getMaxDiscount() != null && rule.getMaxDiscount() > 0) {
+                amount = cb.function("least", Double.class, amount, cb.literal(rule.getMaxDiscount()));
+            }
+        } else {
+            return null;
+        }
+        if (rule.getMinValueToBeApplied() != null) {
+            amount = cb.<Double>selectCase()
+                    .when(cb.ge(price, rule.getMinValueToBeApplied()), amount)
+                    .otherwise(0.0);
+        }
+        return amount;
+    }
+
+    /**
+     * Keyset condition: rows strictly after (value, productId) in the sort order
+     */
+    private Predicate seek(CriteriaBuilder cb, Expression<? extends Number> key, Path<Long> id,
+                           Cursor cursor, boolean asc) {
+        Predicate afterKey = asc ? cb.gt(key, cursor.value) : cb.lt(key, cursor.value);
+        Predicate afterId = asc ? cb.gt(id, cursor.productId) : cb.lt(id, cursor.productId);
+        return cb.or(afterKey, cb.and(cb.equal(key, cursor.value), afterId));
+    }
+
+    public enum SortKey {
+        PRICE,
+        RATING,
+        SOLD_COUNT,
+        DISCOUNT;
+
+        /**
+         * @return the computed sort key, or null if sortBy is a plain column (createdAt, name)
+         */
+        public static SortKey from(String sortBy) {
+            if (sortBy == null) return null;
+            switch (sortBy.trim().toLowerCase(Locale.ROOT)) {
+                case "price":
+                    return PRICE;
+                case "rating":
+                    return RATING;
+                case "soldcount":
+                case "sold_count":
+                    return SOLD_COUNT;
+                case "discountpercentage":
+                case "discount_percentage":
+                case "discount":
+                    return DISCOUNT;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    @Getter
+    public static final class Result {
+        private final List<ProductCardProjection> rows;
+        private final long total; // UNKNOWN_TOTAL on cursor pages
+        private final String nextCursor; // null = last page
+
+        private Result(List<ProductCardProjection> rows, long total, String nextCursor) {
+            this.rows = rows;
+            this.total = total;
+            this.nextCursor = nextCursor;
+        }
+    }
+
+    /**
+     * Opaque cursor: base64url("SORT_KEY|asc|value|productId")
+     */
+    private static final class Cursor {
+        private final BigDecimal value;
+        private final Long productId;
+
+        private Cursor(BigDecimal value, Long productId) {
+            this.value = value;
+            this.productId = productId;
+        }
+
+        static String encode(SortKey sortKey, boolean asc, Object value, Long productId) {
+            String raw = sortKey.name() + "|" + (asc ? "asc" : "desc") + "|"
+                    + (value != null ? value : NULL_KEY) + "|" + productId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor, SortKey sortKey, boolean asc) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                String[] parts = raw.split("\\|");
+                if (parts.length != 4 || !parts[0].equals(sortKey.name())
+                        || !parts[1].equals(asc ? "asc" : "desc")) {
+                    throw new BadRequestException("Cursor không khớp với kiểu sắp xếp hiện tại");
+                }
+                return new Cursor(new BigDecimal(parts[2]), Long.valueOf(parts[3]));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Cursor không hợp lệ");
+            }
+        }
+    }
+}
@@ -0,0 +1,677 @@
+package com.utephonehub.backend.service.impl.productview;
+
+import com.utephonehub.backend.dto.request.productview.ProductFilterRequest;
+import com.utephonehub.backend.entity.Product;
+import com.utephonehub.backend.entity.ProductMetadata;
+import com.utephonehub.backend.entity.ProductTemplate;
+import com.utephonehub.backend.repository.ProductRepository;
+import com.utephonehub.backend.repository.ReviewRepository;
+import com.utephonehub.backend.util.VietnameseTextNormalizer;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * In-JVM inverted index cho tìm kiếm + lọc sản phẩm không cần truy vấn PostgreSQL
+ * Follows Information Expert (GRASP) - trả lời search/filter/facet count từ bitmap trong bộ nhớ
+ *
+ * - Mỗi sản phẩm hiển thị được gán doc id int; posting list là {@link BitSet} theo doc id
+ * - Term: token đã chuẩn hóa (bỏ dấu) của tên, brand, category và các spec chính (chip, OS, màn hình...)
+ *   Mọi token của từ khóa được so khớp theo prefix (search-as-you-type)
+ * - Facet bitmap: brand, category, RAM, storage, màn hình, OS, khoảng pin, khoảng giá, còn hàng.
+ *   Bộ lọc giống ProductCardProjectionSpecification (giá, pin, rating, OS lọc trên giá trị của từng doc),
+ *   facet count chính xác (mỗi facet đếm theo các bộ lọc của facet khác)
+ * - Sort: relevance, name, price (giá hiển thị), created_date. Rating/soldCount không có trong index
+ *   -> {@link #supportsSort(String)} = false; "có giảm giá" / soldCount đổi liên tục -> {@link #supportsFilter} = false
+ * - Thay đổi sản phẩm chỉ tải lại document đó và vá posting list của riêng nó (O(số term của sản phẩm)),
+ *   dưới write lock ngắn; search giữ read lock nên không bao giờ thấy index dở dang
+ * Tắt mặc định (product.search.in-memory.enabled) - khi tắt, search dùng {@link ProductSearchEngine}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductInvertedIndex {
+
+    public static final String FACET_BRAND = "brand";
+    public static final String FACET_CATEGORY = "category";
+    public static final String FACET_RAM = "ram";
+    public static final String FACET_STORAGE = "storage";
+    public static final String FACET_SCREEN = "screenSize";
+    public static final String FACET_OS = "os";
+    public static final String FACET_BATTERY = "battery";
+    public static final String FACET_PRICE = "priceRange";
+    public static final String FACET_RATING = "rating";
+
+    // Mốc khoảng giá (VND), khoảng pin (mAh) và số sao: facet value = mốc dưới của khoảng
+    public static final long[] PRICE_BUCKETS = {0L, 5_000_000L, 10_000_000L, 15_000_000L, 20_000_000L, 30_000_000L};
+    public static final int[] BATTERY_BUCKETS = {0, 4000, 5000, 6000};
+    public static final int[] RATING_STARS = {5, 4, 3, 2, 1};
+
+    private static final int BATCH_SIZE = 200;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^a-z0-9]+");
+
+    private final ProductRepository productRepository;
+    private final ReviewRepository reviewRepository;
+    private final ProductCardAssembler cardAssembler;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${product.search.in-memory.enabled:false}")
+    private boolean enabled;
+
+    private volatile Index index;
+
+    /**
+     * @return true when the index is enabled and has been built
+     */
+    public boolean isReady() {
+        return enabled && index != null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return true if {@link #search} can order by this key (null/"relevance", name, price, created_date)
+     */
+    public static boolean supportsSort(String sortBy) {
+        return Index.comparatorKey(sortBy) != null;
+    }
+
+    /**
+     * @return true if {@link #search} can evaluate every filter of the request
+     * (all but hasDiscountOnly and minSoldCount, which change without a product event)
+     */
+    public static boolean supportsFilter(ProductFilterRequest filter) {
+        return filter == null || (!Boolean.TRUE.equals(filter.getHasDiscountOnly())
+                && (filter.getMinSoldCount() == null || filter.getMinSoldCount() <= 0));
+    }
+
+    /**
+     * Build the whole index from the database (startup)
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Map<Long, Document> loaded = load(productRepository.findVisibleProductIds());
+        Index built = new Index();
+        loaded.values().stream()
+                .sorted(Comparator.comparing((Document document) -> document.productId))
+                .forEach(built::put);
+        index = built;
+        log.info("Built product inverted index: {} documents, {} terms in {} ms",
+                loaded.size(), built.terms.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Reload the documents of changed products and patch their postings (hidden/deleted ones are dropped)
+     */
+    public synchronized void update(Collection<Long> productIds) {
+        Index current = index;
+        if (!enabled || current == null || productIds == null || productIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = productIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        // Đọc DB ngoài lock, chỉ phần vá posting list chặn search
+        Map<Long, Document> loaded = load(ids);
+        current.lock.writeLock().lock();
+        try {
+            for (Long id : ids) {
+                current.remove(id);
+                Document document = loaded.get(id);
+                if (document != null) {
+                    current.put(document);
+                }
+            }
+        } finally {
+            current.lock.writeLock().unlock();
+        }
+        log.debug("Updated product inverted index for {}", ids);
+    }
+
+    /**
+     * Search + filter on the current index
+     * @param keyword Raw keyword, may be null (filter only)
+     * @param filter Filters of the request (check {@link #supportsFilter} first), may be null
+     * @param sortBy null/"relevance", name, price, created_date (check {@link #supportsSort(String)} first)
+     * @param size Page size, 0 for facet counts only
+     */
+    public Result search(String keyword, ProductFilterRequest filter, String sortBy, boolean asc, int page, int size) {
+        Index current = index;
+        if (current == null) {
+            throw new IllegalStateException("Product inverted index is not built");
+        }
+        List<String> tokens = tokenize(VietnameseTextNormalizer.fold(keyword));
+        ProductFilterRequest criteria = filter != null ? filter : new ProductFilterRequest();
+        current.lock.readLock().lock();
+        try {
+            BitSet base = current.matchAll(tokens, current.terms);
+            if (Boolean.TRUE.equals(criteria.getInStockOnly())) {
+                base.and(current.inStock);
+            }
+            Map<String, BitSet> facetFilters = current.facetFilters(criteria, base);
+            BitSet matched = except(base, facetFilters, null);
+
+            // Facet counts: mỗi facet áp dụng mọi bộ lọc trừ bộ lọc của chính nó
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            facets.put(FACET_BRAND, count(current.brands, except(base, facetFilters, FACET_BRAND)));
+            facets.put(FACET_CATEGORY, count(current.categories, except(base, facetFilters, FACET_CATEGORY)));
+            facets.put(FACET_RAM, count(current.rams, except(base, facetFilters, FACET_RAM)));
+            facets.put(FACET_STORAGE, count(current.storages, except(base, facetFilters, FACET_STORAGE)));
+            facets.put(FACET_SCREEN, count(current.screens, except(base, facetFilters, FACET_SCREEN)));
+            facets.put(FACET_OS, count(current.osValues, except(base, facetFilters, FACET_OS)));
+            facets.put(FACET_BATTERY, count(current.batteryBuckets, except(base, facetFilters, FACET_BATTERY)));
+            BitSet priceScope = except(base, facetFilters, FACET_PRICE);
+            facets.put(FACET_PRICE, count(current.priceBuckets, priceScope));
+            facets.put(FACET_RATING, current.countStars(except(base, facetFilters, FACET_RATING)));
+
+            BitSet nameMatches = null;
+            if (!tokens.isEmpty()) {
+                nameMatches = current.matchAll(tokens, current.nameTerms);
+                nameMatches.and(matched);
+            }
+            int[] docs = matched.stream().toArray();
+            List<Long> pageIds = current.sortedPage(docs, sortBy, asc, nameMatches, page, size);
+            return new Result(pageIds, docs.length, facets,
+                    current.minPrice(priceScope), current.maxPrice(priceScope));
+        } finally {
+            current.lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Document> load(List<Long> ids) {
+        Map<Long, Document> loaded = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            transactionTemplate.executeWithoutResult(status -> loadDocuments(batch, loaded));
+        }
+        return loaded;
+    }
+
+    private void loadDocuments(List<Long> ids, Map<Long, Document> target) {
+        Map<Long, Double> ratings = new HashMap<>();
+        for (Object[] row : reviewRepository.getReviewStatsByProductIds(ids)) {
+            ratings.put((Long) row[0], row[1] != null ? (Double) row[1] : 0.0);
+        }
+        for (Product product : productRepository.findCardGraphByIds(ids)) {
+            if (Boolean.TRUE.equals(product.getStatus()) && !Boolean.TRUE.equals(product.getIsDeleted())) {
+                target.put(product.getId(), toDocument(product, ratings.getOrDefault(product.getId(), 0.0)));
+            }
+        }
+    }
+
+    private Document toDocument(Product product, double rating) {
+        Document document = new Document();
+        document.productId = product.getId();
+        document.name = product.getName() != null ? product.getName().toLowerCase(Locale.ROOT) : "";
+        document.createdAt = product.getCreatedAt() != null
+                ? product.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : 0L;
+        ProductTemplate display = cardAssembler.displayTemplate(product);
+        document.price = display != null && display.getPrice() != null ? display.getPrice() : BigDecimal.ZERO;
+        document.rating = rating;
+        document.inStock = cardAssembler.totalStock(product) > 0;
+        document.brandId = product.getBrand() != null ? product.getBrand().getId() : null;
+        document.categoryId = product.getCategory() != null ? product.getCategory().getId() : null;
+
+        document.nameTerms.addAll(tokenize(VietnameseTextNormalizer.fold(product.getName())));
+        document.terms.addAll(document.nameTerms);
+        if (product.getBrand() != null) {
+            document.terms.addAll(tokenize(VietnameseTextNormalizer.fold(product.getBrand().getName())));
+        }
+        if (product.getCategory() != null) {
+            document.terms.addAll(tokenize(VietnameseTextNormalizer.fold(product.getCategory().getName())));
+        }
+        if (product.getTemplates() != null) {
+            for (ProductTemplate template : product.getTemplates()) {
+                if (!Boolean.TRUE.equals(template.getStatus())) continue;
+                addValue(document.rams, template.getRam());
+                addValue(document.storages, template.getStorage());
+                if (template.getPrice() != null) {
+                    document.minPrice = document.minPrice == null || template.getPrice().compareTo(document.minPrice) < 0
+                            ? template.getPrice() : document.minPrice;
+                    document.maxPrice = document.maxPrice == null || template.getPrice().compareTo(document.maxPrice) > 0
+                            ? template.getPrice() : document.maxPrice;
+                }
+                document.terms.addAll(tokenize(VietnameseTextNormalizer.fold(template.getStorage())));
+            }
+        }
+        ProductMetadata metadata = product.getMetadata();
+        if (metadata != null) {
+            document.screenSize = metadata.getScreenSize();
+            document.battery = metadata.getBatteryCapacity();
+            if (metadata.getOperatingSystem() != null && !metadata.getOperatingSystem().isBlank()) {
+                document.operatingSystem = metadata.getOperatingSystem().toLowerCase(Locale.ROOT);
+                // "iOS 17" -> "iOS", "Android 14" -> "Android"
+                document.osFamily = metadata.getOperatingSystem().trim().split("\\s+")[0];
+            }
+            for (String spec : new String[]{metadata.getOperatingSystem(), metadata.getCpuChipset(),
+                    metadata.getScreenTechnology(), metadata.getWirelessConnectivity()}) {
+                document.terms.addAll(tokenize(VietnameseTextNormalizer.fold(spec)));
+            }
+        }
+        return document;
+    }
+
+    private static List<String> tokenize(String folded) {
+        List<String> tokens = new ArrayList<>();
+        if (folded == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Same values as the ram_values / storage_values columns of the card projection
+     */
+    private static void addValue(Set<String> values, String value) {
+        if (value != null && !value.isBlank()) {
+            values.add(value.trim());
+        }
+    }
+
+    private static BitSet except(BitSet base, Map<String, BitSet> filters, String facet) {
+        BitSet bits = (BitSet) base.clone();
+        filters.forEach((name, filter) -> {
+            if (!name.equals(facet)) {
+                bits.and(filter);
+            }
+        });
+        return bits;
+    }
+
+    private static <K> Map<String, Integer> count(Map<K, BitSet> postings, BitSet within) {
+        Map<String, Integer> counts = new TreeMap<>();
+        postings.forEach((value, posting) -> {
+            BitSet bits = (BitSet) posting.clone();
+            bits.and(within);
+            int count = bits.cardinality();
+            if (count > 0) {
+                counts.put(String.valueOf(value), count);
+            }
+        });
+        return counts;
+    }
+
+    private static long priceBucket(BigDecimal price) {
+        long value = price.longValue();
+        for (int i = PRICE_BUCKETS.length - 1; i > 0; i--) {
+            if (value >= PRICE_BUCKETS[i]) return PRICE_BUCKETS[i];
+        }
+        return PRICE_BUCKETS[0];
+    }
+
+    private static int batteryBucket(int battery) {
+        for (int i = BATTERY_BUCKETS.length - 1; i > 0; i--) {
+            if (battery >= BATTERY_BUCKETS[i]) return BATTERY_BUCKETS[i];
+        }
+        return BATTERY_BUCKETS[0];
+    }
+
+    private static boolean notEmpty(List<?> values) {
+        return values != null && !values.isEmpty();
+    }
+
+    @Getter
+    public static final class Result {
+        private final List<Long> productIds; // requested page, in order
+        private final long total;
+        private final Map<String, Map<String, Integer>> facets; // facet -> value -> count
+        private final BigDecimal minPrice; // display price range of the matches, ignoring the price filter
+        private final BigDecimal maxPrice;
+
+        private Result(List<Long> productIds, long total, Map<String, Map<String, Integer>> facets,
+                       BigDecimal minPrice, BigDecimal maxPrice) {
+            this.productIds = productIds;
+            this.total = total;
+            this.facets = facets;
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+        }
+    }
+
+    /**
+     * Indexed fields of one product
+     */
+    private static final class Document {
+        private Long productId;
+        private String name;
+        private long createdAt;
+        private BigDecimal price; // display price
+        private BigDecimal minPrice; // active priced templates, null if none
+        private BigDecimal maxPrice;
+        private double rating;
+        private boolean inStock;
+        private Long brandId;
+        private Long categoryId;
+        private Double screenSize;
+        private Integer battery;
+        private String operatingSystem; // lower case
+        private String osFamily;
+        private final Set<String> terms = new LinkedHashSet<>();
+        private final Set<String> nameTerms = new LinkedHashSet<>();
+        private final Set<String> rams = new LinkedHashSet<>();
+        private final Set<String> storages = new LinkedHashSet<>();
+    }
+
+    /**
+     * Postings by doc id; doc ids of removed products are reused by the next added product
+     * Mutated only under the write lock
+     */
+    private static final class Index {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final List<Document> docs = new ArrayList<>(); // doc id -> document, null = free
+        private final Map<Long, Integer> docIds = new HashMap<>();
+        private final Deque<Integer> freeDocs = new ArrayDeque<>();
+        private final BitSet all = new BitSet();
+        private final BitSet inStock = new BitSet();
+        private final NavigableMap<String, BitSet> terms = new TreeMap<>();
+        private final NavigableMap<String, BitSet> nameTerms = new TreeMap<>();
+        private final Map<Long, BitSet> brands = new HashMap<>();
+        private final Map<Long, BitSet> categories = new HashMap<>();
+        private final Map<String, BitSet> rams = new HashMap<>();
+        private final Map<String, BitSet> storages = new HashMap<>();
+        private final Map<Double, BitSet> screens = new HashMap<>();
+        private final Map<String, BitSet> osValues = new HashMap<>();
+        private final Map<Integer, BitSet> batteryBuckets = new HashMap<>();
+        private final Map<Long, BitSet> priceBuckets = new HashMap<>();
+
+        void put(Document document) {
+            Integer free = freeDocs.poll();
+            int doc = free != null ? free : docs.size();
+            if (free != null) {
+                docs.set(doc, document);
+            } else {
+                docs.add(document);
+            }
+            docIds.put(document.productId, doc);
+            all.set(doc);
+            inStock.set(doc, document.inStock);
+            for (String term : document.terms) {
+                posting(terms, term).set(doc);
+            }
+            for (String term : document.nameTerms) {
+                posting(nameTerms, term).set(doc);
+            }
+            for (String ram : document.rams) {
+                posting(rams, ram).set(doc);
+            }
+            for (String storage : document.storages) {
+                posting(storages, storage).set(doc);
+            }
+            if (document.brandId != null) {
+                posting(brands, document.brandId).set(doc);
+            }
+            if (document.categoryId != null) {
+                posting(categories, document.categoryId).set(doc);
+            }
+            if (document.screenSize != null) {
+                posting(screens, document.screenSize).set(doc);
+            }
+            if (document.osFamily != null) {
+                posting(osValues, document.osFamily).set(doc);
+            }
+            if (document.battery != null) {
+                posting(batteryBuckets, batteryBucket(document.battery)).set(doc);
+            }
+            posting(priceBuckets, priceBucket(document.price)).set(doc);
+        }
+
+        void remove(Long productId) {
+            Integer doc = docIds.remove(productId);
+            if (doc == null) {
+                return;
+            }
+            Document document = docs.get(doc);
+            clear(terms, document.terms, doc);
+            clear(nameTerms, document.nameTerms, doc);
+            clear(rams, document.rams, doc);
+            clear(storages, document.storages, doc);
+            clear(brands, keys(document.brandId), doc);
+            clear(categories, keys(document.categoryId), doc);
+            clear(screens, keys(document.screenSize), doc);
+            clear(osValues, keys(document.osFamily), doc);
+            clear(batteryBuckets, keys(document.battery != null ? batteryBucket(document.battery) : null), doc);
+            clear(priceBuckets, keys(priceBucket(document.price)), doc);
+            all.clear(doc);
+            inStock.clear(doc);
+            docs.set(doc, null);
+            freeDocs.push(doc);
+        }
+
+        private static <K> BitSet posting(Map<K, BitSet> postings, K key) {
+            return postings.computeIfAbsent(key, k -> new BitSet());
+        }
+
+        private static <K> Set<K> keys(K key) {
+            return key != null ? Set.of(key) : Set.of();
+        }
+
+        private static <K> void clear(Map<K, BitSet> postings, Set<K> keys, int doc) {
+            for (K key : keys) {
+                BitSet posting = postings.get(key);
+                if (posting != null) {
+                    posting.clear(doc);
+                    if (posting.isEmpty()) {
+                        postings.remove(key);
+                    }
+                }
+            }
+        }
+
+        /**
+         * AND over tokens, each token = OR of all terms starting with it
+         */
+        BitSet matchAll(List<String> tokens, NavigableMap<String, BitSet> index) {
+            BitSet result = (BitSet) all.clone();
+            for (String token : tokens) {
+                BitSet prefix = new BitSet();
+                for (BitSet posting : index.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+                    prefix.or(posting);
+                }
+                result.and(prefix);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * One bitmap per filtered facet, same semantics as ProductCardProjectionSpecification
+         * Value facets are unions of postings, range facets are tested per doc within base
+         */
+        Map<String, BitSet> facetFilters(ProductFilterRequest criteria, BitSet base) {
+            Map<String, BitSet> filters = new LinkedHashMap<>();
+            if (notEmpty(criteria.getBrandIds())) {
+                filters.put(FACET_BRAND, union(brands, criteria.getBrandIds()));
+            }
+            if (notEmpty(criteria.getCategoryIds())) {
+                filters.put(FACET_CATEGORY, union(categories, criteria.getCategoryIds()));
+            }
+            if (notEmpty(criteria.getRamOptions())) {
+                filters.put(FACET_RAM, union(rams, criteria.getRamOptions()));
+            }
+            if (notEmpty(criteria.getStorageOptions())) {
+                filters.put(FACET_STORAGE, union(storages, criteria.getStorageOptions()));
+            }
+            if (notEmpty(criteria.getScreenSizeOptions())) {
+                List<Double> sizes = new ArrayList<>();
+                for (String size : criteria.getScreenSizeOptions()) {
+                    try {
+                        sizes.add(Double.valueOf(size.trim()));
+                    } catch (NullPointerException | NumberFormatException e) {
+                        // bỏ qua giá trị không hợp lệ, giống ProductCardProjectionSpecification
+                    }
+                }
+                filters.put(FACET_SCREEN, union(screens, sizes));
+            }
+            if (notEmpty(criteria.getOsOptions())) {
+                List<String> options = criteria.getOsOptions().stream()
+                        .filter(option -> option != null && !option.isBlank())
+                        .map(option -> option.trim().toLowerCase(Locale.ROOT))
+                        .collect(Collectors.toList());
+                filters.put(FACET_OS, select(base, document -> document.operatingSystem != null
+                        && options.stream().anyMatch(option -> document.operatingSystem.startsWith(option)
+                                || document.operatingSystem.contains(option + " "))));
+            }
+            if (criteria.getMinBattery() != null || criteria.getMaxBattery() != null) {
+                Integer min = criteria.getMinBattery();
+                Integer max = criteria.getMaxBattery();
+                filters.put(FACET_BATTERY, select(base, document -> document.battery != null
+                        && (min == null || document.battery >= min)
+                        && (max == null || document.battery <= max)));
+            }
+            if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
+                BigDecimal min = criteria.getMinPrice();
+                BigDecimal max = criteria.getMaxPrice();
+                // Khoảng [min, max] giá các phiên bản active giao với khoảng lọc
+                filters.put(FACET_PRICE, select(base, document -> document.minPrice != null
+                        && (min == null || document.maxPrice.compareTo(min) >= 0)
+                        && (max == null || document.minPrice.compareTo(max) <= 0)));
+            }
+            if (criteria.getMinRating() != null || criteria.getMaxRating() != null) {
+                Double min = criteria.getMinRating();
+                Double max = criteria.getMaxRating();
+                filters.put(FACET_RATING, select(base, document -> (min == null || document.rating >= min)
+                        && (max == null || document.rating < max)));
+            }
+            return filters;
+        }
+
+        /**
+         * OR of the postings of the selected values
+         */
+        private <K> BitSet union(Map<K, BitSet> postings, Collection<K> values) {
+            BitSet bits = new BitSet();
+            for (K value : new HashSet<>(values)) {
+                BitSet posting = postings.get(value);
+                if (posting != null) {
+                    bits.or(posting);
+                }
+            }
+            return bits;
+        }
+
+        private BitSet select(BitSet within, Predicate<Document> condition) {
+            BitSet bits = new BitSet();
+            for (int doc = within.nextSetBit(0); doc >= 0; doc = within.nextSetBit(doc + 1)) {
+                if (condition.test(docs.get(doc))) {
+                    bits.set(doc);
+                }
+            }
+            return bits;
+        }
+
+        /**
+         * Number of docs rated at least N stars, for each N of RATING_STARS
+         */
+        Map<String, Integer> countStars(BitSet within) {
+            Map<String, Integer> counts = new LinkedHashMap<>();
+            for (int stars : RATING_STARS) {
+                counts.put(String.valueOf(stars), select(within, document -> document.rating >= stars).cardinality());
+            }
+            return counts;
+        }
+
+        BigDecimal minPrice(BitSet within) {
+            return within.stream().mapToObj(doc -> docs.get(doc).price).min(Comparator.naturalOrder()).orElse(null);
+        }
+
+        BigDecimal maxPrice(BitSet within) {
+            return within.stream().mapToObj(doc -> docs.get(doc).price).max(Comparator.naturalOrder()).orElse(null);
+        }
+
+        /**
+         * Normalized sort key, null if the index cannot order by it
+         */
+        static String comparatorKey(String sortBy) {
+            String key = sortBy == null || sortBy.isBlank() ? "relevance" : sortBy.trim().toLowerCase(Locale.ROOT);
+            switch (key) {
+                case "relevance":
+                case "name":
+                case "price":
+                    return key;
+                case "created_date":
+                case "createddate":
+                case "createdat":
+                    return "created_date";
+                default:
+                    return null;
+            }
+        }
+
+        List<Long> sortedPage(int[] matches, String sortBy, boolean asc, BitSet nameMatches, int page, int size) {
+            int from = page * size;
+            if (size <= 0 || from >= matches.length) {
+                return new ArrayList<>();
+            }
+            String key = comparatorKey(sortBy);
+            if (key == null) {
+                throw new IllegalArgumentException("Unsupported sort for the inverted index: " + sortBy);
+            }
+            Comparator<Integer> newest = Comparator.comparingLong((Integer doc) -> docs.get(doc).createdAt).reversed();
+            Comparator<Integer> order;
+            switch (key) {
+                case "name":
+                    order = Comparator.comparing((Integer doc) -> docs.get(doc).name);
+                    break;
+                case "price":
+                    order = Comparator.comparing((Integer doc) -> docs.get(doc).price);
+                    break;
+                case "created_date":
+                    order = Comparator.comparingLong((Integer doc) -> docs.get(doc).createdAt);
+                    break;
+                default:
+                    // Relevance: khớp đủ token trong tên trước, sau đó mới nhất
+                    order = nameMatches == null ? newest
+                            : Comparator.comparing((Integer doc) -> !nameMatches.get(doc)).thenComparing(newest);
+                    asc = true;
+                    break;
+            }
+            Comparator<Integer> comparator = (asc ? order : order.reversed())
+                    .thenComparingLong(doc -> docs.get(doc).productId);
+            return Arrays.stream(matches)
+                    .boxed()
+                    .sorted(comparator)
+                    .skip(from)
+                    .limit(size)
+                    .map(doc -> docs.get(doc).productId)
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.utephonehub.backend.service.impl.productview;
+
+import com.utephonehub.backend.entity.ProductCardProjection;
+import com.utephonehub.backend.util.VietnameseTextNormalizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Full-text search trên product card read model
+ * Follows Single Responsibility Principle (SRP) - chỉ tìm kiếm/xếp hạng theo từ khóa
+ *
+ * - Text được chuẩn hóa (bỏ dấu tiếng Việt, chữ thường) lúc ghi vào cột search_text
+ *   và từ khóa được chuẩn hóa cùng cách ({@link VietnameseTextNormalizer})
+ * - LIKE '%a%b%' trên search_text được tăng tốc bằng GIN index pg_trgm (không full scan)
+ * - Xếp hạng: tên bắt đầu bằng từ khóa trước, sau đó theo word_similarity, rồi sản phẩm mới nhất
+ * - Tổng số kết quả được đếm có giới hạn (count cap) thay vì COUNT toàn bộ tập khớp
+ * Nếu không tạo được extension pg_trgm, search vẫn chạy (LIKE không index, không có điểm similarity)
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchEngine {
+
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${product.search.count-cap:1000}")
+    private int countCap;
+
+    private volatile boolean trigramEnabled;
+
+    /**
+     * Tạo extension pg_trgm và GIN index (ddl-auto không tạo được index loại GIN)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSearchIndex() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_card_projection_search_trgm "
+                    + "ON product_card_projections USING gin (search_text gin_trgm_ops)");
+            trigramEnabled = true;
+            log.info("Product search trigram index is ready");
+        } catch (Exception e) {
+            trigramEnabled = false;
+            log.warn("pg_trgm is not available, product search falls back to unindexed LIKE: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Search visible products by keyword
+     * @param keyword Raw keyword (diacritics allowed)
+     * @param sortBy null/"relevance" for relevance ranking, otherwise name, price, rating, soldCount, created_date
+     * @param asc Sort direction (ignored for relevance)
+     */
+    @SuppressWarnings("unchecked")
+    public Page<ProductCardProjection> search(String keyword, String sortBy, boolean asc, int page, int size) {
+        String folded = VietnameseTextNormalizer.fold(keyword);
+        PageRequest pageable = PageRequest.of(page, size);
+        if (folded == null) {
+            return Page.empty(pageable);
+        }
+        String pattern = "%" + WHITESPACE_PATTERN.matcher(escapeLike(folded)).replaceAll("%") + "%";
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT c.* FROM product_card_projections c "
+                        + "WHERE c.search_text LIKE :pattern ESCAPE '\\' "
+                        + "ORDER BY " + orderBy(sortBy, asc),
+                ProductCardProjection.class);
+        query.setParameter("pattern", pattern);
+        if (isRelevance(sortBy)) {
+            query.setParameter("prefix", escapeLike(folded) + "%");
+            if (trigramEnabled) {
+                query.setParameter("keyword", folded);
+            }
+        }
+        List<ProductCardProjection> rows = query
+                .setFirstResult(page * size)
+                .setMaxResults(size)
+                .getResultList();
+
+        // Trang đầu chưa đầy -> đã biết tổng, không cần đếm
+        long total = page == 0 && rows.size() < size ? rows.size() : countMatches(pattern);
+        return new PageImpl<>(rows, pageable, Math.max(total, (long) page * size + rows.size()));
+    }
+
+    /**
+     * Bounded count: stops scanning after countCap matches
+     */
+    private long countMatches(String pattern) {
+        Number count = (Number) entityManager.createNativeQuery(
+                        "SELECT COUNT(*) FROM (SELECT 1 FROM product_card_projections c "
+                                + "WHERE c.search_text LIKE :pattern ESCAPE '\\' LIMIT :cap) matched")
+                .setParameter("pattern", pattern)
+                .setParameter("cap", countCap)
+                .getSingleResult();
+        return count.longValue();
+    }
+
+    /**
+     * ORDER BY clause - columns come from a fixed whitelist, never from user input
+     */
+    private String orderBy(String sortBy, boolean asc) {
+        String direction = asc ? "ASC" : "DESC";
+        if (isRelevance(sortBy)) {
+            String rank = "CASE WHEN c.search_text LIKE :prefix ESCAPE '\\' THEN 1 ELSE 0 END DESC, ";
+            if (trigramEnabled) {
+                rank += "word_similarity(:keyword, c.search_text) DESC, ";
+            }
+            return rank + "c.product_created_at DESC, c.product_id DESC";
+        }
+        String column;
+        switch (sortBy.trim().toLowerCase(Locale.ROOT)) {
+            case "name":
+                column = "c.name";
+                break;
+            case "price":
+                column = "c.display_price";
+                break;
+            case "rating":
+                column = "c.rating_average";
+                break;
+            case "soldcount":
+            case "sold_count":
+                column = "c.sold_count";
+                break;
+            default:
+                column = "c.product_created_at";
+                break;
+        }
+        return column + " " + direction + ", c.product_id " + direction;
+    }
+
+    private boolean isRelevance(String sortBy) {
+        return sortBy == null || sortBy.isBlank() || "relevance".equalsIgnoreCase(sortBy.trim());
+    }
+
+    private String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
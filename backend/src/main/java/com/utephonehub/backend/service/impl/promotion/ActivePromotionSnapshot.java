@@ -0,0 +1,142 @@
+package com.utephonehub.backend.service.impl.promotion;
+
+import com.utephonehub.backend.entity.Promotion;
+import com.utephonehub.backend.enums.EPromotionTemplateType;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable, versioned view of the promotions that are in effect at build time
+ * Follows Information Expert (GRASP) - evaluates discounts purely in memory, no repository access
+ *
+ * A snapshot stays valid until {@link #getValidUntil()}, the nearest effective/expiration boundary
+ * of any ACTIVE promotion, or until promotions are modified (see {@link PromotionSnapshotManager}).
+ */
+@Getter
+public final class ActivePromotionSnapshot {
+
+    private final long version;
+    private final long contentHash; // same promotions -> same hash on every node (version is per node)
+    private final LocalDateTime builtAt;
+    private final LocalDateTime validUntil; // null = no upcoming boundary
+    private final List<PromotionRule> orderPromotions; // VOUCHER / FREESHIP - user selectable
+    private final List<PromotionRule> discountPromotions; // DISCOUNT - auto-applied to targets (see PromotionTargetIndex)
+
+    @Getter(AccessLevel.NONE)
+    private final PromotionDiscountCalculator discountCalculator;
+
+    ActivePromotionSnapshot(long version,
+                            LocalDateTime builtAt,
+                            List<Promotion> activePromotions,
+                            PromotionDiscountCalculator discountCalculator) {
+        this.version = version;
+        this.builtAt = builtAt;
+        this.discountCalculator = discountCalculator;
+
+        List<PromotionRule> orders = new ArrayList<>();
+        List<PromotionRule> discounts = new ArrayList<>();
+        LocalDateTime nextBoundary = null;
+
+        for (Promotion promotion : activePromotions) {
+            // Upcoming promotion -> its effective date is a boundary
+            if (!promotion.getEffectiveDate().isBefore(builtAt)) {
+                nextBoundary = earliest(nextBoundary, promotion.getEffectiveDate());
+                continue;
+            }
+            // Expired promotion -> ignored
+            if (!promotion.getExpirationDate().isAfter(builtAt)) {
+                continue;
+            }
+            nextBoundary = earliest(nextBoundary, promotion.getExpirationDate());
+
+            PromotionRule rule = new PromotionRule(promotion);
+            if (rule.getTemplateType() == EPromotionTemplateType.DISCOUNT) {
+                discounts.add(rule);
+            } else {
+                orders.add(rule);
+            }
+        }
+
+        this.orderPromotions = Collections.unmodifiableList(orders);
+        this.discountPromotions = Collections.unmodifiableList(discounts);
+        this.validUntil = nextBoundary;
+        this.contentHash = 31L * hash(orders) + hash(discounts);
+    }
+
+    /**
+     * Check whether this snapshot still reflects the promotions in effect at the given time
+     */
+    public boolean isValidAt(LocalDateTime now) {
+        return validUntil == null || now.isBefore(validUntil);
+    }
+
+    /**
+     * Best discount amount among user-selectable promotions for an order total
+     * Mirrors checkAndGetAvailablePromotions() + calculateDiscount() without any query
+     * @param orderTotal Order total (or unit price)
+     * @return Best discount amount, 0 if none applies
+     */
+    public double bestOrderDiscount(double orderTotal) {
+        double best = 0;
+        for (PromotionRule rule : orderPromotions) {
+            if (!rule.isMinValueMet(orderTotal)) {
+                continue;
+            }
+            Double discount = discountCalculator.calculateDiscountAmount(
+                    rule.getFixedAmount(), rule.getPercentDiscount(), rule.getMaxDiscount(), orderTotal);
+            if (discount != null && discount > best) {
+                best = discount;
+            }
+        }
+        return best;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
+    private static long hash(List<PromotionRule> rules) {
+        long hash = 1;
+        for (PromotionRule rule : rules) {
+            hash = 31 * hash + Objects.hash(rule.id, rule.templateType, rule.percentDiscount, rule.fixedAmount,
+                    rule.maxDiscount, rule.minValueToBeApplied, rule.effectiveDate, rule.expirationDate);
+        }
+        return hash;
+    }
+
+    /**
+     * Detached, immutable copy of the promotion fields needed for discount evaluation
+     */
+    @Getter
+    public static final class PromotionRule {
+        private final String id;
+        private final EPromotionTemplateType templateType;
+        private final Double percentDiscount;
+        private final Double fixedAmount;
+        private final Double maxDiscount;
+        private final Double minValueToBeApplied;
+        private final LocalDateTime effectiveDate;
+        private final LocalDateTime expirationDate;
+
+        private PromotionRule(Promotion promotion) {
+            this.id = promotion.getId();
+            this.templateType = promotion.getTemplate() != null ? promotion.getTemplate().getType() : null;
+            this.percentDiscount = promotion.getPercentDiscount();
+            this.fixedAmount = promotion.getFixedAmount();
+            this.maxDiscount = promotion.getMaxDiscount();
+            this.minValueToBeApplied = promotion.getMinValueToBeApplied();
+            this.effectiveDate = promotion.getEffectiveDate();
+            this.expirationDate = promotion.getExpirationDate();
+        }
+
+        boolean isMinValueMet(double orderTotal) {
+            return minValueToBeApplied == null || orderTotal >= minValueToBeApplied;
+        }
+    }
+}
@@ -19,18 +19,35 @@ public class PromotionDiscountCalculator {
      * @return Discount amount
      */
     public Double calculateDiscountAmount(Promotion promotion, Double orderTotal) {
+        return calculateDiscountAmount(
+                promotion.getFixedAmount(),
+                promotion.getPercentDiscount(),
+                promotion.getMaxDiscount(),
+                orderTotal);
+    }
+
+    /**
+     * Calculate discount amount from raw promotion values
+     * Used by in-memory promotion snapshots that do not hold entities
+     * @param fixedAmount Fixed discount amount (takes priority when positive)
+     * @param percentDiscount Discount percentage (0-100)
+     * @param maxDiscount Maximum discount cap for percentage-based promotions
+     * @param orderTotal Original order total
+     * @return Discount amount
+     */
+    public Double calculateDiscountAmount(Double fixedAmount, Double percentDiscount, Double maxDiscount, Double orderTotal) {
         // Priority 1: Fixed amount discount
-        if (promotion.getFixedAmount() != null && promotion.getFixedAmount() > 0) {
-            return Math.min(promotion.getFixedAmount(), orderTotal);
+        if (fixedAmount != null && fixedAmount > 0) {
+            return Math.min(fixedAmount, orderTotal);
         }
         
         // Priority 2: Percentage-based discount
-        if (promotion.getPercentDiscount() != null && promotion.getPercentDiscount() > 0) {
-            Double discount = calculatePercentageDiscount(orderTotal, promotion.getPercentDiscount());
+        if (percentDiscount != null && percentDiscount > 0) {
+            Double discount = calculatePercentageDiscount(orderTotal, percentDiscount);
             
             // Apply max discount cap if exists
-            if (promotion.getMaxDiscount() != null && promotion.getMaxDiscount() > 0) {
-                discount = Math.min(discount, promotion.getMaxDiscount());
+            if (maxDiscount != null && maxDiscount > 0) {
+                discount = Math.min(discount, maxDiscount);
             }
             
             return discount;
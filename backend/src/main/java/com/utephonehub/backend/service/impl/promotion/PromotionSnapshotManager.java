@@ -0,0 +1,99 @@
+package com.utephonehub.backend.service.impl.promotion;
+
+import com.utephonehub.backend.event.PromotionChangedEvent;
+import com.utephonehub.backend.repository.PromotionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manager for the in-memory {@link ActivePromotionSnapshot}
+ * Follows Single Responsibility Principle (SRP) - only owns snapshot lifecycle
+ *
+ * The snapshot is rebuilt lazily (one query) when:
+ * - promotions were modified since it was built ({@link PromotionChangedEvent}), or
+ * - an effective/expiration boundary has passed
+ * Product card pricing then reads it without touching the database.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PromotionSnapshotManager {
+
+    private final PromotionRepository promotionRepository;
+    private final PromotionDiscountCalculator discountCalculator;
+
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final AtomicLong modifications = new AtomicLong();
+
+    private volatile Entry entry;
+
+    /**
+     * Get the current snapshot, rebuilding it if stale
+     */
+    public ActivePromotionSnapshot current() {
+        LocalDateTime now = LocalDateTime.now();
+        Entry current = entry;
+        if (isFresh(current, now)) {
+            return current.snapshot;
+        }
+        synchronized (this) {
+            current = entry;
+            if (isFresh(current, now)) {
+                return current.snapshot;
+            }
+            return rebuild(now);
+        }
+    }
+
+    /**
+     * Mark the snapshot as stale
+     */
+    public void invalidate() {
+        modifications.incrementAndGet();
+    }
+
+    /**
+     * Promotions changed - invalidate only after commit so that
+     * a concurrent rebuild cannot cache pre-commit data
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionChanged(PromotionChangedEvent event) {
+        invalidate();
+    }
+
+    private boolean isFresh(Entry current, LocalDateTime now) {
+        return current != null
+                && current.modification == modifications.get()
+                && current.snapshot.isValidAt(now);
+    }
+
+    private ActivePromotionSnapshot rebuild(LocalDateTime now) {
+        // Capture modification counter BEFORE loading so that a concurrent change marks this build stale
+        long modification = modifications.get();
+        ActivePromotionSnapshot rebuilt = new ActivePromotionSnapshot(
+                versionSequence.incrementAndGet(),
+                now,
+                promotionRepository.findActiveNotExpiredWithTargets(now),
+                discountCalculator);
+        entry = new Entry(rebuilt, modification);
+        log.debug("Rebuilt promotion snapshot v{}: {} order promotions, {} discount promotions, valid until {}",
+                rebuilt.getVersion(), rebuilt.getOrderPromotions().size(),
+                rebuilt.getDiscountPromotions().size(), rebuilt.getValidUntil());
+        return rebuilt;
+    }
+
+    private static final class Entry {
+        private final ActivePromotionSnapshot snapshot;
+        private final long modification;
+
+        private Entry(ActivePromotionSnapshot snapshot, long modification) {
+            this.snapshot = snapshot;
+            this.modification = modification;
+        }
+    }
+}
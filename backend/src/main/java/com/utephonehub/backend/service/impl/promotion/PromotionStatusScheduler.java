@@ -0,0 +1,178 @@
+package com.utephonehub.backend.service.impl.promotion;
+
+import com.utephonehub.backend.event.PromotionChangedEvent;
+import com.utephonehub.backend.repository.PromotionRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Background scheduler for promotion status transitions
+ * Follows Single Responsibility Principle (SRP) - read paths stay side-effect free,
+ * status changes happen only here
+ *
+ * Keeps a time-ordered queue of upcoming effective/expiration boundaries and arms a single
+ * wake-up for the earliest one:
+ * - EXPIRE: ACTIVE promotions past expirationDate are switched to INACTIVE (one UPDATE)
+ * - ACTIVATE: promotion enters its effective window, the pricing snapshot is refreshed
+ * A periodic resync picks up changes made by other nodes; the UPDATE is idempotent.
+ * Transitions are published as {@link PromotionChangedEvent} (ACTIVATED/EXPIRED) so that
+ * price-dependent caches are evicted at the boundary instead of waiting for their TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PromotionStatusScheduler {
+
+    private final PromotionRepository promotionRepository;
+    private final PromotionSnapshotManager snapshotManager;
+    private final PromotionTargetIndex targetIndex;
+    private final TaskScheduler taskScheduler;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final PriorityQueue<Transition> transitions =
+            new PriorityQueue<>(Comparator.comparing(Transition::getAt));
+    private ScheduledFuture<?> wakeUp;
+
+    /**
+     * Expire stale promotions before the application starts serving (and warming) prices
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        reload();
+    }
+
+    /**
+     * Promotion dates/status changed - rebuild the queue after commit, off the request thread
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPromotionChanged(PromotionChangedEvent event) {
+        taskScheduler.schedule(this::reload, Instant.now());
+    }
+
+    /**
+     * Safety net: resync the queue with the database (changes from other nodes, clock drift)
+     */
+    @Scheduled(fixedDelayString = "${promotion.scheduler.resync-interval-ms:300000}",
+               initialDelayString = "${promotion.scheduler.resync-interval-ms:300000}")
+    public void resync() {
+        reload();
+        targetIndex.rebuild();
+    }
+
+    /**
+     * Apply due transitions, then rebuild the queue of upcoming ones and re-arm the wake-up
+     */
+    public synchronized void reload() {
+        LocalDateTime now = LocalDateTime.now();
+        expireDue(now);
+
+        transitions.clear();
+        for (Object[] row : promotionRepository.findUpcomingTransitions(now)) {
+            String promotionId = (String) row[0];
+            LocalDateTime effectiveDate = (LocalDateTime) row[1];
+            LocalDateTime expirationDate = (LocalDateTime) row[2];
+            if (effectiveDate != null && effectiveDate.isAfter(now)) {
+                transitions.add(new Transition(effectiveDate, promotionId, TransitionType.ACTIVATE));
+            }
+            transitions.add(new Transition(expirationDate, promotionId, TransitionType.EXPIRE));
+        }
+        armWakeUp();
+    }
+
+    /**
+     * Process every transition whose boundary has passed
+     */
+    synchronized void processDue() {
+        LocalDateTime now = LocalDateTime.now();
+        boolean expire = false;
+        boolean activate = false;
+        while (!transitions.isEmpty() && !transitions.peek().getAt().isAfter(now)) {
+            Transition transition = transitions.poll();
+            if (transition.getType() == TransitionType.EXPIRE) {
+                expire = true;
+            } else {
+                activate = true;
+            }
+        }
+        if (expire) {
+            expireDue(now);
+        }
+        if (activate || expire) {
+            snapshotManager.invalidate();
+        }
+        if (activate) {
+            publishTransition("ACTIVATED");
+        }
+        armWakeUp();
+    }
+
+    private void expireDue(LocalDateTime now) {
+        try {
+            int updated = promotionRepository.deactivateExpired(now);
+            if (updated > 0) {
+                log.info("⏰ Deactivated {} expired promotions", updated);
+                snapshotManager.invalidate();
+                publishTransition("EXPIRED");
+            }
+        } catch (Exception ex) {
+            log.error("Cannot deactivate expired promotions: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Not tied to a single promotion (promotionId null) - listeners refresh everything price-related
+     */
+    private void publishTransition(String eventType) {
+        eventPublisher.publishEvent(PromotionChangedEvent.builder()
+                .eventType(eventType)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    private void armWakeUp() {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+        Transition next = transitions.peek();
+        if (next == null) {
+            return;
+        }
+        wakeUp = taskScheduler.schedule(this::processDue,
+                next.getAt().atZone(ZoneId.systemDefault()).toInstant());
+        log.debug("Next promotion transition: {} {} at {}", next.getType(), next.getPromotionId(), next.getAt());
+    }
+
+    private enum TransitionType {
+        ACTIVATE,
+        EXPIRE
+    }
+
+    @Getter
+    private static final class Transition {
+        private final LocalDateTime at;
+        private final String promotionId;
+        private final TransitionType type;
+
+        private Transition(LocalDateTime at, String promotionId, TransitionType type) {
+            this.at = at;
+            this.promotionId = promotionId;
+            this.type = type;
+        }
+    }
+}
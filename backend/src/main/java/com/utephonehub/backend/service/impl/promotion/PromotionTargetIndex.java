@@ -0,0 +1,278 @@
+package com.utephonehub.backend.service.impl.promotion;
+
+import com.utephonehub.backend.entity.Promotion;
+import com.utephonehub.backend.entity.PromotionTarget;
+import com.utephonehub.backend.enums.EPromotionStatus;
+import com.utephonehub.backend.enums.EPromotionTargetType;
+import com.utephonehub.backend.enums.EPromotionTemplateType;
+import com.utephonehub.backend.repository.PromotionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Inverted index: (EPromotionTargetType, applicableObjectId) -> best active DISCOUNT percentage
+ * Follows Information Expert (GRASP) - answers getBestDiscountForProduct() without scanning promotions
+ *
+ * - Postings: target key -> ids of DISCOUNT promotions targeting it
+ * - Best cache: target key -> best percentage, valid until the nearest effective/expiration boundary
+ *   of the promotions in its posting list (recomputed lazily only for that key)
+ * Updated incrementally by {@link PromotionTargetManager} after commit; fully rebuilt at startup
+ * and on the periodic resync of {@link PromotionStatusScheduler}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PromotionTargetIndex {
+
+    private static final EPromotionTargetType[] INDEXED_TYPES = {
+            EPromotionTargetType.PRODUCT, EPromotionTargetType.CATEGORY, EPromotionTargetType.BRAND
+    };
+
+    private final PromotionRepository promotionRepository;
+
+    private final Map<String, IndexedRule> rules = new ConcurrentHashMap<>();
+    private final Map<EPromotionTargetType, Map<Long, Set<String>>> postings = newTypeMap();
+    private final Map<EPromotionTargetType, Map<Long, BestDiscount>> best = newTypeMap();
+
+    /**
+     * Index must exist before warm-up renders discounted prices into cached cards
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void onApplicationStarted() {
+        rebuild();
+    }
+
+    /**
+     * Best discount percentage for a product through its PRODUCT/CATEGORY/BRAND targets
+     * @return Best discount percentage (0-100), or null if no discount
+     */
+    public Double bestDiscountPercent(Long productId, Long categoryId, Long brandId) {
+        LocalDateTime now = LocalDateTime.now();
+        Double result = lookup(EPromotionTargetType.PRODUCT, productId, now);
+        result = max(result, lookup(EPromotionTargetType.CATEGORY, categoryId, now));
+        return max(result, lookup(EPromotionTargetType.BRAND, brandId, now));
+    }
+
+    /**
+     * Object ids of one target type that currently have an effective DISCOUNT promotion
+     * Used to push the "has discount" filter into SQL
+     */
+    public Set<Long> discountedObjectIds(EPromotionTargetType type) {
+        Map<Long, Set<String>> typePostings = postings.get(type);
+        if (typePostings == null) {
+            return Collections.emptySet();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> ids = new HashSet<>();
+        for (Long objectId : typePostings.keySet()) {
+            if (lookup(type, objectId, now) != null) {
+                ids.add(objectId);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Re-index a single promotion (created, modified, disabled)
+     * Values are captured now; inside a transaction they are applied after commit
+     */
+    public void index(Promotion promotion) {
+        String promotionId = promotion.getId();
+        IndexedRule rule = isIndexable(promotion) ? new IndexedRule(promotion) : null;
+        if (promotionId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(promotionId, rule);
+                }
+            });
+        } else {
+            apply(promotionId, rule);
+        }
+    }
+
+    /**
+     * Rebuild the whole index from the database (one query)
+     */
+    public synchronized void rebuild() {
+        List<Promotion> promotions = promotionRepository.findActiveNotExpiredWithTargets(LocalDateTime.now());
+        rules.clear();
+        postings.values().forEach(Map::clear);
+        best.values().forEach(Map::clear);
+        for (Promotion promotion : promotions) {
+            if (isIndexable(promotion)) {
+                addRule(new IndexedRule(promotion));
+            }
+        }
+        log.debug("Rebuilt promotion target index: {} DISCOUNT promotions", rules.size());
+    }
+
+    private synchronized void apply(String promotionId, IndexedRule rule) {
+        IndexedRule previous = rules.remove(promotionId);
+        if (previous != null) {
+            forEachTarget(previous, (type, objectId) -> {
+                Set<String> ids = postings.get(type).get(objectId);
+                if (ids != null) {
+                    ids.remove(promotionId);
+                    if (ids.isEmpty()) {
+                        postings.get(type).remove(objectId);
+                    }
+                }
+                best.get(type).remove(objectId);
+            });
+        }
+        if (rule != null) {
+            addRule(rule);
+        }
+    }
+
+    private void addRule(IndexedRule rule) {
+        rules.put(rule.id, rule);
+        forEachTarget(rule, (type, objectId) -> {
+            postings.get(type)
+                    .computeIfAbsent(objectId, key -> ConcurrentHashMap.newKeySet())
+                    .add(rule.id);
+            best.get(type).remove(objectId);
+        });
+    }
+
+    private Double lookup(EPromotionTargetType type, Long objectId, LocalDateTime now) {
+        if (objectId == null) {
+            return null;
+        }
+        BestDiscount cached = best.get(type).get(objectId);
+        if (cached == null || !cached.isValidAt(now)) {
+            // Recompute under the writer lock so a concurrent apply() cannot be overwritten by a stale value
+            synchronized (this) {
+                cached = compute(type, objectId, now);
+                best.get(type).put(objectId, cached);
+            }
+        }
+        return cached.percent;
+    }
+
+    /**
+     * Compute best percentage for one key from its posting list
+     * Validity ends at the nearest boundary of any promotion in the list
+     */
+    private BestDiscount compute(EPromotionTargetType type, Long objectId, LocalDateTime now) {
+        Set<String> ids = postings.get(type).get(objectId);
+        if (ids == null || ids.isEmpty()) {
+            return BestDiscount.NONE;
+        }
+        Double percent = null;
+        LocalDateTime validUntil = null;
+        for (String id : ids) {
+            IndexedRule rule = rules.get(id);
+            if (rule == null) {
+                continue;
+            }
+            if (!rule.effectiveDate.isBefore(now)) {
+                validUntil = earliest(validUntil, rule.effectiveDate);
+            } else if (rule.expirationDate.isAfter(now)) {
+                validUntil = earliest(validUntil, rule.expirationDate);
+                percent = max(percent, rule.percentDiscount);
+            }
+        }
+        return new BestDiscount(percent, validUntil);
+    }
+
+    private boolean isIndexable(Promotion promotion) {
+        return promotion.getStatus() == EPromotionStatus.ACTIVE
+                && promotion.getTemplate() != null
+                && promotion.getTemplate().getType() == EPromotionTemplateType.DISCOUNT
+                && promotion.getPercentDiscount() != null
+                && promotion.getPercentDiscount() > 0
+                && promotion.getEffectiveDate() != null
+                && promotion.getExpirationDate() != null;
+    }
+
+    private void forEachTarget(IndexedRule rule, BiConsumer<EPromotionTargetType, Long> action) {
+        for (EPromotionTargetType type : INDEXED_TYPES) {
+            for (Long objectId : rule.targetIds.getOrDefault(type, Collections.emptyList())) {
+                action.accept(type, objectId);
+            }
+        }
+    }
+
+    private static <V> Map<EPromotionTargetType, Map<Long, V>> newTypeMap() {
+        Map<EPromotionTargetType, Map<Long, V>> map = new EnumMap<>(EPromotionTargetType.class);
+        for (EPromotionTargetType type : INDEXED_TYPES) {
+            map.put(type, new ConcurrentHashMap<>());
+        }
+        return map;
+    }
+
+    private static Double max(Double a, Double b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return Math.max(a, b);
+    }
+
+    private static LocalDateTime earliest(LocalDateTime current, LocalDateTime candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+
+    /**
+     * Detached copy of a DISCOUNT promotion (no entity references kept)
+     */
+    private static final class IndexedRule {
+        private final String id;
+        private final Double percentDiscount;
+        private final LocalDateTime effectiveDate;
+        private final LocalDateTime expirationDate;
+        private final Map<EPromotionTargetType, List<Long>> targetIds;
+
+        private IndexedRule(Promotion promotion) {
+            this.id = promotion.getId();
+            this.percentDiscount = promotion.getPercentDiscount();
+            this.effectiveDate = promotion.getEffectiveDate();
+            this.expirationDate = promotion.getExpirationDate();
+            Map<EPromotionTargetType, List<Long>> ids = new EnumMap<>(EPromotionTargetType.class);
+            if (promotion.getTargets() != null) {
+                for (PromotionTarget target : promotion.getTargets()) {
+                    if (target.getType() != null && target.getApplicableObjectId() != null) {
+                        ids.computeIfAbsent(target.getType(), type -> new ArrayList<>())
+                                .add(target.getApplicableObjectId());
+                    }
+                }
+            }
+            this.targetIds = ids;
+        }
+    }
+
+    private static final class BestDiscount {
+        private static final BestDiscount NONE = new BestDiscount(null, null);
+
+        private final Double percent;
+        private final LocalDateTime validUntil; // null = until the index changes
+
+        private BestDiscount(Double percent, LocalDateTime validUntil) {
+            this.percent = percent;
+            this.validUntil = validUntil;
+        }
+
+        private boolean isValidAt(LocalDateTime now) {
+            return validUntil == null || now.isBefore(validUntil);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.utephonehub.backend.service.impl.promotion;
 import com.utephonehub.backend.dto.request.PromotionRequest;
 import com.utephonehub.backend.entity.Promotion;
 import com.utephonehub.backend.entity.PromotionTarget;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -15,25 +16,28 @@ import java.util.stream.Collectors;
  * Follows Creator (GRASP) - creates PromotionTarget instances
  */
 @Component
+@RequiredArgsConstructor
 public class PromotionTargetManager {
 
+    private final PromotionTargetIndex targetIndex;
+
     /**
      * Save promotion targets from request
      * @param promotion Promotion entity
      * @param targetRequests List of target requests
      */
     public void saveTargets(Promotion promotion, List<PromotionRequest.TargetRequest> targetRequests) {
-        if (targetRequests == null || targetRequests.isEmpty()) {
-            return;
-        }
-
-        List<PromotionTarget> targets = createTargetsFromRequests(promotion, targetRequests);
-        
-        if (promotion.getTargets() == null) {
-            promotion.setTargets(new ArrayList<>());
+        if (targetRequests != null && !targetRequests.isEmpty()) {
+            List<PromotionTarget> targets = createTargetsFromRequests(promotion, targetRequests);
+            
+            if (promotion.getTargets() == null) {
+                promotion.setTargets(new ArrayList<>());
+            }
+            
+            promotion.getTargets().addAll(targets);
         }
         
-        promotion.getTargets().addAll(targets);
+        syncIndex(promotion);
     }
 
     /**
@@ -48,6 +52,14 @@ public class PromotionTargetManager {
         saveTargets(promotion, targetRequests);
     }
 
+    /**
+     * Re-index promotion targets (also used when only status/dates change)
+     * @param promotion Promotion entity with current fields and targets
+     */
+    public void syncIndex(Promotion promotion) {
+        targetIndex.index(promotion);
+    }
+
     /**
      * Create PromotionTarget entities from requests
      * Follows Creator (GRASP) - responsible for creating PromotionTarget objects
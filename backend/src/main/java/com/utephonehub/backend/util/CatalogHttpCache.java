@@ -0,0 +1,98 @@
+package com.utephonehub.backend.util;
+
+import com.utephonehub.backend.service.ICatalogVersionService;
+import com.utephonehub.backend.service.ICatalogVersionService.Version;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET cho các API catalog công khai
+ *
+ * - ETag (strong) lấy từ {@link ICatalogVersionService}, không từ body; không gửi Last-Modified
+ * - If-None-Match khớp -> 304 Not Modified, body (DTO) không được tạo
+ * - Cache-Control public + stale-while-revalidate để browser/CDN hấp thụ request lặp lại
+ *
+ * Header được ghi trực tiếp lên response (không qua ResponseEntity) để Spring MVC không kiểm tra lại
+ * ETag sau khi đã build body, và để Spring Security không ghi đè Cache-Control mặc định (no-store)
+ */
+@Component
+@Slf4j
+public class CatalogHttpCache {
+
+    private final ICatalogVersionService catalogVersionService;
+    private final CacheControl catalogCacheControl;
+    private final CacheControl staticCacheControl;
+
+    public CatalogHttpCache(ICatalogVersionService catalogVersionService,
+                            @Value("${cache.http.max-age:60s}") Duration maxAge,
+                            @Value("${cache.http.stale-while-revalidate:5m}") Duration staleWhileRevalidate,
+                            @Value("${cache.http.static-max-age:1d}") Duration staticMaxAge) {
+        this.catalogVersionService = catalogVersionService;
+        this.catalogCacheControl = CacheControl.maxAge(maxAge)
+                .cachePublic()
+                .staleWhileRevalidate(staleWhileRevalidate);
+        this.staticCacheControl = CacheControl.maxAge(staticMaxAge)
+                .cachePublic()
+                .staleWhileRevalidate(staticMaxAge);
+    }
+
+    /**
+     * Product lists: search, filters, category pages, homepage sections, related products
+     */
+    public <T> ResponseEntity<T> catalog(ServletWebRequest request, Supplier<T> body) {
+        return respond(request, catalogVersionService.getCatalogVersion(), catalogCacheControl, body);
+    }
+
+    public <T> ResponseEntity<T> product(ServletWebRequest request, Long productId, Supplier<T> body) {
+        Version version = catalogVersionService.getProductVersion(productId);
+        if (version == null) {
+            // Không tồn tại: để service ném exception như bình thường (404)
+            return ResponseEntity.ok(body.get());
+        }
+        return respond(request, version, catalogCacheControl, body);
+    }
+
+    public <T> ResponseEntity<T> categories(ServletWebRequest request, Supplier<T> body) {
+        return respond(request, catalogVersionService.getCategoryVersion(), catalogCacheControl, body);
+    }
+
+    public <T> ResponseEntity<T> brands(ServletWebRequest request, Supplier<T> body) {
+        return respond(request, catalogVersionService.getBrandVersion(), catalogCacheControl, body);
+    }
+
+    public <T> ResponseEntity<T> locations(ServletWebRequest request, Supplier<T> body) {
+        return respond(request, catalogVersionService.getLocationVersion(), staticCacheControl, body);
+    }
+
+    /**
+     * @return null when 304 has been written (Spring MVC treats the request as handled)
+     */
+    private <T> ResponseEntity<T> respond(ServletWebRequest request, Version version,
+                                          CacheControl cacheControl, Supplier<T> body) {
+        if (request.checkNotModified(version.etag())) {
+            setCacheControl(request, cacheControl);
+            log.debug("304 Not Modified: {}", request.getRequest().getRequestURI());
+            return null;
+        }
+        T result = body.get();
+        // Chỉ sau khi build thành công: response lỗi (404...) không được đánh dấu public
+        setCacheControl(request, cacheControl);
+        return ResponseEntity.ok(result);
+    }
+
+    private static void setCacheControl(ServletWebRequest request, CacheControl cacheControl) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.utephonehub.backend.util;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Chuẩn hóa text tiếng Việt để tìm kiếm: bỏ dấu, đ -> d, chữ thường, gộp khoảng trắng
+ * Dùng chung cho cả text được index (search_text) và từ khóa tìm kiếm để hai bên luôn khớp
+ */
+public final class VietnameseTextNormalizer {
+
+    private static final Pattern DIACRITICS_PATTERN = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("\\s+");
+
+    private VietnameseTextNormalizer() {
+    }
+
+    /**
+     * @return folded text, or null if the input is null/blank
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(trimmed, Normalizer.Form.NFD);
+        normalized = DIACRITICS_PATTERN.matcher(normalized).replaceAll("");
+        // đ/Đ không phải ký tự tổ hợp nên NFD không tách được
+        normalized = normalized.replace('đ', 'd').replace('Đ', 'D');
+        normalized = normalized.toLowerCase(Locale.ROOT);
+        return WHITESPACE_PATTERN.matcher(normalized).replaceAll(" ");
+    }
+}
@@ -0,0 +1,145 @@
+package com.utephonehub.backend.config.cache;
+
+import com.utephonehub.backend.dto.response.cart.CartItemResponse;
+import com.utephonehub.backend.dto.response.cart.CartResponse;
+import com.utephonehub.backend.dto.response.productview.ProductCardResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Micro-benchmark so sánh các codec của cache Redis (json hiện tại, smile, smile + deflate)
+ * Đo bytes/entry và thời gian serialize/deserialize trung bình cho các giá trị cache điển hình.
+ * Bỏ qua trong test suite thường, chỉ chạy khi bật -Dbenchmark=true:
+ *
+ * Run: mvn test -Dtest=CacheSerializerBenchmark -Dbenchmark=true
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CacheSerializerBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int MEASURE_ITERATIONS = 10_000;
+
+    @Test
+    void testCompareCodecs() {
+        Map<String, RedisSerializer<Object>> codecs = new LinkedHashMap<>();
+        codecs.put("json", CacheSerializers.json());
+        codecs.put("smile", CacheSerializers.smile(0));
+        codecs.put("smile+deflate", CacheSerializers.smile(1));
+
+        Map<String, Object> samples = new LinkedHashMap<>();
+        samples.put("homepage cards x10", cards(10));
+        samples.put("homepage cards x50", cards(50));
+        samples.put("cart x5 items", cart(5));
+
+        System.out.printf("%-20s %-15s %10s %12s %12s%n", "value", "codec", "bytes", "ser (us)", "deser (us)");
+        samples.forEach((sampleName, sample) -> codecs.forEach((codecName, codec) -> {
+            Result result = measure(codec, sample);
+            System.out.printf("%-20s %-15s %10d %12.2f %12.2f%n",
+                    sampleName, codecName, result.bytes, result.serializeMicros, result.deserializeMicros);
+        }));
+    }
+
+    private static Result measure(RedisSerializer<Object> codec, Object value) {
+        byte[] bytes = codec.serialize(value);
+        assertEquals(value, codec.deserialize(bytes), "round trip of " + value.getClass().getSimpleName());
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            codec.deserialize(codec.serialize(value));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            bytes = codec.serialize(value);
+        }
+        long serializeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            codec.deserialize(bytes);
+        }
+        long deserializeNanos = System.nanoTime() - start;
+
+        return new Result(bytes.length,
+                serializeNanos / 1_000.0 / MEASURE_ITERATIONS,
+                deserializeNanos / 1_000.0 / MEASURE_ITERATIONS);
+    }
+
+    private static List<ProductCardResponse> cards(int count) {
+        List<ProductCardResponse> cards = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            cards.add(ProductCardResponse.builder()
+                    .id(i)
+                    .name("Samsung Galaxy S24 Ultra " + i)
+                    .thumbnailUrl("https://res.cloudinary.com/utephonehub/image/upload/products/" + i + ".webp")
+                    .brandName("Samsung")
+                    .brandId(2L)
+                    .categoryName("Điện thoại")
+                    .categoryId(1L)
+                    .originalPrice(new BigDecimal("33990000"))
+                    .minPrice(new BigDecimal("29990000"))
+                    .maxPrice(new BigDecimal("36990000"))
+                    .priceRange("29.990.000đ - 36.990.000đ")
+                    .discountedPrice(new BigDecimal("28490500"))
+                    .hasDiscount(true)
+                    .discountPercentage(5.0)
+                    .savingAmount(new BigDecimal("1499500"))
+                    .averageRating(4.6)
+                    .totalReviews(128)
+                    .ratingDisplay("4.6 (128 reviews)")
+                    .inStock(true)
+                    .stockQuantity(42)
+                    .stockStatus("In Stock")
+                    .soldCount(315)
+                    .ram("12GB")
+                    .storage("256GB")
+                    .color("Titanium Gray")
+                    .screenSize("6.8\"")
+                    .operatingSystem("Android 14")
+                    .processor("Snapdragon 8 Gen 3")
+                    .batteryCapacity(5000)
+                    .chargingPower(45)
+                    .build());
+        }
+        return cards;
+    }
+
+    private static CartResponse cart(int itemCount) {
+        List<CartItemResponse> items = new ArrayList<>(itemCount);
+        BigDecimal total = BigDecimal.ZERO;
+        for (long i = 1; i <= itemCount; i++) {
+            BigDecimal subtotal = new BigDecimal("12990000").multiply(BigDecimal.valueOf(i));
+            items.add(CartItemResponse.builder()
+                    .id(i)
+                    .productId(100 + i)
+                    .productName("iPhone 15 Pro Max 256GB " + i)
+                    .productThumbnailUrl("https://res.cloudinary.com/utephonehub/image/upload/products/" + i + ".webp")
+                    .unitPrice(new BigDecimal("12990000"))
+                    .quantity((int) i)
+                    .subtotal(subtotal)
+                    .stockQuantity(20)
+                    .outOfStock(false)
+                    .overStock(false)
+                    .build());
+            total = total.add(subtotal);
+        }
+        return CartResponse.builder()
+                .id(1L)
+                .items(items)
+                .totalAmount(total)
+                .itemCount(itemCount)
+                .build();
+    }
+
+    private record Result(int bytes, double serializeMicros, double deserializeMicros) {
+    }
+}
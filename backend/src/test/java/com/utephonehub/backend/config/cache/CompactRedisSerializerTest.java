@@ -0,0 +1,144 @@
+package com.utephonehub.backend.config.cache;
+
+import com.utephonehub.backend.dto.response.productview.ProductCardResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Test cho CompactRedisSerializer (codec smile của cache Redis)
+ * Kiểm tra:
+ * - Round-trip Smile (giá trị cache điển hình, có envelope)
+ * - Đọc entry JSON cũ đã có trong Redis
+ * - Ngưỡng nén Deflate
+ */
+class CompactRedisSerializerTest {
+
+    private static final byte PLAIN = 0x01;
+    private static final byte DEFLATED = 0x02;
+
+    @Test
+    void testSmileRoundTrip() {
+        RedisSerializer<Object> serializer = CacheSerializers.smile(0);
+        CacheEnvelope envelope = new CacheEnvelope(cards(10), 1_700_000_000_000L);
+
+        byte[] bytes = serializer.serialize(envelope);
+
+        assertEquals(PLAIN, bytes[0]);
+        assertEquals(envelope, serializer.deserialize(bytes));
+    }
+
+    @Test
+    void testSmileIsSmallerThanJson() {
+        List<ProductCardResponse> cards = cards(20);
+
+        assertTrue(CacheSerializers.smile(0).serialize(cards).length < CacheSerializers.json().serialize(cards).length);
+    }
+
+    @Test
+    void testNullAndEmpty() {
+        RedisSerializer<Object> serializer = CacheSerializers.smile(0);
+
+        assertEquals(0, serializer.serialize(null).length);
+        assertNull(serializer.deserialize(null));
+        assertNull(serializer.deserialize(new byte[0]));
+    }
+
+    @Test
+    void testReadsLegacyJsonEntries() {
+        List<ProductCardResponse> cards = cards(3);
+        CacheEnvelope envelope = new CacheEnvelope(cards, 42L);
+        RedisSerializer<Object> serializer = CacheSerializers.smile(1024);
+
+        // Giá trị do codec json (định dạng cũ) ghi vào Redis trước khi đổi codec
+        byte[] legacyList = CacheSerializers.json().serialize(cards);
+        byte[] legacyEnvelope = CacheSerializers.json().serialize(envelope);
+        byte[] legacyString = CacheSerializers.json().serialize("featured");
+
+        assertEquals('[', legacyList[0]);
+        assertEquals(cards, serializer.deserialize(legacyList));
+        assertEquals(envelope, serializer.deserialize(legacyEnvelope));
+        assertEquals("featured", serializer.deserialize(legacyString));
+    }
+
+    @Test
+    void testCompressesPayloadAboveThreshold() {
+        List<ProductCardResponse> cards = cards(50);
+        byte[] plain = CacheSerializers.smile(0).serialize(cards);
+        RedisSerializer<Object> serializer = CacheSerializers.smile(plain.length - 1);
+
+        byte[] compressed = serializer.serialize(cards);
+
+        assertEquals(DEFLATED, compressed[0]);
+        assertTrue(compressed.length < plain.length);
+        assertEquals(cards, serializer.deserialize(compressed));
+    }
+
+    @Test
+    void testKeepsPayloadBelowThresholdUncompressed() {
+        List<ProductCardResponse> cards = cards(50);
+        byte[] plain = CacheSerializers.smile(0).serialize(cards);
+
+        byte[] bytes = CacheSerializers.smile(plain.length).serialize(cards);
+
+        // Ngưỡng tính trên payload Smile (không gồm byte marker): plain.length - 1 < ngưỡng
+        assertEquals(PLAIN, bytes[0]);
+        assertArrayEquals(plain, bytes);
+    }
+
+    @Test
+    void testKeepsIncompressiblePayloadUncompressed() {
+        byte[] bytes = CacheSerializers.smile(1).serialize("x");
+
+        assertEquals(PLAIN, bytes[0]);
+        assertEquals("x", CacheSerializers.smile(1).deserialize(bytes));
+    }
+
+    @Test
+    void testTruncatedDeflatedPayloadFails() {
+        List<ProductCardResponse> cards = cards(50);
+        RedisSerializer<Object> serializer = CacheSerializers.smile(1);
+        byte[] compressed = serializer.serialize(cards);
+        assertEquals(DEFLATED, compressed[0]);
+
+        byte[] truncated = Arrays.copyOf(compressed, compressed.length / 2);
+
+        assertThrows(SerializationException.class, () -> serializer.deserialize(truncated));
+    }
+
+    private static List<ProductCardResponse> cards(int count) {
+        List<ProductCardResponse> cards = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            cards.add(ProductCardResponse.builder()
+                    .id(i)
+                    .name("Samsung Galaxy S24 Ultra " + i)
+                    .thumbnailUrl("https://res.cloudinary.com/utephonehub/image/upload/products/" + i + ".webp")
+                    .brandName("Samsung")
+                    .brandId(2L)
+                    .categoryName("Điện thoại")
+                    .categoryId(1L)
+                    .originalPrice(new BigDecimal("33990000"))
+                    .minPrice(new BigDecimal("29990000"))
+                    .maxPrice(new BigDecimal("36990000"))
+                    .discountedPrice(new BigDecimal("28490500"))
+                    .hasDiscount(true)
+                    .discountPercentage(5.0)
+                    .averageRating(4.6)
+                    .totalReviews(128)
+                    .inStock(true)
+                    .stockQuantity(42)
+                    .soldCount(315)
+                    .ram("12GB")
+                    .storage("256GB")
+                    .build());
+        }
+        return cards;
+    }
+}
@@ -0,0 +1,124 @@
+package com.utephonehub.backend.config.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test cho TwoLevelCache
+ * Kiểm tra:
+ * - Single-flight load ghi vào cả hai tầng
+ * - Evict một key chỉ bỏ kết quả load đang chạy của đúng key đó
+ * - Clear bỏ kết quả của mọi load đang chạy
+ */
+class TwoLevelCacheTest {
+
+    private ConcurrentMapCache remote;
+    private TwoLevelCache cache;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("products");
+        cache = new TwoLevelCache("products",
+                Caffeine.newBuilder().<String, CacheEnvelope>build(),
+                remote,
+                mock(CacheInvalidationPublisher.class),
+                mock(CacheRefresher.class),
+                null,
+                CacheMetrics.register(new SimpleMeterRegistry(), "products"));
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testLoadStoresInBothTiers() {
+        assertEquals("v1", cache.get("a", () -> "v1"));
+
+        assertNotNull(remote.get("a"));
+        assertNotNull(cache.getLocalCache().getIfPresent("a"));
+        // Lần đọc sau không gọi loader
+        assertEquals("v1", cache.get("a", () -> fail("loader must not run")));
+    }
+
+    @Test
+    void testEvictOfOtherKeyKeepsInFlightLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> load = executor.submit(() -> cache.get("a", () -> {
+            loading.countDown();
+            release.await();
+            return "v1";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        cache.evict("b");
+        release.countDown();
+
+        assertEquals("v1", load.get(5, TimeUnit.SECONDS));
+        assertNotNull(remote.get("a"), "load of 'a' must still be cached");
+        assertNotNull(cache.getLocalCache().getIfPresent("a"));
+    }
+
+    @Test
+    void testEvictOfSameKeyDiscardsInFlightLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> load = executor.submit(() -> cache.get("a", () -> {
+            loading.countDown();
+            release.await();
+            return "old";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        cache.evict("a");
+        release.countDown();
+
+        // Caller vẫn nhận giá trị đã load, nhưng giá trị cũ không được cache
+        assertEquals("old", load.get(5, TimeUnit.SECONDS));
+        assertNull(remote.get("a"));
+        assertNull(cache.getLocalCache().getIfPresent("a"));
+        assertEquals("new", cache.get("a", () -> "new"));
+    }
+
+    @Test
+    void testClearDiscardsEveryInFlightLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Object> loadA = executor.submit(() -> cache.get("a", () -> {
+            loading.countDown();
+            release.await();
+            return "a";
+        }));
+        Future<Object> loadB = executor.submit(() -> cache.get("b", () -> {
+            loading.countDown();
+            release.await();
+            return "b";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        cache.clear();
+        release.countDown();
+
+        assertEquals("a", loadA.get(5, TimeUnit.SECONDS));
+        assertEquals("b", loadB.get(5, TimeUnit.SECONDS));
+        assertNull(remote.get("a"));
+        assertNull(remote.get("b"));
+    }
+}
@@ -0,0 +1,162 @@
+package com.utephonehub.backend.service.impl;
+
+import com.utephonehub.backend.entity.Order;
+import com.utephonehub.backend.entity.OrderItem;
+import com.utephonehub.backend.entity.Product;
+import com.utephonehub.backend.entity.ProductTemplate;
+import com.utephonehub.backend.entity.StockReservation;
+import com.utephonehub.backend.enums.ReservationStatus;
+import com.utephonehub.backend.event.ProductChangedEvent;
+import com.utephonehub.backend.exception.BadRequestException;
+import com.utephonehub.backend.repository.ProductTemplateRepository;
+import com.utephonehub.backend.repository.StockReservationRepository;
+import com.utephonehub.backend.service.impl.inventory.HotStockStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test cho InventoryServiceImpl (trừ kho có điều kiện)
+ * Kiểm tra:
+ * - Cả đơn được trừ bằng một batch UPDATE có điều kiện, ghi reservation COMMITTED
+ * - Số lượng được tách lần lượt qua các template còn hàng
+ * - Không đủ hàng: báo lỗi, không ghi gì vào DB
+ * - Thua race (0 dòng): đọc lại tồn kho và lấy phần còn lại
+ * - Thua race và hết hàng: trả lại phần đã trừ rồi báo lỗi
+ */
+class InventoryServiceImplTest {
+
+    private static final Long PRODUCT_ID = 1L;
+
+    private ProductTemplateRepository templateRepository;
+    private StockReservationRepository reservationRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private JdbcTemplate jdbcTemplate;
+    private InventoryServiceImpl inventoryService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        templateRepository = mock(ProductTemplateRepository.class);
+        reservationRepository = mock(StockReservationRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        // Không có SKU hot: take() trả null
+        HotStockStore hotStockStore = mock(HotStockStore.class);
+        inventoryService = new InventoryServiceImpl(templateRepository, reservationRepository, eventPublisher,
+                mock(TransactionTemplate.class), hotStockStore, jdbcTemplate, Duration.ofMinutes(20));
+
+        when(templateRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> ProductTemplate.builder().id(invocation.getArgument(0)).build());
+
+        Product product = Product.builder().id(PRODUCT_ID).name("iPhone 15").build();
+        order = Order.builder().id(100L).orderCode("ORD_TEST").build();
+        order.setItems(List.of(OrderItem.builder().order(order).product(product).quantity(6).build()));
+    }
+
+    @Test
+    void testDeductStockUsesOneConditionalBatch() {
+        stock(new Object[]{10L, PRODUCT_ID, 3}, new Object[]{11L, PRODUCT_ID, 5});
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 1});
+
+        inventoryService.deductStock(order, order.getItems());
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(sql.capture(), args.capture());
+        assertTrue(sql.getValue().contains("WHERE id = ? AND status = true AND stock_quantity >= ?"));
+        // Template 10 hết 3, template 11 lấy 3 còn lại; điều kiện >= dùng đúng số lượng trừ
+        assertArrayEquals(new Object[]{3, 3, 3, 10L, 3}, without(args.getValue().get(0), 3));
+        assertArrayEquals(new Object[]{3, 3, 3, 11L, 3}, without(args.getValue().get(1), 3));
+
+        Map<Long, Integer> reserved = savedReservations(ReservationStatus.COMMITTED);
+        assertEquals(Map.of(10L, 3, 11L, 3), reserved);
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+        verify(templateRepository, never()).incrementStock(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testNotEnoughStockWritesNothing() {
+        stock(new Object[]{10L, PRODUCT_ID, 2}, new Object[]{11L, PRODUCT_ID, 1});
+
+        BadRequestException error = assertThrows(BadRequestException.class,
+                () -> inventoryService.deductStock(order, order.getItems()));
+
+        assertTrue(error.getMessage().contains("chỉ còn 3"));
+        verifyNoInteractions(jdbcTemplate);
+        verify(reservationRepository, never()).saveAll(any());
+        verify(templateRepository, never()).decrementStock(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testLostRaceRetriesWithRemainingStock() {
+        stock(new Object[]{10L, PRODUCT_ID, 3}, new Object[]{11L, PRODUCT_ID, 5});
+        // Checkout khác vừa lấy 1 của template 11: UPDATE ... >= 3 không khớp dòng nào
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+        when(templateRepository.findAvailableStockById(10L)).thenReturn(Optional.of(0));
+        when(templateRepository.findAvailableStockById(11L)).thenReturn(Optional.of(4));
+        when(templateRepository.decrementStock(eq(11L), eq(3), any())).thenReturn(1);
+
+        inventoryService.reserveStock(order, order.getItems());
+
+        verify(templateRepository).decrementStock(eq(11L), eq(3), any());
+        assertEquals(Map.of(10L, 3, 11L, 3), savedReservations(ReservationStatus.RESERVED));
+    }
+
+    @Test
+    void testLostRaceWithoutStockPutsBackWhatWasTaken() {
+        stock(new Object[]{10L, PRODUCT_ID, 3}, new Object[]{11L, PRODUCT_ID, 5});
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+        when(templateRepository.findAvailableStockById(anyLong())).thenReturn(Optional.of(0));
+
+        assertThrows(BadRequestException.class, () -> inventoryService.deductStock(order, order.getItems()));
+
+        // 3 đã trừ ở template 10 được trả lại, template 11 không bị trừ
+        verify(templateRepository).incrementStock(eq(10L), eq(3), any());
+        verify(templateRepository, never()).incrementStock(eq(11L), anyInt(), any());
+        verify(reservationRepository, never()).saveAll(any());
+    }
+
+    private void stock(Object[]... rows) {
+        List<Object[]> result = new ArrayList<>(List.of(rows));
+        when(templateRepository.findAvailableStock(anyCollection())).thenReturn(result);
+    }
+
+    /**
+     * Batch arguments without the updated_at timestamp
+     */
+    private static Object[] without(Object[] args, int index) {
+        List<Object> values = new ArrayList<>(List.of(args));
+        values.remove(index);
+        return values.toArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> savedReservations(ReservationStatus expectedStatus) {
+        ArgumentCaptor<Iterable<StockReservation>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(reservationRepository).saveAll(captor.capture());
+        Map<Long, Integer> byTemplate = new HashMap<>();
+        for (StockReservation reservation : captor.getValue()) {
+            assertEquals(expectedStatus, reservation.getStatus());
+            assertSame(order, reservation.getOrder());
+            byTemplate.put(reservation.getProductTemplate().getId(), reservation.getQuantity());
+        }
+        return byTemplate;
+    }
+}
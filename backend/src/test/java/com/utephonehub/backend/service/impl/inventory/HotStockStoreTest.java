@@ -0,0 +1,308 @@
+package com.utephonehub.backend.service.impl.inventory;
+
+import com.utephonehub.backend.exception.ConflictException;
+import com.utephonehub.backend.repository.ProductTemplateRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.luaj.vm2.Globals;
+import org.luaj.vm2.LuaTable;
+import org.luaj.vm2.LuaValue;
+import org.luaj.vm2.Varargs;
+import org.luaj.vm2.lib.VarArgFunction;
+import org.luaj.vm2.lib.jse.JsePlatform;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test cho HotStockStore
+ * Lua script thật được chạy bằng LuaJ trên một Redis giả trong bộ nhớ
+ * Kiểm tra:
+ * - Lấy hàng: trừ tối đa phần còn lại, ghi delta âm; template không hot -> null (đi đường DB)
+ * - Transaction rollback: phần đã lấy được trả lại Redis đúng một lần
+ * - Hoàn kho sau commit; template đã tắt hot -> trả vào DB
+ * - Tắt hot trả về delta chưa ghi; drain lấy và xóa delta
+ * - Redis lỗi: template đã biết là hot bị từ chối
+ */
+class HotStockStoreTest {
+
+    private static final Long TEMPLATE_ID = 7L;
+    private static final String STOCK_KEY = HotStockStore.STOCK_KEY_PREFIX + TEMPLATE_ID;
+
+    private FakeRedis redis;
+    private ProductTemplateRepository templateRepository;
+    private HotStockStore store;
+
+    @BeforeEach
+    void setUp() {
+        redis = new FakeRedis();
+        templateRepository = mock(ProductTemplateRepository.class);
+        store = new HotStockStore(redis, templateRepository, mock(PlatformTransactionManager.class), true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testTakeDecrementsCounterAndRecordsDelta() {
+        assertTrue(store.enable(TEMPLATE_ID, 5));
+        assertFalse(store.enable(TEMPLATE_ID, 99), "enable must not reseed a hot counter");
+
+        assertEquals(3, store.take(TEMPLATE_ID, 3).amount());
+        // Chỉ còn 2: lấy được một phần, không bao giờ âm
+        assertEquals(2, store.take(TEMPLATE_ID, 4).amount());
+        assertEquals(0, store.take(TEMPLATE_ID, 1).amount());
+
+        assertEquals("0", redis.strings.get(STOCK_KEY));
+        assertEquals(Map.of(TEMPLATE_ID, -5), store.drainDeltas());
+        assertTrue(store.drainDeltas().isEmpty(), "drain must remove the deltas");
+    }
+
+    @Test
+    void testTakeOnTemplateThatIsNotHot() {
+        assertNull(store.take(TEMPLATE_ID, 1));
+        assertTrue(redis.strings.isEmpty());
+    }
+
+    @Test
+    void testRollbackPutsTakenUnitsBackOnce() {
+        store.enable(TEMPLATE_ID, 5);
+        TransactionSynchronizationManager.initSynchronization();
+
+        HotStockStore.Taken taken = store.take(TEMPLATE_ID, 2);
+        assertEquals("3", redis.strings.get(STOCK_KEY));
+
+        // Checkout đã tự trả khi thiếu hàng, rồi transaction rollback: chỉ trả một lần
+        taken.putBack();
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertEquals("5", redis.strings.get(STOCK_KEY));
+        assertTrue(store.drainDeltas().isEmpty(), "take and put back must cancel out");
+    }
+
+    @Test
+    void testCommitKeepsTakenUnits() {
+        store.enable(TEMPLATE_ID, 5);
+        TransactionSynchronizationManager.initSynchronization();
+
+        store.take(TEMPLATE_ID, 2);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals("3", redis.strings.get(STOCK_KEY));
+        assertEquals(Map.of(TEMPLATE_ID, -2), store.drainDeltas());
+    }
+
+    @Test
+    void testReleaseAfterCommitReturnsStockToCounter() {
+        store.enable(TEMPLATE_ID, 5);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(store.releaseAfterCommit(TEMPLATE_ID, 4));
+        assertEquals("5", redis.strings.get(STOCK_KEY), "nothing returned before commit");
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals("9", redis.strings.get(STOCK_KEY));
+        assertEquals(Map.of(TEMPLATE_ID, 4), store.drainDeltas());
+        verifyNoInteractions(templateRepository);
+    }
+
+    @Test
+    void testReleaseOfTemplateThatIsNotHotGoesToDatabase() {
+        assertFalse(store.releaseAfterCommit(TEMPLATE_ID, 4));
+    }
+
+    @Test
+    void testDisableReturnsPendingDeltaAndPutBackGoesToDatabase() {
+        store.enable(TEMPLATE_ID, 5);
+        HotStockStore.Taken taken = store.take(TEMPLATE_ID, 2);
+
+        assertEquals(-2L, store.disable(TEMPLATE_ID));
+        assertNull(store.disable(TEMPLATE_ID), "second disable: not hot");
+        assertFalse(redis.strings.containsKey(STOCK_KEY));
+
+        // Template đã tắt hot (delta đã ghi vào DB): phần trả lại đi thẳng vào DB
+        taken.putBack();
+        verify(templateRepository).incrementStock(eq(TEMPLATE_ID), eq(2), any());
+        assertFalse(redis.strings.containsKey(STOCK_KEY));
+    }
+
+    @Test
+    void testRedisDownRejectsKnownHotTemplate() {
+        store.enable(TEMPLATE_ID, 5);
+        redis.down = true;
+
+        assertThrows(ConflictException.class, () -> store.take(TEMPLATE_ID, 1));
+        // Template không hot vẫn đi đường DB
+        assertNull(store.take(8L, 1));
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+
+    /**
+     * In-memory Redis running scripts with LuaJ (only the commands used by HotStockStore)
+     */
+    private static final class FakeRedis extends StringRedisTemplate {
+        private final Map<String, String> strings = new HashMap<>();
+        private final Map<String, Map<String, String>> hashes = new HashMap<>();
+        private final Map<String, Set<String>> sets = new HashMap<>();
+        private boolean down;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            checkUp();
+            Globals globals = JsePlatform.standardGlobals();
+            globals.set("KEYS", table(keys.toArray()));
+            globals.set("ARGV", table(args));
+            LuaTable redisTable = new LuaTable();
+            redisTable.set("call", new VarArgFunction() {
+                @Override
+                public Varargs invoke(Varargs varargs) {
+                    List<String> command = new ArrayList<>();
+                    for (int i = 1; i <= varargs.narg(); i++) {
+                        command.add(varargs.arg(i).tojstring());
+                    }
+                    return command(command);
+                }
+            });
+            globals.set("redis", redisTable);
+            LuaValue result = globals.load(script.getScriptAsString(), "script").call();
+            return (T) toJava(result);
+        }
+
+        @Override
+        public Boolean hasKey(String key) {
+            checkUp();
+            return strings.containsKey(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public SetOperations<String, String> opsForSet() {
+            checkUp();
+            SetOperations<String, String> operations = mock(SetOperations.class);
+            when(operations.members(anyString()))
+                    .thenAnswer(invocation -> new HashSet<>(sets.getOrDefault(invocation.getArgument(0), Set.of())));
+            return operations;
+        }
+
+        private void checkUp() {
+            if (down) {
+                throw new RedisConnectionFailureException("Redis is down");
+            }
+        }
+
+        private LuaValue command(List<String> command) {
+            String key = command.get(1);
+            switch (command.get(0).toUpperCase()) {
+                case "GET":
+                    return strings.containsKey(key) ? LuaValue.valueOf(strings.get(key)) : LuaValue.FALSE;
+                case "SET":
+                    // Chỉ dạng SET key value NX
+                    if (strings.containsKey(key)) {
+                        return LuaValue.FALSE;
+                    }
+                    strings.put(key, command.get(2));
+                    return LuaValue.TRUE;
+                case "EXISTS":
+                    return LuaValue.valueOf(strings.containsKey(key) ? 1 : 0);
+                case "DEL": {
+                    boolean removed = strings.remove(key) != null | hashes.remove(key) != null;
+                    return LuaValue.valueOf(removed ? 1 : 0);
+                }
+                case "DECRBY":
+                    return incr(key, -Long.parseLong(command.get(2)));
+                case "INCRBY":
+                    return incr(key, Long.parseLong(command.get(2)));
+                case "HINCRBY": {
+                    Map<String, String> hash = hashes.computeIfAbsent(key, k -> new HashMap<>());
+                    long value = Long.parseLong(hash.getOrDefault(command.get(2), "0")) + Long.parseLong(command.get(3));
+                    hash.put(command.get(2), String.valueOf(value));
+                    return LuaValue.valueOf(value);
+                }
+                case "HGET": {
+                    String value = hashes.getOrDefault(key, Map.of()).get(command.get(2));
+                    return value != null ? LuaValue.valueOf(value) : LuaValue.FALSE;
+                }
+                case "HDEL": {
+                    Map<String, String> hash = hashes.get(key);
+                    return LuaValue.valueOf(hash != null && hash.remove(command.get(2)) != null ? 1 : 0);
+                }
+                case "HGETALL": {
+                    LuaTable table = new LuaTable();
+                    int index = 1;
+                    for (Map.Entry<String, String> entry : hashes.getOrDefault(key, Map.of()).entrySet()) {
+                        table.set(index++, entry.getKey());
+                        table.set(index++, entry.getValue());
+                    }
+                    return table;
+                }
+                case "SADD":
+                    return LuaValue.valueOf(sets.computeIfAbsent(key, k -> new HashSet<>()).add(command.get(2)) ? 1 : 0);
+                case "SREM":
+                    return LuaValue.valueOf(sets.getOrDefault(key, new HashSet<>()).remove(command.get(2)) ? 1 : 0);
+                default:
+                    throw new UnsupportedOperationException(command.get(0));
+            }
+        }
+
+        private LuaValue incr(String key, long by) {
+            long value = Long.parseLong(strings.getOrDefault(key, "0")) + by;
+            strings.put(key, String.valueOf(value));
+            return LuaValue.valueOf(value);
+        }
+
+        private static LuaTable table(Object[] values) {
+            LuaTable table = new LuaTable();
+            for (int i = 0; i < values.length; i++) {
+                table.set(i + 1, String.valueOf(values[i]));
+            }
+            return table;
+        }
+
+        /**
+         * Lua -> Redis reply conversion: number -> integer, nil/false -> null, table -> list
+         */
+        private static Object toJava(LuaValue value) {
+            if (value.isnil() || value == LuaValue.FALSE) {
+                return null;
+            }
+            if (value == LuaValue.TRUE) {
+                return 1L;
+            }
+            if (value.type() == LuaValue.TNUMBER) {
+                return value.tolong();
+            }
+            if (value.istable()) {
+                List<Object> list = new ArrayList<>();
+                for (int i = 1; i <= value.length(); i++) {
+                    list.add(toJava(value.get(i)));
+                }
+                return list;
+            }
+            return value.tojstring();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.utephonehub.backend.service.impl.order;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test cho OrderCodeGenerator
+ * Kiểm tra:
+ * - Định dạng: "ORD_" + 13 ký tự Crockford base32
+ * - Mã không trùng và tăng dần (so sánh chuỗi), kể cả khi hết sequence trong một mili giây
+ * - Nhiều thread cùng sinh mã: không trùng
+ * - Đồng hồ lùi: mã vẫn tăng dần, không lặp lại mã đã cấp
+ * - Hai node cùng mili giây: mã khác nhau
+ */
+class OrderCodeGeneratorTest {
+
+    // 2026-01-01T00:00:00Z
+    private static final long NOW = 1767225600000L;
+
+    private AtomicLong time;
+
+    @BeforeEach
+    void setUp() {
+        time = new AtomicLong(NOW);
+    }
+
+    @Test
+    void testCodeFormat() {
+        String code = generator(1).next();
+
+        assertEquals(17, code.length());
+        assertTrue(code.matches("ORD_[0-9A-HJKMNP-TV-Z]{13}"), code);
+    }
+
+    @Test
+    void testCodesAreUniqueAndIncreasingWithinOneMillisecond() {
+        OrderCodeGenerator generator = generator(1);
+
+        // Đồng hồ đứng yên: quá 4096 mã phải mượn mili giây kế tiếp
+        List<String> codes = generate(generator, 10_000);
+
+        assertIncreasing(codes);
+    }
+
+    @Test
+    void testCodesAreUniqueAndIncreasingAsClockAdvances() {
+        OrderCodeGenerator generator = generator(1);
+        List<String> codes = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            codes.add(generator.next());
+            time.addAndGet(i % 3);
+        }
+
+        assertIncreasing(codes);
+    }
+
+    @Test
+    void testClockRollbackKeepsCodesIncreasing() {
+        OrderCodeGenerator generator = generator(1);
+        List<String> codes = new ArrayList<>(generate(generator, 100));
+
+        // NTP kéo đồng hồ lùi 10 giây
+        time.set(NOW - 10_000);
+        codes.addAll(generate(generator, 5_000));
+        // Đồng hồ chạy lại nhưng vẫn trước mốc đã cấp
+        time.set(NOW - 1);
+        codes.addAll(generate(generator, 100));
+        // Đồng hồ vượt mốc cũ
+        time.set(NOW + 60_000);
+        codes.addAll(generate(generator, 100));
+
+        assertIncreasing(codes);
+    }
+
+    @Test
+    void testConcurrentCallersNeverGetTheSameCode() throws Exception {
+        OrderCodeGenerator generator = generator(1);
+        generator.clock = System::currentTimeMillis;
+        int threads = 8;
+        int perThread = 5_000;
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<String> own = generate(generator, perThread);
+                    codes.addAll(own);
+                    return own;
+                }));
+            }
+            start.countDown();
+            for (Future<List<String>> result : results) {
+                // Mã mỗi thread nhận được cũng tăng dần
+                assertIncreasing(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(threads * perThread, codes.size());
+    }
+
+    @Test
+    void testDifferentNodesNeverCollide() {
+        OrderCodeGenerator first = generator(1);
+        OrderCodeGenerator second = generator(2);
+
+        Set<String> codes = new HashSet<>(generate(first, 5_000));
+        codes.addAll(generate(second, 5_000));
+
+        assertEquals(10_000, codes.size());
+    }
+
+    @Test
+    void testNodeIdOutOfRangeIsRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new OrderCodeGenerator(mock(StringRedisTemplate.class), 1024, Duration.ofSeconds(60)));
+    }
+
+    private OrderCodeGenerator generator(int nodeId) {
+        OrderCodeGenerator generator = new OrderCodeGenerator(mock(StringRedisTemplate.class), nodeId,
+                Duration.ofSeconds(60));
+        generator.clock = time::get;
+        generator.init();
+        return generator;
+    }
+
+    private static List<String> generate(OrderCodeGenerator generator, int count) {
+        List<String> codes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            codes.add(generator.next());
+        }
+        return codes;
+    }
+
+    private static void assertIncreasing(List<String> codes) {
+        for (int i = 1; i < codes.size(); i++) {
+            assertTrue(codes.get(i - 1).compareTo(codes.get(i)) < 0,
+                    "code " + i + " " + codes.get(i) + " is not after " + codes.get(i - 1));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.utephonehub.backend.service.impl.order;
+
+import com.utephonehub.backend.entity.Order;
+import com.utephonehub.backend.entity.OrderItem;
+import com.utephonehub.backend.entity.Product;
+import com.utephonehub.backend.entity.ProductTemplate;
+import com.utephonehub.backend.entity.StockReservation;
+import com.utephonehub.backend.enums.OrderStatus;
+import com.utephonehub.backend.enums.ReservationStatus;
+import com.utephonehub.backend.event.OrderStatusChangedEvent;
+import com.utephonehub.backend.repository.OrderRepository;
+import com.utephonehub.backend.repository.OrderStatusHistoryRepository;
+import com.utephonehub.backend.repository.ProductTemplateRepository;
+import com.utephonehub.backend.repository.StockReservationRepository;
+import com.utephonehub.backend.service.impl.InventoryServiceImpl;
+import com.utephonehub.backend.service.impl.inventory.HotStockStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test cho PendingOrderExpiryScheduler (kèm InventoryServiceImpl thật để kiểm tra hoàn kho)
+ * Kiểm tra:
+ * - Đơn VNPay quá hạn bị hủy, ghi lịch sử, phát đúng một event PENDING -> CANCELLED
+ * - Hàng giữ của đơn được hoàn đúng một lần, kể cả khi job chạy lại
+ * - Reservation hết hạn và job hủy đơn cùng chạm một đơn: chỉ một bên hoàn kho
+ * - Đơn chưa quá hạn không bị động tới
+ */
+class PendingOrderExpirySchedulerTest {
+
+    private static final Duration PAYMENT_WINDOW = Duration.ofMinutes(30);
+    private static final Long TEMPLATE_ID = 10L;
+
+    private OrderRepository orderRepository;
+    private OrderStatusHistoryRepository statusHistoryRepository;
+    private StockReservationRepository reservationRepository;
+    private ProductTemplateRepository templateRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private PendingOrderExpiryScheduler scheduler;
+    private InventoryServiceImpl inventoryService;
+
+    // "Bảng" orders và stock_reservations trong bộ nhớ
+    private final List<Order> orders = new ArrayList<>();
+    private final List<StockReservation> reservations = new ArrayList<>();
+    private final List<OrderStatusChangedEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        orderRepository = mock(OrderRepository.class);
+        statusHistoryRepository = mock(OrderStatusHistoryRepository.class);
+        reservationRepository = mock(StockReservationRepository.class);
+        templateRepository = mock(ProductTemplateRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        inventoryService = new InventoryServiceImpl(templateRepository, reservationRepository, eventPublisher,
+                transactionTemplate, mock(HotStockStore.class), mock(JdbcTemplate.class), Duration.ofMinutes(20));
+        scheduler = new PendingOrderExpiryScheduler(orderRepository, statusHistoryRepository, eventPublisher,
+                mock(TaskScheduler.class), transactionTemplate, PAYMENT_WINDOW, 100);
+
+        // Listener hoàn kho chạy đồng bộ như trong cùng transaction
+        doAnswer(invocation -> {
+            Object event = invocation.getArgument(0);
+            if (event instanceof OrderStatusChangedEvent statusChanged) {
+                events.add(statusChanged);
+                inventoryService.onOrderStatusChanged(statusChanged);
+            }
+            return null;
+        }).when(eventPublisher).publishEvent(any(Object.class));
+
+        when(orderRepository.lockIdsByStatusCreatedBefore(eq("PENDING"), eq("VNPAY"), any(), anyInt()))
+                .thenAnswer(invocation -> {
+                    LocalDateTime cutoff = invocation.getArgument(2);
+                    return orders.stream()
+                            .filter(o -> o.getStatus() == OrderStatus.PENDING && o.getCreatedAt().isBefore(cutoff))
+                            .map(Order::getId)
+                            .toList();
+                });
+        when(orderRepository.findAllByIdInWithItems(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Long> ids = invocation.getArgument(0);
+                    return orders.stream().filter(o -> ids.contains(o.getId())).toList();
+                });
+        when(reservationRepository.lockByOrderIdAndStatusIn(anyLong(), anyCollection()))
+                .thenAnswer(invocation -> {
+                    Long orderId = invocation.getArgument(0);
+                    Collection<ReservationStatus> statuses = invocation.getArgument(1);
+                    return reservations.stream()
+                            .filter(r -> r.getOrder().getId().equals(orderId) && statuses.contains(r.getStatus()))
+                            .toList();
+                });
+        when(reservationRepository.findOrderIdsExpiredBefore(eq(ReservationStatus.RESERVED), any(), any()))
+                .thenAnswer(invocation -> {
+                    LocalDateTime now = invocation.getArgument(1);
+                    return reservations.stream()
+                            .filter(r -> r.getStatus() == ReservationStatus.RESERVED && r.getExpiresAt().isBefore(now))
+                            .map(r -> r.getOrder().getId())
+                            .distinct()
+                            .toList();
+                });
+        when(templateRepository.findProductIdsByIds(anyCollection())).thenReturn(List.of(1L));
+    }
+
+    @Test
+    void testExpiredOrderIsCancelledAndStockReleasedOnce() {
+        Order order = pendingOrder(100L, 45);
+        reserve(order, 3, 10);
+
+        scheduler.reload();
+
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        assertEquals(1, events.size());
+        assertEquals(OrderStatus.PENDING, events.get(0).getOldStatus());
+        assertEquals(OrderStatus.CANCELLED, events.get(0).getNewStatus());
+        verify(statusHistoryRepository).saveAll(argThat(history -> history.iterator().hasNext()));
+        verify(templateRepository).incrementStock(eq(TEMPLATE_ID), eq(3), any());
+        assertEquals(ReservationStatus.RELEASED, reservations.get(0).getStatus());
+
+        // Lần chạy sau (resync, node khác, wake-up trễ): đơn đã CANCELLED, không hủy/hoàn lại lần nữa
+        scheduler.reload();
+        scheduler.processDue();
+
+        assertEquals(1, events.size());
+        verify(statusHistoryRepository, times(1)).saveAll(any());
+        verify(templateRepository, times(1)).incrementStock(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testReservationExpiryThenOrderExpiryReleasesOnce() {
+        Order order = pendingOrder(100L, 45);
+        reserve(order, 3, -15);
+
+        // Hold hết hạn trước: job reservation hoàn kho
+        assertEquals(1, inventoryService.releaseExpiredReservations());
+        // Rồi job hủy đơn chạy: reservation đã RELEASED, không hoàn thêm
+        scheduler.reload();
+
+        assertEquals(OrderStatus.CANCELLED, order.getStatus());
+        assertEquals(1, events.size());
+        verify(templateRepository, times(1)).incrementStock(eq(TEMPLATE_ID), eq(3), any());
+
+        assertEquals(0, inventoryService.releaseExpiredReservations());
+        verify(templateRepository, times(1)).incrementStock(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testOrderExpiryThenReservationExpiryReleasesOnce() {
+        Order order = pendingOrder(100L, 45);
+        reserve(order, 2, -15);
+
+        scheduler.reload();
+        assertEquals(0, inventoryService.releaseExpiredReservations());
+
+        verify(templateRepository, times(1)).incrementStock(eq(TEMPLATE_ID), eq(2), any());
+    }
+
+    @Test
+    void testDuplicateCancelledEventDoesNotReleaseAgain() {
+        Order order = pendingOrder(100L, 45);
+        reserve(order, 3, 10);
+        scheduler.reload();
+
+        // Event CANCELLED -> CANCELLED (ví dụ admin lưu lại trạng thái) bị bỏ qua
+        inventoryService.onOrderStatusChanged(OrderStatusChangedEvent.of(order, OrderStatus.CANCELLED));
+
+        verify(templateRepository, times(1)).incrementStock(anyLong(), anyInt(), any());
+    }
+
+    @Test
+    void testOrderWithinPaymentWindowIsLeftAlone() {
+        Order order = pendingOrder(100L, 10);
+        reserve(order, 3, 10);
+
+        scheduler.reload();
+
+        assertEquals(OrderStatus.PENDING, order.getStatus());
+        assertTrue(events.isEmpty());
+        verify(statusHistoryRepository, never()).saveAll(any());
+        verify(templateRepository, never()).incrementStock(anyLong(), anyInt(), any());
+        assertEquals(ReservationStatus.RESERVED, reservations.get(0).getStatus());
+    }
+
+    private Order pendingOrder(Long id, int minutesAgo) {
+        Product product = Product.builder().id(1L).name("iPhone 15").build();
+        Order order = Order.builder()
+                .id(id)
+                .orderCode("ORD_" + id)
+                .status(OrderStatus.PENDING)
+                .createdAt(LocalDateTime.now().minusMinutes(minutesAgo))
+                .build();
+        order.setItems(List.of(OrderItem.builder().order(order).product(product).quantity(3).build()));
+        orders.add(order);
+        return order;
+    }
+
+    private void reserve(Order order, int quantity, int expiresInMinutes) {
+        reservations.add(StockReservation.builder()
+                .order(order)
+                .productTemplate(ProductTemplate.builder().id(TEMPLATE_ID).build())
+                .quantity(quantity)
+                .status(ReservationStatus.RESERVED)
+                .expiresAt(LocalDateTime.now().plusMinutes(expiresInMinutes))
+                .build());
+    }
+}
@@ -0,0 +1,132 @@
+package com.utephonehub.backend.service.impl.productview;
+
+import com.utephonehub.backend.entity.ProductCardProjection;
+import com.utephonehub.backend.repository.ProductCardProjectionRepository;
+import com.utephonehub.backend.service.impl.promotion.ActivePromotionSnapshot;
+import com.utephonehub.backend.service.impl.promotion.PromotionSnapshotManager;
+import com.utephonehub.backend.service.impl.promotion.PromotionTargetIndex;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit Test cho ProductCardQueryEngine (phân trang cursor)
+ * Chạy truy vấn thật trên H2 mode PostgreSQL (NULL đứng cuối khi ASC, đầu khi DESC như Postgres)
+ * Kiểm tra:
+ * - Đi hết các trang bằng nextCursor qua ranh giới sort key NULL: mỗi sản phẩm đúng một lần
+ * - Dòng có sort key NULL xếp như 0, ở cả chiều tăng và giảm
+ */
+class ProductCardQueryEngineTest {
+
+    private static SessionFactory sessionFactory;
+
+    private Session session;
+    private ProductCardQueryEngine engine;
+
+    @BeforeAll
+    static void setUpDatabase() {
+        sessionFactory = new Configuration()
+                .addAnnotatedClass(ProductCardProjection.class)
+                .setProperty("hibernate.connection.url",
+                        "jdbc:h2:mem:cards;MODE=PostgreSQL;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1")
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                .buildSessionFactory();
+    }
+
+    @AfterAll
+    static void tearDownDatabase() {
+        sessionFactory.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        session = sessionFactory.openSession();
+        session.beginTransaction();
+        // Dòng cũ / dữ liệu lỗi có thể không có giá hiển thị
+        session.createNativeMutationQuery(
+                "ALTER TABLE product_card_projections ALTER COLUMN display_price SET NULL").executeUpdate();
+        card(1L, "100");
+        card(2L, null);
+        card(3L, "300");
+        card(4L, null);
+        card(5L, "200");
+        card(6L, null);
+        card(7L, "50");
+        session.flush();
+
+        PromotionSnapshotManager snapshotManager = mock(PromotionSnapshotManager.class);
+        ActivePromotionSnapshot snapshot = mock(ActivePromotionSnapshot.class);
+        when(snapshot.getOrderPromotions()).thenReturn(List.of());
+        when(snapshotManager.current()).thenReturn(snapshot);
+        engine = new ProductCardQueryEngine(session, mock(ProductCardProjectionRepository.class),
+                snapshotManager, mock(PromotionTargetIndex.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        session.getTransaction().rollback();
+        session.close();
+    }
+
+    @Test
+    void testAscendingCursorPagesCrossNullKeys() {
+        for (int size = 1; size <= 4; size++) {
+            assertEquals(List.of(2L, 4L, 6L, 7L, 1L, 5L, 3L), pageThrough(true, size), "page size " + size);
+        }
+    }
+
+    @Test
+    void testDescendingCursorPagesCrossNullKeys() {
+        for (int size = 1; size <= 4; size++) {
+            assertEquals(List.of(3L, 5L, 1L, 7L, 6L, 4L, 2L), pageThrough(false, size), "page size " + size);
+        }
+    }
+
+    /**
+     * Follow nextCursor from the first page until the last one
+     */
+    private List<Long> pageThrough(boolean asc, int size) {
+        Specification<ProductCardProjection> all = (root, query, cb) -> cb.conjunction();
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        for (int pages = 0; pages < 20; pages++) {
+            ProductCardQueryEngine.Result result = engine.query(all, cursor,
+                    ProductCardQueryEngine.SortKey.PRICE, asc, 0, size);
+            result.getRows().forEach(row -> ids.add(row.getProductId()));
+            cursor = result.getNextCursor();
+            if (cursor == null) {
+                assertEquals(ids.size(), new HashSet<>(ids).size(), "a product was returned twice: " + ids);
+                return ids;
+            }
+        }
+        fail("pagination did not terminate: " + ids);
+        return ids;
+    }
+
+    private void card(Long productId, String displayPrice) {
+        ProductCardProjection projection = ProductCardProjection.builder()
+                .productId(productId)
+                .name("Product " + productId)
+                .displayPrice(displayPrice != null ? new BigDecimal(displayPrice) : null)
+                .productCreatedAt(LocalDateTime.now())
+                .cardJson("{}")
+                .build();
+        session.persist(projection);
+    }
+}